@@ -0,0 +1,314 @@
+package com.github.mygreen.supercsv.apt;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.CsvPostRead;
+import com.github.mygreen.supercsv.annotation.CsvPostWrite;
+import com.github.mygreen.supercsv.annotation.CsvPreRead;
+import com.github.mygreen.supercsv.annotation.CsvPreWrite;
+import com.github.mygreen.supercsv.builder.GeneratedBeanMetadata;
+import com.github.mygreen.supercsv.util.Utils;
+
+/**
+ * {@link CsvBean}を付与したクラスに対して、{@link GeneratedBeanMetadata}の実装クラスを生成するアノテーションプロセッサ。
+ * <p>生成したクラスは、{@link com.github.mygreen.supercsv.builder.BeanMappingFactory}が実行時に自動的に検出し、
+ *   フィールドやメソッドの検索、インスタンスの作成、プロパティへのアクセスに利用します。
+ *   <br>リフレクションによる走査が減るため、起動時間の短縮や、GraalVMのnative-imageでのリフレクションの設定を減らすことができます。
+ * </p>
+ * <p>任意の機能のため、自動では登録していません。
+ *   コンパイル時に、javacのオプション{@literal -processor}や、
+ *   maven-compiler-pluginの設定{@literal <annotationProcessors>}で、明示的に指定します。
+ * </p>
+ * <p>次のクラスは、生成したクラスから参照できないため、対象外とします。</p>
+ * <ul>
+ *   <li>privateなクラス、またはprivateなクラスの内部クラス。</li>
+ *   <li>staticではない内部クラス、ローカルクラス。</li>
+ *   <li>インタフェース、列挙型。</li>
+ * </ul>
+ * <p>{@link org.supercsv.cellprocessor.ift.CellProcessor}の組み立ては、
+ *   実行時の{@link com.github.mygreen.supercsv.builder.Configuration}に依存するため、従来通り実行時に行います。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+@SupportedAnnotationTypes("com.github.mygreen.supercsv.annotation.CsvBean")
+public class CsvBeanMetadataProcessor extends AbstractProcessor {
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        
+        for(TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(CsvBean.class))) {
+            if(!isSupported(type)) {
+                continue;
+            }
+            
+            try {
+                generate(type);
+                
+            } catch(IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        String.format("fail generate metadata class : %s", e.getMessage()), type);
+            }
+        }
+        
+        // 他のプロセッサでも処理できるよう、アノテーションを要求しない
+        return false;
+    }
+    
+    /**
+     * 生成したクラスから参照できるか判定します。
+     * @param type 判定対象のクラス
+     * @return {@literal true}の場合、生成対象とする。
+     */
+    private boolean isSupported(final TypeElement type) {
+        
+        if(type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        
+        Element element = type;
+        while(element instanceof TypeElement) {
+            final TypeElement current = (TypeElement) element;
+            if(current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            
+            final NestingKind nestingKind = current.getNestingKind();
+            if(nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            
+            if(nestingKind == NestingKind.MEMBER && !current.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            
+            element = current.getEnclosingElement();
+        }
+        
+        return true;
+    }
+    
+    private void generate(final TypeElement type) throws IOException {
+        
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        
+        // 内部クラスの場合も、パッケージ直下のクラスとして生成する
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + GeneratedBeanMetadata.CLASS_NAME_SUFFIX;
+                
+        final String beanName = type.getQualifiedName().toString();
+        
+        final StringBuilder source = new StringBuilder();
+        if(!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        
+        source.append("/**\n")
+            .append(" * {@link ").append(beanName).append("}のメタ情報。\n")
+            .append(" * <p>{@link ").append(CsvBeanMetadataProcessor.class.getName()).append("}により生成されたクラスです。</p>\n")
+            .append(" */\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(className)
+            .append(" extends ").append(GeneratedBeanMetadata.class.getName()).append("<").append(beanName).append("> {\n\n")
+            .append("    public ").append(className).append("() {\n")
+            .append("        super(").append(beanName).append(".class);\n");
+            
+        if(hasDefaultConstructor(type)) {
+            source.append("        instantiator(() -> new ").append(beanName).append("());\n");
+        }
+        
+        final List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        for(VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if(field.getAnnotation(CsvColumn.class) == null) {
+                continue;
+            }
+            
+            final String fieldName = field.getSimpleName().toString();
+            final ExecutableElement setter = findSetter(methods, fieldName, field.asType());
+            final ExecutableElement getter = findGetter(methods, fieldName, field.asType());
+            
+            source.append("        column(\"").append(fieldName).append("\", ");
+            if(setter != null) {
+                source.append("(bean, value) -> bean.").append(setter.getSimpleName())
+                    .append("((").append(toCastType(field.asType())).append(") value)");
+            } else {
+                source.append("null");
+            }
+            
+            source.append(", ");
+            if(getter != null) {
+                source.append("bean -> bean.").append(getter.getSimpleName()).append("()");
+            } else {
+                source.append("null");
+            }
+            source.append(");\n");
+        }
+        
+        for(ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if(!isCallbackMethod(method)) {
+                continue;
+            }
+            
+            source.append("        callback(\"").append(method.getSimpleName()).append("\"");
+            for(VariableElement param : method.getParameters()) {
+                source.append(", ").append(toClassLiteral(param.asType())).append(".class");
+            }
+            source.append(");\n");
+        }
+        
+        source.append("    }\n\n")
+            .append("}\n");
+            
+        final String sourceName = packageName.isEmpty() ? className : packageName + "." + className;
+        final JavaFileObject file = processingEnv.getFiler().createSourceFile(sourceName, type);
+        try(Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+        
+    }
+    
+    /**
+     * 生成したクラスから呼び出せる、引数なしのコンストラクタを持つか判定します。
+     */
+    private boolean hasDefaultConstructor(final TypeElement type) {
+        
+        if(type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        
+        for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if(constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * フィールドのタイプを引数に持つ、publicなsetterメソッドを検索します。
+     * <p>{@link com.github.mygreen.supercsv.io.BeanPropertyBinder}と同じ条件で検索します。</p>
+     * @return 見つからない場合はnullを返します。
+     */
+    private ExecutableElement findSetter(final List<ExecutableElement> methods, final String fieldName, final TypeMirror fieldType) {
+        
+        final String methodName = "set" + Utils.capitalize(fieldName);
+        for(ExecutableElement method : methods) {
+            if(!isPublicInstanceMethod(method) || !method.getSimpleName().contentEquals(methodName)
+                    || method.getParameters().size() != 1) {
+                continue;
+            }
+            
+            if(isSameErasure(method.getParameters().get(0).asType(), fieldType)) {
+                return method;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * フィールドのタイプを戻り値に持つ、publicなgetterメソッドを検索します。
+     * <p>{@link com.github.mygreen.supercsv.io.BeanPropertyBinder}と同じ条件で検索します。</p>
+     * @return 見つからない場合はnullを返します。
+     */
+    private ExecutableElement findGetter(final List<ExecutableElement> methods, final String fieldName, final TypeMirror fieldType) {
+        
+        final List<String> methodNames = new ArrayList<>();
+        methodNames.add("get" + Utils.capitalize(fieldName));
+        if(fieldType.getKind() == TypeKind.BOOLEAN || isSameErasure(fieldType, getType(Boolean.class))) {
+            methodNames.add("is" + Utils.capitalize(fieldName));
+        }
+        
+        for(String methodName : methodNames) {
+            for(ExecutableElement method : methods) {
+                if(!isPublicInstanceMethod(method) || !method.getSimpleName().contentEquals(methodName)
+                        || !method.getParameters().isEmpty()) {
+                    continue;
+                }
+                
+                if(isSameErasure(method.getReturnType(), fieldType)) {
+                    return method;
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    private boolean isCallbackMethod(final ExecutableElement method) {
+        return method.getAnnotation(CsvPreRead.class) != null
+                || method.getAnnotation(CsvPostRead.class) != null
+                || method.getAnnotation(CsvPreWrite.class) != null
+                || method.getAnnotation(CsvPostWrite.class) != null;
+    }
+    
+    private boolean isPublicInstanceMethod(final ExecutableElement method) {
+        final Set<Modifier> modifiers = method.getModifiers();
+        return modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC);
+    }
+    
+    private boolean isSameErasure(final TypeMirror type1, final TypeMirror type2) {
+        return processingEnv.getTypeUtils().isSameType(
+                processingEnv.getTypeUtils().erasure(type1), processingEnv.getTypeUtils().erasure(type2));
+    }
+    
+    private TypeMirror getType(final Class<?> clazz) {
+        return processingEnv.getElementUtils().getTypeElement(clazz.getName()).asType();
+    }
+    
+    /**
+     * setterメソッドの引数に渡す際のキャスト先のタイプを取得します。
+     * プリミティブ型の場合は、ラッパークラスにキャストしてアンボクシングさせます。
+     */
+    private String toCastType(final TypeMirror type) {
+        
+        if(type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind()))
+                    .getQualifiedName().toString();
+        }
+        
+        return toClassLiteral(type);
+    }
+    
+    /**
+     * クラスリテラルとして記述できる、型引数を除いたタイプの名称を取得します。
+     */
+    private String toClassLiteral(final TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+    
+}
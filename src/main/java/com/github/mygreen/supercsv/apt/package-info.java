@@ -0,0 +1,8 @@
+/**
+ * コンパイル時にCSVのマッピング情報を生成する、アノテーションプロセッサを提供します。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+package com.github.mygreen.supercsv.apt;
@@ -28,10 +28,12 @@ import com.github.mygreen.supercsv.annotation.conversion.CsvTrim;
 import com.github.mygreen.supercsv.annotation.conversion.CsvUpper;
 import com.github.mygreen.supercsv.annotation.conversion.CsvWordReplace;
 import com.github.mygreen.supercsv.annotation.format.CsvFormat;
+import com.github.mygreen.supercsv.cellprocessor.CellProcessorCompiler;
 import com.github.mygreen.supercsv.cellprocessor.ConstraintProcessorFactory;
 import com.github.mygreen.supercsv.cellprocessor.ConstraintProcessorHandler;
 import com.github.mygreen.supercsv.cellprocessor.ConversionProcessorFactory;
 import com.github.mygreen.supercsv.cellprocessor.ConversionProcessorHandler;
+import com.github.mygreen.supercsv.cellprocessor.FusedCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ProcessorFactory;
 import com.github.mygreen.supercsv.cellprocessor.constraint.EqualsFactory;
 import com.github.mygreen.supercsv.cellprocessor.constraint.RequireFactory;
@@ -53,13 +55,18 @@ import com.github.mygreen.supercsv.cellprocessor.conversion.WordReplaceFactory;
 import com.github.mygreen.supercsv.cellprocessor.format.ParseProcessorFactory;
 import com.github.mygreen.supercsv.cellprocessor.format.PrintProcessorFactory;
 import com.github.mygreen.supercsv.cellprocessor.format.TextFormatter;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
 
 /**
  * アノテーションによる{@link CellProcessor}を組み立てるベースとなるクラス。
  * <p>共通の{@link CellProcessor}などを追加する処理を定義します。
+ * <p>組み立てる過程で、連続する{@link com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor}は、
+ *   {@link CellProcessorUtils#fuse(CellProcessor)}により1つの{@link CellProcessor}にまとめます。
+ *   <br>{@link Configuration#isCompileProcessors()}が{@literal true}の場合は、まとめた処理を
+ *   {@link CellProcessorCompiler}により専用のクラスに変換します。変換は、それ以上まとめられないことが確定した時点で、1度だけ行います。
  *
  * @param <T> 処理対象のクラスタイプ。
- * @version 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -144,10 +151,10 @@ public abstract class AbstractProcessorBuilder<T> implements ProcessorBuilder<T>
 
         Optional<CellProcessor> processor = Optional.empty();
         for(ProcessorFactory factory : factories) {
-            processor = factory.create(processor, field, formatter, config, BuildCase.Read, groups);
+            processor = create(factory, processor, field, formatter, config, BuildCase.Read, groups);
         }
 
-        return processor;
+        return compile(processor, config);
 
     }
 
@@ -170,7 +177,72 @@ public abstract class AbstractProcessorBuilder<T> implements ProcessorBuilder<T>
                 continue;
             }
 
-            processor = factory.create(processor, field, formatter, config, BuildCase.Write, groups);
+            processor = create(factory, processor, field, formatter, config, BuildCase.Write, groups);
+        }
+
+        return compile(processor, config);
+    }
+
+    /**
+     * 処理を作成してChainの先頭に追加し、追加された処理をまとめる。
+     * <p>{@link Configuration#isCompileProcessors()}が{@literal true}の場合、元の先頭のまとめた処理が、
+     *   追加された処理とまとめられずにChainの途中に残るときは、その処理を専用のクラスに変換してから作成し直す。
+     *   <br>まとめた処理は、これ以上まとめられないことが確定した時点で1度だけ変換するため、
+     *   組み立てる途中の処理の組み合わせごとに、クラスを生成することはない。
+     * </p>
+     * @param factory 処理を作成するクラス。
+     * @param next 現在のChainの先頭。
+     * @param field フィールド情報
+     * @param formatter フィールドのフォーマッタ
+     * @param config システム設定
+     * @param buildCase 組み立てる対象の処理
+     * @param groups グループ情報
+     * @return 追加した結果のChainの先頭。
+     */
+    private Optional<CellProcessor> create(final ProcessorFactory factory, final Optional<CellProcessor> next,
+            final FieldAccessor field, final TextFormatter<T> formatter, final Configuration config,
+            final BuildCase buildCase, final Class<?>[] groups) {
+
+        final Optional<CellProcessor> processor = factory.create(next, field, formatter, config, buildCase, groups)
+                .map(CellProcessorUtils::fuse);
+
+        if(config.isCompileProcessors() && isBuried(processor, next)) {
+            return factory.create(next.map(CellProcessorCompiler::compile), field, formatter, config, buildCase, groups)
+                    .map(CellProcessorUtils::fuse);
+        }
+
+        return processor;
+    }
+
+    /**
+     * 元の先頭のまとめた処理が、Chainの途中に残ったか判定する。
+     * @param processor 処理を追加した後のChainの先頭。
+     * @param previous 処理を追加する前のChainの先頭。
+     * @return {@literal true}の場合、変換していないまとめた処理が、先頭以外に残っている。
+     */
+    private static boolean isBuried(final Optional<CellProcessor> processor, final Optional<CellProcessor> previous) {
+
+        if(!previous.isPresent() || previous.get().getClass() != FusedCellProcessor.class) {
+            return false;
+        }
+
+        final CellProcessor fused = previous.get();
+        return processor
+                .filter(head -> head != fused)
+                .map(head -> CellProcessorUtils.anyMatch(head, p -> p == fused))
+                .orElse(false);
+    }
+
+    /**
+     * 組み立て終えたChainの先頭の、まとめた処理を専用のクラスに変換する。
+     * @param processor Chainの先頭。
+     * @param config システム設定
+     * @return 変換した結果のChainの先頭。
+     */
+    private Optional<CellProcessor> compile(final Optional<CellProcessor> processor, final Configuration config) {
+
+        if(config.isCompileProcessors()) {
+            return processor.map(CellProcessorCompiler::compile);
         }
 
         return processor;
@@ -10,8 +10,11 @@ import com.github.mygreen.supercsv.util.Utils;
  * 入力値検証を行うアノテーションの順番に並び変えます。
  * <p>並び順は、アノテーションの属性「order」の定義に従います。</p>
  * <p>属性「order」の値が同じ場合は、クラス名の昇順になります。</p>
+ * <p>状態を持たないため、このクラスのインスタンスは全て等しいとみなします。
+ *    アノテーションの展開結果をキャッシュする際に、並び順が同じかどうかの判定に利用します。</p>
  *
  * @since 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -38,4 +41,14 @@ public class AnnotationComparator implements Comparator<Annotation> {
         }
     }
     
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+    
+    @Override
+    public boolean equals(final Object obj) {
+        return obj != null && obj.getClass().equals(getClass());
+    }
+    
 }
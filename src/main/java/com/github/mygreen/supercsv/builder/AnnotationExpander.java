@@ -2,6 +2,7 @@ package com.github.mygreen.supercsv.builder;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -17,7 +18,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.supercsv.exception.SuperCsvReflectionException;
 
@@ -40,13 +41,31 @@ import com.github.mygreen.supercsv.util.Utils;
  * <p>合成のアノテーション{@link CsvComposition}が付与されたアノテーションの場合、
  *    付与されているアノテーションに分解する。
  *    その際に、定義されている属性を元に、付与されているアノテーションの属性を上書きする。</p>
+ * 
+ * <p>アノテーションのクラスタイプごとの情報と、合成のアノテーションのメタアノテーションの展開結果、
+ *    フィールドごとの展開結果はキャッシュし、同じアノテーションを何度も解析しないようにする。</p>
  *
  * @since 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
 public class AnnotationExpander {
     
+    /**
+     * フィールドを定義したクラスごとの、フィールドのアノテーションの展開結果。
+     */
+    private static final ClassValue<ConcurrentHashMap<FieldKey, List<ExpandedAnnotation>>> FIELD_CACHE =
+            new ClassValue<ConcurrentHashMap<FieldKey, List<ExpandedAnnotation>>>() {
+        
+        @Override
+        protected ConcurrentHashMap<FieldKey, List<ExpandedAnnotation>> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    
+    private final Comparator<Annotation> annotationComparator;
+    
     private final Comparator<ExpandedAnnotation> comparator;
     
     /**
@@ -58,6 +77,7 @@ public class AnnotationExpander {
     public AnnotationExpander(final Comparator<Annotation> annotationComparator) {
         Objects.requireNonNull(annotationComparator);
         
+        this.annotationComparator = annotationComparator;
         this.comparator = new Comparator<ExpandedAnnotation>() {
             
             @Override
@@ -88,6 +108,32 @@ public class AnnotationExpander {
         
     }
     
+    /**
+     * フィールドに付与されているアノテーションを展開する。
+     * <p>展開結果はフィールドと並び順ごとにキャッシュし、2回目以降はキャッシュした結果を返す。</p>
+     * 
+     * @since 2.2
+     * @param field 展開対象のフィールド
+     * @return 展開されたアノテーション。変更できない。
+     * @throws NullPointerException {@literal field == null.}
+     */
+    public List<ExpandedAnnotation> expand(final Field field) {
+        Objects.requireNonNull(field);
+        
+        final ConcurrentHashMap<FieldKey, List<ExpandedAnnotation>> cache = FIELD_CACHE.get(field.getDeclaringClass());
+        final FieldKey key = new FieldKey(field.getName(), annotationComparator);
+        
+        final List<ExpandedAnnotation> cached = cache.get(key);
+        if(cached != null) {
+            return cached;
+        }
+        
+        final List<ExpandedAnnotation> expanded = Collections.unmodifiableList(expand(field.getAnnotations()));
+        final List<ExpandedAnnotation> existing = cache.putIfAbsent(key, expanded);
+        return existing != null ? existing : expanded;
+        
+    }
+    
     /**
      * アノテーションを展開する。
      * @param targetAnno 展開対象のアノテーション
@@ -102,8 +148,7 @@ public class AnnotationExpander {
         if(isRepeated(targetAnno)) {
             // 繰り返しのアノテーションの場合、要素を抽出する。
             try {
-                final Method method = targetAnno.getClass().getMethod("value");
-                final Annotation[] annos = (Annotation[]) method.invoke(targetAnno);
+                final Annotation[] annos = AnnotationTypeMetadata.of(targetAnno.annotationType()).getRepeatedValues(targetAnno);
                 
                 int index = 0;
                 for(Annotation anno : annos) {
@@ -124,17 +169,17 @@ public class AnnotationExpander {
             final ExpandedAnnotation composedAnno = new ExpandedAnnotation(targetAnno, true);
             
             // 合成のアノテーションの場合、メタアノテーションを子供としてさらに抽出する。
-            final List<Annotation> childAnnos = Arrays.asList(targetAnno.annotationType().getAnnotations());
-            for(Annotation anno : childAnnos) {
-                
-                final List<ExpandedAnnotation> nestedAnnos = expand(anno).stream()
-                        .map(nestedAnno -> overrideAttribute(targetAnno, nestedAnno))
-                        .collect(Collectors.toList());
-                
-                composedAnno.addChilds(nestedAnnos);
-                
+            // メタアノテーションの展開結果はクラスタイプごとに共通なため、属性の上書きのみを行う。
+            final List<ExpandedAnnotation> childAnnos = AnnotationTypeMetadata.of(targetAnno.annotationType())
+                    .getExpandedMetaAnnotations(annotationComparator, () -> expandMetaAnnotations(targetAnno.annotationType()));
+            
+            final List<ExpandedAnnotation> nestedAnnos = new ArrayList<>(childAnnos.size());
+            for(ExpandedAnnotation nestedAnno : childAnnos) {
+                nestedAnnos.add(overrideAttribute(targetAnno, nestedAnno));
             }
             
+            composedAnno.addChilds(nestedAnnos);
+            
             Collections.sort(composedAnno.getChilds(), comparator);
             expandedList.add(composedAnno);
             
@@ -149,6 +194,21 @@ public class AnnotationExpander {
         
     }
     
+    /**
+     * 合成のアノテーションに付与されているメタアノテーションを展開する。
+     * @param annotationType 合成のアノテーションのクラスタイプ
+     * @return 展開されたメタアノテーション。属性の上書きは行わない。
+     */
+    private List<ExpandedAnnotation> expandMetaAnnotations(final Class<? extends Annotation> annotationType) {
+        
+        final List<ExpandedAnnotation> expandedList = new ArrayList<>();
+        for(Annotation anno : annotationType.getAnnotations()) {
+            expandedList.addAll(expand(anno));
+        }
+        
+        return expandedList;
+    }
+    
     /**
      * 繰り返されたアノテーションかどうか判定する。
      * <p>属性「value」に、繰り返しのアノテーション{@link Repeatable}が付与されている
@@ -158,31 +218,18 @@ public class AnnotationExpander {
      */
     private boolean isRepeated(final Annotation targetAnno) {
         
+        final AnnotationTypeMetadata metadata = AnnotationTypeMetadata.of(targetAnno.annotationType());
+        if(!metadata.isRepeatedContainer()) {
+            return false;
+        }
+        
         try {
-            final Method method = targetAnno.getClass().getMethod("value");
-            
-            // 値のクラスタイプがアノテーションの配列かどうかのチェック
-            final Class<?> returnType = method.getReturnType();
-            if(!(returnType.isArray() && Annotation.class.isAssignableFrom(returnType.getComponentType()))) {
-                return false;
-            }
-            
-            final Annotation[] annos = (Annotation[]) method.invoke(targetAnno);
-            if(annos.length == 0) {
-                return false;
-            }
-            
-            // @Repetableアノテーションが付与されているかどうか
-            if(annos[0].annotationType().getAnnotation(Repeatable.class) != null) {
-                return true;
-            }
+            return metadata.getRepeatedValues(targetAnno).length > 0;
             
         } catch (Exception e) {
-            
+            return false;
         }
         
-        return false;
-        
     }
     
     /**
@@ -193,7 +240,7 @@ public class AnnotationExpander {
      */
     private boolean isComposed(final Annotation targetAnno) {
         
-        return targetAnno.annotationType().getAnnotation(CsvComposition.class) != null;
+        return AnnotationTypeMetadata.of(targetAnno.annotationType()).isComposed();
         
     }
     
@@ -281,20 +328,7 @@ public class AnnotationExpander {
      */
     private boolean isOverridableAnnotation(final Annotation targetAnno) {
         
-        final Class<?> annoType = targetAnno.annotationType();
-        if(annoType.getAnnotation(CsvConstraint.class) != null) {
-            return true;
-        }
-        
-        if(annoType.getAnnotation(CsvConversion.class) != null) {
-            return true;
-        }
-        
-        if(annoType.getTypeName().startsWith("com.github.mygreen.supercsv.annotation.format")) {
-            return true;
-        }
-        
-        return false;
+        return AnnotationTypeMetadata.of(targetAnno.annotationType()).isOverridable();
         
     }
     
@@ -413,4 +447,40 @@ public class AnnotationExpander {
         return overrideAttrs;
     }
     
+    /**
+     * フィールドの展開結果のキャッシュのキー。
+     * <p>並び順が異なる場合は、展開結果も異なるため、キーに含める。</p>
+     */
+    private static final class FieldKey {
+        
+        private final String fieldName;
+        
+        private final Comparator<Annotation> comparator;
+        
+        FieldKey(final String fieldName, final Comparator<Annotation> comparator) {
+            this.fieldName = fieldName;
+            this.comparator = comparator;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(fieldName, comparator);
+        }
+        
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            
+            if(!(obj instanceof FieldKey)) {
+                return false;
+            }
+            
+            final FieldKey other = (FieldKey) obj;
+            return fieldName.equals(other.fieldName) && comparator.equals(other.comparator);
+        }
+        
+    }
+    
 }
@@ -0,0 +1,214 @@
+package com.github.mygreen.supercsv.builder;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Repeatable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.github.mygreen.supercsv.annotation.CsvComposition;
+import com.github.mygreen.supercsv.annotation.constraint.CsvConstraint;
+import com.github.mygreen.supercsv.annotation.conversion.CsvConversion;
+
+/**
+ * アノテーションのクラスタイプごとに、展開やグループの判定に必要な情報を保持するクラス。
+ * <p>メタアノテーションの有無や、属性のメソッドの検索結果は、クラスタイプが同じであれば変わらないため、
+ *   {@link ClassValue}によりクラスタイプごとに1度だけ作成し、再利用します。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+final class AnnotationTypeMetadata {
+    
+    private static final ClassValue<AnnotationTypeMetadata> CACHE = new ClassValue<AnnotationTypeMetadata>() {
+        
+        @Override
+        protected AnnotationTypeMetadata computeValue(final Class<?> type) {
+            return new AnnotationTypeMetadata(type);
+        }
+    };
+    
+    /**
+     * 合成のアノテーションかどうか。
+     */
+    private final boolean composed;
+    
+    /**
+     * 繰り返しのアノテーションをまとめたアノテーションの場合の、属性「value」のメソッド。該当しない場合はnull。
+     */
+    private final Method repeatedValueMethod;
+    
+    /**
+     * 合成のアノテーションの属性で上書き可能かどうか。
+     */
+    private final boolean overridable;
+    
+    /**
+     * 属性「groups」のメソッド。属性を持たない場合はnull。
+     */
+    private final Method groupsMethod;
+    
+    /**
+     * 合成のアノテーションの場合の、並び順ごとの展開したメタアノテーション。
+     */
+    private final ConcurrentHashMap<Comparator<Annotation>, List<ExpandedAnnotation>> expandedMetaAnnotations = new ConcurrentHashMap<>();
+    
+    private AnnotationTypeMetadata(final Class<?> annotationType) {
+        
+        this.composed = annotationType.getAnnotation(CsvComposition.class) != null;
+        this.repeatedValueMethod = findRepeatedValueMethod(annotationType);
+        this.overridable = annotationType.getAnnotation(CsvConstraint.class) != null
+                || annotationType.getAnnotation(CsvConversion.class) != null
+                || annotationType.getTypeName().startsWith("com.github.mygreen.supercsv.annotation.format");
+        this.groupsMethod = findAttributeMethod(annotationType, "groups", Class[].class);
+        
+    }
+    
+    /**
+     * アノテーションのクラスタイプに対する情報を取得します。
+     * @param annotationType アノテーションのクラスタイプ。
+     * @return 作成済みの場合は、キャッシュした情報を返します。
+     */
+    static AnnotationTypeMetadata of(final Class<? extends Annotation> annotationType) {
+        return CACHE.get(annotationType);
+    }
+    
+    private static Method findRepeatedValueMethod(final Class<?> annotationType) {
+        
+        final Method method = findAttributeMethod(annotationType, "value", null);
+        if(method == null) {
+            return null;
+        }
+        
+        // 値のクラスタイプが、繰り返し可能なアノテーションの配列かどうかのチェック
+        final Class<?> returnType = method.getReturnType();
+        if(!(returnType.isArray() && Annotation.class.isAssignableFrom(returnType.getComponentType()))) {
+            return null;
+        }
+        
+        if(returnType.getComponentType().getAnnotation(Repeatable.class) == null) {
+            return null;
+        }
+        
+        return method;
+    }
+    
+    /**
+     * 属性のメソッドを検索します。
+     * @param attrType 属性のタイプ。nullの場合はタイプを判定しません。
+     * @return 見つからない場合はnullを返します。
+     */
+    private static Method findAttributeMethod(final Class<?> annotationType, final String attrName, final Class<?> attrType) {
+        
+        try {
+            final Method method = annotationType.getMethod(attrName);
+            if(attrType != null && !attrType.equals(method.getReturnType())) {
+                return null;
+            }
+            
+            method.setAccessible(true);
+            return method;
+            
+        } catch(NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+        
+    }
+    
+    /**
+     * {@link CsvComposition}が付与された、合成のアノテーションかどうか。
+     * @return {@literal true}の場合、合成のアノテーション。
+     */
+    boolean isComposed() {
+        return composed;
+    }
+    
+    /**
+     * 属性「value」に、繰り返し可能なアノテーションの配列を持つかどうか。
+     * @return {@literal true}の場合、繰り返しのアノテーションをまとめたアノテーション。
+     */
+    boolean isRepeatedContainer() {
+        return repeatedValueMethod != null;
+    }
+    
+    /**
+     * 繰り返しのアノテーションの要素を取得します。
+     * @param anno 繰り返しのアノテーションをまとめたアノテーション。
+     * @return 要素のアノテーション。
+     * @throws IllegalStateException 繰り返しのアノテーションをまとめたアノテーションではない場合。
+     * @throws ReflectiveOperationException 属性の値の取得に失敗した場合。
+     */
+    Annotation[] getRepeatedValues(final Annotation anno) throws ReflectiveOperationException {
+        if(repeatedValueMethod == null) {
+            throw new IllegalStateException("not repeated annotation : " + anno.annotationType().getName());
+        }
+        
+        return (Annotation[]) repeatedValueMethod.invoke(anno);
+    }
+    
+    /**
+     * 合成のアノテーションの属性で、上書き可能なアノテーションかどうか。
+     * @return {@literal true}の場合、上書き可能。
+     */
+    boolean isOverridable() {
+        return overridable;
+    }
+    
+    /**
+     * 属性「groups」の値を取得します。
+     * @param anno 取得対象のアノテーション。
+     * @return 属性を持たない場合は空を返します。属性値の指定がない場合は、空の集合を返します。
+     */
+    Optional<Set<Class<?>>> getGroups(final Annotation anno) {
+        
+        if(groupsMethod == null) {
+            return Optional.empty();
+        }
+        
+        try {
+            final Class<?>[] groups = (Class<?>[]) groupsMethod.invoke(anno);
+            if(groups == null || groups.length == 0) {
+                return Optional.of(Collections.emptySet());
+            }
+            
+            return Optional.of(Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(groups))));
+            
+        } catch(ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+        
+    }
+    
+    /**
+     * 合成のアノテーションに付与されたメタアノテーションを展開した結果を取得します。
+     * <p>展開結果は並び順ごとに保持し、2回目以降はキャッシュした結果を返します。
+     *   <br>合成のアノテーションの属性による上書きは、インスタンスごとに異なるため、呼び出し元で行います。
+     * </p>
+     * @param comparator アノテーションの並び順。
+     * @param expander 初回に展開する処理。
+     * @return 展開したメタアノテーション。変更してはいけません。
+     */
+    List<ExpandedAnnotation> getExpandedMetaAnnotations(final Comparator<Annotation> comparator,
+            final Supplier<List<ExpandedAnnotation>> expander) {
+                
+        final List<ExpandedAnnotation> cached = expandedMetaAnnotations.get(comparator);
+        if(cached != null) {
+            return cached;
+        }
+        
+        // 展開中に入れ子の合成のアノテーションの情報も作成するため、ロックを保持したまま展開しないよう、computeIfAbsentは使用しない
+        final List<ExpandedAnnotation> expanded = Collections.unmodifiableList(expander.get());
+        final List<ExpandedAnnotation> existing = expandedMetaAnnotations.putIfAbsent(comparator, expanded);
+        return existing != null ? existing : expanded;
+    }
+    
+}
@@ -1,6 +1,7 @@
 package com.github.mygreen.supercsv.builder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,9 +11,12 @@ import com.github.mygreen.supercsv.validation.CsvValidator;
 
 /**
  * 解析したBeanのマッピング情報です。
+ * <p>{@link #freeze()}を呼び出すと変更不可になり、複数のReader/Writerで安全に共有できます。
+ *   <br>変更不可のマッピング情報を変更する場合は、{@link #copy()}で複製したものを変更します。
+ * </p>
  *
  * @param <T> Beanのクラスタイプ
- * @version 2.1
+ * @version 2.2
  * @author T.TSUCHIE
  * 
  */
@@ -46,16 +50,59 @@ public class BeanMapping<T> {
     
     private Configuration configuration;
     
+    /**
+     * アノテーションプロセッサにより生成されたメタ情報。生成されていない場合はnull。
+     */
+    private GeneratedBeanMetadata<T> generatedMetadata;
+    
+    /**
+     * 検索用に組み立てたカラム情報。
+     * <p>カラム情報を変更した場合は、破棄する。</p>
+     */
+    private volatile CompiledBeanMapping<T> compiled;
+    
+    /**
+     * 変更不可かどうか。
+     */
+    private volatile boolean frozen;
+    
     public BeanMapping(final Class<T> type) {
         this.type = type;
     }
     
+    /**
+     * カラム情報を検索用に組み立てます。
+     * <p>組み立てた情報は保持し、カラム情報を設定し直すまで再利用します。
+     *    {@link #getColumns()}で取得した{@link ColumnMapping}を直接変更した場合は、
+     *    {@link #setColumns(List)}で設定し直す必要があります。
+     * </p>
+     * @since 2.2
+     * @return 列番号とフィールド名の索引、ヘッダーなどを事前に作成した、不変の情報。
+     */
+    public CompiledBeanMapping<T> compile() {
+        
+        CompiledBeanMapping<T> result = compiled;
+        if(result == null) {
+            result = new CompiledBeanMapping<>(this);
+            this.compiled = result;
+        }
+        
+        return result;
+    }
+    
     /**
      * 指定した列番号を持つカラムのマッピング情報を取得する。
+     * <p>{@link #compile()}で組み立てている場合は、索引から取得します。</p>
      * @param columnNumber 列番号。1から始まる。
      * @return 引数で指定した位置情報の値と一致するカラム情報。
      */
     public Optional<ColumnMapping> getColumnMapping(final int columnNumber) {
+        
+        final CompiledBeanMapping<T> result = compiled;
+        if(result != null) {
+            return result.getColumnMapping(columnNumber);
+        }
+        
         return columns.stream()
                 .filter(c -> c.getNumber() == columnNumber)
                 .findFirst();
@@ -63,10 +110,17 @@ public class BeanMapping<T> {
     
     /**
      * 指定したカラム名を持つカラムのマッピング情報を取得する。
+     * <p>{@link #compile()}で組み立てている場合は、索引から取得します。</p>
      * @param columnName カラム名（フィールド名）を指定します。
      * @return 引数で指定したカラム名の値と一致するカラム情報。
      */
     public Optional<ColumnMapping> getColumnMapping(final String columnName) {
+        
+        final CompiledBeanMapping<T> result = compiled;
+        if(result != null) {
+            return result.getColumnMapping(columnName);
+        }
+        
         return columns.stream()
                 .filter(c -> c.getName() != null && c.getName().equals(columnName))
                 .findFirst();
@@ -78,10 +132,14 @@ public class BeanMapping<T> {
      */
     public String[] getHeader() {
         
+        final CompiledBeanMapping<T> result = compiled;
+        if(result != null) {
+            return result.getHeader().clone();
+        }
+        
         return columns.stream()
             .map(c -> headerMapper.toMap(c, configuration, groups))
             .toArray(n -> new String[n]);
-        
     }
     
     /**
@@ -91,6 +149,11 @@ public class BeanMapping<T> {
      */
     public String[] getNameMapping() {
         
+        final CompiledBeanMapping<T> result = compiled;
+        if(result != null) {
+            return result.getNameMapping().clone();
+        }
+        
         return columns.stream()
                 .map(c -> c.getName())
                 .toArray(n -> new String[n]);
@@ -102,6 +165,11 @@ public class BeanMapping<T> {
      */
     public CellProcessor[] getCellProcessorsForReading() {
         
+        final CompiledBeanMapping<T> result = compiled;
+        if(result != null) {
+            return result.getCellProcessorsForReading().clone();
+        }
+        
         return columns.stream()
                 .map(c -> c.getCellProcessorForReading())
                 .toArray(n -> new CellProcessor[n]);
@@ -113,6 +181,11 @@ public class BeanMapping<T> {
      */
     public CellProcessor[] getCellProcessorsForWriting() {
         
+        final CompiledBeanMapping<T> result = compiled;
+        if(result != null) {
+            return result.getCellProcessorsForWriting().clone();
+        }
+        
         return columns.stream()
                 .map(c -> c.getCellProcessorForWriting())
                 .toArray(n -> new CellProcessor[n]);
@@ -139,6 +212,7 @@ public class BeanMapping<T> {
      * @param header trueの場合、ヘッダーが存在するとして処理を行う。
      */
     public void setHeader(boolean header) {
+        checkNotFrozen();
         this.header = header;
     }
     
@@ -147,6 +221,7 @@ public class BeanMapping<T> {
     }
     
     public void setValidateHeader(boolean validateHeader) {
+        checkNotFrozen();
         this.validateHeader = validateHeader;
     }
     
@@ -155,6 +230,7 @@ public class BeanMapping<T> {
     }
     
     public void addAllValidators(List<CsvValidator<T>> validators) {
+        checkNotFrozen();
         this.validators.addAll(validators);
     }
     
@@ -163,6 +239,7 @@ public class BeanMapping<T> {
     }
     
     public void addAllListeners(List<Object> listeners) {
+        checkNotFrozen();
         this.listeners.addAll(listeners);
     }
     
@@ -171,11 +248,15 @@ public class BeanMapping<T> {
     }
     
     public void setColumns(List<ColumnMapping> columns) {
-        this.columns = columns;;
+        checkNotFrozen();
+        this.columns = columns;
+        this.compiled = null;
     }
     
     public void addAllColumns(List<ColumnMapping> columns) {
+        checkNotFrozen();
         this.columns.addAll(columns);
+        this.compiled = null;
     }
     
     public List<CallbackMethod> getPreReadMethods() {
@@ -183,6 +264,7 @@ public class BeanMapping<T> {
     }
     
     public void addPreReadMethod(final CallbackMethod method) {
+        checkNotFrozen();
         this.preReadMethods.add(method);
     }
     
@@ -191,6 +273,7 @@ public class BeanMapping<T> {
     }
     
     public void addPostReadMethod(final CallbackMethod method) {
+        checkNotFrozen();
         this.postReadMethods.add(method);
     }
     
@@ -199,6 +282,7 @@ public class BeanMapping<T> {
     }
     
     public void addPreWriteMethod(final CallbackMethod method) {
+        checkNotFrozen();
         this.preWriteMethods.add(method);
     }
     
@@ -207,6 +291,7 @@ public class BeanMapping<T> {
     }
     
     public void addPostWriteMethod(final CallbackMethod method) {
+        checkNotFrozen();
         this.postWriteMethods.add(method);
     }
     
@@ -215,6 +300,7 @@ public class BeanMapping<T> {
     }
     
     public void setSkipValidationOnWrite(boolean skipValidationOnWrite) {
+        checkNotFrozen();
         this.skipValidationOnWrite = skipValidationOnWrite;
     }
     
@@ -223,7 +309,9 @@ public class BeanMapping<T> {
     }
     
     public void setGroups(Class<?>[] groups) {
+        checkNotFrozen();
         this.groups = groups;
+        this.compiled = null;
     }
     
     /**
@@ -241,7 +329,9 @@ public class BeanMapping<T> {
      * @param headerMapper {@link HeaderMapper}の実装クラス。
      */
     public void setHeaderMapper(HeaderMapper headerMapper) {
+        checkNotFrozen();
         this.headerMapper = headerMapper;
+        this.compiled = null;
     }
     
     /**
@@ -257,7 +347,106 @@ public class BeanMapping<T> {
      * @param configuraton 新しくシステム情報を変更する際に設定します。
      */
     public void setConfiguration(Configuration configuraton) {
+        checkNotFrozen();
         this.configuration = configuraton;
+        this.compiled = null;
+    }
+    
+    /**
+     * アノテーションプロセッサにより生成されたメタ情報を取得します。
+     * @since 2.2
+     * @return 生成されていない場合は、空を返します。
+     */
+    public Optional<GeneratedBeanMetadata<T>> getGeneratedMetadata() {
+        return Optional.ofNullable(generatedMetadata);
+    }
+    
+    /**
+     * アノテーションプロセッサにより生成されたメタ情報を設定します。
+     * @since 2.2
+     * @param generatedMetadata 生成されたメタ情報。
+     */
+    public void setGeneratedMetadata(GeneratedBeanMetadata<T> generatedMetadata) {
+        checkNotFrozen();
+        this.generatedMetadata = generatedMetadata;
+        this.compiled = null;
+    }
+    
+    /**
+     * 変更不可にします。
+     * <p>以降は、設定用のメソッドを呼び出すと例外{@link IllegalStateException}をスローし、
+     *   取得した一覧やカラム情報{@link ColumnMapping}も変更できなくなります。
+     * </p>
+     * @since 2.2
+     * @return 自身のインスタンス。
+     */
+    public BeanMapping<T> freeze() {
+        
+        if(frozen) {
+            return this;
+        }
+        
+        this.validators = Collections.unmodifiableList(new ArrayList<>(validators));
+        this.listeners = Collections.unmodifiableList(new ArrayList<>(listeners));
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.preReadMethods = Collections.unmodifiableList(new ArrayList<>(preReadMethods));
+        this.postReadMethods = Collections.unmodifiableList(new ArrayList<>(postReadMethods));
+        this.preWriteMethods = Collections.unmodifiableList(new ArrayList<>(preWriteMethods));
+        this.postWriteMethods = Collections.unmodifiableList(new ArrayList<>(postWriteMethods));
+        this.compiled = null;
+        
+        for(ColumnMapping column : columns) {
+            column.freeze();
+        }
+        
+        this.frozen = true;
+        compile();
+        
+        return this;
+    }
+    
+    /**
+     * 変更不可かどうか判定します。
+     * @since 2.2
+     * @return trueの場合、変更できません。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void checkNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException(String.format("mapping of %s is frozen. copy it before modifying.", type.getName()));
+        }
+    }
+    
+    /**
+     * 変更可能な複製を作成します。
+     * <p>カラム情報{@link ColumnMapping}も複製します。{@link CellProcessor}などは共有します。</p>
+     * @since 2.2
+     * @return 同じ値を持つ、変更可能な新しいインスタンス。
+     */
+    public BeanMapping<T> copy() {
+        
+        final BeanMapping<T> copied = new BeanMapping<>(type);
+        copied.header = header;
+        copied.validateHeader = validateHeader;
+        copied.validators.addAll(validators);
+        copied.listeners.addAll(listeners);
+        for(ColumnMapping column : columns) {
+            copied.columns.add(column.copy());
+        }
+        copied.preReadMethods.addAll(preReadMethods);
+        copied.postReadMethods.addAll(postReadMethods);
+        copied.preWriteMethods.addAll(preWriteMethods);
+        copied.postWriteMethods.addAll(postWriteMethods);
+        copied.skipValidationOnWrite = skipValidationOnWrite;
+        copied.groups = groups;
+        copied.headerMapper = headerMapper;
+        copied.configuration = configuration;
+        copied.generatedMetadata = generatedMetadata;
+        
+        return copied;
     }
 
 }
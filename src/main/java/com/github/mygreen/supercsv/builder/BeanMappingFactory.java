@@ -27,7 +27,7 @@ import com.github.mygreen.supercsv.validation.CsvValidator;
 /**
  * BeanからCSVのマッピング情報を作成するクラス。
  * 
- * @version 2.1
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -61,6 +61,9 @@ public class BeanMappingFactory {
         final BeanMapping<T> beanMapping = new BeanMapping<>(beanType);
         beanMapping.setConfiguration(configuration);
         
+        // コンパイル時に生成されたメタ情報がある場合は、フィールドなどの検索に利用する
+        GeneratedBeanMetadata.find(beanType).ifPresent(beanMapping::setGeneratedMetadata);
+        
         // アノテーション @CsvBeanの取得
         final CsvBean beanAnno = beanType.getAnnotation(CsvBean.class);
         if(beanAnno == null) {
@@ -134,8 +137,12 @@ public class BeanMappingFactory {
      */
     protected <T> void buildColumnMappingList(final BeanMapping<T> beanMapping, final Class<T> beanType, final Class<?>[] groups) {
         
+        final Field[] fields = beanMapping.getGeneratedMetadata()
+                .flatMap(GeneratedBeanMetadata::getColumnFields)
+                .orElseGet(beanType::getDeclaredFields);
+        
         final List<ColumnMapping> columnMappingList = new ArrayList<>();
-        for(Field field : beanType.getDeclaredFields()) {
+        for(Field field : fields) {
             
             final CsvColumn columnAnno = field.getAnnotation(CsvColumn.class);
             if(columnAnno != null) {
@@ -272,7 +279,11 @@ public class BeanMappingFactory {
     protected <T> void buildCallbackMethods(final BeanMapping<T> beanMapping, final Class<T> beanType, final CsvBean beanAnno) {
         
         // コールバック用のメソッドの取得
-        for(Method method : beanType.getDeclaredMethods()) {
+        final Method[] methods = beanMapping.getGeneratedMetadata()
+                .flatMap(GeneratedBeanMetadata::getCallbackMethods)
+                .orElseGet(beanType::getDeclaredMethods);
+        
+        for(Method method : methods) {
             
             if(method.getAnnotation(CsvPreRead.class) != null) {
                 beanMapping.addPreReadMethod(new CallbackMethod(method));
@@ -0,0 +1,353 @@
+package com.github.mygreen.supercsv.builder;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.exception.SuperCsvInvalidAnnotationException;
+import com.github.mygreen.supercsv.util.ArgUtils;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+
+/**
+ * 作成したCSVのマッピング情報をキャッシュして、再利用する{@link BeanMappingFactory}。
+ * <p>Beanのクラスタイプ、グループ、システム情報{@link Configuration}の組み合わせごとに、マッピング情報を保持します。
+ *   <br>同じ組み合わせのマッピング情報を作成する場合は、アノテーションの解析や{@link CellProcessor}の組み立てを省略し、
+ *   キャッシュしたインスタンスを返します。
+ * </p>
+ * <p>複数のスレッドから同時に呼び出すことができます。
+ *   <br>キャッシュしたマッピング情報は、複数のReader/Writerで共有されるため、{@link BeanMapping#freeze()}で変更不可にしています。
+ *   変更する場合は、{@link BeanMapping#copy()}で複製してから変更します。
+ *   なお、{@link com.github.mygreen.supercsv.io.LazyCsvAnnotationBeanReader}などは、自動的に複製して利用します。
+ *   また、システム情報は、インスタンスの同一性で区別するため、システム情報の内容を変更した場合は、{@link #clear()}を呼び出す必要があります。
+ * </p>
+ * <p>マッピング情報は、{@link ClassValue}によりBeanのクラスに紐づけて保持し、破棄する順序を決めるためのキーは、
+ *   Beanとグループのクラスを弱参照で保持します。
+ *   そのため、{@link #getShared()}などの長く生存するインスタンスにキャッシュしても、Beanのクラスのアンロードを妨げません。
+ * </p>
+ * <p>重複チェックなどの状態を、{@link com.github.mygreen.supercsv.cellprocessor.ProcessingSession}ではなく
+ *   自身のインスタンスに保持する{@link CellProcessor}を含むマッピング情報は、
+ *   共有すると処理結果が他のファイルの処理に影響するため、キャッシュせずに毎回作成します。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CachingBeanMappingFactory extends BeanMappingFactory {
+    
+    /**
+     * キャッシュするマッピング情報の最大数の初期値。
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+    
+    private static final CachingBeanMappingFactory SHARED = new CachingBeanMappingFactory();
+    
+    /**
+     * Beanのクラスごとの、マッピング情報。
+     */
+    private final MappingsByType cache = new MappingsByType();
+    
+    /**
+     * 破棄する順序を決めるための、参照した順のキー。キャッシュを変更する際のロックも兼ねます。
+     */
+    private final Map<CacheKey, CacheKey> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private final LongAdder hitCount = new LongAdder();
+    
+    private final LongAdder missCount = new LongAdder();
+    
+    private final LongAdder evictionCount = new LongAdder();
+    
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+    
+    /**
+     * デフォルトコンストラクタ
+     */
+    public CachingBeanMappingFactory() {
+        
+    }
+    
+    /**
+     * プロセス全体で共有するインスタンスを取得します。
+     * <p>システム情報は初期値の{@link Configuration}を利用します。</p>
+     * @return 共有するインスタンス。
+     */
+    public static CachingBeanMappingFactory getShared() {
+        return SHARED;
+    }
+    
+    /**
+     * Beanクラスから、CSVのマッピング情報を作成します。
+     * <p>同じBeanクラス、グループ、システム情報から作成済みの場合は、キャッシュしたマッピング情報を返します。</p>
+     *
+     * @param <T> Beanのタイプ
+     * @param beanType 作成元のBeanクラス。
+     * @param groups グループ情報。
+     *              アノテーションを指定したグループで切り替える際に指定します。
+     *              何も指定しない場合は、デフォルトグループの{@link DefaultGroup}のクラスが指定されたとして処理します。
+     * @return CSVのマッピング情報。キャッシュしたマッピング情報は変更不可です。
+     * @throws NullPointerException {@literal beanType == null.}
+     * @throws SuperCsvInvalidAnnotationException アノテーションの定義が不正な場合。
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> BeanMapping<T> create(final Class<T> beanType, final Class<?>... groups) {
+        
+        Objects.requireNonNull(beanType);
+        
+        final CacheKey key = new CacheKey(beanType, groups, getConfiguration());
+        final Map<CacheKey, BeanMapping<?>> mappings = cache.get(beanType);
+        final BeanMapping<?> cached = mappings.get(key);
+        if(cached != null) {
+            synchronized(accessOrder) {
+                // 参照した順を更新する
+                accessOrder.get(key);
+            }
+            hitCount.increment();
+            return (BeanMapping<T>) cached;
+        }
+        
+        missCount.increment();
+        
+        // 作成中は他のスレッドを待たせないよう、ロックの外で作成する
+        final BeanMapping<T> beanMapping = super.create(beanType, groups);
+        if(hasInstanceState(beanMapping)) {
+            return beanMapping;
+        }
+        
+        // 共有するため変更不可にする。また、参照するたびに組み立てないよう、事前に作成しておく
+        beanMapping.freeze();
+        
+        synchronized(accessOrder) {
+            final BeanMapping<?> existing = mappings.putIfAbsent(key, beanMapping);
+            if(existing != null) {
+                // 他のスレッドで先に作成された場合は、そちらを共有する
+                accessOrder.get(key);
+                return (BeanMapping<T>) existing;
+            }
+            
+            accessOrder.put(key, key);
+            evictIfNecessary();
+        }
+        
+        return beanMapping;
+    }
+    
+    /**
+     * 状態を自身のインスタンスに保持する{@link CellProcessor}を含むか判定します。
+     * @param beanMapping 判定対象のマッピング情報。
+     * @return {@literal true}の場合、状態を自身のインスタンスに保持する{@link CellProcessor}が含まれる。
+     */
+    private static boolean hasInstanceState(final BeanMapping<?> beanMapping) {
+        
+        for(ColumnMapping column : beanMapping.getColumns()) {
+            if(CellProcessorUtils.hasInstanceState(column.getCellProcessorForReading())
+                    || CellProcessorUtils.hasInstanceState(column.getCellProcessorForWriting())) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * 最大数を超えた場合は、最後に参照した時点が古いものから破棄します。
+     * <p>{@link #accessOrder}のロックを取得した状態で呼び出します。</p>
+     */
+    private void evictIfNecessary() {
+        
+        if(accessOrder.size() <= maxSize) {
+            return;
+        }
+        
+        removeUnloaded();
+        
+        final Iterator<CacheKey> itr = accessOrder.keySet().iterator();
+        while(accessOrder.size() > maxSize && itr.hasNext()) {
+            final CacheKey eldest = itr.next();
+            itr.remove();
+            
+            final Class<?> beanType = eldest.getBeanType();
+            if(beanType != null && cache.get(beanType).remove(eldest) != null) {
+                evictionCount.increment();
+            }
+        }
+        
+    }
+    
+    /**
+     * アンロードされたBeanのクラスのキーを破棄します。
+     * <p>マッピング情報は、Beanのクラスとともに既に破棄されています。
+     *   {@link #accessOrder}のロックを取得した状態で呼び出します。
+     * </p>
+     */
+    private void removeUnloaded() {
+        accessOrder.keySet().removeIf(key -> key.getBeanType() == null);
+    }
+    
+    /**
+     * キャッシュしたマッピング情報を全て破棄します。
+     * <p>統計情報はクリアしません。</p>
+     */
+    public void clear() {
+        synchronized(accessOrder) {
+            for(CacheKey key : accessOrder.keySet()) {
+                final Class<?> beanType = key.getBeanType();
+                if(beanType != null) {
+                    cache.remove(beanType);
+                }
+            }
+            accessOrder.clear();
+        }
+    }
+    
+    /**
+     * キャッシュしているマッピング情報の数を取得します。
+     * @return キャッシュしているマッピング情報の数。
+     */
+    public int size() {
+        synchronized(accessOrder) {
+            removeUnloaded();
+            return accessOrder.size();
+        }
+    }
+    
+    /**
+     * キャッシュするマッピング情報の最大数を取得します。
+     * @return キャッシュするマッピング情報の最大数。初期値は{@value #DEFAULT_MAX_SIZE}です。
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    /**
+     * キャッシュするマッピング情報の最大数を設定します。
+     * <p>最大数を超えた場合は、最後に参照した時点が古いものから破棄します。</p>
+     * @param maxSize キャッシュするマッピング情報の最大数。1以上の値を指定します。
+     * @throws IllegalArgumentException {@literal maxSize < 1.}
+     */
+    public void setMaxSize(int maxSize) {
+        ArgUtils.notMin(maxSize, 1, "maxSize");
+        synchronized(accessOrder) {
+            this.maxSize = maxSize;
+            evictIfNecessary();
+        }
+    }
+    
+    /**
+     * キャッシュしたマッピング情報を返した回数を取得します。
+     * @return キャッシュにヒットした回数。
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+    
+    /**
+     * キャッシュにマッピング情報がなく、新たに作成した回数を取得します。
+     * @return キャッシュにヒットしなかった回数。
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+    
+    /**
+     * 最大数を超えたため、マッピング情報を破棄した回数を取得します。
+     * @return マッピング情報を破棄した回数。
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+    
+    /**
+     * Beanのクラスに紐づけて保持する、マッピング情報。
+     * <p>値はBeanのクラス自身が保持するため、マッピング情報からBeanのクラスを参照していても、アンロードを妨げません。</p>
+     */
+    private static final class MappingsByType extends ClassValue<Map<CacheKey, BeanMapping<?>>> {
+        
+        @Override
+        protected Map<CacheKey, BeanMapping<?>> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+        
+    }
+    
+    /**
+     * キャッシュのキー。
+     * <p>Beanとグループのクラスは弱参照で保持し、システム情報は、インスタンスの同一性で比較します。</p>
+     */
+    private static final class CacheKey {
+        
+        private final WeakReference<Class<?>> beanType;
+        
+        private final WeakReference<?>[] groups;
+        
+        private final Configuration configuration;
+        
+        private final int hashCode;
+        
+        CacheKey(final Class<?> beanType, final Class<?>[] groups, final Configuration configuration) {
+            final Class<?>[] groupTypes = groups == null ? new Class<?>[0] : groups;
+            this.beanType = new WeakReference<>(beanType);
+            this.groups = new WeakReference<?>[groupTypes.length];
+            for(int i=0; i < groupTypes.length; i++) {
+                this.groups[i] = new WeakReference<>(groupTypes[i]);
+            }
+            this.configuration = configuration;
+            this.hashCode = Objects.hash(beanType, Arrays.hashCode(groupTypes), System.identityHashCode(configuration));
+        }
+        
+        /**
+         * Beanのクラスを取得します。
+         * @return アンロードされた場合は、nullを返します。
+         */
+        Class<?> getBeanType() {
+            return beanType.get();
+        }
+        
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+        
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            
+            if(!(obj instanceof CacheKey)) {
+                return false;
+            }
+            
+            final CacheKey other = (CacheKey) obj;
+            if(hashCode != other.hashCode || configuration != other.configuration
+                    || groups.length != other.groups.length) {
+                return false;
+            }
+            
+            final Class<?> type = getBeanType();
+            if(type == null || type != other.getBeanType()) {
+                return false;
+            }
+            
+            for(int i=0; i < groups.length; i++) {
+                final Object group = groups[i].get();
+                if(group == null || group != other.groups[i].get()) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+    }
+    
+}
@@ -6,8 +6,9 @@ import com.github.mygreen.supercsv.cellprocessor.format.TextFormatter;
 
 /**
  * 解析したカラムのマッピング情報です。
+ * <p>{@link BeanMapping#freeze()}で変更不可にしたマッピング情報のカラムは、変更できません。</p>
  *
- * @version 2.1
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -30,6 +31,11 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
     
     private TextFormatter<?> formatter;
     
+    /**
+     * 変更不可かどうか。
+     */
+    private volatile boolean frozen;
+    
     /**
      * {@link #number}の昇順。
      * <p>{@link #number}が同じ場合は、フィールド名の昇順。</p>
@@ -73,6 +79,7 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
     }
     
     public void setField(FieldAccessor field) {
+        checkNotFrozen();
         this.field = field;
     }
     
@@ -89,6 +96,7 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
      * @param label ラベル情報。
      */
     public void setLabel(String label) {
+        checkNotFrozen();
         this.label = label;
     }
     
@@ -105,6 +113,7 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
      * @param number 1から始まります。
      */
     public void setNumber(int number) {
+        checkNotFrozen();
         this.number = number;
     }
     
@@ -121,6 +130,7 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
      * @param partialized trueの場合、部分的なカラムです。
      */
     public void setPartialized(boolean partialized) {
+        checkNotFrozen();
         this.partialized = partialized;
     }
     
@@ -129,6 +139,7 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
     }
     
     public void setCellProcessorForReading(CellProcessor cellProcessorForReading) {
+        checkNotFrozen();
         this.cellProcessorForReading = cellProcessorForReading;
     }
     
@@ -137,6 +148,7 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
     }
     
     public void setCellProcessorForWriting(CellProcessor cellProcessorForWriting) {
+        checkNotFrozen();
         this.cellProcessorForWriting = cellProcessorForWriting;
     }
     
@@ -149,6 +161,49 @@ public class ColumnMapping implements Comparable<ColumnMapping> {
     }
     
     public void setFormatter(TextFormatter<?> formatter) {
+        checkNotFrozen();
         this.formatter = formatter;
     }
+    
+    /**
+     * 変更不可にします。
+     * @since 2.2
+     */
+    void freeze() {
+        this.frozen = true;
+    }
+    
+    /**
+     * 変更不可かどうか判定します。
+     * @since 2.2
+     * @return trueの場合、変更できません。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void checkNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException(String.format("column '%s' is frozen. copy the mapping before modifying.", label));
+        }
+    }
+    
+    /**
+     * 変更可能な複製を作成します。
+     * @since 2.2
+     * @return 同じ値を持つ、新しいインスタンス。
+     */
+    ColumnMapping copy() {
+        
+        final ColumnMapping copied = new ColumnMapping();
+        copied.field = field;
+        copied.label = label;
+        copied.number = number;
+        copied.partialized = partialized;
+        copied.cellProcessorForReading = cellProcessorForReading;
+        copied.cellProcessorForWriting = cellProcessorForWriting;
+        copied.formatter = formatter;
+        
+        return copied;
+    }
 }
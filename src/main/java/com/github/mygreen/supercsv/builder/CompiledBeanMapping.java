@@ -0,0 +1,193 @@
+package com.github.mygreen.supercsv.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+
+/**
+ * {@link BeanMapping}のカラム情報を、検索用に組み立てた不変の情報です。
+ * <p>列番号とフィールド名から、カラム情報を一定時間で検索できるように、配列とハッシュの索引を作成します。
+ *   <br>また、ヘッダーやフィールド名、{@link CellProcessor}の一覧を事前に作成します。
+ * </p>
+ * <p>{@link BeanMapping#compile()}を呼び出した時点のカラム情報を元に作成するため、
+ *   その後に{@link ColumnMapping}を直接変更しても反映されません。
+ * </p>
+ * <p>setterメソッドの呼び出し処理など、カラム情報を元に組み立てる処理は、{@link #getAttachment(Object, Function)}で保持し、
+ *   同じマッピング情報を利用するReader/Writerで共有できます。
+ * </p>
+ *
+ * @param <T> Beanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CompiledBeanMapping<T> {
+    
+    private final List<ColumnMapping> columns;
+    
+    /**
+     * 列番号をインデックスとした、カラム情報の索引。
+     */
+    private final ColumnMapping[] columnsByNumber;
+    
+    /**
+     * フィールド名をキーとした、カラム情報の索引。
+     */
+    private final Map<String, ColumnMapping> columnsByName;
+    
+    private final String[] header;
+    
+    private final String[] nameMapping;
+    
+    private final CellProcessor[] cellProcessorsForReading;
+    
+    private final CellProcessor[] cellProcessorsForWriting;
+    
+    /**
+     * カラム情報を元に組み立てた、Reader/Writerで共有する情報。
+     */
+    private final ConcurrentHashMap<Object, Object> attachments = new ConcurrentHashMap<>();
+    
+    CompiledBeanMapping(final BeanMapping<T> beanMapping) {
+        
+        this.columns = Collections.unmodifiableList(new ArrayList<>(beanMapping.getColumns()));
+        
+        final int size = columns.size();
+        this.header = new String[size];
+        this.nameMapping = new String[size];
+        this.cellProcessorsForReading = new CellProcessor[size];
+        this.cellProcessorsForWriting = new CellProcessor[size];
+        
+        int maxNumber = 0;
+        for(ColumnMapping column : columns) {
+            maxNumber = Math.max(maxNumber, column.getNumber());
+        }
+        
+        this.columnsByNumber = new ColumnMapping[maxNumber + 1];
+        this.columnsByName = new HashMap<>();
+        
+        for(int i=0; i < size; i++) {
+            final ColumnMapping column = columns.get(i);
+            
+            header[i] = beanMapping.getHeaderMapper().toMap(column, beanMapping.getConfiguration(), beanMapping.getGroups());
+            nameMapping[i] = column.getName();
+            cellProcessorsForReading[i] = column.getCellProcessorForReading();
+            cellProcessorsForWriting[i] = column.getCellProcessorForWriting();
+            
+            // 重複している場合は、先頭のカラムを優先する
+            final int number = column.getNumber();
+            if(number >= 1 && columnsByNumber[number] == null) {
+                columnsByNumber[number] = column;
+            }
+            
+            if(column.getName() != null) {
+                columnsByName.putIfAbsent(column.getName(), column);
+            }
+        }
+        
+    }
+    
+    /**
+     * 指定した列番号を持つカラムのマッピング情報を取得する。
+     * @param columnNumber 列番号。1から始まる。
+     * @return 引数で指定した位置情報の値と一致するカラム情報。
+     */
+    public Optional<ColumnMapping> getColumnMapping(final int columnNumber) {
+        
+        if(columnNumber >= 1 && columnNumber < columnsByNumber.length) {
+            return Optional.ofNullable(columnsByNumber[columnNumber]);
+        }
+        
+        // 番号が決まっていないカラム
+        for(ColumnMapping column : columns) {
+            if(column.getNumber() == columnNumber) {
+                return Optional.of(column);
+            }
+        }
+        
+        return Optional.empty();
+    }
+    
+    /**
+     * 指定したカラム名を持つカラムのマッピング情報を取得する。
+     * @param columnName カラム名（フィールド名）を指定します。
+     * @return 引数で指定したカラム名の値と一致するカラム情報。
+     */
+    public Optional<ColumnMapping> getColumnMapping(final String columnName) {
+        if(columnName == null) {
+            return Optional.empty();
+        }
+        
+        return Optional.ofNullable(columnsByName.get(columnName));
+    }
+    
+    /**
+     * カラム情報の一覧を取得する。
+     * @return 変更できない、カラムの位置順の一覧。
+     */
+    public List<ColumnMapping> getColumns() {
+        return columns;
+    }
+    
+    /**
+     * カラムのヘッダー一覧を取得する。
+     * <p>配列は共有しているため、変更してはいけません。</p>
+     * @return カラムの位置順のヘッダー一覧。
+     */
+    public String[] getHeader() {
+        return header;
+    }
+    
+    /**
+     * フィールド名の一覧を取得する。
+     * <p>配列は共有しているため、変更してはいけません。</p>
+     * @return カラムの位置順のフィールドの一覧。
+     */
+    public String[] getNameMapping() {
+        return nameMapping;
+    }
+    
+    /**
+     * 読み込み用の{@link CellProcessor}を取得する。
+     * <p>配列は共有しているため、変更してはいけません。</p>
+     * @return カラムの位置順に整列されている{@link CellProcessor}の一覧。
+     */
+    public CellProcessor[] getCellProcessorsForReading() {
+        return cellProcessorsForReading;
+    }
+    
+    /**
+     * 書き込み用の{@link CellProcessor}を取得する。
+     * <p>配列は共有しているため、変更してはいけません。</p>
+     * @return カラムの位置順に整列されている{@link CellProcessor}の一覧。
+     */
+    public CellProcessor[] getCellProcessorsForWriting() {
+        return cellProcessorsForWriting;
+    }
+    
+    /**
+     * カラム情報を元に組み立てた、Reader/Writerで共有する情報を取得します。
+     * <p>キーに対応する情報がない場合は、引数の処理で作成して保持します。
+     *   <br>作成処理は、同じキーに対して1度だけ呼び出されます。作成処理の中から、このメソッドを呼び出してはいけません。
+     * </p>
+     * @param <A> 共有する情報のタイプ
+     * @param key 共有する情報を識別するキー。
+     * @param factory 共有する情報を作成する処理。
+     * @return キーに対応する、共有する情報。
+     * @throws NullPointerException {@literal key or factory is null, or factory returns null.}
+     */
+    @SuppressWarnings("unchecked")
+    public <A> A getAttachment(final Object key, final Function<? super CompiledBeanMapping<T>, ? extends A> factory) {
+        Objects.requireNonNull(factory, "factory should not be null.");
+        return (A) attachments.computeIfAbsent(key, k -> factory.apply(this));
+    }
+    
+}
@@ -8,6 +8,7 @@ import org.supercsv.cellprocessor.ift.CellProcessor;
 /**
  * {@link CellProcessor}を組み立てる際の設定を保持するクラス。
  *
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
@@ -34,6 +35,11 @@ public class Configuration {
      */
     private boolean skipValidationOnWrite = false;
     
+    /**
+     * まとめた{@link CellProcessor}を、専用のクラスに変換するかどうか。
+     */
+    private boolean compileProcessors = false;
+    
     public Configuration() {
         
     }
@@ -111,4 +117,26 @@ public class Configuration {
     public void setSkipValidationOnWrite(boolean skipValidationOnWrite) {
         this.skipValidationOnWrite = skipValidationOnWrite;
     }
+    
+    /**
+     * まとめた{@link CellProcessor}を、専用のクラスに変換するかどうかを取得します。
+     * <p>初期値は、{@literal false}で、変換を行いません。</p>
+     * @since 2.2
+     * @return {@literal true}の場合、{@link com.github.mygreen.supercsv.cellprocessor.CellProcessorCompiler}により変換します。
+     */
+    public boolean isCompileProcessors() {
+        return compileProcessors;
+    }
+    
+    /**
+     * まとめた{@link CellProcessor}を、専用のクラスに変換するかどうかを設定します。
+     * <p>処理を直接呼び出すクラスを実行時に生成するため、JITコンパイラによるインライン展開が行われやすくなります。
+     *   <br>クラスを生成できない処理は、変換せずにそのまま実行します。
+     * </p>
+     * @since 2.2
+     * @param compileProcessors {@literal true}の場合、{@link com.github.mygreen.supercsv.cellprocessor.CellProcessorCompiler}により変換します。
+     */
+    public void setCompileProcessors(boolean compileProcessors) {
+        this.compileProcessors = compileProcessors;
+    }
 }
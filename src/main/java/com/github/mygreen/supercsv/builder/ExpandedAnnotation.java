@@ -3,6 +3,8 @@ package com.github.mygreen.supercsv.builder;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import com.github.mygreen.supercsv.annotation.CsvComposition;
 
@@ -10,6 +12,7 @@ import com.github.mygreen.supercsv.annotation.CsvComposition;
  * 展開したアノテーション情報を保持するクラス。
  *
  * @since 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -32,6 +35,11 @@ public class ExpandedAnnotation{
      */
     private final List<ExpandedAnnotation> childs = new ArrayList<>();
     
+    /**
+     * 属性「groups」の値。属性を持たない場合は空。
+     */
+    private final Optional<Set<Class<?>>> groups;
+    
     /**
      * 
      * @param original 元となるアノテーション。
@@ -40,6 +48,7 @@ public class ExpandedAnnotation{
     public ExpandedAnnotation(final Annotation original, final boolean composed) {
         this.original = original;
         this.composed = composed;
+        this.groups = original != null ? AnnotationTypeMetadata.of(original.annotationType()).getGroups(original) : Optional.empty();
     }
     
     /**
@@ -79,6 +88,16 @@ public class ExpandedAnnotation{
         this.childs.addAll(childs);
     }
     
+    /**
+     * 元のアノテーションの属性「groups」の値を取得する。
+     * <p>作成時に取得した値を返すため、判定のたびにリフレクションで属性値を取得しません。</p>
+     * @since 2.2
+     * @return 属性を持たない場合は空を返します。属性値の指定がない場合は、空の集合を返します。
+     */
+    public Optional<Set<Class<?>>> getGroups() {
+        return groups;
+    }
+    
     /**
      * 繰り返しのアノテーションの場合のインデックス番号を取得する。
      * @return 0から始まる。繰り返しでない場合は常に0を返す。
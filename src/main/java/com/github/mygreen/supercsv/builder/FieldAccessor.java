@@ -7,17 +7,21 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.supercsv.exception.SuperCsvReflectionException;
 
 import com.github.mygreen.supercsv.annotation.DefaultGroup;
-import com.github.mygreen.supercsv.util.Utils;
 
 /**
  * フィールドに統一的にアクセスするためのクラス。
+ * <p>アノテーションの展開結果は{@link AnnotationExpander}でフィールドごとにキャッシュし、
+ *    アノテーションのタイプごとの検索結果はインスタンスごとに保持します。</p>
  *
  * @since 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -41,7 +45,17 @@ public class FieldAccessor {
     /**
      * アノテーションの一覧
      */
-    private final List<ExpandedAnnotation> expandedAnnos = new ArrayList<>();
+    private final List<ExpandedAnnotation> expandedAnnos;
+    
+    /**
+     * 合成のアノテーションを展開した、末端のアノテーションの一覧
+     */
+    private final List<ExpandedAnnotation> leafAnnos;
+    
+    /**
+     * アノテーションのタイプごとの検索結果
+     */
+    private final ConcurrentHashMap<Class<?>, List<ExpandedAnnotation>> annosByType = new ConcurrentHashMap<>();
     
     /**
      * フィールド情報を指定するコンストラクタ。
@@ -60,7 +74,8 @@ public class FieldAccessor {
         this.name = field.getName();
         
         final AnnotationExpander expander = new AnnotationExpander(comparator);
-        this.expandedAnnos.addAll(expander.expand(field.getAnnotations()));
+        this.expandedAnnos = expander.expand(field);
+        this.leafAnnos = getLeafAnnotations(expandedAnnos);
     }
     
     /**
@@ -75,7 +90,7 @@ public class FieldAccessor {
     public <A extends Annotation> Optional<A> getAnnotation(final Class<A> annoClass) {
         Objects.requireNonNull(annoClass, "annoClass should not be null.");
         
-        return getAnnotationsByType(expandedAnnos, annoClass).stream()
+        return getAnnotations(annoClass).stream()
                 .findFirst();
         
     }
@@ -89,34 +104,53 @@ public class FieldAccessor {
      * @return 指定したアノテーションが見つからない場合は、空のリスト返します。
      * @throws NullPointerException {@literal annoClass is null.}
      */
+    @SuppressWarnings({"unchecked"})
     public <A extends Annotation> List<A> getAnnotations(final Class<A> annoClass) {
         Objects.requireNonNull(annoClass, "annoClass should not be null.");
         
-        return getAnnotationsByType(expandedAnnos, annoClass);
+        final List<A> list = new ArrayList<>();
+        for(ExpandedAnnotation anno : getExpandedAnnotationsByType(annoClass)) {
+            list.add((A)anno.getOriginal());
+        }
+        
+        return list;
     }
     
-    @SuppressWarnings({"unchecked"})
-    private static <A extends Annotation> List<A> getAnnotationsByType(
-            final List<ExpandedAnnotation> expanedAnnos, final Class<A> annoClass) {
+    /**
+     * アノテーションのタイプを指定して展開したアノテーションを取得します。
+     * <p>検索結果は保持し、2回目以降は保持した結果を返します。</p>
+     */
+    private List<ExpandedAnnotation> getExpandedAnnotationsByType(final Class<?> annoClass) {
         
-        final List<A> list = new ArrayList<>();
+        final List<ExpandedAnnotation> cached = annosByType.get(annoClass);
+        if(cached != null) {
+            return cached;
+        }
+        
+        final List<ExpandedAnnotation> list = new ArrayList<>();
+        collectAnnotationsByType(expandedAnnos, annoClass, list);
+        
+        final List<ExpandedAnnotation> existing = annosByType.putIfAbsent(annoClass, list);
+        return existing != null ? existing : list;
+    }
+    
+    private static void collectAnnotationsByType(final List<ExpandedAnnotation> expanedAnnos, final Class<?> annoClass,
+            final List<ExpandedAnnotation> list) {
         
         for(ExpandedAnnotation anno : expanedAnnos) {
             
             if(anno.isAnnotationType(annoClass)) {
-                list.add((A)anno.getOriginal());
+                list.add(anno);
             
             } else if(anno.isComposed()) {
                 
-                list.addAll(getAnnotationsByType(anno.getChilds(), annoClass));
+                collectAnnotationsByType(anno.getChilds(), annoClass, list);
                 
             }
             
             
         }
         
-        return list;
-        
     }
     
     /**
@@ -141,11 +175,13 @@ public class FieldAccessor {
      * @return 指定したアノテーションが見つからない場合は、サイズ0のリストを返します。
      * @throws NullPointerException {@literal annoClass is null.}
      */
+    @SuppressWarnings({"unchecked"})
     public <A extends Annotation> List<A> getAnnotationsByGroup(final Class<A> annoClass, final Class<?>... groups) {
         Objects.requireNonNull(annoClass, "annoClass should not be null.");
         
-        return getAnnotations(annoClass).stream()
+        return getExpandedAnnotationsByType(annoClass).stream()
                 .filter(anno -> hasGroups(anno, groups))
+                .map(anno -> (A)anno.getOriginal())
                 .collect(Collectors.toList());
         
     }
@@ -173,23 +209,23 @@ public class FieldAccessor {
      */
     public List<Annotation> getAnnotationsByGroup(final Class<?>... groups) {
         
-        return getAnnotations(expandedAnnos).stream()
+        return leafAnnos.stream()
                 .filter(anno -> hasGroups(anno, groups))
+                .map(ExpandedAnnotation::getOriginal)
                 .collect(Collectors.toList());
         
     }
     
-    @SuppressWarnings({"unchecked"})
-    private static <A extends Annotation> List<A> getAnnotations(final List<ExpandedAnnotation> expanedAnnos) {
+    private static List<ExpandedAnnotation> getLeafAnnotations(final List<ExpandedAnnotation> expanedAnnos) {
         
-        final List<A> list = new ArrayList<>();
+        final List<ExpandedAnnotation> list = new ArrayList<>();
         
         for(ExpandedAnnotation anno : expanedAnnos) {
             if(anno.isComposed()) {
-                list.addAll(getAnnotations(anno.getChilds()));
+                list.addAll(getLeafAnnotations(anno.getChilds()));
                 
             } else {
-                list.add((A)anno.getOriginal());
+                list.add(anno);
                 
             }
         }
@@ -201,14 +237,14 @@ public class FieldAccessor {
     /**
      * アノテーションの属性{@literal groups} が指定したグループと一致するか比較します。
      * <p>groups属性を持たない場合は、必ずfalseを返します。</p>
+     * <p>属性値は、展開時に取得した集合を利用します。</p>
      * @param anno 検証対象のアノテーション。
      * @param groups 比較対象のグループ情報。
      * @return {@literal true}の場合、指定したグループを持ちます。
      */
-    @SuppressWarnings("rawtypes")
-    private boolean hasGroups(final Annotation anno, final Class<?>... groups) {
+    private boolean hasGroups(final ExpandedAnnotation anno, final Class<?>... groups) {
         
-        final Optional<Class[]> targetGroups = Utils.getAnnotationAttribute(anno, "groups", Class[].class);
+        final Optional<Set<Class<?>>> targetGroups = anno.getGroups();
         
         if(!targetGroups.isPresent()) {
             // groups属性を持たない場合
@@ -217,33 +253,22 @@ public class FieldAccessor {
         }
         
         if(groups.length == 0) {
-            if(targetGroups.get().length == 0) {
-                // グループの指定がない場合は、デフォルトグループとして処理。
-                return true;
-                
-            } else {
-                for(Class<?> targetGroup : targetGroups.get()) {
-                    if(targetGroup.equals(DefaultGroup.class)) {
-                        // デフォルトを直接指定している場合に、グループと一致。
-                        return true;
-                    }
-                }
-            }
+            // グループの指定がない場合は、デフォルトグループとして処理。
+            // デフォルトを直接指定している場合に、グループと一致。
+            return targetGroups.get().isEmpty() || targetGroups.get().contains(DefaultGroup.class);
             
         } else {
             // グループの指定がある場合
             for(Class<?> group : groups) {
                 
-                if(group.equals(DefaultGroup.class) && targetGroups.get().length == 0) {
+                if(group.equals(DefaultGroup.class) && targetGroups.get().isEmpty()) {
                     // フィールド側にグループの指定がない場合は、デフォルトグループとして処理する。
                     return true;
                 }
                 
-                for(Class<?> targetGroup : targetGroups.get()) {
-                    // 一致するグループを持つか判定する。
-                    if(targetGroup.equals(group)) {
-                        return true;
-                    }
+                // 一致するグループを持つか判定する。
+                if(targetGroups.get().contains(group)) {
+                    return true;
                 }
                 
             }
@@ -0,0 +1,247 @@
+package com.github.mygreen.supercsv.builder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+
+/**
+ * アノテーションプロセッサ{@link com.github.mygreen.supercsv.apt.CsvBeanMetadataProcessor}により、
+ * コンパイル時に生成されるBeanのメタ情報の基底クラス。
+ * <p>{@link CsvBean}を付与したクラスと同じパッケージに、{@literal <クラス名>$$CsvMetadata}という名称で生成されます。
+ *   <br>{@link BeanMappingFactory}は、生成されたクラスが存在する場合、次の処理に利用します。
+ * </p>
+ * <ul>
+ *   <li>{@link CsvColumn}を付与したフィールドと、コールバック用のメソッドの検索。
+ *       クラスの全てのフィールドとメソッドを走査せずに、必要なものだけを取得します。</li>
+ *   <li>Beanのインスタンスの作成と、プロパティへのアクセス。
+ *       リフレクションや実行時のクラスの生成を行わずに、コンパイル済みの処理を直接呼び出します。</li>
+ * </ul>
+ * <p>生成されたクラスが存在しない場合や、Beanのクラスと内容が一致しない場合は、従来通りリフレクションで処理します。</p>
+ *
+ * @param <T> Beanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public abstract class GeneratedBeanMetadata<T> {
+    
+    /**
+     * 生成されるクラスの名称の接尾語。
+     */
+    public static final String CLASS_NAME_SUFFIX = "$$CsvMetadata";
+    
+    /**
+     * Beanのクラスごとの、生成されたクラスのインスタンス。
+     */
+    private static final ClassValue<Optional<GeneratedBeanMetadata<?>>> CACHE = new ClassValue<Optional<GeneratedBeanMetadata<?>>>() {
+        
+        @Override
+        protected Optional<GeneratedBeanMetadata<?>> computeValue(final Class<?> type) {
+            return load(type);
+        }
+    };
+    
+    private final Class<T> beanType;
+    
+    private Supplier<T> instantiator;
+    
+    private final List<String> columnNames = new ArrayList<>();
+    
+    private final Map<String, Property<T>> properties = new HashMap<>();
+    
+    private final List<CallbackSignature> callbacks = new ArrayList<>();
+    
+    /**
+     * 生成されたクラスから呼び出されるコンストラクタ。
+     * @param beanType Beanのクラスタイプ。
+     */
+    protected GeneratedBeanMetadata(final Class<T> beanType) {
+        this.beanType = Objects.requireNonNull(beanType, "beanType should not be null.");
+    }
+    
+    /**
+     * Beanのクラスに対応する、生成されたメタ情報を取得します。
+     * <p>同じクラスに対する2回目以降の呼び出しは、1回目の結果を返します。</p>
+     *
+     * @param <T> Beanのクラスタイプ
+     * @param beanType Beanのクラスタイプ。
+     * @return 生成されたクラスが存在しない場合は、空を返します。
+     * @throws NullPointerException {@literal beanType is null.}
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Optional<GeneratedBeanMetadata<T>> find(final Class<T> beanType) {
+        Objects.requireNonNull(beanType, "beanType should not be null.");
+        return (Optional) CACHE.get(beanType);
+    }
+    
+    private static Optional<GeneratedBeanMetadata<?>> load(final Class<?> beanType) {
+        
+        final String className = beanType.getName() + CLASS_NAME_SUFFIX;
+        final ClassLoader loader = beanType.getClassLoader();
+        
+        try {
+            final Class<?> metadataClass = Class.forName(className, true, loader);
+            if(!GeneratedBeanMetadata.class.isAssignableFrom(metadataClass)) {
+                return Optional.empty();
+            }
+            
+            final GeneratedBeanMetadata<?> metadata = (GeneratedBeanMetadata<?>) metadataClass.getDeclaredConstructor().newInstance();
+            if(!metadata.getBeanType().equals(beanType)) {
+                return Optional.empty();
+            }
+            
+            return Optional.of(metadata);
+            
+        } catch(ReflectiveOperationException | LinkageError | SecurityException e) {
+            // 生成されていない、またはBeanのクラスと一致しない場合
+            return Optional.empty();
+        }
+        
+    }
+    
+    /**
+     * 引数なしでインスタンスを作成する処理を登録します。
+     * @param instantiator インスタンスを作成する処理。
+     */
+    protected void instantiator(final Supplier<T> instantiator) {
+        this.instantiator = instantiator;
+    }
+    
+    /**
+     * {@link CsvColumn}を付与したフィールドを、宣言順に登録します。
+     * @param name フィールド名。
+     * @param setter 値を設定する処理。アクセスできない場合はnull。
+     * @param getter 値を取得する処理。アクセスできない場合はnull。
+     */
+    protected void column(final String name, final BiConsumer<T, Object> setter, final Function<T, Object> getter) {
+        columnNames.add(name);
+        properties.put(name, new Property<>(setter, getter));
+    }
+    
+    /**
+     * Beanのクラスに宣言されている、コールバック用のメソッドを登録します。
+     * @param name メソッド名。
+     * @param parameterTypes メソッドの引数のタイプ。
+     */
+    protected void callback(final String name, final Class<?>... parameterTypes) {
+        callbacks.add(new CallbackSignature(name, parameterTypes));
+    }
+    
+    /**
+     * Beanのクラスタイプを取得します。
+     * @return Beanのクラスタイプ。
+     */
+    public Class<T> getBeanType() {
+        return beanType;
+    }
+    
+    /**
+     * 引数なしでインスタンスを作成する処理を取得します。
+     * @return アクセス可能な引数なしのコンストラクタがない場合は、空を返します。
+     */
+    public Optional<Supplier<T>> getInstantiator() {
+        return Optional.ofNullable(instantiator);
+    }
+    
+    /**
+     * {@link CsvColumn}を付与したフィールド名を取得します。
+     * @return 宣言順のフィールド名。
+     */
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(columnNames);
+    }
+    
+    /**
+     * プロパティに値を設定する処理を取得します。
+     * @param name フィールド名。
+     * @return 値を設定する処理がない場合は、空を返します。
+     */
+    public Optional<BiConsumer<T, Object>> getSetter(final String name) {
+        final Property<T> property = properties.get(name);
+        return property != null ? Optional.ofNullable(property.setter) : Optional.empty();
+    }
+    
+    /**
+     * プロパティの値を取得する処理を取得します。
+     * @param name フィールド名。
+     * @return 値を取得する処理がない場合は、空を返します。
+     */
+    public Optional<Function<T, Object>> getGetter(final String name) {
+        final Property<T> property = properties.get(name);
+        return property != null ? Optional.ofNullable(property.getter) : Optional.empty();
+    }
+    
+    /**
+     * {@link CsvColumn}を付与したフィールドを取得します。
+     * @return Beanのクラスと一致しない場合は、空を返します。
+     */
+    public Optional<Field[]> getColumnFields() {
+        
+        final Field[] fields = new Field[columnNames.size()];
+        try {
+            for(int i=0; i < fields.length; i++) {
+                fields[i] = beanType.getDeclaredField(columnNames.get(i));
+            }
+        } catch(NoSuchFieldException | SecurityException e) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(fields);
+    }
+    
+    /**
+     * Beanのクラスに宣言されている、コールバック用のメソッドを取得します。
+     * @return Beanのクラスと一致しない場合は、空を返します。
+     */
+    public Optional<Method[]> getCallbackMethods() {
+        
+        final Method[] methods = new Method[callbacks.size()];
+        try {
+            for(int i=0; i < methods.length; i++) {
+                final CallbackSignature signature = callbacks.get(i);
+                methods[i] = beanType.getDeclaredMethod(signature.name, signature.parameterTypes);
+            }
+        } catch(NoSuchMethodException | SecurityException e) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(methods);
+    }
+    
+    private static final class Property<T> {
+        
+        private final BiConsumer<T, Object> setter;
+        
+        private final Function<T, Object> getter;
+        
+        private Property(final BiConsumer<T, Object> setter, final Function<T, Object> getter) {
+            this.setter = setter;
+            this.getter = getter;
+        }
+    }
+    
+    private static final class CallbackSignature {
+        
+        private final String name;
+        
+        private final Class<?>[] parameterTypes;
+        
+        private CallbackSignature(final String name, final Class<?>[] parameterTypes) {
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+        }
+    }
+    
+}
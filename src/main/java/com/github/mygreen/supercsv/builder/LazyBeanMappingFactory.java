@@ -15,6 +15,7 @@ import com.github.mygreen.supercsv.localization.MessageBuilder;
  * カラム番号の設定、チェックを行わないで、BeanからCSVのマッピング情報を作成するクラス。
  *
  * @since 2.1
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -48,6 +49,9 @@ public class LazyBeanMappingFactory extends BeanMappingFactory {
         final BeanMapping<T> beanMapping = new BeanMapping<>(beanType);
         beanMapping.setConfiguration(configuration);
         
+        // コンパイル時に生成されたメタ情報がある場合は、フィールドなどの検索に利用する
+        GeneratedBeanMetadata.find(beanType).ifPresent(beanMapping::setGeneratedMetadata);
+        
         // アノテーション @CsvBeanの取得
         final CsvBean beanAnno = beanType.getAnnotation(CsvBean.class);
         if(beanAnno == null) {
@@ -82,8 +86,12 @@ public class LazyBeanMappingFactory extends BeanMappingFactory {
     @Override
     protected <T> void buildColumnMappingList(final BeanMapping<T> beanMapping, final Class<T> beanType, final Class<?>[] groups) {
         
+        final Field[] fields = beanMapping.getGeneratedMetadata()
+                .flatMap(GeneratedBeanMetadata::getColumnFields)
+                .orElseGet(beanType::getDeclaredFields);
+        
         final List<ColumnMapping> columnMappingList = new ArrayList<>();
-        for(Field field : beanType.getDeclaredFields()) {
+        for(Field field : fields) {
             
             final CsvColumn columnAnno = field.getAnnotation(CsvColumn.class);
             if(columnAnno != null) {
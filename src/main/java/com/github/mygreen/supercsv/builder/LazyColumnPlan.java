@@ -0,0 +1,339 @@
+package com.github.mygreen.supercsv.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.github.mygreen.supercsv.annotation.CsvPartial;
+import com.github.mygreen.supercsv.exception.SuperCsvInvalidAnnotationException;
+
+/**
+ * カラム番号が決まっていないマッピング情報に対して、ヘッダーを元にカラム番号を決定した結果です。
+ * <p>{@link com.github.mygreen.supercsv.io.LazyCsvAnnotationBeanReader}、
+ *   {@link com.github.mygreen.supercsv.io.LazyCsvAnnotationBeanWriter}の初期化時に利用します。
+ * </p>
+ * <p>ヘッダーとカラムの対応付けは、ラベルをキーとした索引を作成して1度の走査で行うため、
+ *   カラム数が多い場合でも、ヘッダー数とカラム数の積に比例した時間はかかりません。
+ * </p>
+ * <p>決定した結果は、Beanのクラスタイプ、カラム情報、ヘッダーの組み合わせごとにキャッシュします。
+ *   <br>同じヘッダーを持つ別のファイルを処理する場合は、対応付けや番号の検証を省略し、キャッシュした結果を適用します。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public final class LazyColumnPlan {
+    
+    /**
+     * キャッシュする結果の最大数。
+     */
+    private static final int MAX_CACHE_SIZE = 64;
+    
+    /**
+     * 最近利用した順に保持するキャッシュ。
+     */
+    private static final Map<PlanKey, LazyColumnPlan> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<PlanKey, LazyColumnPlan>(16, 0.75f, true) {
+                
+                private static final long serialVersionUID = 1L;
+                
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<PlanKey, LazyColumnPlan> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            });
+            
+    /**
+     * 元のカラムの並び順ごとの、決定したカラム番号。
+     */
+    private final int[] columnNumbers;
+    
+    /**
+     * 補完した部分的なカラムの番号。
+     */
+    private final int[] partialNumbers;
+    
+    /**
+     * 補完した部分的なカラムのラベル。
+     */
+    private final String[] partialLabels;
+    
+    private LazyColumnPlan(final int[] columnNumbers, final int[] partialNumbers, final String[] partialLabels) {
+        this.columnNumbers = columnNumbers;
+        this.partialNumbers = partialNumbers;
+        this.partialLabels = partialLabels;
+    }
+    
+    /**
+     * 読み込み時のヘッダーを元に、カラム番号を決定します。
+     * <p>ラベルが一致しないカラムの番号は決定しないため、不足しているカラム番号がある場合は、部分的なカラムとして補完します。</p>
+     *
+     * @param beanMapping 決定したカラム番号を設定するマッピング情報。
+     * @param headers 読み込んだヘッダー。
+     * @throws NullPointerException {@literal beanMapping or headers is null.}
+     * @throws SuperCsvInvalidAnnotationException カラム番号が重複している場合など、アノテーションの定義が不正な場合。
+     */
+    public static void applyForReading(final BeanMapping<?> beanMapping, final String[] headers) {
+        apply(beanMapping, headers, false);
+    }
+    
+    /**
+     * 書き込み時に指定したヘッダーを元に、カラム番号を決定します。
+     * <p>ヘッダーに含まれないカラムは、フィールドの名称順に空いている番号を割り振ります。</p>
+     *
+     * @param beanMapping 決定したカラム番号を設定するマッピング情報。
+     * @param headers 書き込むヘッダー。指定しない場合は、長さ0の配列。
+     * @throws NullPointerException {@literal beanMapping or headers is null.}
+     * @throws SuperCsvInvalidAnnotationException カラム番号が重複している場合など、アノテーションの定義が不正な場合。
+     */
+    public static void applyForWriting(final BeanMapping<?> beanMapping, final String[] headers) {
+        apply(beanMapping, headers, true);
+    }
+    
+    /**
+     * キャッシュした結果を全て破棄します。
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+    
+    /**
+     * キャッシュしている結果の数を取得します。
+     * @return キャッシュしている結果の数。
+     */
+    static int getCacheSize() {
+        return CACHE.size();
+    }
+    
+    private static void apply(final BeanMapping<?> beanMapping, final String[] headers, final boolean assignUndetermined) {
+        Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
+        Objects.requireNonNull(headers, "headers should not be null.");
+        
+        final List<ColumnMapping> columnMappingList = beanMapping.getColumns();
+        final PlanKey key = new PlanKey(beanMapping.getType(), assignUndetermined, columnMappingList, headers);
+        
+        final LazyColumnPlan cached = CACHE.get(key);
+        if(cached != null) {
+            cached.applyTo(beanMapping, columnMappingList);
+            return;
+        }
+        
+        // 元の並び順を保持しておき、決定した番号を対応付ける
+        final List<ColumnMapping> originalColumns = new ArrayList<>(columnMappingList);
+        
+        final Optional<CsvPartial> partialAnno = Optional.ofNullable(beanMapping.getType().getAnnotation(CsvPartial.class));
+        determineNumbersByHeader(columnMappingList, headers);
+        
+        // カラムの番号順に並び変える
+        columnMappingList.sort(null);
+        
+        if(assignUndetermined) {
+            assignUndeterminedNumbers(columnMappingList, partialAnno);
+        }
+        
+        // 重複しているカラム番号のチェック
+        BeanMappingFactoryHelper.validateDuplicatedColumnNumber(beanMapping.getType(), columnMappingList);
+        
+        // 不足しているカラム番号の補完
+        BeanMappingFactoryHelper.supplyLackedNumberMappingColumn(beanMapping.getType(), columnMappingList, partialAnno, headers);
+        
+        beanMapping.setColumns(columnMappingList);
+        
+        CACHE.put(key, create(originalColumns, columnMappingList));
+        
+    }
+    
+    /**
+     * ヘッダーとラベルが一致する、番号が決まっていないカラムに番号を設定する。
+     * <p>同じラベルを持つヘッダーが複数ある場合は、先頭のヘッダーの位置を番号とする。</p>
+     */
+    private static void determineNumbersByHeader(final List<ColumnMapping> columnMappingList, final String[] headers) {
+        
+        if(headers.length == 0) {
+            return;
+        }
+        
+        /*
+         * 番号が決まっていないカラム情報の、ラベルによる索引を作成する。
+         * ※既に番号が決まっているが、ラベルが一致しないのものは、後からチェックする。
+         */
+        final Map<String, List<ColumnMapping>> undeterminedColumns = new HashMap<>();
+        for(ColumnMapping column : columnMappingList) {
+            if(!column.isDeterminedNumber() && column.getLabel() != null) {
+                undeterminedColumns.computeIfAbsent(column.getLabel(), label -> new ArrayList<>(1)).add(column);
+            }
+        }
+        
+        for(int i=0; i < headers.length && !undeterminedColumns.isEmpty(); i++) {
+            if(headers[i] == null) {
+                continue;
+            }
+            
+            final List<ColumnMapping> matchedColumns = undeterminedColumns.remove(headers[i]);
+            if(matchedColumns != null) {
+                final int columnNumber = i+1;
+                matchedColumns.forEach(col -> col.setNumber(columnNumber));
+            }
+        }
+        
+    }
+    
+    /**
+     * ヘッダーでは指定されていない番号が未決定のカラムについて、空いている番号に振る。
+     */
+    private static void assignUndeterminedNumbers(final List<ColumnMapping> columnMappingList, final Optional<CsvPartial> partialAnno) {
+        
+        final List<ColumnMapping> undeterminedColumnList = new ArrayList<>();
+        final Set<Integer> determinedNumbers = new TreeSet<>();
+        for(ColumnMapping column : columnMappingList) {
+            if(column.isDeterminedNumber()) {
+                determinedNumbers.add(column.getNumber());
+            } else {
+                undeterminedColumnList.add(column);
+            }
+        }
+        
+        if(undeterminedColumnList.isEmpty()) {
+            return;
+        }
+        
+        // @CsvParitalで定義されているカラムは、決定されている番号として処理する。
+        partialAnno.ifPresent(anno -> Arrays.stream(anno.headers()).forEach(header -> determinedNumbers.add(header.number())));
+        
+        int counter = 1;
+        for(ColumnMapping col : undeterminedColumnList) {
+            while(determinedNumbers.contains(counter)) {
+                counter++;
+            }
+            
+            col.setNumber(counter);
+            determinedNumbers.add(counter);
+        }
+        
+        // 再度カラムの番号順に並び変える
+        columnMappingList.sort(null);
+        
+    }
+    
+    private static LazyColumnPlan create(final List<ColumnMapping> originalColumns, final List<ColumnMapping> resolvedColumns) {
+        
+        final int[] columnNumbers = new int[originalColumns.size()];
+        final Map<ColumnMapping, Boolean> originals = new IdentityHashMap<>();
+        for(int i=0; i < columnNumbers.length; i++) {
+            columnNumbers[i] = originalColumns.get(i).getNumber();
+            originals.put(originalColumns.get(i), Boolean.TRUE);
+        }
+        
+        final List<ColumnMapping> partialColumns = new ArrayList<>();
+        for(ColumnMapping column : resolvedColumns) {
+            if(!originals.containsKey(column)) {
+                partialColumns.add(column);
+            }
+        }
+        
+        final int[] partialNumbers = new int[partialColumns.size()];
+        final String[] partialLabels = new String[partialColumns.size()];
+        for(int i=0; i < partialNumbers.length; i++) {
+            partialNumbers[i] = partialColumns.get(i).getNumber();
+            partialLabels[i] = partialColumns.get(i).getLabel();
+        }
+        
+        return new LazyColumnPlan(columnNumbers, partialNumbers, partialLabels);
+    }
+    
+    /**
+     * 決定済みのカラム番号を設定します。
+     * @param beanMapping 設定対象のマッピング情報。
+     * @param columnMappingList 番号を決定する前のカラム情報。
+     */
+    private void applyTo(final BeanMapping<?> beanMapping, final List<ColumnMapping> columnMappingList) {
+        
+        for(int i=0; i < columnNumbers.length; i++) {
+            columnMappingList.get(i).setNumber(columnNumbers[i]);
+        }
+        
+        for(int i=0; i < partialNumbers.length; i++) {
+            final ColumnMapping columnMapping = new ColumnMapping();
+            columnMapping.setNumber(partialNumbers[i]);
+            columnMapping.setPartialized(true);
+            columnMapping.setLabel(partialLabels[i]);
+            columnMappingList.add(columnMapping);
+        }
+        
+        columnMappingList.sort(null);
+        beanMapping.setColumns(columnMappingList);
+        
+    }
+    
+    /**
+     * キャッシュのキー。
+     * <p>カラム情報は、番号を決定する前のラベルと番号で比較します。</p>
+     */
+    private static final class PlanKey {
+        
+        private final Class<?> beanType;
+        
+        private final boolean assignUndetermined;
+        
+        private final String[] labels;
+        
+        private final int[] numbers;
+        
+        private final String[] headers;
+        
+        private final int hashCode;
+        
+        PlanKey(final Class<?> beanType, final boolean assignUndetermined, final List<ColumnMapping> columns, final String[] headers) {
+            this.beanType = beanType;
+            this.assignUndetermined = assignUndetermined;
+            
+            final int size = columns.size();
+            this.labels = new String[size];
+            this.numbers = new int[size];
+            for(int i=0; i < size; i++) {
+                labels[i] = columns.get(i).getLabel();
+                numbers[i] = columns.get(i).getNumber();
+            }
+            
+            this.headers = headers.clone();
+            this.hashCode = Objects.hash(beanType, assignUndetermined, Arrays.hashCode(labels), Arrays.hashCode(numbers),
+                    Arrays.hashCode(this.headers));
+        }
+        
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+        
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            
+            if(!(obj instanceof PlanKey)) {
+                return false;
+            }
+            
+            final PlanKey other = (PlanKey) obj;
+            return hashCode == other.hashCode
+                    && beanType.equals(other.beanType)
+                    && assignUndetermined == other.assignUndetermined
+                    && Arrays.equals(numbers, other.numbers)
+                    && Arrays.equals(labels, other.labels)
+                    && Arrays.equals(headers, other.headers);
+        }
+        
+    }
+    
+}
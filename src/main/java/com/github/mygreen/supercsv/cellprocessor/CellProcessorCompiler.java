@@ -0,0 +1,406 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import static com.github.mygreen.supercsv.util.ClassFileWriter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.supercsv.cellprocessor.CellProcessorAdaptor;
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+import com.github.mygreen.supercsv.util.ClassFileWriter;
+
+/**
+ * {@link FusedCellProcessor}を、まとめた処理を直接呼び出す専用のクラスに変換します。
+ * <p>{@link FusedCellProcessor}は、まとめた処理をインタフェース経由で呼び出すため、
+ *   カラムごとに処理の組み合わせが異なると呼び出し先が多様になり、JITコンパイラによるインライン展開が行われません。
+ *   <br>このクラスでは、処理のクラスタイプの組み合わせごとに、各処理の具象クラスのメソッドを直接呼び出すクラスを生成します。
+ *   生成したクラスの中の呼び出し先は1つに決まるため、チェイン全体がインライン展開の対象となります。
+ * </p>
+ * <p>クラスは、Java8でも利用できるよう、クラスファイルのバイトコードを直接組み立てて、専用の{@link ClassLoader}で定義します。
+ *   <br>生成したクラスは、処理のクラスタイプの組み合わせごとにキャッシュし、同じ組み合わせのカラムで共有します。
+ *   <br>キャッシュは弱参照で保持するため、生成したクラスのインスタンスを使用しなくなると、
+ *   生成したクラスとともに破棄され、参照していた{@link ClassLoader}の破棄も妨げません。
+ * </p>
+ * <p>次の場合は、クラスを生成せずに、元の{@link CellProcessor}をそのまま使用します。</p>
+ * <ul>
+ *   <li>{@link FusedCellProcessor}以外の{@link CellProcessor}の場合。</li>
+ *   <li>まとめた処理のクラスが、生成したクラスから参照できない場合。
+ *     <br>publicではないクラスや、同じ{@link ClassLoader}から参照できないクラスが該当します。</li>
+ *   <li>クラスの生成に失敗した場合。</li>
+ * </ul>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public final class CellProcessorCompiler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CellProcessorCompiler.class);
+    
+    /**
+     * 生成するクラスの名称の接頭語。
+     */
+    private static final String CLASS_NAME_PREFIX = FusedCellProcessor.class.getName() + "$$Compiled";
+    
+    /**
+     * 生成するクラスの名称の連番。
+     */
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+    
+    /**
+     * 基準となるクラスの{@link ClassLoader}ごとの、生成したクラスを定義する{@link ClassLoader}。
+     * <p>生成したクラスを定義する{@link ClassLoader}は、親としてキーの{@link ClassLoader}を参照するため、値も弱参照で保持します。
+     *   <br>生成したクラスを定義する{@link ClassLoader}は、生成したクラスのインスタンスから参照されている間のみ保持され、
+     *   このマップからは、キーの{@link ClassLoader}に到達しません。
+     * </p>
+     */
+    private static final Map<ClassLoader, WeakReference<GeneratedClassLoader>> GENERATED_LOADERS = new WeakHashMap<>();
+    
+    private CellProcessorCompiler() {
+        // インスタンス化は不可
+    }
+    
+    /**
+     * {@link FusedCellProcessor}を、まとめた処理を直接呼び出すクラスのインスタンスに変換します。
+     * @param processor 変換対象の{@link CellProcessor}。
+     * @return 変換できない場合は、引数をそのまま返します。
+     */
+    public static CellProcessor compile(final CellProcessor processor) {
+        
+        // 生成済みのクラスや、派生クラスは対象外
+        if(processor == null || processor.getClass() != FusedCellProcessor.class) {
+            return processor;
+        }
+        
+        final FusedCellProcessor fused = (FusedCellProcessor) processor;
+        final List<FusibleCellProcessor> steps = fused.getProcessors();
+        final CellProcessor next = CellProcessorUtils.getNext(fused);
+        
+        final List<Class<?>> stepTypes = new ArrayList<>(steps.size());
+        for(FusibleCellProcessor step : steps) {
+            if(!isAccessible(step.getClass())) {
+                return processor;
+            }
+            stepTypes.add(step.getClass());
+        }
+        
+        final List<Class<?>> requiredTypes = new ArrayList<>(stepTypes);
+        requiredTypes.add(FusedCellProcessor.class);
+        
+        final Class<?> anchor = findAnchorType(requiredTypes);
+        if(anchor == null) {
+            return processor;
+        }
+        
+        // 次の処理のクラスも参照できる場合は、具象クラスのメソッドとして呼び出す
+        Class<?> nextType = null;
+        if(next != null && isAccessible(next.getClass()) && isVisible(anchor.getClassLoader(), next.getClass())) {
+            nextType = next.getClass();
+        }
+        
+        final List<Object> key = new ArrayList<>(stepTypes.size() + 2);
+        key.add(next == null);
+        key.add(nextType == null ? Void.class : nextType);
+        key.addAll(stepTypes);
+        
+        try {
+            final Constructor<?> constructor = getGeneratedClassLoader(anchor.getClassLoader())
+                    .getConstructor(key, stepTypes, next != null, nextType);
+            if(next == null) {
+                return (CellProcessor) constructor.newInstance(steps);
+            } else {
+                return (CellProcessor) constructor.newInstance(steps, next);
+            }
+            
+        } catch(ReflectiveOperationException | RuntimeException | LinkageError e) {
+            logger.warn("fail compile CellProcessor chain of {}.", stepTypes, e);
+            return processor;
+        }
+        
+    }
+    
+    /**
+     * 生成したクラスを定義する{@link ClassLoader}を取得します。
+     * <p>破棄されている場合は、新たに作成します。</p>
+     * @param parent 親となる{@link ClassLoader}。
+     * @return 生成したクラスを定義する{@link ClassLoader}。
+     */
+    private static GeneratedClassLoader getGeneratedClassLoader(final ClassLoader parent) {
+        
+        synchronized(GENERATED_LOADERS) {
+            final WeakReference<GeneratedClassLoader> ref = GENERATED_LOADERS.get(parent);
+            GeneratedClassLoader loader = (ref == null) ? null : ref.get();
+            if(loader == null) {
+                loader = new GeneratedClassLoader(parent);
+                GENERATED_LOADERS.put(parent, new WeakReference<>(loader));
+            }
+            
+            return loader;
+        }
+    }
+    
+    /**
+     * 他のパッケージのクラスから参照できるかどうか判定します。
+     */
+    private static boolean isAccessible(final Class<?> type) {
+        
+        Class<?> current = type;
+        while(current != null) {
+            if(!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+            current = current.getEnclosingClass();
+        }
+        
+        return true;
+    }
+    
+    /**
+     * {@link ClassLoader}から、同じクラスを参照できるか判定します。
+     */
+    private static boolean isVisible(final ClassLoader loader, final Class<?> type) {
+        
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+            
+        } catch(ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 全てのクラスを参照できる{@link ClassLoader}を持つクラスを探します。
+     * @return 見つからない場合はnullを返します。
+     */
+    private static Class<?> findAnchorType(final List<Class<?>> types) {
+        
+        for(Class<?> candidate : types) {
+            final ClassLoader loader = candidate.getClassLoader();
+            if(loader == null) {
+                continue;
+            }
+            
+            if(types.stream().allMatch(type -> isVisible(loader, type))) {
+                return candidate;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * 生成したクラスを定義する{@link ClassLoader}。
+     * <p>処理のクラスタイプの組み合わせごとに、生成したクラスのコンストラクタを保持します。</p>
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+        
+        private final Map<List<Object>, Constructor<?>> constructors = new ConcurrentHashMap<>();
+        
+        GeneratedClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+        
+        Constructor<?> getConstructor(final List<Object> key, final List<Class<?>> stepTypes,
+                final boolean hasNext, final Class<?> nextType) {
+                    
+            return constructors.computeIfAbsent(key, k -> {
+                final String className = CLASS_NAME_PREFIX + CLASS_COUNTER.incrementAndGet();
+                final byte[] bytes = new ClassFileBuilder(className, stepTypes, hasNext, nextType).build();
+                final Class<?> generated = defineClass(className, bytes, 0, bytes.length);
+                
+                try {
+                    return hasNext ? generated.getConstructor(List.class, CellProcessor.class)
+                            : generated.getConstructor(List.class);
+                            
+                } catch(NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        
+    }
+    
+    /**
+     * {@link FusedCellProcessor}を継承したクラスのクラスファイルを組み立てます。
+     * <p>生成するクラスは、次のソースに相当します。</p>
+     * <pre class="highlight"><code class="java">
+     * public final class FusedCellProcessor$$Compiled1 extends FusedCellProcessor {
+     *
+     *     private final Trim step0;
+     *     private final Upper step1;
+     *
+     *     public FusedCellProcessor$$Compiled1(List processors, CellProcessor next) {
+     *         super(processors, next);
+     *         this.step0 = (Trim) processors.get(0);
+     *         this.step1 = (Upper) processors.get(1);
+     *     }
+     *
+     *     public Object execute(Object value, CsvContext context) {
+     *         value = step0.executeStep(value, context);
+     *         value = step1.executeStep(value, context);
+     *         return next.execute(value, context);
+     *     }
+     * }
+     * </code></pre>
+     * <p>クラスファイルの出力は、{@link ClassFileWriter}で行います。</p>
+     */
+    private static class ClassFileBuilder {
+        
+        private static final String DESC_OBJECT = descriptor(Object.class);
+        
+        private static final String DESC_EXECUTE = methodDescriptor(Object.class, Object.class, CsvContext.class);
+        
+        private final ClassFileWriter writer = new ClassFileWriter();
+        
+        private final String className;
+        
+        private final List<Class<?>> stepTypes;
+        
+        private final boolean hasNext;
+        
+        private final Class<?> nextType;
+        
+        ClassFileBuilder(final String className, final List<Class<?>> stepTypes, final boolean hasNext, final Class<?> nextType) {
+            this.className = internalName(className);
+            this.stepTypes = stepTypes;
+            this.hasNext = hasNext;
+            this.nextType = nextType;
+        }
+        
+        byte[] build() {
+            
+            try {
+                for(int i=0; i < stepTypes.size(); i++) {
+                    writer.addField(ACC_PRIVATE | ACC_FINAL, fieldName(i), descriptor(stepTypes.get(i)));
+                }
+                
+                writer.addMethod(ACC_PUBLIC, "<init>", constructorDescriptor(), 3, 3, buildConstructor());
+                writer.addMethod(ACC_PUBLIC, "execute", DESC_EXECUTE, 3, 3, buildExecute());
+                
+                return writer.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, internalName(FusedCellProcessor.class));
+                
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            
+        }
+        
+        private String constructorDescriptor() {
+            return hasNext ? methodDescriptor(void.class, List.class, CellProcessor.class)
+                    : methodDescriptor(void.class, List.class);
+        }
+        
+        private byte[] buildConstructor() throws IOException {
+            
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream code = new DataOutputStream(bytes);
+            
+            // super(processors, next);
+            code.writeByte(0x2a);   // aload_0
+            code.writeByte(0x2b);   // aload_1
+            if(hasNext) {
+                code.writeByte(0x2c);   // aload_2
+            }
+            code.writeByte(0xb7);   // invokespecial
+            code.writeShort(writer.methodRef(internalName(FusedCellProcessor.class), "<init>", constructorDescriptor()));
+            
+            // this.stepN = (StepType) processors.get(N);
+            for(int i=0; i < stepTypes.size(); i++) {
+                code.writeByte(0x2a);   // aload_0
+                code.writeByte(0x2b);   // aload_1
+                pushInt(code, i);
+                code.writeByte(0xb9);   // invokeinterface
+                code.writeShort(writer.interfaceMethodRef(internalName(List.class), "get", "(I)" + DESC_OBJECT));
+                code.writeByte(2);
+                code.writeByte(0);
+                code.writeByte(0xc0);   // checkcast
+                code.writeShort(writer.classInfo(internalName(stepTypes.get(i))));
+                code.writeByte(0xb5);   // putfield
+                code.writeShort(writer.fieldRef(className, fieldName(i), descriptor(stepTypes.get(i))));
+            }
+            
+            code.writeByte(0xb1);   // return
+            code.flush();
+            
+            return bytes.toByteArray();
+        }
+        
+        private byte[] buildExecute() throws IOException {
+            
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream code = new DataOutputStream(bytes);
+            
+            // value = this.stepN.executeStep(value, context);
+            for(int i=0; i < stepTypes.size(); i++) {
+                final String stepType = internalName(stepTypes.get(i));
+                code.writeByte(0x2a);   // aload_0
+                code.writeByte(0xb4);   // getfield
+                code.writeShort(writer.fieldRef(className, fieldName(i), descriptor(stepTypes.get(i))));
+                code.writeByte(0x2b);   // aload_1
+                code.writeByte(0x2c);   // aload_2
+                code.writeByte(0xb6);   // invokevirtual
+                code.writeShort(writer.methodRef(stepType, "executeStep", DESC_EXECUTE));
+                code.writeByte(0x4c);   // astore_1
+            }
+            
+            // return this.next.execute(value, context);
+            code.writeByte(0x2a);   // aload_0
+            code.writeByte(0xb4);   // getfield
+            code.writeShort(writer.fieldRef(internalName(CellProcessorAdaptor.class), "next", descriptor(CellProcessor.class)));
+            if(nextType != null) {
+                code.writeByte(0xc0);   // checkcast
+                code.writeShort(writer.classInfo(internalName(nextType)));
+            }
+            code.writeByte(0x2b);   // aload_1
+            code.writeByte(0x2c);   // aload_2
+            if(nextType != null) {
+                code.writeByte(0xb6);   // invokevirtual
+                code.writeShort(writer.methodRef(internalName(nextType), "execute", DESC_EXECUTE));
+            } else {
+                code.writeByte(0xb9);   // invokeinterface
+                code.writeShort(writer.interfaceMethodRef(internalName(CellProcessor.class), "execute", DESC_EXECUTE));
+                code.writeByte(3);
+                code.writeByte(0);
+            }
+            code.writeByte(0xb0);   // areturn
+            code.flush();
+            
+            return bytes.toByteArray();
+        }
+        
+        private static void pushInt(final DataOutputStream code, final int value) throws IOException {
+            
+            if(value <= 5) {
+                code.writeByte(0x03 + value);   // iconst_N
+            } else if(value <= Byte.MAX_VALUE) {
+                code.writeByte(0x10);   // bipush
+                code.writeByte(value);
+            } else {
+                code.writeByte(0x11);   // sipush
+                code.writeShort(value);
+            }
+        }
+        
+        private static String fieldName(final int index) {
+            return "step" + index;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,87 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.supercsv.cellprocessor.CellProcessorAdaptor;
+import org.supercsv.cellprocessor.ift.BoolCellProcessor;
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.cellprocessor.ift.DateCellProcessor;
+import org.supercsv.cellprocessor.ift.DoubleCellProcessor;
+import org.supercsv.cellprocessor.ift.LongCellProcessor;
+import org.supercsv.cellprocessor.ift.StringCellProcessor;
+import org.supercsv.util.CsvContext;
+
+/**
+ * 隣接する複数の{@link FusibleCellProcessor}を、1つにまとめて実行するCellProcessor。
+ * <p>チェインで連なる{@link CellProcessor}は、それぞれが次の{@link CellProcessor#execute(Object, CsvContext)}を呼び出すため、
+ *   呼び出しが入れ子になり、呼び出し先も多様になります。
+ *   <br>このクラスでは、まとめた処理を配列として保持し、1つのループの中で順に実行します。
+ * </p>
+ * <p>変換・検証の処理や、検証エラー時の例外は、まとめる前の{@link FusibleCellProcessor}のものがそのまま使用されます。</p>
+ * <p>まとめた後に、チェインの前に他の{@link CellProcessor}を追加できるよう、各タイプの{@link CellProcessor}のインタフェースを実装します。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class FusedCellProcessor extends CellProcessorAdaptor
+        implements BoolCellProcessor, DateCellProcessor, DoubleCellProcessor, LongCellProcessor, StringCellProcessor {
+    
+    private final FusibleCellProcessor[] processors;
+    
+    /**
+     * チェインの最後に実行されるインスタンスを作成するコンストラクタ。
+     * @param processors まとめる処理。実行する順に指定します。
+     * @throws NullPointerException {@literal processors is null.}
+     * @throws IllegalArgumentException {@literal processors is empty.}
+     */
+    public FusedCellProcessor(final List<FusibleCellProcessor> processors) {
+        super();
+        checkPreconditions(processors);
+        this.processors = processors.toArray(new FusibleCellProcessor[processors.size()]);
+    }
+    
+    /**
+     * チェインの次に実行される{@link CellProcessor}を指定してインスタンスを作成するコンストラクタ。
+     * @param processors まとめる処理。実行する順に指定します。
+     * @param next チェインの中で呼ばれる次の{@link CellProcessor}.
+     * @throws NullPointerException {@literal processors or next is null.}
+     * @throws IllegalArgumentException {@literal processors is empty.}
+     */
+    public FusedCellProcessor(final List<FusibleCellProcessor> processors, final CellProcessor next) {
+        super(next);
+        checkPreconditions(processors);
+        this.processors = processors.toArray(new FusibleCellProcessor[processors.size()]);
+    }
+    
+    private static void checkPreconditions(final List<FusibleCellProcessor> processors) {
+        if(processors == null) {
+            throw new NullPointerException("processors should not be null.");
+            
+        } else if(processors.isEmpty()) {
+            throw new IllegalArgumentException("processors should not be empty.");
+        }
+    }
+    
+    @Override
+    public <T> T execute(final Object value, final CsvContext context) {
+        
+        Object result = value;
+        for(FusibleCellProcessor processor : processors) {
+            result = processor.executeStep(result, context);
+        }
+        
+        return next.execute(result, context);
+    }
+    
+    /**
+     * まとめた処理を取得します。
+     * @return 実行する順の一覧。変更はできません。
+     */
+    public List<FusibleCellProcessor> getProcessors() {
+        return Collections.unmodifiableList(Arrays.asList(processors));
+    }
+    
+}
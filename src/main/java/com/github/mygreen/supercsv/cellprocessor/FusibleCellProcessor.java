@@ -0,0 +1,28 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.util.CsvContext;
+
+/**
+ * 隣接する他の{@link CellProcessor}と、1つの{@link FusedCellProcessor}にまとめることができる{@link CellProcessor}。
+ * <p>チェインの次の{@link CellProcessor}を呼び出さずに、自身の変換・検証のみを実行する{@link #executeStep(Object, CsvContext)}を提供します。
+ *   <br>実装クラスの{@link CellProcessor#execute(Object, CsvContext)}は、
+ *   {@link #executeStep(Object, CsvContext)}の結果を、そのままチェインの次の{@link CellProcessor}に渡す必要があります。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public interface FusibleCellProcessor extends CellProcessor {
+    
+    /**
+     * チェインの次の{@link CellProcessor}を呼び出さずに、自身の処理のみを実行します。
+     * @param value 処理対象の値。
+     * @param context CSVのコンテキスト。
+     * @return 処理した結果。チェインの次の{@link CellProcessor}に渡す値。
+     * @throws org.supercsv.exception.SuperCsvCellProcessorException 変換や検証に失敗した場合。
+     */
+    Object executeStep(Object value, CsvContext context);
+    
+}
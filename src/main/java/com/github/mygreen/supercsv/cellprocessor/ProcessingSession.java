@@ -0,0 +1,72 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.util.CsvContext;
+
+/**
+ * 1つのCSVファイルの読み込み/書き込みの間、{@link CellProcessor}が利用する状態を保持するクラス。
+ * <p>重複チェックで出現した値など、ファイルごとに異なる状態を{@link CellProcessor}のインスタンスではなく、
+ *   このクラスに保持することで、{@link CellProcessor}を複数のReader/Writerで共有できるようにします。
+ * </p>
+ * <p>Reader/Writerは、自身が持つセッションを{@link SessionRowSource}に格納し、
+ *    {@link CsvContext#setRowSource(java.util.List)}で設定して{@link CellProcessor}に渡します。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ProcessingSession {
+    
+    /**
+     * 状態の保持者をキーとした、状態の値。
+     */
+    private final ConcurrentHashMap<Object, Object> states = new ConcurrentHashMap<>();
+    
+    /**
+     * コンテキストに格納されているセッションを取得します。
+     * 
+     * @param context CSVのレコード情報。
+     * @return セッションを持たないコンテキストの場合は、空を返します。
+     */
+    public static Optional<ProcessingSession> from(final CsvContext context) {
+        
+        if(context != null && context.getRowSource() instanceof SessionRowSource) {
+            return Optional.of(((SessionRowSource)context.getRowSource()).getSession());
+        }
+        
+        return Optional.empty();
+    }
+    
+    /**
+     * 状態を取得します。
+     * <p>状態がまだ存在しない場合は、初期値を作成して保持します。</p>
+     * 
+     * @param <S> 状態のクラスタイプ。
+     * @param owner 状態の保持者。通常は{@link CellProcessor}のインスタンスを指定します。
+     * @param initializer 状態の初期値を作成する処理。
+     * @return 状態の値。
+     * @throws NullPointerException {@literal owner or initializer is null.}
+     */
+    @SuppressWarnings("unchecked")
+    public <S> S getState(final Object owner, final Supplier<S> initializer) {
+        Objects.requireNonNull(owner, "owner should not be null.");
+        Objects.requireNonNull(initializer, "initializer should not be null.");
+        
+        return (S) states.computeIfAbsent(owner, key -> initializer.get());
+    }
+    
+    /**
+     * 保持している状態を全て破棄します。
+     * <p>同じReader/Writerで、別のファイルとして処理し直す場合に呼び出します。</p>
+     */
+    public void clear() {
+        states.clear();
+    }
+    
+}
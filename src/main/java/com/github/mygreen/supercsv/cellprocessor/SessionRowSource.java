@@ -0,0 +1,89 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.supercsv.util.CsvContext;
+
+/**
+ * {@link ProcessingSession}を持つ、レコードの元の値の一覧。
+ * <p>{@link CsvContext}は継承できないため、{@link CsvContext#setRowSource(java.util.List)}に設定して、
+ *    {@link ProcessingSession}を{@link org.supercsv.cellprocessor.ift.CellProcessor}に渡します。
+ * </p>
+ * <p>また、エラーを例外として呼び出し元にスローしない読み込みの場合は、
+ *    {@link #setStacklessErrors(boolean)}で、検証エラーの例外のスタックトレースを作成しないよう指定します。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class SessionRowSource extends ArrayList<Object> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final transient ProcessingSession session;
+    
+    private boolean stacklessErrors;
+    
+    /**
+     * 空の値の一覧を作成するコンストラクタ。
+     * 
+     * @param session ファイルごとの処理の状態。
+     * @throws NullPointerException {@literal session is null.}
+     */
+    public SessionRowSource(final ProcessingSession session) {
+        super();
+        this.session = Objects.requireNonNull(session, "session should not be null.");
+    }
+    
+    /**
+     * 値を指定して作成するコンストラクタ。
+     * 
+     * @param session ファイルごとの処理の状態。
+     * @param values レコードの元の値。
+     * @throws NullPointerException {@literal session or values is null.}
+     */
+    public SessionRowSource(final ProcessingSession session, final Collection<?> values) {
+        super(values);
+        this.session = Objects.requireNonNull(session, "session should not be null.");
+    }
+    
+    /**
+     * ファイルごとの処理の状態を取得します。
+     * @return ファイルごとの処理の状態。
+     */
+    public ProcessingSession getSession() {
+        return session;
+    }
+    
+    /**
+     * 検証エラーの例外で、スタックトレースを作成しないかどうか。
+     * @return trueの場合、スタックトレースを作成しません。
+     */
+    public boolean isStacklessErrors() {
+        return stacklessErrors;
+    }
+    
+    /**
+     * 検証エラーの例外で、スタックトレースを作成しないかどうか設定します。
+     * <p>例外をReaderの内部で捕捉してエラー情報に変換し、呼び出し元にスローしない場合のみ指定します。</p>
+     * @param stacklessErrors trueの場合、スタックトレースを作成しません。
+     */
+    public void setStacklessErrors(final boolean stacklessErrors) {
+        this.stacklessErrors = stacklessErrors;
+    }
+    
+    /**
+     * コンテキストに格納されている値の一覧で、検証エラーの例外のスタックトレースを作成しないよう指定されているかどうか判定します。
+     * 
+     * @param context CSVのレコード情報。
+     * @return {@link SessionRowSource}を持たないコンテキストの場合は、falseを返します。
+     */
+    public static boolean isStacklessErrors(final CsvContext context) {
+        return context != null && context.getRowSource() instanceof SessionRowSource
+                && ((SessionRowSource)context.getRowSource()).isStacklessErrors();
+    }
+    
+}
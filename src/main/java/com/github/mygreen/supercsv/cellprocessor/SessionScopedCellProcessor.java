@@ -0,0 +1,17 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+
+/**
+ * 状態を、自身のインスタンスではなく{@link ProcessingSession}に保持する{@link CellProcessor}であることを示すマーカーインタフェース。
+ * <p>このインタフェースを実装している{@link CellProcessor}は、複数のReader/Writerで共有しても、
+ *    ファイルごとに独立した状態で処理されます。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public interface SessionScopedCellProcessor extends StatefulCellProcessor {
+    
+}
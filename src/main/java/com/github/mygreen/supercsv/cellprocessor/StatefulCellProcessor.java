@@ -0,0 +1,18 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+
+/**
+ * 読み込んだレコードの情報を状態として保持する{@link CellProcessor}であることを示すマーカーインタフェース。
+ * <p>例えば、値の重複チェックなど、処理結果がレコードの処理順序に依存する{@link CellProcessor}に付与します。</p>
+ * <p>複数のスレッドでレコードを処理する場合、このインタフェースを実装している{@link CellProcessor}を含むカラムは、
+ *    CSVファイルの出現順に1つのスレッドで処理されます。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public interface StatefulCellProcessor {
+
+}
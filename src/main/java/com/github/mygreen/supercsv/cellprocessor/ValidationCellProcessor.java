@@ -10,7 +10,7 @@ import com.github.mygreen.supercsv.util.Utils;
 /**
  * 入力値検証用の{@link CellProcessor}のベースとなるクラス。
  * 
- * @version 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -67,6 +67,7 @@ public abstract class ValidationCellProcessor extends CellProcessorAdaptor {
      * @param context CsvContext CSVのコンテキスト。
      * @return 予め検証用のメッセージは設定された状態で作成される。
      *         ただし、{@link #getValidationMessage()}がnullまたは空の場合、{@link #getDefaultValidationMessage()}が設定される。
+     *         <br>コンテキストが{@link SessionRowSource#isStacklessErrors(CsvContext)}に該当する場合は、スタックトレースを作成しない設定となる。
      */
     public SuperCsvValidationException.Builder createValidationException(final CsvContext context) {
         
@@ -76,7 +77,8 @@ public abstract class ValidationCellProcessor extends CellProcessorAdaptor {
         }
         
         return new SuperCsvValidationException.Builder(context, this)
-                .validationMessage(message);
+                .validationMessage(message)
+                .stackless(SessionRowSource.isStacklessErrors(context));
     }
     
 }
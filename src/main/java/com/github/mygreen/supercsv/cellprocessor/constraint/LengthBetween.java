@@ -6,17 +6,18 @@ import org.supercsv.exception.SuperCsvCellProcessorException;
 import org.supercsv.exception.SuperCsvConstraintViolationException;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ValidationCellProcessor;
 
 
 /**
  * 文字列長が範囲であるか検証するCellProcessor.
  * 
- * @version 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
-public class LengthBetween extends ValidationCellProcessor implements StringCellProcessor {
+public class LengthBetween extends ValidationCellProcessor implements StringCellProcessor, FusibleCellProcessor {
     
     private final int min;
     
@@ -66,9 +67,18 @@ public class LengthBetween extends ValidationCellProcessor implements StringCell
      */
     @SuppressWarnings("unchecked")
     public Object execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
         final String stringValue = value.toString();
@@ -85,7 +95,7 @@ public class LengthBetween extends ValidationCellProcessor implements StringCell
                 
         }
         
-        return next.execute(stringValue, context);
+        return stringValue;
     }
     
     /**
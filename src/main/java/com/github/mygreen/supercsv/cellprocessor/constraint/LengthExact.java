@@ -11,6 +11,7 @@ import org.supercsv.exception.SuperCsvCellProcessorException;
 import org.supercsv.exception.SuperCsvConstraintViolationException;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ValidationCellProcessor;
 import com.github.mygreen.supercsv.util.Utils;
 
@@ -18,11 +19,11 @@ import com.github.mygreen.supercsv.util.Utils;
 /**
  * 文字列の長さを検証するCellProcessor.
  * 
- * @version 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
-public class LengthExact extends ValidationCellProcessor implements StringCellProcessor {
+public class LengthExact extends ValidationCellProcessor implements StringCellProcessor, FusibleCellProcessor {
     
     private final Set<Integer> requriedLengths = new TreeSet<>();
     
@@ -66,9 +67,18 @@ public class LengthExact extends ValidationCellProcessor implements StringCellPr
      */
     @SuppressWarnings("unchecked")
     public Object execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
         final String stringValue = value.toString();
@@ -88,7 +98,7 @@ public class LengthExact extends ValidationCellProcessor implements StringCellPr
                 
         }
         
-        return next.execute(stringValue, context);
+        return stringValue;
     }
     
     /**
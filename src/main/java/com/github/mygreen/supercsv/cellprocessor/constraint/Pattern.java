@@ -3,17 +3,19 @@ package com.github.mygreen.supercsv.cellprocessor.constraint;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ValidationCellProcessor;
 
 
 /**
  * 文字列に対して、正規表現に一致するか検証するCellProcessor.
  *
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class Pattern extends ValidationCellProcessor implements StringCellProcessor {
+public class Pattern extends ValidationCellProcessor implements StringCellProcessor, FusibleCellProcessor {
     
     private final java.util.regex.Pattern pattern;
     
@@ -42,9 +44,18 @@ public class Pattern extends ValidationCellProcessor implements StringCellProces
     @SuppressWarnings("unchecked")
     @Override
     public Object execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
         final boolean matches = pattern.matcher((String) value).matches();
@@ -58,7 +69,7 @@ public class Pattern extends ValidationCellProcessor implements StringCellProces
                 .build();
         }
         
-        return next.execute(value, context);
+        return value;
     }
     
     /**
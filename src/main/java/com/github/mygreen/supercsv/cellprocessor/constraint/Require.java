@@ -8,17 +8,20 @@ import org.supercsv.cellprocessor.ift.LongCellProcessor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ValidationCellProcessor;
 
 /**
  * 値が必須かどうかチェックする制約のCellProcessor。
  *
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
 public class Require extends ValidationCellProcessor 
-        implements BoolCellProcessor, DateCellProcessor, DoubleCellProcessor, LongCellProcessor, StringCellProcessor {
+        implements BoolCellProcessor, DateCellProcessor, DoubleCellProcessor, LongCellProcessor, StringCellProcessor,
+        FusibleCellProcessor {
     
     private final boolean considerEmpty;
     
@@ -38,6 +41,15 @@ public class Require extends ValidationCellProcessor
     
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if (!validate(value)){
             throw createValidationException(context)
@@ -48,7 +60,7 @@ public class Require extends ValidationCellProcessor
                 .build();
         }
         
-        return next.execute(value, context);
+        return value;
     }
     
     private boolean validate(final Object value) {
@@ -6,18 +6,27 @@ import java.util.Map;
 import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionScopedCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ValidationCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.format.TextPrinter;
 
 /**
  * 値がユニークかチェックするCellProcessor.
+ * <p>出現した値は、{@link ProcessingSession}を持つコンテキストの場合はセッションごとに保持し、
+ *    それ以外の場合はインスタンスに保持します。
+ * </p>
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class Unique<T> extends ValidationCellProcessor {
+public class Unique<T> extends ValidationCellProcessor implements SessionScopedCellProcessor {
     
+    /**
+     * セッションを持たないコンテキストで処理する場合に、出現した値を保持する。
+     */
     private final Map<T, ValueObject> encounteredElements = new HashMap<>();
     
     private final TextPrinter<T> printer;
@@ -49,6 +58,7 @@ public class Unique<T> extends ValidationCellProcessor {
         }
         
         final T result = (T)value;
+        final Map<T, ValueObject> encounteredElements = getEncounteredElements(context);
         
         if(encounteredElements.containsKey(result)) {
             
@@ -70,6 +80,17 @@ public class Unique<T> extends ValidationCellProcessor {
         return next.execute(value, context);
     }
     
+    /**
+     * 出現した値を保持するマップを取得する。
+     * @param context 現在のCSVのレコード情報。
+     * @return セッションを持つ場合は、セッションごとのマップ。
+     */
+    private Map<T, ValueObject> getEncounteredElements(final CsvContext context) {
+        return ProcessingSession.from(context)
+                .map(session -> session.<Map<T, ValueObject>>getState(this, HashMap::new))
+                .orElse(encounteredElements);
+    }
+    
     private class ValueObject {
         
         final T value;
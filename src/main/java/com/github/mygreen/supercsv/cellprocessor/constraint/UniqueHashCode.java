@@ -6,18 +6,32 @@ import java.util.Map;
 import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionScopedCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.ValidationCellProcessor;
 import com.github.mygreen.supercsv.cellprocessor.format.TextPrinter;
 
 /**
  * 値がユニークかハッシュコードを元にチェックするCellProcessor.
+ * <p>出現した値は、{@link ProcessingSession}を持つコンテキストの場合はセッションごとに保持し、
+ *    それ以外の場合はインスタンスに保持します。
+ * </p>
+ * <p>ハッシュコードのみで比較するため、異なる値でもハッシュコードが同じ場合は重複とし、
+ *    その値が最初に出現した行を重複元として報告します。
+ *    <br>2.1までは、{@link Integer}以外の値が重複した場合に、重複元の行が見つからず{@link NullPointerException}となり、
+ *    重複として報告されませんでした。
+ * </p>
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class UniqueHashCode<T> extends ValidationCellProcessor {
+public class UniqueHashCode<T> extends ValidationCellProcessor implements SessionScopedCellProcessor {
     
+    /**
+     * セッションを持たないコンテキストで処理する場合に、出現した値を保持する。
+     */
     private final Map<Integer, ValueObject> encounteredElements = new HashMap<>();
     
     private final TextPrinter<T> printer;
@@ -50,10 +64,11 @@ public class UniqueHashCode<T> extends ValidationCellProcessor {
         
         final T result = (T)value;
         final int hashCode = value.hashCode();
+        final Map<Integer, ValueObject> encounteredElements = getEncounteredElements(context);
         
         if(encounteredElements.containsKey(hashCode)) {
             
-            final ValueObject duplicatedObject = encounteredElements.get(result);
+            final ValueObject duplicatedObject = encounteredElements.get(hashCode);
             throw createValidationException(context)
                 .messageFormat("duplicate hashCode '%s' encountered.", hashCode)
                 .rejectedValue(result)
@@ -71,6 +86,17 @@ public class UniqueHashCode<T> extends ValidationCellProcessor {
         return next.execute(value, context);
     }
     
+    /**
+     * 出現した値を保持するマップを取得する。
+     * @param context 現在のCSVのレコード情報。
+     * @return セッションを持つ場合は、セッションごとのマップ。
+     */
+    private Map<Integer, ValueObject> getEncounteredElements(final CsvContext context) {
+        return ProcessingSession.from(context)
+                .map(session -> session.<Map<Integer, ValueObject>>getState(this, HashMap::new))
+                .orElse(encounteredElements);
+    }
+    
     private static class ValueObject {
         
         final int hashCode;
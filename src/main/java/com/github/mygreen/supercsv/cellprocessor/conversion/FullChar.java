@@ -4,14 +4,17 @@ import org.supercsv.cellprocessor.CellProcessorAdaptor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 /**
  * 半角を全角に変換するCellProcessor。
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class FullChar extends CellProcessorAdaptor implements StringCellProcessor {
+public class FullChar extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
     
     private final CharCategory[] categories;
     
@@ -42,13 +45,21 @@ public class FullChar extends CellProcessorAdaptor implements StringCellProcesso
     
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
-        final String result = replacer.replaceToFullChar(value.toString());
-        return next.execute(result, context);
+        return replacer.replaceToFullChar(value.toString());
     }
     
     /**
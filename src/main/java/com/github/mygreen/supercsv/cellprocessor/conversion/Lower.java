@@ -4,14 +4,17 @@ import org.supercsv.cellprocessor.CellProcessorAdaptor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 /**
  * 小文字に変換するCellProcessor
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class Lower extends CellProcessorAdaptor implements StringCellProcessor {
+public class Lower extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
     
     public Lower() {
         super();
@@ -23,12 +26,20 @@ public class Lower extends CellProcessorAdaptor implements StringCellProcessor {
     
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
-        final String result = value.toString().toLowerCase();
-        return next.execute(result, context);
+        return value.toString().toLowerCase();
     }
     
 }
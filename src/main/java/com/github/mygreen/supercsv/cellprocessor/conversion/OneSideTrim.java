@@ -5,14 +5,17 @@ import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 /**
  * 片方だけトリムするCellProcessor。
  *
+ * @version 2.2
  * @since 2.1
  * @author T.TSUCHIE
  *
  */
-public class OneSideTrim extends CellProcessorAdaptor implements StringCellProcessor {
+public class OneSideTrim extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
 
     /**
      * トリム対象の文字
@@ -55,13 +58,21 @@ public class OneSideTrim extends CellProcessorAdaptor implements StringCellProce
      */
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value,  context);
+            return null;
         }
         
-        final String result = trim(value.toString());
-        return next.execute(result, context);
+        return trim(value.toString());
     }
 
     /**
@@ -8,14 +8,17 @@ import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 /**
  * 文字列を置換する{@link CellProcessor}です。
  * 
+ * @version 2.2
  * @since 1.2
  * @author T.TSUCHIE
  *
  */
-public class RegexReplace extends CellProcessorAdaptor implements StringCellProcessor {
+public class RegexReplace extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
     
     private final Pattern pattern;
     
@@ -69,18 +72,26 @@ public class RegexReplace extends CellProcessorAdaptor implements StringCellProc
     
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
         final Matcher matcher = pattern.matcher(value.toString());
         if(matcher.matches()) {
-            final String result = matcher.replaceAll(replacement);
-            return next.execute(result, context);
+            return matcher.replaceAll(replacement);
         }
         
-        return next.execute(value, context);
+        return value;
     }
     
     /**
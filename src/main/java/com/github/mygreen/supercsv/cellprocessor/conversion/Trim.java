@@ -4,16 +4,19 @@ import org.supercsv.cellprocessor.CellProcessorAdaptor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 
 /**
  * 文字列をトリムするCellProcessor。
  * <p>値がNullの時も処理を続行する</p>
  * 
+ * @version 2.2
  * @since 1.0.2
  * @author T.TSUCHIE
  *
  */
-public class Trim extends CellProcessorAdaptor implements StringCellProcessor {
+public class Trim extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
     
     /**
      * Constructs a new <tt>Trim</tt> processor, which trims a String to ensure it has no surrounding whitespace.
@@ -35,13 +38,21 @@ public class Trim extends CellProcessorAdaptor implements StringCellProcessor {
     
     @SuppressWarnings("unchecked")
     public Object execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
-        final String result = value.toString().trim();
-        return next.execute(result, context);
+        return value.toString().trim();
     }
     
 }
@@ -4,14 +4,17 @@ import org.supercsv.cellprocessor.CellProcessorAdaptor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 /**
  * 大文字に変換するCellProcessor
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class Upper extends CellProcessorAdaptor implements StringCellProcessor {
+public class Upper extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
     
     public Upper() {
         super();
@@ -23,13 +26,21 @@ public class Upper extends CellProcessorAdaptor implements StringCellProcessor {
     
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
-        final String result = value.toString().toUpperCase();
-        return next.execute(result, context);
+        return value.toString().toUpperCase();
     }
     
 }
@@ -4,14 +4,17 @@ import org.supercsv.cellprocessor.CellProcessorAdaptor;
 import org.supercsv.cellprocessor.ift.StringCellProcessor;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 /**
  * 一致する語彙を置換するCellProcessor。
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
  */
-public class WordReplace extends CellProcessorAdaptor implements StringCellProcessor {
+public class WordReplace extends CellProcessorAdaptor implements StringCellProcessor, FusibleCellProcessor {
     
     private final CharReplacer replacer;
     
@@ -35,13 +38,21 @@ public class WordReplace extends CellProcessorAdaptor implements StringCellProce
     
     @Override
     public <T> T execute(final Object value, final CsvContext context) {
+        return next.execute(executeStep(value, context), context);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 2.2
+     */
+    @Override
+    public Object executeStep(final Object value, final CsvContext context) {
         
         if(value == null) {
-            return next.execute(value, context);
+            return null;
         }
         
-        final String result = replacer.replace(value.toString());
-        return next.execute(result, context);
+        return replacer.replace(value.toString());
     }
     
 }
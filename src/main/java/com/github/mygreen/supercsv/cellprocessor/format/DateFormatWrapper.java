@@ -13,7 +13,9 @@ import java.util.Optional;
 
 /**
  * スレッドセーフな{@link DateFormat}。
+ * <p>スレッドごとに複製したインスタンスを利用するため、同期化は行いません。</p>
  *
+ * @version 2.2
  * @since 1.2
  * @author T.TSUCHIE
  *
@@ -22,6 +24,11 @@ public class DateFormatWrapper<T extends Date> extends AbstractTextFormatter<T>
     
     private final DateFormat formatter;
     
+    /**
+     * スレッドごとのフォーマッタ。
+     */
+    private final ThreadLocal<DateFormat> localFormatter;
+    
     private final Class<T> type;
     
     /**
@@ -35,6 +42,7 @@ public class DateFormatWrapper<T extends Date> extends AbstractTextFormatter<T>
         Objects.requireNonNull(type);
         
         this.formatter = (DateFormat) formatter.clone();
+        this.localFormatter = ThreadLocal.withInitial(() -> (DateFormat) this.formatter.clone());
         this.type = type;
         
     }
@@ -71,6 +79,7 @@ public class DateFormatWrapper<T extends Date> extends AbstractTextFormatter<T>
         }
         
         this.formatter = new SimpleDateFormat(pattern);
+        this.localFormatter = ThreadLocal.withInitial(() -> (DateFormat) this.formatter.clone());
     }
     
     /**
@@ -79,18 +88,18 @@ public class DateFormatWrapper<T extends Date> extends AbstractTextFormatter<T>
      * @return フォーマットした文字列。
      */
     @Override
-    public synchronized String print(final Date date) {
-        return formatter.format(date);
+    public String print(final Date date) {
+        return localFormatter.get().format(date);
         
     }
     
     @SuppressWarnings("unchecked")
     @Override
-    public synchronized T parse(final String text) throws TextParseException {
+    public T parse(final String text) throws TextParseException {
         
         final Date date;
         try {
-            date = formatter.parse(text);
+            date = localFormatter.get().parse(text);
         } catch (ParseException e) {
             throw new TextParseException(text, Date.class);
         }
@@ -13,7 +13,9 @@ import java.util.Optional;
 
 /**
  * 書式を指定した数値のフォーマッタ。
+ * <p>{@link NumberFormat}はスレッドセーフではないため、スレッドごとに複製したインスタンスを利用します。</p>
  * 
+ * @version 2.2
  * @since 1.2
  * @author T.TSUCHIE
  *
@@ -22,6 +24,11 @@ public class NumberFormatWrapper<T extends Number> extends AbstractTextFormatter
     
     private final NumberFormat formatter;
     
+    /**
+     * スレッドごとのフォーマッタ。
+     */
+    private final ThreadLocal<NumberFormat> localFormatter;
+    
     private final Class<T> type;
     
     private final boolean lenient;
@@ -35,14 +42,15 @@ public class NumberFormatWrapper<T extends Number> extends AbstractTextFormatter
         Objects.requireNonNull(type);
         
         this.formatter = (NumberFormat) formatter.clone();
+        this.localFormatter = ThreadLocal.withInitial(() -> (NumberFormat) this.formatter.clone());
         this.type = type;
         this.lenient = lenient;
         
     }
     
     @Override
-    public synchronized String print(final Number number) {
-        return formatter.format(number);
+    public String print(final Number number) {
+        return localFormatter.get().format(number);
     }
     
     @Override
@@ -61,8 +69,9 @@ public class NumberFormatWrapper<T extends Number> extends AbstractTextFormatter
      * @throws TextParseException fail convert Number or BigDecimal.
      */
     @SuppressWarnings("unchecked")
-    synchronized <N extends Number> N parse(final Class<N> type, final String text) {
+    <N extends Number> N parse(final Class<N> type, final String text) {
         
+        final NumberFormat formatter = localFormatter.get();
         final Number result;
         if(lenient) {
             try {
@@ -0,0 +1,144 @@
+package com.github.mygreen.supercsv.cellprocessor.format;
+
+import java.math.BigDecimal;
+
+/**
+ * 書式がない数値の文字列を、{@link BigDecimal}を経由せずにプリミティブ型の値に直接変換するパーサ。
+ * <p>符号と数字のみからなる文字列など、よく現れる単純な形式のみを対象とし、
+ *   {@link BigDecimal}で変換した場合と結果が完全に一致する範囲でのみ変換します。
+ *   <br>指数表記や桁数の多い値など、対象外の形式の場合は、変換できなかったことを表す値を返すため、
+ *   呼び出し元で{@link BigDecimal}による変換を行う必要があります。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+final class PrimitiveNumberParser {
+    
+    /**
+     * 整数を変換できなかったことを表す値。
+     * <p>18桁以内の数字からは、この値は変換されません。</p>
+     */
+    static final long NOT_PARSED = Long.MIN_VALUE;
+    
+    /**
+     * {@literal long}型の範囲で、必ず桁あふれしない桁数。
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+    
+    /**
+     * {@literal double}型で、誤差なく整数を表現できる桁数。
+     */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+    
+    /**
+     * 誤差なく表現できる10の累乗。
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    
+    private PrimitiveNumberParser() {
+    }
+    
+    /**
+     * 符号と数字のみからなる文字列を、{@literal long}型に変換します。
+     * @param text 変換対象の文字列。
+     * @return 変換した値。対象外の形式の場合は、{@link #NOT_PARSED}を返します。
+     */
+    static long parseLong(final String text) {
+        
+        if(text == null) {
+            return NOT_PARSED;
+        }
+        
+        final int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if(length > 0) {
+            final char sign = text.charAt(0);
+            if(sign == '-' || sign == '+') {
+                negative = (sign == '-');
+                index++;
+            }
+        }
+        
+        final int digits = length - index;
+        if(digits <= 0 || digits > MAX_LONG_DIGITS) {
+            return NOT_PARSED;
+        }
+        
+        long value = 0L;
+        for(; index < length; index++) {
+            final int digit = text.charAt(index) - '0';
+            if(digit < 0 || digit > 9) {
+                return NOT_PARSED;
+            }
+            value = value * 10L + digit;
+        }
+        
+        return negative ? -value : value;
+    }
+    
+    /**
+     * 符号と数字、小数点のみからなる文字列を、{@literal double}型に変換します。
+     * <p>数字の桁数が15桁以内の場合、整数部と小数部を合わせた値と10の累乗は誤差なく表現できるため、
+     *   1回の除算により、{@link BigDecimal#doubleValue()}と同じく正しく丸めた値となります。
+     * </p>
+     * @param text 変換対象の文字列。
+     * @return 変換した値。対象外の形式の場合は、{@link Double#NaN}を返します。
+     */
+    static double parseDouble(final String text) {
+        
+        if(text == null) {
+            return Double.NaN;
+        }
+        
+        final int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if(length > 0) {
+            final char sign = text.charAt(0);
+            if(sign == '-' || sign == '+') {
+                negative = (sign == '-');
+                index++;
+            }
+        }
+        
+        long value = 0L;
+        int digits = 0;
+        int scale = -1;
+        for(; index < length; index++) {
+            final char c = text.charAt(index);
+            if(c == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            
+            final int digit = c - '0';
+            if(digit < 0 || digit > 9 || ++digits > MAX_DOUBLE_DIGITS) {
+                return Double.NaN;
+            }
+            
+            value = value * 10L + digit;
+            if(scale >= 0) {
+                scale++;
+            }
+        }
+        
+        if(digits == 0) {
+            return Double.NaN;
+        }
+        
+        if(value == 0L) {
+            // BigDecimalは負のゼロを持たない
+            return 0.0d;
+        }
+        
+        final double result = scale > 0 ? value / DOUBLE_POWERS_OF_TEN[scale] : value;
+        return negative ? -result : result;
+    }
+    
+}
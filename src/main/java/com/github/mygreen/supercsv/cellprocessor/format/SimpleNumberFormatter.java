@@ -7,9 +7,16 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import com.github.mygreen.supercsv.util.Utils;
+
 /**
  * 書式がない数値のフォーマッタ。
+ * <p>丸め方法の指定がない場合、{@literal byte/short/int/long/double}型とそのラッパークラスは、
+ *   符号と数字のみからなる単純な形式の文字列を、{@link BigDecimal}を経由せずに直接変換します。
+ *   <br>それ以外の形式や範囲外の値の場合は、{@link BigDecimal}を経由して変換するため、結果や例外は変わりません。
+ * </p>
  *
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
@@ -18,6 +25,11 @@ public class SimpleNumberFormatter<T extends Number> extends AbstractTextFormatt
     
     private final Class<T> type;
     
+    /**
+     * 数値のクラスタイプ。プリミティブ型の場合はラッパークラス。
+     */
+    private final Class<?> wrapperType;
+    
     private final boolean lenient;
     
     private final MathContext mathContext;
@@ -46,6 +58,7 @@ public class SimpleNumberFormatter<T extends Number> extends AbstractTextFormatt
         Objects.requireNonNull(type);
         
         this.type = type;
+        this.wrapperType = Utils.getWrapperClass(type);
         this.lenient = lenient;
         this.mathContext = mathContext;
         
@@ -55,6 +68,13 @@ public class SimpleNumberFormatter<T extends Number> extends AbstractTextFormatt
     @Override
     public T parse(final String text) {
         
+        if(mathContext == null) {
+            final Number number = parsePrimitive(text);
+            if(number != null) {
+                return (T) number;
+            }
+        }
+        
         try {
             final BigDecimal number = mathContext == null ? new BigDecimal(text) : new BigDecimal(text, mathContext);
             return (T) parseFromBigDecimal(type, number);
@@ -64,6 +84,42 @@ public class SimpleNumberFormatter<T extends Number> extends AbstractTextFormatt
         }
     }
     
+    /**
+     * 単純な形式の文字列を、{@link BigDecimal}を経由せずに変換します。
+     * <p>範囲外の値の場合は、{@link BigDecimal}を経由して変換し、同じ例外をスローさせるため、nullを返します。</p>
+     * @param text 変換対象の文字列。
+     * @return 変換できない場合は、nullを返します。
+     */
+    private Number parsePrimitive(final String text) {
+        
+        if(wrapperType == Double.class) {
+            final double value = PrimitiveNumberParser.parseDouble(text);
+            return Double.isNaN(value) ? null : value;
+            
+        } else if(wrapperType != Long.class && wrapperType != Integer.class
+                && wrapperType != Short.class && wrapperType != Byte.class) {
+            return null;
+        }
+        
+        final long value = PrimitiveNumberParser.parseLong(text);
+        if(value == PrimitiveNumberParser.NOT_PARSED) {
+            return null;
+            
+        } else if(wrapperType == Long.class) {
+            return value;
+            
+        } else if(wrapperType == Integer.class) {
+            return lenient || (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) ? (int)value : null;
+            
+        } else if(wrapperType == Short.class) {
+            return lenient || (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) ? (short)value : null;
+            
+        } else {
+            return lenient || (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) ? (byte)value : null;
+        }
+        
+    }
+    
     private Number parseFromBigDecimal(final Class<? extends Number> type, final BigDecimal number) {
         
         if(Byte.class.isAssignableFrom(type) || byte.class.isAssignableFrom(type)) {
@@ -12,7 +12,12 @@ import org.supercsv.util.CsvContext;
 
 /**
  * 行のエラーをまとめた例外。
+ * <p>{@link #stackless(String, CsvContext)}で作成した場合は、スタックトレースを作成しません。
+ *    例外を呼び出し元にスローせずにエラーメッセージに変換する場合に、カラムのエラーを集めるための入れ物として利用します。
+ *    その場合、エラーの発生箇所は、{@link #getColumnErrors()}で取得できる各カラムの例外と、{@link #getCsvContext()}で確認します。
+ * </p>
  *
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -27,6 +32,18 @@ public class SuperCsvRowException extends SuperCsvException {
         super(msg, context);
     }
     
+    /**
+     * スタックトレースを作成しない例外のインスタンスを作成します。
+     * 
+     * @since 2.2
+     * @param msg メッセージ。
+     * @param context CSVのレコード情報。
+     * @return スタックトレースを作成しない例外。
+     */
+    public static SuperCsvRowException stackless(final String msg, final CsvContext context) {
+        return new StacklessException(msg, context);
+    }
+    
     public void addError(final SuperCsvException error) {
         this.columnErrors.add(error);
     }
@@ -108,5 +125,30 @@ public class SuperCsvRowException extends SuperCsvException {
         
     }
     
+    /**
+     * スタックトレースを作成しない{@link SuperCsvRowException}。
+     * 
+     * @since 2.2
+     */
+    private static class StacklessException extends SuperCsvRowException {
+        
+        /** serialVersionUID */
+        private static final long serialVersionUID = 1L;
+        
+        StacklessException(final String msg, final CsvContext context) {
+            super(msg, context);
+        }
+        
+        /**
+         * スタックトレースを作成しません。
+         * 
+         * @return 自身のインスタンス。
+         */
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+        
+    }
     
 }
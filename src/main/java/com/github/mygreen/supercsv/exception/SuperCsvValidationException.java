@@ -13,7 +13,13 @@ import com.github.mygreen.supercsv.util.Utils;
 /**
  * {@link CellProcessor}の実行に失敗（入力値が不正）などの時にスローされる例外。
  * <p>フォーマット用のメッセージや、変数が設定可能。</p>
+ * <p>{@link Builder#stackless(boolean)}を指定した場合は、スタックトレースを作成しません。
+ *    {@link com.github.mygreen.supercsv.io.AbstractCsvAnnotationBeanReader#readNext()}など、
+ *    例外を呼び出し元にスローせずにエラーメッセージに変換する場合に利用します。
+ *    その場合、エラーの発生箇所は、{@link #getProcessor()}と{@link #getCsvContext()}で確認します。
+ * </p>
  *
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
@@ -71,6 +77,16 @@ public class SuperCsvValidationException extends SuperCsvCellProcessorException
         return parsedError;
     }
     
+    /**
+     * スタックトレースを作成しない例外かどうか。
+     * 
+     * @since 2.2
+     * @return trueの場合、スタックトレースを作成しない例外。
+     */
+    public boolean isStackless() {
+        return false;
+    }
+    
     @Override
     public SuperCsvValidationException clone() {
         return new Builder(new CsvContext(getCsvContext()), getProcessor())
@@ -80,9 +96,45 @@ public class SuperCsvValidationException extends SuperCsvCellProcessorException
                 .validationMessage(validationMessage)
                 .messageVariables(messageVariables)
                 .parsedError(parsedError)
+                .stackless(isStackless())
                 .build();
     }
     
+    /**
+     * スタックトレースを作成しない{@link SuperCsvValidationException}。
+     * 
+     * @since 2.2
+     */
+    private static class StacklessException extends SuperCsvValidationException {
+        
+        /** serialVersionUID */
+        private static final long serialVersionUID = 1L;
+        
+        StacklessException(final String msg, final CsvContext context, final CellProcessor processor) {
+            super(msg, context, processor);
+        }
+        
+        StacklessException(final String msg, final CsvContext context, final CellProcessor processor, final Throwable t) {
+            super(msg, context, processor, t);
+        }
+        
+        @Override
+        public boolean isStackless() {
+            return true;
+        }
+        
+        /**
+         * スタックトレースを作成しません。
+         * 
+         * @return 自身のインスタンス。
+         */
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+        
+    }
+    
     /**
      * {@link SuperCsvValidationException}のインスタンスを作成するビルダクラス。
      *
@@ -105,6 +157,8 @@ public class SuperCsvValidationException extends SuperCsvCellProcessorException
         
         private boolean parsedError;
         
+        private boolean stackless;
+        
         public Builder(CsvContext context, CellProcessor processor) {
             this.context = context;
             this.processor = processor;
@@ -215,6 +269,19 @@ public class SuperCsvValidationException extends SuperCsvCellProcessorException
             return this;
         }
         
+        /**
+         * スタックトレースを作成しないかどうか設定する。
+         * <p>例外を捕捉してエラーメッセージに変換し、呼び出し元にスローしない場合のみ指定する。</p>
+         * 
+         * @since 2.2
+         * @param stackless trueの場合、スタックトレースを作成しない。
+         * @return
+         */
+        public Builder stackless(boolean stackless) {
+            this.stackless = stackless;
+            return this;
+        }
+        
         /**
          * {@link SuperCsvValidationException}のインスタンスを作成する。
          * @return
@@ -225,7 +292,10 @@ public class SuperCsvValidationException extends SuperCsvCellProcessorException
                     .orElseGet(() -> processor.getClass().getName() + " error.");
             
             final SuperCsvValidationException error;
-            if(exception == null) {
+            if(stackless) {
+                error = (exception == null) ? new StacklessException(msg, context, processor)
+                        : new StacklessException(msg, context, processor, exception);
+            } else if(exception == null) {
                 error = new SuperCsvValidationException(msg, context, processor);
             } else {
                 error = new SuperCsvValidationException(msg, context, processor, exception);
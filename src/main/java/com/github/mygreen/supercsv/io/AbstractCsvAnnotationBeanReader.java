@@ -2,12 +2,15 @@ package com.github.mygreen.supercsv.io;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.exception.SuperCsvCellProcessorException;
@@ -23,22 +26,32 @@ import org.supercsv.util.MethodCache;
 
 import com.github.mygreen.supercsv.builder.BeanMapping;
 import com.github.mygreen.supercsv.builder.CallbackMethod;
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionRowSource;
 import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
 import com.github.mygreen.supercsv.exception.SuperCsvNoMatchColumnSizeException;
 import com.github.mygreen.supercsv.exception.SuperCsvNoMatchHeaderException;
 import com.github.mygreen.supercsv.exception.SuperCsvRowException;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
 import com.github.mygreen.supercsv.validation.CsvBindingErrors;
 import com.github.mygreen.supercsv.validation.CsvError;
+import com.github.mygreen.supercsv.validation.CsvErrorMessageList;
+import com.github.mygreen.supercsv.validation.CsvErrorSink;
 import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
 import com.github.mygreen.supercsv.validation.CsvValidator;
 import com.github.mygreen.supercsv.validation.ValidationContext;
 
 /**
  * アノテーションを元にCSVファイルを読み込むための抽象クラス。
+ * <p>{@link CsvValidator}などで{@link CsvContext#getRowSource()}から取得できる行の値は、
+ *    処理中の行の字句解析したカラムの値（{@link org.supercsv.cellprocessor.ift.CellProcessor}で変換する前の値）です。
+ *    <br>バージョン2.1以前は、1つ前の行の変換後の値が設定されていましたが、バージョン2.2から処理中の行の値に変更しています。
+ * </p>
  * 
  * @param <T> マッピング対象のBeanのクラスタイプ
  *
  * @see CsvBeanReader
+ * @version 2.2
  * @since 2.1
  * @author T.TSUCHIE
  *
@@ -61,17 +74,55 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
     protected CsvExceptionConverter exceptionConverter = new CsvExceptionConverter();
     
     /** processing error messages. */
-    protected final List<String> errorMessages = new ArrayList<>();
+    protected final CsvErrorMessageList errorMessages = new CsvErrorMessageList();
+    
+    /** エラーを受け取る処理。 */
+    private CsvErrorSink errorSink;
     
     /** validator */
     protected final List<CsvValidator<T>> validators = new ArrayList<>();
     
+    /** 状態を持つCellProcessorを含むカラムかどうか。 */
+    private boolean[] statefulColumns;
+    
+    /** {@link #statefulColumns}の判定元のCellProcessor。 */
+    private CellProcessor[] statefulColumnsSource;
+    
+    /** 行ごとに作成するオブジェクトを再利用するかどうか。 */
+    private boolean reuseRowObjects = false;
+    
+    /** 再利用する行のコンテキスト。 */
+    private CsvContext reusableContext;
+    
+    /** 再利用する行のコンテキストの元の値。 */
+    private SessionRowSource reusableRowSource;
+    
+    /** 再利用するエラー情報。 */
+    private CsvBindingErrors reusableBindingErrors;
+    
+    /** 再利用する入力値検証用のコンテキスト。 */
+    private ValidationContext<T> reusableValidationContext;
+    
+    /** 字句解析を行うインスタンス。{@link Reader}を指定して作成した場合はnull。 */
+    private final ITokenizer tokenizer;
+    
+    /** マッピングしないカラムを、字句解析時に読み飛ばすかどうか。 */
+    private boolean columnProjection = true;
+    
+    /** 字句解析を行うインスタンスに設定した、読み込むカラム。 */
+    private boolean[] appliedColumnProjection;
+    
+    /** ファイルごとのCellProcessorの処理の状態。 */
+    private ProcessingSession session = new ProcessingSession();
+    
     public AbstractCsvAnnotationBeanReader(final Reader reader, final CsvPreference preference) {
         super(reader, preference);
+        this.tokenizer = null;
     }
     
     public AbstractCsvAnnotationBeanReader(final ITokenizer tokenizer, final CsvPreference preference) {
         super(tokenizer, preference);
+        this.tokenizer = tokenizer;
     }
     
     /**
@@ -87,13 +138,12 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
      */
     public T read() throws IOException {
         
+        applyColumnProjection();
+        
         if(readRow()) {
             
-            final T bean = instantiateBean(beanMappingCache.getOriginal().getType());
-            final CsvBindingErrors bindingErrors = new CsvBindingErrors(beanMappingCache.getOriginal().getType());
-            
-            final CsvContext context = new CsvContext(getLineNumber(), getRowNumber(), 1);
-            context.setRowSource(new ArrayList<Object>(processedColumns));
+            final CsvBindingErrors bindingErrors = obtainBindingErrors();
+            final CsvContext context = obtainRowContext(false);
             
             Optional<SuperCsvRowException> rowException = Optional.empty();
             try {
@@ -110,38 +160,492 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
                 bindingErrors.addAllErrors(errors);
                 
             } catch(SuperCsvException e) {
-                errorMessages.addAll(exceptionConverter.convertAndFormat(e, beanMappingCache.getOriginal()));
+                addErrorMessages(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
                 throw e;
             }
             
+            final T bean = bindBean(processedColumns, context, bindingErrors);
+            
+            if(bindingErrors.hasErrors()) {
+                // エラー情報は例外に保持されるため、次の行では再利用しない。
+                reusableBindingErrors = null;
+            }
+            
+            // エラーメッセージの変換
+            processErrors(bindingErrors, context, rowException);
+            
+            return bean;
+            
+        }
+        
+        return null; // EOF
+        
+        
+    }
+    
+    /**
+     * 1レコード分を読み込み、エラーの有無に関わらず読み込み結果を返します。
+     * <p>{@link #read()}と異なり、カラム数やセルの値に問題がある場合も、
+     *    例外{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvBindingException}をスローせずに、
+     *    エラー情報を読み込み結果に格納して返します。
+     *    <br>エラーのあるレコードを読み飛ばしながら処理する場合に、例外の作成と捕捉のコストを省くことができます。
+     * </p>
+     * <p>エラーメッセージは、{@link #read()}と同様に{@link #getErrorMessages()}にも追加されます。</p>
+     * <p>エラー情報に変換するまでの間に、内部で作成する検証エラーの例外は、スタックトレースを作成しません。</p>
+     * <p>{@link #setReuseRowObjects(boolean)}で再利用する設定の場合、
+     *    読み込み結果のエラー情報とコンテキストは、次の行の読み込み時に値が変わります。
+     * </p>
+     * 
+     * @since 2.2
+     * @return 読み込み結果。読み込むレコードがない場合は、nullを返します。
+     * @throws IOException レコードの読み込みに失敗した場合。
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public ReadResult<T> readNext() throws IOException {
+        
+        applyColumnProjection();
+        
+        if(!readRow()) {
+            return null; // EOF
+        }
+        
+        final CsvBindingErrors bindingErrors = obtainBindingErrors();
+        final CsvContext context = obtainRowContext(true);
+        
+        try {
+            executeCellProcessor(processedColumns, getColumns(), beanMappingCache.getCellProcessorsForReading(), context);
+            
+        } catch(SuperCsvRowException e) {
+            bindingErrors.addAllErrors(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
+            
+        } catch(SuperCsvNoMatchColumnSizeException e) {
+            bindingErrors.addAllErrors(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
+            addErrorMessages(bindingErrors);
+            return new ReadResult<>(null, bindingErrors, context);
+            
+        } catch(SuperCsvException e) {
+            addErrorMessages(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
+            throw e;
+        }
+        
+        final T bean = bindBean(processedColumns, context, bindingErrors);
+        addErrorMessages(bindingErrors);
+        
+        return new ReadResult<>(bean, bindingErrors, context);
+        
+    }
+    
+    /**
+     * 字句解析を行うインスタンスが{@link ProjectableTokenizer}の場合、マッピングするカラムのみを読み込むよう設定します。
+     * <p>ヘッダー行は全てのカラムを読み込むため、レコードの読み込み時に設定します。</p>
+     */
+    private void applyColumnProjection() {
+        
+        if(!(tokenizer instanceof ProjectableTokenizer)) {
+            return;
+        }
+        
+        final boolean[] projection = columnProjection ? beanMappingCache.getColumnProjection() : null;
+        if(projection != appliedColumnProjection) {
+            ((ProjectableTokenizer) tokenizer).setColumnProjection(projection);
+            this.appliedColumnProjection = projection;
+        }
+    }
+    
+    /**
+     * 行のエラー情報を取得します。
+     * <p>再利用する設定の場合、前の行のエラー情報を初期化して返します。</p>
+     * @return エラー情報。
+     */
+    private CsvBindingErrors obtainBindingErrors() {
+        
+        if(!reuseRowObjects) {
+            return new CsvBindingErrors(beanMappingCache.getOriginal().getType());
+        }
+        
+        if(reusableBindingErrors == null) {
+            reusableBindingErrors = new CsvBindingErrors(beanMappingCache.getOriginal().getType());
+        } else {
+            reusableBindingErrors.clearAllErrors();
+        }
+        
+        return reusableBindingErrors;
+    }
+    
+    /**
+     * 直前に読み込んだ行のコンテキストを取得します。
+     * <p>再利用する設定の場合、前の行のコンテキストの値を更新して返します。</p>
+     * @param stacklessErrors 検証エラーの例外で、スタックトレースを作成しないかどうか。
+     * @return 行のコンテキスト。
+     */
+    private CsvContext obtainRowContext(final boolean stacklessErrors) {
+        
+        if(!reuseRowObjects) {
+            final SessionRowSource rowSource = new SessionRowSource(session, getColumns());
+            rowSource.setStacklessErrors(stacklessErrors);
+            
+            final CsvContext context = new CsvContext(getLineNumber(), getRowNumber(), 1);
+            context.setRowSource(rowSource);
+            return context;
+        }
+        
+        if(reusableContext == null) {
+            reusableRowSource = new SessionRowSource(session);
+            reusableContext = new CsvContext(getLineNumber(), getRowNumber(), 1);
+            reusableContext.setRowSource(reusableRowSource);
+            
+        } else {
+            reusableContext.setLineNumber(getLineNumber());
+            reusableContext.setRowNumber(getRowNumber());
+            reusableContext.setColumnNumber(1);
+        }
+        
+        // ArrayList#addAll(...)は配列のコピーを作成するため、要素ごとに追加する。
+        final List<String> columns = getColumns();
+        final int size = columns.size();
+        reusableRowSource.setStacklessErrors(stacklessErrors);
+        reusableRowSource.clear();
+        for(int i=0; i < size; i++) {
+            reusableRowSource.add(columns.get(i));
+        }
+        
+        return reusableContext;
+    }
+    
+    /**
+     * 入力値検証用のコンテキストを取得します。
+     * @param context 現在のCSVのレコード情報。
+     * @return 再利用する行のコンテキストの場合、前の行の値を返します。
+     */
+    private ValidationContext<T> obtainValidationContext(final CsvContext context) {
+        
+        if(reuseRowObjects && context == reusableContext) {
+            if(reusableValidationContext == null || reusableValidationContext.getBeanMapping() != beanMappingCache.getOriginal()) {
+                reusableValidationContext = new ValidationContext<>(context, beanMappingCache.getOriginal());
+            }
+            return reusableValidationContext;
+        }
+        
+        return new ValidationContext<>(context, beanMappingCache.getOriginal());
+    }
+    
+    /**
+     * CellProcessorで処理済みのカラムの値を元に、Beanのインスタンスを組み立てます。
+     * <p>コールバックメソッドの実行、Beanへの値の設定、レコードの入力値検証を行います。</p>
+     * <p>エラーは引数の{@link CsvBindingErrors}に追加され、このメソッド内ではスローされません。</p>
+     * <p>setterメソッドを持たず、全てのカラムの値を引数に取るコンストラクタでインスタンスを作成するBeanの場合、
+     *    カラムの値を設定した後に、読み込み前のコールバックメソッドを実行します。</p>
+     * 
+     * @since 2.2
+     * @param processedColumns CellProcessorで処理済みのカラムの値。
+     * @param context 現在のCSVのレコード情報。
+     * @param bindingErrors エラー情報。
+     * @return 組み立てたBeanのインスタンス。
+     */
+    protected T bindBean(final List<Object> processedColumns, final CsvContext context, final CsvBindingErrors bindingErrors) {
+        
+        final BeanInstantiator<T> instantiator = beanMappingCache.getInstantiator();
+        final T bean;
+        if(instantiator.isArgumentsConstructor()) {
+            // コンストラクタの引数でbeanへマッピング
+            bean = instantiator.newInstance(processedColumns, context, bindingErrors);
+            
             // コールバックメソッドの実行（読み込み前）
             for(CallbackMethod callback : beanMappingCache.getOriginal().getPreReadMethods()) {
                 callback.invoke(bean, context, bindingErrors, beanMappingCache.getOriginal());
             }
             
-            // beanへのマッピング
-            populateBean(bean, beanMappingCache.getNameMapping(), bindingErrors);
+        } else {
+            bean = instantiateBean(beanMappingCache.getOriginal().getType());
+            
+            // コールバックメソッドの実行（読み込み前）
+            for(CallbackMethod callback : beanMappingCache.getOriginal().getPreReadMethods()) {
+                callback.invoke(bean, context, bindingErrors, beanMappingCache.getOriginal());
+            }
             
-            // Bean(レコード)の入力値検証
+            // beanへのマッピング
+            populateBean(bean, beanMappingCache.getNameMapping(), processedColumns, bindingErrors);
+        }
+        
+        // Bean(レコード)の入力値検証
+        if(!validators.isEmpty()) {
+            final ValidationContext<T> validationContext = obtainValidationContext(context);
             for(CsvValidator<T> recordValidator : validators) {
-                recordValidator.validate(bean, bindingErrors, new ValidationContext<>(context, beanMappingCache.getOriginal()));
+                recordValidator.validate(bean, bindingErrors, validationContext);
+            }
+        }
+        
+        // コールバックメソッドの実行（読み込み後）
+        for(CallbackMethod callback : beanMappingCache.getOriginal().getPostReadMethods()) {
+            callback.invoke(bean, context, bindingErrors, beanMappingCache.getOriginal());
+        }
+        
+        return bean;
+    }
+    
+    /**
+     * 状態を持つCellProcessorを含むカラムかどうかを取得します。
+     * <p>判定結果は、読み込み用のCellProcessorが変わるまでキャッシュします。</p>
+     * 
+     * @since 2.2
+     * @return カラムのインデックスに対応する判定結果。
+     */
+    boolean[] getStatefulColumns() {
+        
+        final CellProcessor[] processors = beanMappingCache.getCellProcessorsForReading();
+        if(statefulColumnsSource != processors) {
+            final boolean[] stateful = new boolean[processors.length];
+            for(int i=0; i < processors.length; i++) {
+                stateful[i] = CellProcessorUtils.isStateful(processors[i]);
             }
             
-            // コールバックメソッドの実行（読み込み後）
-            for(CallbackMethod callback : beanMappingCache.getOriginal().getPostReadMethods()) {
-                callback.invoke(bean, context, bindingErrors, beanMappingCache.getOriginal());
+            this.statefulColumns = stateful;
+            this.statefulColumnsSource = processors;
+        }
+        
+        return statefulColumns;
+    }
+    
+    /**
+     * 次の行を読み込み、行の情報を保持し、状態を持つカラムのCellProcessorを出現順に実行します。
+     * <p>状態を持つカラムを出現順に処理するため、複数のスレッドから同時に呼び出すことはできません。</p>
+     * 
+     * @since 2.2
+     * @return 字句解析済みの行の情報。読み込む行がない場合は、nullを返します。
+     * @throws IOException レコードの読み込みに失敗した場合。
+     */
+    TokenizedRow readTokenizedRow() throws IOException {
+        
+        applyColumnProjection();
+        
+        if(!readRow()) {
+            return null; // EOF
+        }
+        
+        final TokenizedRow row = new TokenizedRow(new ArrayList<>(getColumns()), getLineNumber(), getRowNumber());
+        
+        final CellProcessor[] processors = beanMappingCache.getCellProcessorsForReading();
+        if(row.columns.size() != processors.length) {
+            // 列数のエラーは、行の処理時に判定する。
+            return row;
+        }
+        
+        final boolean[] statefulColumns = getStatefulColumns();
+        final List<Object> rowSource = new SessionRowSource(session, row.columns);
+        for(int i=0; i < processors.length; i++) {
+            if(!statefulColumns[i]) {
+                continue;
+            }
+            
+            try {
+                final CsvContext context = new CsvContext(row.lineNumber, row.rowNumber, i + 1);
+                context.setRowSource(rowSource);
+                row.processedValues[i] = processors[i].execute(row.columns.get(i), context);
+                
+            } catch(SuperCsvCellProcessorException e) {
+                row.processedErrors[i] = e;
+                row.processedValues[i] = row.columns.get(i);
+                
+            } catch(SuperCsvException e) {
+                row.processingException = e;
+                break;
+            }
+        }
+        
+        return row;
+    }
+    
+    /**
+     * 字句解析済みの行に対して、CellProcessorの実行、Beanの組み立てを行います。
+     * <p>状態を持つカラム以外を処理するため、任意のスレッドから呼び出すことができます。</p>
+     * <p>処理中に発生した例外は、処理結果に格納され、このメソッド内ではスローされません。</p>
+     * 
+     * @since 2.2
+     * @param row 字句解析済みの行の情報。
+     * @return 処理結果。
+     */
+    RowResult<T> processRow(final TokenizedRow row) {
+        
+        final RowResult<T> result = new RowResult<>();
+        
+        final CsvContext context = new CsvContext(row.lineNumber, row.rowNumber, 1);
+        context.setRowSource(new SessionRowSource(session, row.columns));
+        result.context = context;
+        
+        if(row.processingException != null) {
+            result.processingException = row.processingException;
+            return result;
+        }
+        
+        final CsvBindingErrors bindingErrors = new CsvBindingErrors(beanMappingCache.getOriginal().getType());
+        result.bindingErrors = bindingErrors;
+        
+        final List<Object> processedColumns = new ArrayList<>(row.columns.size());
+        try {
+            executeCellProcessor(processedColumns, row, beanMappingCache.getCellProcessorsForReading(), context);
+            
+        } catch(SuperCsvRowException e) {
+            result.rowException = Optional.of(e);
+            bindingErrors.addAllErrors(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
+            
+        } catch(SuperCsvException e) {
+            result.processingException = e;
+            return result;
+        }
+        
+        try {
+            result.bean = bindBean(processedColumns, context, bindingErrors);
+            
+        } catch(RuntimeException e) {
+            result.exception = e;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * 行の処理結果を元に、エラーメッセージの変換を行い、Beanを取得します。
+     * <p>エラーメッセージは複数のスレッドから追加されるため、排他制御を行います。</p>
+     * 
+     * @since 2.2
+     * @param result 行の処理結果。
+     * @return 組み立てたBeanのインスタンス。
+     * @throws SuperCsvNoMatchColumnSizeException レコードのカラムサイズに問題がある場合
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    T completeRow(final RowResult<T> result) {
+        
+        synchronized(errorMessages) {
+            if(result.processingException != null) {
+                addErrorMessages(exceptionConverter.convert(result.processingException, beanMappingCache.getOriginal()));
+                throw result.processingException;
+            }
+            
+            if(result.exception != null) {
+                throw result.exception;
             }
             
             // エラーメッセージの変換
-            processErrors(bindingErrors, context, rowException);
+            processErrors(result.bindingErrors, result.context, result.rowException);
+        }
+        
+        return result.bean;
+    }
+    
+    /**
+     * 行の処理結果を元に、エラーメッセージの変換を行い、読み込み結果を取得します。
+     * <p>{@link #completeRow(RowResult)}と異なり、カラム数やセルの値に問題がある場合も、例外をスローしません。</p>
+     * 
+     * @since 2.2
+     * @param result 行の処理結果。
+     * @return 読み込み結果。
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    ReadResult<T> completeRowResult(final RowResult<T> result) {
+        
+        synchronized(errorMessages) {
+            if(result.processingException instanceof SuperCsvNoMatchColumnSizeException) {
+                final CsvBindingErrors bindingErrors = new CsvBindingErrors(beanMappingCache.getOriginal().getType());
+                bindingErrors.addAllErrors(exceptionConverter.convert(result.processingException, beanMappingCache.getOriginal()));
+                addErrorMessages(bindingErrors);
+                return new ReadResult<>(null, bindingErrors, result.context);
+            }
             
-            return bean;
+            if(result.processingException != null) {
+                addErrorMessages(exceptionConverter.convert(result.processingException, beanMappingCache.getOriginal()));
+                throw result.processingException;
+            }
+            
+            if(result.exception != null) {
+                throw result.exception;
+            }
             
+            addErrorMessages(result.bindingErrors);
         }
         
-        return null; // EOF
+        return new ReadResult<>(result.bean, result.bindingErrors, result.context);
+    }
+    
+    /**
+     * 字句解析済みの行の各カラムの値に対して、CellProcessorを適用します。
+     * <p>状態を持つカラムは、字句解析時に処理した結果を利用します。</p>
+     * @param destination
+     * @param row
+     * @param processors
+     * @param context
+     * @throws SuperCsvNoMatchColumnSizeException カラムサイズが定義と一致しない場合
+     * @throws SuperCsvRowException CellProcessor内で発生した例外
+     */
+    private void executeCellProcessor(final List<Object> destination, final TokenizedRow row,
+            final CellProcessor[] processors, final CsvContext context) {
+        
+        final List<String> source = row.columns;
+        if(source.size() != processors.length) {
+            throw new SuperCsvNoMatchColumnSizeException(source.size(), processors.length, context);
+        }
+        
+        final boolean[] statefulColumns = getStatefulColumns();
+        // エラーがある場合のみ、例外のインスタンスを作成する。
+        SuperCsvRowException rowException = null;
+        
+        for(int i = 0; i < source.size(); i++) {
+            
+            if(statefulColumns[i]) {
+                if(row.processedErrors[i] != null) {
+                    rowException = addColumnError(rowException, row.processedErrors[i], context);
+                }
+                destination.add(row.processedValues[i]);
+                continue;
+            }
+            
+            try {
+                context.setColumnNumber(i + 1); // update context (columns start at 1)
+                
+                if(processors[i] == null) {
+                    destination.add(source.get(i)); // no processing required
+                } else {
+                    destination.add(processors[i].execute(source.get(i), context)); // execute the processor chain
+                }
+            } catch(SuperCsvCellProcessorException e) {
+                rowException = addColumnError(rowException, e, context);
+                
+                // 各カラムでエラーがあっても、後の入力値検証で処理を続けるために、仮に値を設定する。
+                destination.add(source.get(i));
+                
+            }
+        }
         
+        if(rowException != null) {
+            throw rowException;
+        }
+        
+    }
+    
+    /**
+     * 残りのレコードを順に読み込む{@link Stream}を作成します。
+     * <p>レコードは、終端操作によって必要になった時点で読み込まれます。</p>
+     * <p>並列ストリームの場合、字句解析済みの行を一定の行数ごとに分割して、他のスレッドで処理します。
+     *   <br>{@link CsvValidator}やリスナークラスのインスタンスは、スレッドセーフである必要があります。
+     * </p>
+     * <p>ストリームを閉じると、このReaderも閉じられます。</p>
+     * 
+     * @since 2.2
+     * @param continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvBindingException}
+     *        が発生しても続行するかどう指定します。
+     * @return Beanのストリーム。
+     */
+    protected Stream<T> createStream(final boolean continueOnError) {
         
+        return StreamSupport.stream(new CsvAnnotationBeanSpliterator<>(this, continueOnError), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
     }
     
     /**
@@ -180,10 +684,7 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
     protected void processErrors(final CsvBindingErrors bindingErrors, final CsvContext context,
             final Optional<SuperCsvRowException> rowException) {
         if(bindingErrors.hasErrors()) {
-            final List<String> message = bindingErrors.getAllErrors().stream()
-                    .map(error -> error.format(exceptionConverter.getMessageResolver(), exceptionConverter.getMessageInterpolator()))
-                    .collect(Collectors.toList());
-            errorMessages.addAll(message);
+            addErrorMessages(bindingErrors);
             
             final SuperCsvBindingException bindingException = new SuperCsvBindingException("has binding error.", context, bindingErrors);
             rowException.ifPresent(re -> bindingException.addAllProcessingErrors(re.getColumnErrors()));
@@ -192,8 +693,38 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
         }
     }
     
+    /**
+     * エラー情報をエラーメッセージに追加します。
+     * 
+     * @since 2.2
+     * @param bindingErrors エラー情報。
+     */
+    private void addErrorMessages(final CsvBindingErrors bindingErrors) {
+        if(bindingErrors.hasErrors()) {
+            addErrorMessages(bindingErrors.getAllErrors());
+        }
+    }
+    
+    /**
+     * エラーをエラーメッセージに追加します。
+     * <p>エラーを受け取る処理が設定されている場合は、その処理にも渡します。</p>
+     * <p>メッセージへのフォーマットは、エラーメッセージを参照する時点で行われます。</p>
+     * 
+     * @since 2.2
+     * @param errors 追加するエラー。
+     */
+    protected void addErrorMessages(final List<? extends CsvError> errors) {
+        for(CsvError error : errors) {
+            if(errorSink != null) {
+                errorSink.accept(error);
+            }
+            errorMessages.addError(error, exceptionConverter);
+        }
+    }
+    
     /**
      * 指定したBeanのクラスのインスタンスを作成する。
+     * <p>マッピング対象のBeanのクラスの場合、{@link BeanMappingCache#getInstantiator()}で事前に決定した方法で作成します。</p>
      * 
      * @param clazz Beanのクラスタイプ。
      * @return Beanのインスタンス。
@@ -201,6 +732,11 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
      */
     protected T instantiateBean(final Class<T> clazz) {
         
+        final BeanInstantiator<T> instantiator = beanMappingCache.getInstantiator();
+        if(clazz.equals(beanMappingCache.getOriginal().getType()) && !instantiator.isArgumentsConstructor()) {
+            return instantiator.newInstance();
+        }
+        
         final T bean;
         if( clazz.isInterface() ) {
             bean = BeanInterfaceProxy.createProxy(clazz);
@@ -238,8 +774,8 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
         
         destination.clear();
         
-        final SuperCsvRowException rowException = new SuperCsvRowException(
-                String.format("row (%d) has errors column", context.getRowNumber()), context);
+        // エラーがある場合のみ、例外のインスタンスを作成する。
+        SuperCsvRowException rowException = null;
         
         for( int i = 0; i < source.size(); i++ ) {
             
@@ -252,7 +788,7 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
                     destination.add(processors[i].execute(source.get(i), context)); // execute the processor chain
                 }
             } catch(SuperCsvCellProcessorException e) {
-                rowException.addError(e);
+                rowException = addColumnError(rowException, e, context);
                 
                 // 各カラムでエラーがあっても、後の入力値検証で処理を続けるために、仮に値を設定する。
                 destination.add(source.get(i));
@@ -264,12 +800,36 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
             }
         }
         
-        if(rowException.isNotEmptyColumnErrors()) {
+        if(rowException != null) {
             throw rowException;
         }
         
     }
     
+    /**
+     * カラムのエラーを、行の例外に追加します。
+     * @param rowException 行の例外。まだ作成していない場合はnull。
+     * @param error カラムのエラー。
+     * @param context 現在のCSVのレコード情報。
+     * @return 行の例外。
+     */
+    private SuperCsvRowException addColumnError(final SuperCsvRowException rowException,
+            final SuperCsvCellProcessorException error, final CsvContext context) {
+        
+        final SuperCsvRowException result;
+        if(rowException == null) {
+            final String message = String.format("row (%d) has errors column", context.getRowNumber());
+            final CsvContext rowContext = new CsvContext(context.getLineNumber(), context.getRowNumber(), 1);
+            result = SessionRowSource.isStacklessErrors(context) ? SuperCsvRowException.stackless(message, rowContext)
+                    : new SuperCsvRowException(message, rowContext);
+        } else {
+            result = rowException;
+        }
+        
+        result.addError(error);
+        return result;
+    }
+    
     /**
      * Beanの各フィールドに対して値を設定する。
      * @param resultBean
@@ -277,6 +837,24 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
      * @param bindingErrors
      */
     protected void populateBean(final T resultBean, final String[] nameMapping, final CsvBindingErrors bindingErrors) {
+        populateBean(resultBean, nameMapping, processedColumns, bindingErrors);
+    }
+    
+    /**
+     * CellProcessorで処理済みのカラムの値を指定して、Beanの各フィールドに対して値を設定する。
+     * 
+     * @since 2.2
+     * @param resultBean
+     * @param nameMapping
+     * @param processedColumns CellProcessorで処理済みのカラムの値。
+     * @param bindingErrors
+     */
+    protected void populateBean(final T resultBean, final String[] nameMapping, final List<Object> processedColumns,
+            final CsvBindingErrors bindingErrors) {
+        
+        // 事前に組み立てたsetterの呼び出し処理を利用する。
+        final BeanPropertyBinder<T> binder = beanMappingCache.getPropertyBinder();
+        final boolean useBinder = (binder.getNameMapping() == nameMapping || Arrays.equals(binder.getNameMapping(), nameMapping));
         
         // map each column to its associated field on the bean
         for( int i = 0; i < nameMapping.length; i++ ) {
@@ -288,8 +866,17 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
                 continue;
             }
             
+            if(useBinder) {
+                binder.setValue(resultBean, i, fieldValue);
+                continue;
+            }
+            
             // invoke the setter on the bean
-            final Method setMethod = cache.getSetMethod(resultBean, fieldName, fieldValue.getClass());
+            // MethodCacheはスレッドセーフではないため、並列に読み込む場合に備えて排他制御する。
+            final Method setMethod;
+            synchronized(cache) {
+                setMethod = cache.getSetMethod(resultBean, fieldName, fieldValue.getClass());
+            }
             try {
                 setMethod.invoke(resultBean, fieldValue);
                 
@@ -306,7 +893,7 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
      * @return ヘッダー一覧。
      */
     public String[] getDefinedHeader() {
-        return beanMappingCache.getHeader();
+        return beanMappingCache.getHeader().clone();
     }
     
     /**
@@ -319,12 +906,70 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
     
     /**
      * エラーメッセージを取得します。
+     * <p>メッセージは、参照する時点でフォーマットされます。</p>
      * @return 処理中に発生した例外をメッセージに変換した
      */
     public List<String> getErrorMessages() {
         return errorMessages;
     }
     
+    /**
+     * エラーメッセージを保持する件数の上限を取得します。
+     * 
+     * @since 2.2
+     * @return 初期値は、{@value CsvErrorMessageList#UNLIMITED}（上限なし）です。
+     */
+    public int getMaxErrorMessages() {
+        return errorMessages.getMaxSize();
+    }
+    
+    /**
+     * エラーメッセージを保持する件数の上限を設定します。
+     * <p>大量のエラーが発生する可能性がある場合に、メモリの使用量を抑えることができます。
+     *    上限を超えたエラーは破棄され、その件数は{@link #getDroppedErrorCount()}で取得できます。
+     * </p>
+     * 
+     * @since 2.2
+     * @param maxErrorMessages 0以上の値、または上限を設けない場合は{@value CsvErrorMessageList#UNLIMITED}を設定します。
+     * @throws IllegalArgumentException {@literal maxErrorMessages < -1.}
+     */
+    public void setMaxErrorMessages(final int maxErrorMessages) {
+        errorMessages.setMaxSize(maxErrorMessages);
+    }
+    
+    /**
+     * 上限を超えたために破棄したエラーの件数を取得します。
+     * 
+     * @since 2.2
+     * @return 破棄したエラーの件数。
+     */
+    public long getDroppedErrorCount() {
+        return errorMessages.getDroppedCount();
+    }
+    
+    /**
+     * エラーを受け取る処理を取得します。
+     * 
+     * @since 2.2
+     * @return 設定されていない場合は、nullを返します。
+     */
+    public CsvErrorSink getErrorSink() {
+        return errorSink;
+    }
+    
+    /**
+     * エラーを受け取る処理を設定します。
+     * <p>エラーは、エラーメッセージに追加する際に、フォーマットする前の状態で渡されます。
+     *    エラーメッセージを保持する件数の上限を超えたエラーも渡されます。
+     * </p>
+     * 
+     * @since 2.2
+     * @param errorSink エラーを受け取る処理。nullの場合は、解除します。
+     */
+    public void setErrorSink(final CsvErrorSink errorSink) {
+        this.errorSink = errorSink;
+    }
+    
     /**
      * 処理中に発生した例外をメッセージに変換するクラスを取得します。
      * @return 
@@ -341,6 +986,59 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
         this.exceptionConverter = exceptionConverter;
     }
     
+    /**
+     * 行ごとに作成するオブジェクトを再利用するかどうか取得します。
+     * 
+     * @since 2.2
+     * @return trueの場合、再利用します。初期値はfalseです。
+     */
+    public boolean isReuseRowObjects() {
+        return reuseRowObjects;
+    }
+    
+    /**
+     * 行ごとに作成するオブジェクトを再利用するかどうか設定します。
+     * <p>再利用する場合、{@link #read()}で行ごとに作成する{@link CsvContext}とその元の値の一覧、
+     *    {@link CsvBindingErrors}、{@link ValidationContext}を再利用し、大量のレコードを読み込む際のメモリの割り当てを抑えます。
+     *    <br>エラーのある行のみ、例外に保持するための情報を新たに作成します。
+     * </p>
+     * <p>再利用するオブジェクトは、次の行の読み込み時に値が変わるため、
+     *    {@link CsvValidator}やコールバックメソッドの中で、行の処理を超えて参照を保持しないでください。
+     * </p>
+     * 
+     * @since 2.2
+     * @param reuseRowObjects trueの場合、再利用します。
+     */
+    public void setReuseRowObjects(final boolean reuseRowObjects) {
+        this.reuseRowObjects = reuseRowObjects;
+    }
+    
+    /**
+     * マッピングしないカラムを、字句解析時に読み飛ばすかどうか取得します。
+     * 
+     * @since 2.2
+     * @return trueの場合、読み飛ばします。初期値はtrueです。
+     */
+    public boolean isColumnProjection() {
+        return columnProjection;
+    }
+    
+    /**
+     * マッピングしないカラムを、字句解析時に読み飛ばすかどうか設定します。
+     * <p>{@link ProjectableTokenizer}を実装した字句解析を行うインスタンス（{@link MappedFileTokenizer}など）を
+     *    指定して作成した場合のみ有効です。
+     *    <br>{@link com.github.mygreen.supercsv.annotation.CsvPartial}などでカラム数の多いファイルの一部のみを読み込む場合に、
+     *    マッピングしないカラムの値を文字列に変換しないため、処理時間とメモリの割り当てを抑えることができます。
+     * </p>
+     * <p>読み飛ばしたカラムの値は、{@link CsvContext#getRowSource()}などではnullとなります。</p>
+     * 
+     * @since 2.2
+     * @param columnProjection trueの場合、読み飛ばします。
+     */
+    public void setColumnProjection(final boolean columnProjection) {
+        this.columnProjection = columnProjection;
+    }
+    
     /**
      * レコードの値を検証するValidatorを追加します。
      * @param validators {@link CsvValidator}の実装クラスを設定します。
@@ -358,4 +1056,92 @@ public abstract class AbstractCsvAnnotationBeanReader<T> extends AbstractCsvRead
         return validators;
     }
     
+    /**
+     * ファイルごとのCellProcessorの処理の状態を取得します。
+     * <p>重複チェックで出現した値などを保持します。</p>
+     * 
+     * @since 2.2
+     * @return ファイルごとの処理の状態。
+     */
+    public ProcessingSession getSession() {
+        return session;
+    }
+    
+    /**
+     * ファイルごとのCellProcessorの処理の状態を設定します。
+     * <p>複数のファイルを、重複チェックなどで1つのファイルとして扱う場合に、同じインスタンスを設定します。</p>
+     * 
+     * @since 2.2
+     * @param session ファイルごとの処理の状態。
+     * @throws NullPointerException {@literal session is null.}
+     */
+    public void setSession(final ProcessingSession session) {
+        this.session = Objects.requireNonNull(session, "session should not be null.");
+        this.reusableContext = null;
+    }
+    
+    /**
+     * 字句解析済みの行の情報。
+     * 
+     * @since 2.2
+     */
+    static class TokenizedRow {
+        
+        final List<String> columns;
+        
+        final int lineNumber;
+        
+        final int rowNumber;
+        
+        /**
+         * 状態を持つカラムの処理結果
+         */
+        final Object[] processedValues;
+        
+        /**
+         * 状態を持つカラムの処理時のエラー
+         */
+        final SuperCsvCellProcessorException[] processedErrors;
+        
+        /**
+         * 状態を持つカラムの処理時に発生した、カラム以外のエラー
+         */
+        SuperCsvException processingException;
+        
+        TokenizedRow(final List<String> columns, final int lineNumber, final int rowNumber) {
+            this.columns = columns;
+            this.lineNumber = lineNumber;
+            this.rowNumber = rowNumber;
+            this.processedValues = new Object[columns.size()];
+            this.processedErrors = new SuperCsvCellProcessorException[columns.size()];
+        }
+    }
+    
+    /**
+     * 1行分の処理結果。
+     * 
+     * @since 2.2
+     */
+    static class RowResult<T> {
+        
+        T bean;
+        
+        CsvContext context;
+        
+        CsvBindingErrors bindingErrors;
+        
+        Optional<SuperCsvRowException> rowException = Optional.empty();
+        
+        /**
+         * CellProcessorの実行時に発生した、処理を中断する例外
+         */
+        SuperCsvException processingException;
+        
+        /**
+         * Beanの組み立て時に発生した、処理を中断する例外
+         */
+        RuntimeException exception;
+        
+    }
+    
 }
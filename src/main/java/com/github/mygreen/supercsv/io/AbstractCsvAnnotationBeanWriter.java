@@ -1,15 +1,15 @@
 package com.github.mygreen.supercsv.io;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.exception.SuperCsvCellProcessorException;
@@ -23,10 +23,15 @@ import org.supercsv.util.MethodCache;
 
 import com.github.mygreen.supercsv.builder.BeanMapping;
 import com.github.mygreen.supercsv.builder.CallbackMethod;
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionRowSource;
 import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
 import com.github.mygreen.supercsv.exception.SuperCsvRowException;
+import com.github.mygreen.supercsv.util.ArgUtils;
 import com.github.mygreen.supercsv.validation.CsvBindingErrors;
 import com.github.mygreen.supercsv.validation.CsvError;
+import com.github.mygreen.supercsv.validation.CsvErrorMessageList;
+import com.github.mygreen.supercsv.validation.CsvErrorSink;
 import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
 import com.github.mygreen.supercsv.validation.CsvValidator;
 import com.github.mygreen.supercsv.validation.ValidationContext;
@@ -37,6 +42,7 @@ import com.github.mygreen.supercsv.validation.ValidationContext;
  * @param <T> マッピング対象のBeanのクラスタイプ
  * 
  * @see CsvBeanWriter
+ * @version 2.2
  * @since 2.1
  * @author T.TSUCHIE
  *
@@ -62,13 +68,54 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
     protected CsvExceptionConverter exceptionConverter = new CsvExceptionConverter();
     
     /** processing error messages. */
-    protected final List<String> errorMessages = new ArrayList<>();
+    protected final CsvErrorMessageList errorMessages = new CsvErrorMessageList();
+    
+    /** エラーを受け取る処理。 */
+    private CsvErrorSink errorSink;
     
     /** validator */
     protected final List<CsvValidator<T>> validators = new ArrayList<>();
     
+    /** {@literal writeAll}メソッドで、フラッシュする間隔の件数。 */
+    private int flushInterval = 0;
+    
+    /** {@literal writeAll}メソッドで、フラッシュする間隔のバイト数。 */
+    private long flushBytes = 0L;
+    
+    /** 書き込んだバイト数を取得できる書き込み先。バイト数を取得できない場合はnull。 */
+    private final ChannelWriter byteCountWriter;
+    
+    /** {@literal writeAll}メソッドの進捗を受け取る処理。 */
+    private CsvWriteProgressListener progressListener;
+    
+    /** ファイルごとのCellProcessorの処理の状態。 */
+    private ProcessingSession session = new ProcessingSession();
+    
+    /** コンテキストに設定する、セッションを持つ空の値。 */
+    private SessionRowSource emptyRowSource = new SessionRowSource(session);
+    
+    /** 入力値検証を行わずに書き込む場合に、再利用するコンテキスト。 */
+    private final CsvContext trustedContext = new CsvContext(0, 0, 0);
+    
     public AbstractCsvAnnotationBeanWriter(final Writer writer, final CsvPreference preference) {
         super(writer, preference);
+        this.byteCountWriter = null;
+        
+    }
+    
+    /**
+     * {@link BufferedWriter}にラップするかどうかを指定するコンストラクタ。
+     * 
+     * @since 2.2
+     * @param writer the writer
+     * @param preference the CSV preferences.
+     * @param bufferizeWriter trueの場合、{@link BufferedWriter}にラップします。
+     */
+    protected AbstractCsvAnnotationBeanWriter(final Writer writer, final CsvPreference preference, final boolean bufferizeWriter) {
+        super(writer, preference, bufferizeWriter);
+        
+        // BufferedWriterにラップした場合は、溜めている文字のバイト数が分からない
+        this.byteCountWriter = (!bufferizeWriter && writer instanceof ChannelWriter) ? (ChannelWriter)writer : null;
         
     }
     
@@ -85,11 +132,26 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
         
         Objects.requireNonNull(source, "the bean to write should not be null.");
         
+        // 入力値検証を行わない場合は、値の取得とフォーマットのみを行う。
+        final TrustedWritePlan<T> trustedWritePlan = beanMappingCache.getTrustedWritePlan();
+        if(trustedWritePlan != null) {
+            trustedContext.setLineNumber(getLineNumber() + 1);
+            trustedContext.setRowNumber(getRowNumber() + 1);
+            trustedContext.setRowSource(emptyRowSource);
+            
+            // フォーマットに失敗した場合は、エラー情報を作成するために通常の処理をやり直す。
+            if(trustedWritePlan.format(source, trustedContext, processedColumns)) {
+                super.incrementRowAndLineNo();
+                super.writeRow(processedColumns);
+                return;
+            }
+        }
+        
         // update the current row/line numbers
         super.incrementRowAndLineNo();
         
         final CsvContext context = new CsvContext(getLineNumber(), getRowNumber(), 1);
-        context.setRowSource(Collections.emptyList());  // 空の値を入れる
+        context.setRowSource(emptyRowSource);  // 空の値を入れる
         
         final CsvBindingErrors bindingErrors = new CsvBindingErrors(beanMappingCache.getOriginal().getType());
         
@@ -100,7 +162,7 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
         
         // extract the bean values
         extractBeanValues(source, beanMappingCache.getNameMapping());
-        context.setRowSource(new ArrayList<Object>(beanValues));
+        context.setRowSource(new SessionRowSource(session, beanValues));
         
         Optional<SuperCsvRowException> rowException = Optional.empty();
         try {
@@ -117,8 +179,8 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
             bindingErrors.addAllErrors(errors);
             
         } catch(SuperCsvException e) {
-            // convert exception and format to message.
-            errorMessages.addAll(exceptionConverter.convertAndFormat(e, beanMappingCache.getOriginal()));
+            // convert exception to message.
+            addErrorMessages(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
             throw e;
         }
         
@@ -145,6 +207,166 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
         
     }
     
+    /**
+     * Beanに対して、コールバックメソッド（書き込み前）の実行、CellProcessorの実行、入力値検証を行います。
+     * <p>書き込み用のオブジェクトを共有しないため、任意のスレッドから呼び出すことができます。</p>
+     * <p>処理中に発生した例外は、処理結果に格納され、このメソッド内ではスローされません。</p>
+     * 
+     * @since 2.2
+     * @param source 書き込むレコード。
+     * @param lineNumber 行番号。
+     * @param rowNumber レコードの番号。
+     * @return 処理結果。
+     */
+    RowResult<T> processRow(final T source, final int lineNumber, final int rowNumber) {
+        
+        final RowResult<T> result = new RowResult<>();
+        result.source = source;
+        
+        final CsvContext context = new CsvContext(lineNumber, rowNumber, 1);
+        context.setRowSource(emptyRowSource);  // 空の値を入れる
+        result.context = context;
+        
+        final CsvBindingErrors bindingErrors = new CsvBindingErrors(beanMappingCache.getOriginal().getType());
+        result.bindingErrors = bindingErrors;
+        
+        try {
+            Objects.requireNonNull(source, "the bean to write should not be null.");
+            
+            // コールバックメソッドの実行（書き込み前）
+            for(CallbackMethod callback : beanMappingCache.getOriginal().getPreWriteMethods()) {
+                callback.invoke(source, context, bindingErrors, beanMappingCache.getOriginal());
+            }
+            
+            final String[] nameMapping = beanMappingCache.getNameMapping();
+            final List<Object> values = new SessionRowSource(session);
+            extractBeanValues(source, nameMapping, values);
+            context.setRowSource(values);
+            
+            final List<Object> processed = new ArrayList<>(nameMapping.length);
+            try {
+                executeCellProcessors(processed, values, beanMappingCache.getCellProcessorsForWriting(), context);
+                
+            } catch(SuperCsvRowException e) {
+                result.rowException = Optional.of(e);
+                bindingErrors.addAllErrors(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
+                
+            } catch(SuperCsvException e) {
+                result.processingException = e;
+                return result;
+            }
+            
+            // レコード、Beanの入力値検証
+            if(!beanMappingCache.getOriginal().isSkipValidationOnWrite()) {
+                for(CsvValidator<T> validator : validators) {
+                    validator.validate(source, bindingErrors, new ValidationContext<>(context, beanMappingCache.getOriginal()));
+                }
+            }
+            
+            result.processedColumns = processed;
+            
+        } catch(RuntimeException e) {
+            result.exception = e;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * レコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>{@link #getFlushInterval()}の件数、または{@link #getFlushBytes()}のバイト数ごとに、フラッシュして進捗を通知するため、
+     *    書き込むレコードの件数に関わらず、一定のメモリで書き込むことができます。
+     * </p>
+     * <p>レコードは、書き込み先のバッファ（{@link BufferedWriter}または{@link ChannelWriter}）に追加され、
+     *    バッファが一杯になった時点で、まとめて書き込まれます。
+     *    そのため、複数のレコードを別途溜めてから書き込むことはしません。
+     *    <br>複数のレコードをまとめて変換する場合は、{@link ParallelCsvAnnotationBeanWriter#setChunkSize(int)}を利用します。
+     * </p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError レコードの処理中に、例外{@link SuperCsvBindingException}が発生しても、続行するかどうか。
+     * @throws IOException レコードの出力に失敗した場合。
+     */
+    protected void writeRecords(final Iterator<T> sources, final boolean continueOnError) throws IOException {
+        
+        final boolean checkBytes = isFlushByBytes();
+        long flushedBytes = getWrittenByteCount();
+        
+        long count = 0;
+        long notifiedCount = -1;
+        while(sources.hasNext()) {
+            final T record = sources.next();
+            try {
+                write(record);
+            } catch(SuperCsvBindingException e) {
+                if(!continueOnError) {
+                    throw e;
+                }
+            }
+            
+            count++;
+            if(flushInterval > 0 && count % flushInterval == 0) {
+                super.flush();
+                notifyProgress(count);
+                notifiedCount = count;
+                
+                if(checkBytes) {
+                    flushedBytes = getWrittenByteCount();
+                }
+                
+            } else if(checkBytes) {
+                final long byteCount = getWrittenByteCount();
+                if(byteCount - flushedBytes >= flushBytes) {
+                    super.flush();
+                    notifyProgress(count);
+                    notifiedCount = count;
+                    flushedBytes = byteCount;
+                }
+            }
+        }
+        
+        super.flush();
+        
+        if(notifiedCount != count) {
+            notifyProgress(count);
+        }
+        
+    }
+    
+    /**
+     * {@link #getFlushBytes()}のバイト数ごとにフラッシュするかどうか。
+     * 
+     * @since 2.2
+     * @return フラッシュする間隔のバイト数が設定され、書き込んだバイト数を取得できる場合にtrueを返します。
+     */
+    boolean isFlushByBytes() {
+        return flushBytes > 0L && byteCountWriter != null;
+    }
+    
+    /**
+     * これまでに書き込んだバイト数を取得します。
+     * 
+     * @since 2.2
+     * @return 書き込んだバイト数。取得できない場合は、0を返します。
+     * @throws IOException バイトの書き込みに失敗した場合。
+     */
+    long getWrittenByteCount() throws IOException {
+        return byteCountWriter != null ? byteCountWriter.getByteCount() : 0L;
+    }
+    
+    /**
+     * {@literal writeAll}メソッドの進捗を通知します。
+     * 
+     * @since 2.2
+     * @param count 処理したレコードの件数。
+     */
+    protected void notifyProgress(final long count) {
+        if(progressListener != null) {
+            progressListener.onProgress(count);
+        }
+    }
+    
     /**
      * 行の例外情報をメッセージに変換したりします。
      * @param bindingErrors
@@ -155,10 +377,7 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
             final Optional<SuperCsvRowException> rowException) {
         
         if(bindingErrors.hasErrors()) {
-            final List<String> message = bindingErrors.getAllErrors().stream()
-                    .map(error -> error.format(exceptionConverter.getMessageResolver(), exceptionConverter.getMessageInterpolator()))
-                    .collect(Collectors.toList());
-            errorMessages.addAll(message);
+            addErrorMessages(bindingErrors.getAllErrors());
             
             final SuperCsvBindingException bindingException = new SuperCsvBindingException("has binding error.", context, bindingErrors);
             rowException.ifPresent(re -> bindingException.addAllProcessingErrors(re.getColumnErrors()));
@@ -168,6 +387,23 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
         }
     }
     
+    /**
+     * エラーをエラーメッセージに追加します。
+     * <p>エラーを受け取る処理が設定されている場合は、その処理にも渡します。</p>
+     * <p>メッセージへのフォーマットは、エラーメッセージを参照する時点で行われます。</p>
+     * 
+     * @since 2.2
+     * @param errors 追加するエラー。
+     */
+    protected void addErrorMessages(final List<? extends CsvError> errors) {
+        for(CsvError error : errors) {
+            if(errorSink != null) {
+                errorSink.accept(error);
+            }
+            errorMessages.addError(error, exceptionConverter);
+        }
+    }
+    
     /**
      * Extracts the bean values, using the supplied name mapping array.
      * 
@@ -181,11 +417,35 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
      *             if there was a reflection exception extracting the bean value
      */
     protected void extractBeanValues(final Object source, final String[] nameMapping) throws SuperCsvReflectionException {
+        extractBeanValues(source, nameMapping, beanValues);
+    }
+    
+    /**
+     * Extracts the bean values into the destination, using the supplied name mapping array.
+     * 
+     * @since 2.2
+     * @param source
+     *            the bean
+     * @param nameMapping
+     *            the name mapping
+     * @param beanValues
+     *            the destination of bean values
+     * @throws NullPointerException
+     *             if source or nameMapping are null
+     * @throws SuperCsvReflectionException
+     *             if there was a reflection exception extracting the bean value
+     */
+    protected void extractBeanValues(final Object source, final String[] nameMapping, final List<Object> beanValues)
+            throws SuperCsvReflectionException {
         
         Objects.requireNonNull(nameMapping, "the nameMapping array can't be null as it's used to map from fields to columns");
         
         beanValues.clear();
         
+        // 事前に組み立てたgetterの呼び出し処理を利用する。
+        final BeanPropertyBinder<T> binder = beanMappingCache.getPropertyBinder();
+        final boolean useBinder = (binder.getNameMapping() == nameMapping || Arrays.equals(binder.getNameMapping(), nameMapping));
+        
         for( int i = 0; i < nameMapping.length; i++ ) {
             
             final String fieldName = nameMapping[i];
@@ -193,6 +453,9 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
             if( fieldName == null ) {
                 beanValues.add(null); // assume they always want a blank column
                 
+            } else if(useBinder) {
+                beanValues.add(binder.getValue(source, i));
+                
             } else {
                 Method getMethod = cache.getGetMethod(source, fieldName);
                 try {
@@ -256,7 +519,7 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
      * @return ヘッダー一覧。
      */
     public String[] getDefinedHeader() {
-        return beanMappingCache.getHeader();
+        return beanMappingCache.getHeader().clone();
     }
     
     /**
@@ -269,12 +532,68 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
     
     /**
      * エラーメッセージを取得します。
+     * <p>メッセージは、参照する時点でフォーマットされます。</p>
      * @return 処理中に発生した例外をメッセージに変換した
      */
     public List<String> getErrorMessages() {
         return errorMessages;
     }
     
+    /**
+     * エラーメッセージを保持する件数の上限を取得します。
+     * 
+     * @since 2.2
+     * @return 初期値は、{@value CsvErrorMessageList#UNLIMITED}（上限なし）です。
+     */
+    public int getMaxErrorMessages() {
+        return errorMessages.getMaxSize();
+    }
+    
+    /**
+     * エラーメッセージを保持する件数の上限を設定します。
+     * <p>上限を超えたエラーは破棄され、その件数は{@link #getDroppedErrorCount()}で取得できます。</p>
+     * 
+     * @since 2.2
+     * @param maxErrorMessages 0以上の値、または上限を設けない場合は{@value CsvErrorMessageList#UNLIMITED}を設定します。
+     * @throws IllegalArgumentException {@literal maxErrorMessages < -1.}
+     */
+    public void setMaxErrorMessages(final int maxErrorMessages) {
+        errorMessages.setMaxSize(maxErrorMessages);
+    }
+    
+    /**
+     * 上限を超えたために破棄したエラーの件数を取得します。
+     * 
+     * @since 2.2
+     * @return 破棄したエラーの件数。
+     */
+    public long getDroppedErrorCount() {
+        return errorMessages.getDroppedCount();
+    }
+    
+    /**
+     * エラーを受け取る処理を取得します。
+     * 
+     * @since 2.2
+     * @return 設定されていない場合は、nullを返します。
+     */
+    public CsvErrorSink getErrorSink() {
+        return errorSink;
+    }
+    
+    /**
+     * エラーを受け取る処理を設定します。
+     * <p>エラーは、エラーメッセージに追加する際に、フォーマットする前の状態で渡されます。
+     *    エラーメッセージを保持する件数の上限を超えたエラーも渡されます。
+     * </p>
+     * 
+     * @since 2.2
+     * @param errorSink エラーを受け取る処理。nullの場合は、解除します。
+     */
+    public void setErrorSink(final CsvErrorSink errorSink) {
+        this.errorSink = errorSink;
+    }
+    
     /**
      * 処理中に発生した例外をメッセージに変換するクラスを取得します。
      * @return 
@@ -308,6 +627,135 @@ public abstract class AbstractCsvAnnotationBeanWriter<T> extends AbstractCsvWrit
         return validators;
     }
     
+    /**
+     * ファイルごとのCellProcessorの処理の状態を取得します。
+     * <p>重複チェックで出現した値などを保持します。</p>
+     * 
+     * @since 2.2
+     * @return ファイルごとの処理の状態。
+     */
+    public ProcessingSession getSession() {
+        return session;
+    }
+    
+    /**
+     * ファイルごとのCellProcessorの処理の状態を設定します。
+     * <p>複数のファイルを、重複チェックなどで1つのファイルとして扱う場合に、同じインスタンスを設定します。</p>
+     * 
+     * @since 2.2
+     * @param session ファイルごとの処理の状態。
+     * @throws NullPointerException {@literal session is null.}
+     */
+    public void setSession(final ProcessingSession session) {
+        this.session = Objects.requireNonNull(session, "session should not be null.");
+        this.emptyRowSource = new SessionRowSource(session);
+    }
+    
+    /**
+     * {@literal writeAll}メソッドで、フラッシュする間隔の件数を取得します。
+     * 
+     * @since 2.2
+     * @return 初期値は、0（全て書き込んだ後のみフラッシュする）です。
+     */
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+    
+    /**
+     * {@literal writeAll}メソッドで、フラッシュする間隔の件数を設定します。
+     * <p>設定した件数ごとに、書き込み先をフラッシュし、{@link CsvWriteProgressListener}に進捗を通知します。</p>
+     * 
+     * @since 2.2
+     * @param flushInterval 0以上の値を設定します。0の場合は、全て書き込んだ後のみフラッシュします。
+     * @throws IllegalArgumentException {@literal flushInterval < 0.}
+     */
+    public void setFlushInterval(final int flushInterval) {
+        ArgUtils.notMin(flushInterval, 0, "flushInterval");
+        this.flushInterval = flushInterval;
+    }
+    
+    /**
+     * {@literal writeAll}メソッドで、フラッシュする間隔のバイト数を取得します。
+     * 
+     * @since 2.2
+     * @return 初期値は、0（バイト数ではフラッシュしない）です。
+     */
+    public long getFlushBytes() {
+        return flushBytes;
+    }
+    
+    /**
+     * {@literal writeAll}メソッドで、フラッシュする間隔のバイト数を設定します。
+     * <p>前回フラッシュしてから書き込んだバイト数が、設定した値以上となったレコードごとに、
+     *    書き込み先をフラッシュし、{@link CsvWriteProgressListener}に進捗を通知します。
+     *    <br>{@link #setFlushInterval(int)}と併用した場合は、どちらかの条件を満たした時点でフラッシュします。
+     * </p>
+     * <p>書き込んだバイト数は{@link ChannelWriter#getByteCount()}から取得するため、
+     *    書き込み先が{@link BufferedWriter}でラップしていない{@link ChannelWriter}の場合のみ有効です。
+     *    <br>{@link ChannelCsvAnnotationBeanWriter}や、パスを指定して作成した{@link CsvAnnotationBeanWriter}が該当します。
+     * </p>
+     * 
+     * @since 2.2
+     * @param flushBytes 0以上の値を設定します。0の場合は、バイト数ではフラッシュしません。
+     * @throws IllegalArgumentException {@literal flushBytes < 0.}
+     */
+    public void setFlushBytes(final long flushBytes) {
+        ArgUtils.notMin(flushBytes, 0L, "flushBytes");
+        this.flushBytes = flushBytes;
+    }
+    
+    /**
+     * {@literal writeAll}メソッドの進捗を受け取る処理を取得します。
+     * 
+     * @since 2.2
+     * @return 設定されていない場合は、nullを返します。
+     */
+    public CsvWriteProgressListener getProgressListener() {
+        return progressListener;
+    }
+    
+    /**
+     * {@literal writeAll}メソッドの進捗を受け取る処理を設定します。
+     * 
+     * @since 2.2
+     * @param progressListener 進捗を受け取る処理。nullの場合は、解除します。
+     */
+    public void setProgressListener(final CsvWriteProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+    
+    /**
+     * 1行分の処理結果。
+     * 
+     * @since 2.2
+     */
+    static class RowResult<T> {
+        
+        T source;
+        
+        CsvContext context;
+        
+        CsvBindingErrors bindingErrors;
+        
+        Optional<SuperCsvRowException> rowException = Optional.empty();
+        
+        /**
+         * CellProcessorを実行した、書き込む値
+         */
+        List<Object> processedColumns;
+        
+        /**
+         * CellProcessorの実行時に発生した、処理を中断する例外
+         */
+        SuperCsvException processingException;
+        
+        /**
+         * コールバックメソッドの実行時などに発生した、処理を中断する例外
+         */
+        RuntimeException exception;
+        
+    }
+    
     
     
 }
@@ -0,0 +1,473 @@
+package com.github.mygreen.supercsv.io;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.supercsv.exception.SuperCsvReflectionException;
+import org.supercsv.util.BeanInterfaceProxy;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.ColumnMapping;
+import com.github.mygreen.supercsv.builder.GeneratedBeanMetadata;
+import com.github.mygreen.supercsv.util.Utils;
+import com.github.mygreen.supercsv.validation.CsvBindingErrors;
+
+/**
+ * Beanのインスタンスを作成するクラス。
+ * <p>{@link BeanMapping}を元に、インスタンスの作成方法を事前に決定し、
+ *   レコードを処理するたびに発生する、コンストラクタの検索やリフレクションによる呼び出しを省きます。
+ * </p>
+ * <p>インスタンスの作成方法は、次の順に決定します。</p>
+ * <ol>
+ *   <li>インタフェースの場合、プロパティをフィールドで保持する実装クラスを生成し、そのデフォルトコンストラクタを利用します。
+ *       生成できない場合は、{@link BeanInterfaceProxy}を利用します。</li>
+ *   <li>アノテーションプロセッサにより生成された{@link GeneratedBeanMetadata}に、インスタンスを作成する処理がある場合、その処理を利用します。</li>
+ *   <li>引数なしのコンストラクタがある場合、そのコンストラクタを利用します。
+ *       可能な場合は{@link LambdaMetafactory}により呼び出し処理を生成し、できない場合は{@link MethodHandle}を利用します。
+ *       <br>呼び出し処理はクラスタイプごとに保持し、同じクラスに対してクラスを繰り返し生成しないようにします。</li>
+ *   <li>全てのカラムの値を引数に取るコンストラクタがある場合、処理済みのカラムの値を引数に渡してインスタンスを作成します。
+ *       <br>setterメソッドを持たない、不変なBeanを読み込むことができます。
+ *       <br>{@link ConstructorProperties}が付与されている場合は、その名前で引数とカラムをフィールド名で対応付けます。
+ *       付与されていない場合は、コンパイル時に引数名を保持している（{@code -parameters}オプション）場合のみ、引数名で対応付けます。
+ *       <br>引数名が分からないコンストラクタは、同じタイプのフィールドの値を取り違える恐れがあるため利用せず、
+ *       従来通り引数なしのコンストラクタとsetterメソッドで処理します。</li>
+ * </ol>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class BeanInstantiator<T> {
+    
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    /**
+     * クラスタイプごとの、引数なしのコンストラクタの呼び出し処理。
+     */
+    private static final ClassValue<Optional<Supplier<Object>>> FACTORIES = new ClassValue<Optional<Supplier<Object>>>() {
+        
+        @Override
+        protected Optional<Supplier<Object>> computeValue(final Class<?> type) {
+            return Optional.ofNullable(createFactory(type));
+        }
+    };
+    
+    private final Class<T> beanType;
+    
+    /**
+     * 引数なしでインスタンスを作成する処理。コンストラクタの引数で値を設定する場合はnull。
+     */
+    private final Supplier<Object> factory;
+    
+    /**
+     * 引数の配列を受け取るコンストラクタの呼び出し処理。
+     */
+    private final MethodHandle argumentsConstructor;
+    
+    /**
+     * コンストラクタの引数ごとの、カラムのインデックス。
+     */
+    private final int[] argumentColumns;
+    
+    /**
+     * コンストラクタの引数ごとのフィールド名。
+     */
+    private final String[] argumentNames;
+    
+    /**
+     * コンストラクタの引数ごとの、カラムのマッピング情報。
+     */
+    private final ColumnMapping[] argumentColumnMappings;
+    
+    /**
+     * コンストラクタの引数ごとのタイプ。プリミティブ型の場合はラッパークラス。
+     */
+    private final Class<?>[] argumentTypes;
+    
+    /**
+     * コンストラクタの引数ごとの、値がない場合の初期値。
+     */
+    private final Object[] argumentDefaults;
+    
+    private BeanInstantiator(final Class<T> beanType, final Supplier<Object> factory) {
+        this.beanType = beanType;
+        this.factory = factory;
+        this.argumentsConstructor = null;
+        this.argumentColumns = null;
+        this.argumentNames = null;
+        this.argumentColumnMappings = null;
+        this.argumentTypes = null;
+        this.argumentDefaults = null;
+    }
+    
+    private BeanInstantiator(final Class<T> beanType, final Constructor<?> constructor, final int[] argumentColumns,
+            final String[] nameMapping, final List<ColumnMapping> columns) throws IllegalAccessException {
+            
+        this.beanType = beanType;
+        this.factory = null;
+        
+        constructor.setAccessible(true);
+        final int size = argumentColumns.length;
+        this.argumentsConstructor = LOOKUP.unreflectConstructor(constructor)
+                .asSpreader(Object[].class, size)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+                
+        this.argumentColumns = argumentColumns;
+        this.argumentNames = new String[size];
+        this.argumentColumnMappings = new ColumnMapping[size];
+        this.argumentTypes = new Class<?>[size];
+        this.argumentDefaults = new Object[size];
+        
+        final Class<?>[] paramTypes = constructor.getParameterTypes();
+        for(int i=0; i < size; i++) {
+            argumentNames[i] = nameMapping[argumentColumns[i]];
+            argumentColumnMappings[i] = columns.get(argumentColumns[i]);
+            argumentTypes[i] = Utils.getWrapperClass(paramTypes[i]);
+            argumentDefaults[i] = paramTypes[i].isPrimitive() ? Array.get(Array.newInstance(paramTypes[i], 1), 0) : null;
+        }
+    }
+    
+    /**
+     * Beanのマッピング情報を元にインスタンスを作成します。
+     *
+     * @param <T> マッピング対象のBeanのクラスタイプ
+     * @param beanMapping Beanのマッピング情報
+     * @param nameMapping カラムの位置順のフィールドの一覧。
+     * @return 組み立てたインスタンス。
+     * @throws NullPointerException {@literal beanMapping or nameMapping is null.}
+     */
+    public static <T> BeanInstantiator<T> create(final BeanMapping<T> beanMapping, final String[] nameMapping) {
+        Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
+        Objects.requireNonNull(nameMapping, "nameMapping should not be null.");
+        
+        final Class<T> beanType = beanMapping.getType();
+        
+        if(beanType.isInterface()) {
+            final Supplier<Object> factory = BeanInterfaceGenerator.getImplementation(beanType)
+                    .flatMap(FACTORIES::get)
+                    .orElse(null);
+                    
+            return new BeanInstantiator<>(beanType, factory != null ? factory : () -> BeanInterfaceProxy.createProxy(beanType));
+        }
+        
+        if(Modifier.isAbstract(beanType.getModifiers())) {
+            return new BeanInstantiator<>(beanType, () -> newInstanceByReflection(beanType));
+        }
+        
+        final Supplier<T> generated = beanMapping.getGeneratedMetadata()
+                .flatMap(GeneratedBeanMetadata::getInstantiator)
+                .orElse(null);
+        if(generated != null) {
+            return new BeanInstantiator<>(beanType, generated::get);
+        }
+        
+        try {
+            beanType.getDeclaredConstructor();
+            final Supplier<Object> factory = FACTORIES.get(beanType).orElse(null);
+            return new BeanInstantiator<>(beanType, factory != null ? factory : () -> newInstanceByReflection(beanType));
+            
+        } catch(NoSuchMethodException e) {
+            // 引数ありのコンストラクタを検索する
+        }
+        
+        final Constructor<?> constructor = findArgumentsConstructor(beanMapping, nameMapping);
+        if(constructor != null) {
+            try {
+                return new BeanInstantiator<>(beanType, constructor,
+                        mapArgumentColumns(constructor, beanMapping, nameMapping), nameMapping, beanMapping.getColumns());
+                        
+            } catch(IllegalAccessException | SecurityException e) {
+                // 従来通りの処理で代替する。
+            }
+        }
+        
+        return new BeanInstantiator<>(beanType, () -> newInstanceByReflection(beanType));
+    }
+    
+    /**
+     * 引数なしのコンストラクタの呼び出し処理を組み立てます。
+     * @return 組み立てられない場合はnullを返します。
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> createFactory(final Class<?> type) {
+        
+        final Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch(NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+        
+        if(Modifier.isPublic(type.getModifiers()) && Modifier.isPublic(constructor.getModifiers())
+                && BeanPropertyBinder.isVisible(type)) {
+            try {
+                final CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+                        "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        LOOKUP.unreflectConstructor(constructor),
+                        MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invoke();
+                
+            } catch(Throwable e) {
+                // MethodHandleによる呼び出しで代替する。
+            }
+        }
+        
+        try {
+            constructor.setAccessible(true);
+            final MethodHandle target = LOOKUP.unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+                    
+            return () -> {
+                try {
+                    return target.invokeExact();
+                } catch(RuntimeException | Error e) {
+                    throw e;
+                } catch(Throwable e) {
+                    throw new SuperCsvReflectionException("error instantiating bean", e);
+                }
+            };
+            
+        } catch(IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        
+    }
+    
+    /**
+     * 従来通り、リフレクションでインスタンスを作成します。
+     */
+    private static Object newInstanceByReflection(final Class<?> type) {
+        
+        try {
+            return type.newInstance();
+        } catch(InstantiationException e) {
+            throw new SuperCsvReflectionException(String.format(
+                "error instantiating bean, check that %s has a default no-args constructor", type.getName()), e);
+        } catch(IllegalAccessException e) {
+            throw new SuperCsvReflectionException("error instantiating bean", e);
+        }
+        
+    }
+    
+    /**
+     * 全てのカラムの値を引数に取るコンストラクタを検索します。
+     * @return 見つからない場合は、nullを返します。
+     */
+    private static Constructor<?> findArgumentsConstructor(final BeanMapping<?> beanMapping, final String[] nameMapping) {
+        
+        final Constructor<?>[] constructors = beanMapping.getType().getDeclaredConstructors();
+        
+        // ConstructorPropertiesで引数名を指定している場合
+        for(Constructor<?> constructor : constructors) {
+            if(constructor.getAnnotation(ConstructorProperties.class) != null
+                    && mapArgumentColumns(constructor, beanMapping, nameMapping) != null) {
+                return constructor;
+            }
+        }
+        
+        // コンパイル時に保持した引数名で対応付けられる場合。ただし、候補が複数ある場合は利用しない。
+        Constructor<?> found = null;
+        for(Constructor<?> constructor : constructors) {
+            if(constructor.getAnnotation(ConstructorProperties.class) == null
+                    && mapArgumentColumns(constructor, beanMapping, nameMapping) != null) {
+                if(found != null) {
+                    return null;
+                }
+                found = constructor;
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * コンストラクタの引数名を取得します。
+     * <p>{@link ConstructorProperties}が付与されている場合はその値、
+     *    付与されていない場合はコンパイル時に保持した引数名を返します。
+     * </p>
+     * @return 引数名が分からない場合は、nullを返します。
+     */
+    private static String[] getArgumentNames(final Constructor<?> constructor) {
+        
+        final ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if(properties != null) {
+            return properties.value();
+        }
+        
+        final Parameter[] parameters = constructor.getParameters();
+        final String[] names = new String[parameters.length];
+        for(int i=0; i < parameters.length; i++) {
+            if(!parameters[i].isNamePresent()) {
+                return null;
+            }
+            names[i] = parameters[i].getName();
+        }
+        
+        return names;
+    }
+    
+    /**
+     * コンストラクタの引数に対応するカラムのインデックスを、引数名を元に決定します。
+     * @return 全てのカラムを引数で受け取れない場合、または引数名が分からない場合は、nullを返します。
+     */
+    private static int[] mapArgumentColumns(final Constructor<?> constructor, final BeanMapping<?> beanMapping,
+            final String[] nameMapping) {
+            
+        final List<ColumnMapping> columns = beanMapping.getColumns();
+        final List<Integer> mappedColumns = new ArrayList<>();
+        for(int i=0; i < nameMapping.length; i++) {
+            if(nameMapping[i] != null) {
+                if(i >= columns.size() || columns.get(i).getField() == null
+                        || !nameMapping[i].equals(columns.get(i).getName())) {
+                    return null;
+                }
+                mappedColumns.add(i);
+            }
+        }
+        
+        final Class<?>[] paramTypes = constructor.getParameterTypes();
+        if(paramTypes.length == 0 || paramTypes.length != mappedColumns.size()) {
+            return null;
+        }
+        
+        final String[] argumentNames = getArgumentNames(constructor);
+        if(argumentNames == null || argumentNames.length != paramTypes.length) {
+            return null;
+        }
+        
+        final int[] argumentColumns = new int[paramTypes.length];
+        final List<String> names = Arrays.asList(nameMapping);
+        for(int i=0; i < paramTypes.length; i++) {
+            argumentColumns[i] = names.indexOf(argumentNames[i]);
+            if(argumentColumns[i] < 0) {
+                return null;
+            }
+        }
+        
+        if(Arrays.stream(argumentColumns).distinct().count() != argumentColumns.length) {
+            return null;
+        }
+        
+        for(int i=0; i < paramTypes.length; i++) {
+            final Class<?> fieldType = columns.get(argumentColumns[i]).getField().getType();
+            if(!Utils.getWrapperClass(paramTypes[i]).isAssignableFrom(Utils.getWrapperClass(fieldType))) {
+                return null;
+            }
+        }
+        
+        return argumentColumns;
+    }
+    
+    /**
+     * コンストラクタの引数で、カラムの値を設定するかどうか。
+     * @return trueの場合、{@link #newInstance(List, CsvContext, CsvBindingErrors)}でインスタンスを作成します。
+     */
+    public boolean isArgumentsConstructor() {
+        return argumentsConstructor != null;
+    }
+    
+    /**
+     * 引数なしでBeanのインスタンスを作成します。
+     *
+     * @return Beanのインスタンス。
+     * @throws SuperCsvReflectionException インスタンスの作成に失敗した場合。
+     * @throws IllegalStateException コンストラクタの引数で値を設定する場合。
+     */
+    public T newInstance() {
+        
+        if(factory == null) {
+            throw new IllegalStateException(String.format("%s should be instantiated with arguments.", beanType.getName()));
+        }
+        
+        return beanType.cast(factory.get());
+    }
+    
+    /**
+     * 処理済みのカラムの値を、コンストラクタの引数に渡してBeanのインスタンスを作成します。
+     * <p>値がnullの場合、またはエラーのあるカラムの場合、引数には初期値（プリミティブ型の場合は0/false、それ以外はnull）を渡します。
+     *    <br>値がnullの場合は、setterメソッドを呼び出さないときと同様に、エラーとしません。
+     * </p>
+     * <p>値のタイプが引数のタイプと一致しない場合は、エラーコード{@literal csvError.typeMismatch}のフィールドエラーを登録し、
+     *    引数には初期値を渡します。
+     * </p>
+     *
+     * @param processedColumns CellProcessorで処理済みのカラムの値。
+     * @param context 処理中の行の情報。
+     * @param bindingErrors エラー情報。
+     * @return Beanのインスタンス。
+     * @throws SuperCsvReflectionException インスタンスの作成に失敗した場合。
+     * @throws IllegalStateException 引数なしでインスタンスを作成する場合。
+     */
+    public T newInstance(final List<Object> processedColumns, final CsvContext context, final CsvBindingErrors bindingErrors) {
+        
+        if(argumentsConstructor == null) {
+            throw new IllegalStateException(String.format("%s should be instantiated without arguments.", beanType.getName()));
+        }
+        
+        final Object[] arguments = new Object[argumentColumns.length];
+        for(int i=0; i < arguments.length; i++) {
+            final Object value = processedColumns.get(argumentColumns[i]);
+            if(value == null || bindingErrors.hasFieldErrors(argumentNames[i])) {
+                arguments[i] = argumentDefaults[i];
+                
+            } else if(!argumentTypes[i].isInstance(value)) {
+                rejectTypeMismatch(i, value, context, bindingErrors);
+                arguments[i] = argumentDefaults[i];
+                
+            } else {
+                arguments[i] = value;
+            }
+        }
+        
+        try {
+            return beanType.cast(argumentsConstructor.invokeExact(arguments));
+            
+        } catch(Error e) {
+            throw e;
+        } catch(Throwable e) {
+            throw new SuperCsvReflectionException("error instantiating bean", e);
+        }
+        
+    }
+    
+    /**
+     * 値のタイプが引数のタイプと一致しないことを、フィールドエラーとして登録します。
+     */
+    private void rejectTypeMismatch(final int argumentIndex, final Object value, final CsvContext context,
+            final CsvBindingErrors bindingErrors) {
+        
+        final ColumnMapping columnMapping = argumentColumnMappings[argumentIndex];
+        
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("lineNumber", context.getLineNumber());
+        variables.put("rowNumber", context.getRowNumber());
+        variables.put("columnNumber", columnMapping.getNumber());
+        variables.put("label", columnMapping.getLabel());
+        variables.put("validatedValue", value);
+        variables.put("argumentType", argumentTypes[argumentIndex].getName());
+        
+        bindingErrors.rejectValue(argumentNames[argumentIndex], columnMapping.getField().getType(),
+                "csvError.typeMismatch", variables);
+    }
+    
+}
@@ -0,0 +1,347 @@
+package com.github.mygreen.supercsv.io;
+
+import static com.github.mygreen.supercsv.util.ClassFileWriter.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.github.mygreen.supercsv.util.ClassFileWriter;
+
+/**
+ * インタフェースのBeanに対して、プロパティをフィールドで保持する実装クラスを生成するクラス。
+ * <p>Super CSVの{@link org.supercsv.util.BeanInterfaceProxy}は、動的プロキシとマップで値を保持するため、
+ *   プロパティへのアクセスごとにメソッド名の解析とマップの操作が発生します。
+ *   <br>生成した実装クラスは、getter/setterメソッドから直接フィールドにアクセスします。
+ * </p>
+ * <p>次の場合は、実装クラスを生成できません。</p>
+ * <ul>
+ *   <li>インタフェースが公開されていない場合。</li>
+ *   <li>ブートストラップ・クラスローダーで読み込まれたインタフェースの場合。</li>
+ *   <li>同じ名前のプロパティのgetter/setterメソッドで、タイプが異なる場合。</li>
+ *   <li>getter/setterメソッド以外の抽象メソッドがある場合。</li>
+ * </ul>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+final class BeanInterfaceGenerator {
+    
+    /**
+     * 生成した実装クラスのキャッシュ。生成できない場合は空。
+     */
+    private static final ClassValue<Optional<Class<?>>> IMPLEMENTATIONS = new ClassValue<Optional<Class<?>>>() {
+        
+        @Override
+        protected Optional<Class<?>> computeValue(final Class<?> type) {
+            return Optional.ofNullable(generate(type));
+        }
+    };
+    
+    private static final String IMPLEMENTATION_SUFFIX = "$$CsvBeanImpl";
+    
+    private BeanInterfaceGenerator() {
+    }
+    
+    /**
+     * インタフェースの実装クラスを取得します。
+     * <p>生成した実装クラスは、インタフェースごとにキャッシュされます。</p>
+     *
+     * @param <T> インタフェースのタイプ
+     * @param interfaceType 実装するインタフェース。
+     * @return 生成できない場合は、空を返します。
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Optional<Class<? extends T>> getImplementation(final Class<T> interfaceType) {
+        
+        if(!interfaceType.isInterface()) {
+            return Optional.empty();
+        }
+        
+        return IMPLEMENTATIONS.get(interfaceType).map(c -> (Class<? extends T>)c);
+    }
+    
+    /**
+     * 実装クラスを生成します。
+     * @return 生成できない場合は、nullを返します。
+     */
+    private static Class<?> generate(final Class<?> interfaceType) {
+        
+        if(!Modifier.isPublic(interfaceType.getModifiers()) || interfaceType.getClassLoader() == null) {
+            return null;
+        }
+        
+        final Map<String, Property> properties = new LinkedHashMap<>();
+        if(!collectProperties(interfaceType, properties)) {
+            return null;
+        }
+        
+        final String className = interfaceType.getName() + IMPLEMENTATION_SUFFIX;
+        final byte[] bytes;
+        try {
+            bytes = new ImplementationWriter(className, interfaceType, properties.values()).toByteArray();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        try {
+            final Class<?> implementation = new ImplementationClassLoader(interfaceType.getClassLoader())
+                    .define(className, bytes);
+                    
+            // インスタンスが作成できることを確認する。
+            implementation.getDeclaredConstructor().newInstance();
+            return implementation;
+            
+        } catch(LinkageError | ReflectiveOperationException | SecurityException e) {
+            return null;
+        }
+        
+    }
+    
+    /**
+     * インタフェースのメソッドから、プロパティを抽出します。
+     * @return getter/setterメソッド以外の抽象メソッドがあるなど、実装クラスを生成できない場合は、falseを返します。
+     */
+    private static boolean collectProperties(final Class<?> interfaceType, final Map<String, Property> properties) {
+        
+        final Map<String, Method> methods = new LinkedHashMap<>();
+        for(Method method : interfaceType.getMethods()) {
+            if(!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+                continue;
+            }
+            
+            // 複数のインタフェースで同じシグニチャのメソッドは、1つのみ実装する。
+            methods.putIfAbsent(method.getName() + methodDescriptor(method.getReturnType(), method.getParameterTypes()), method);
+        }
+        
+        for(Method method : methods.values()) {
+            final String name = method.getName();
+            final Class<?>[] paramTypes = method.getParameterTypes();
+            final Class<?> returnType = method.getReturnType();
+            
+            final String propertyName;
+            final Class<?> propertyType;
+            final boolean getter;
+            if(name.startsWith("get") && name.length() > 3 && paramTypes.length == 0 && returnType != void.class) {
+                propertyName = name.substring(3);
+                propertyType = returnType;
+                getter = true;
+                
+            } else if(name.startsWith("is") && name.length() > 2 && paramTypes.length == 0
+                    && (returnType == boolean.class || returnType == Boolean.class)) {
+                propertyName = name.substring(2);
+                propertyType = returnType;
+                getter = true;
+                
+            } else if(name.startsWith("set") && name.length() > 3 && paramTypes.length == 1 && returnType == void.class) {
+                propertyName = name.substring(3);
+                propertyType = paramTypes[0];
+                getter = false;
+                
+            } else {
+                // プロパティ以外のメソッドは実装できない。
+                return false;
+            }
+            
+            final Property property = properties.computeIfAbsent(propertyName, key -> new Property(key, propertyType));
+            if(property.type != propertyType) {
+                return false;
+            }
+            
+            if(getter) {
+                property.getters.add(name);
+            } else {
+                property.setter = true;
+            }
+        }
+        
+        return true;
+    }
+    
+    private static boolean isObjectMethod(final Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch(NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * ローカル変数やスタックで使用するスロット数。
+     */
+    private static int slotSize(final Class<?> type) {
+        return (type == long.class || type == double.class) ? 2 : 1;
+    }
+    
+    /**
+     * 実装するプロパティ。
+     */
+    private static class Property {
+        
+        private final String name;
+        
+        private final Class<?> type;
+        
+        /**
+         * getterメソッドの名称。get/isの両方が定義されている場合がある。
+         */
+        private final List<String> getters = new ArrayList<>(1);
+        
+        private boolean setter;
+        
+        Property(final String name, final Class<?> type) {
+            this.name = name;
+            this.type = type;
+        }
+        
+        String getFieldName() {
+            return "_" + name;
+        }
+    }
+    
+    /**
+     * 生成したクラスを定義するクラスローダー。
+     */
+    private static class ImplementationClassLoader extends ClassLoader {
+        
+        ImplementationClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+        
+        Class<?> define(final String className, final byte[] bytes) {
+            return defineClass(className, bytes, 0, bytes.length);
+        }
+    }
+    
+    /**
+     * 実装クラスのクラスファイルを組み立てるクラス。
+     */
+    private static class ImplementationWriter {
+        
+        private static final int ALOAD_0 = 0x2a;
+        
+        private static final int RETURN = 0xb1;
+        
+        private static final int GETFIELD = 0xb4;
+        
+        private static final int PUTFIELD = 0xb5;
+        
+        private static final int INVOKESPECIAL = 0xb7;
+        
+        private final ClassFileWriter writer = new ClassFileWriter();
+        
+        private final String className;
+        
+        private final Class<?> interfaceType;
+        
+        private final Collection<Property> properties;
+        
+        ImplementationWriter(final String className, final Class<?> interfaceType, final Collection<Property> properties) {
+            this.className = internalName(className);
+            this.interfaceType = interfaceType;
+            this.properties = properties;
+        }
+        
+        byte[] toByteArray() throws IOException {
+            
+            for(Property property : properties) {
+                writer.addField(ACC_PRIVATE, property.getFieldName(), descriptor(property.type));
+            }
+            
+            writeConstructor();
+            for(Property property : properties) {
+                for(String getter : property.getters) {
+                    writeGetter(getter, property);
+                }
+                if(property.setter) {
+                    writeSetter(property);
+                }
+            }
+            
+            return writer.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+                    className, "java/lang/Object", internalName(interfaceType));
+        }
+        
+        private void writeConstructor() throws IOException {
+            
+            final ByteArrayOutputStream code = new ByteArrayOutputStream();
+            final DataOutputStream c = new DataOutputStream(code);
+            c.writeByte(ALOAD_0);
+            c.writeByte(INVOKESPECIAL);
+            c.writeShort(writer.methodRef("java/lang/Object", "<init>", "()V"));
+            c.writeByte(RETURN);
+            
+            writer.addMethod(ACC_PUBLIC, "<init>", "()V", 1, 1, code.toByteArray());
+        }
+        
+        private void writeGetter(final String methodName, final Property property) throws IOException {
+            
+            final ByteArrayOutputStream code = new ByteArrayOutputStream();
+            final DataOutputStream c = new DataOutputStream(code);
+            c.writeByte(ALOAD_0);
+            c.writeByte(GETFIELD);
+            c.writeShort(writer.fieldRef(className, property.getFieldName(), descriptor(property.type)));
+            c.writeByte(returnOpcode(property.type));
+            
+            writer.addMethod(ACC_PUBLIC, methodName, methodDescriptor(property.type), slotSize(property.type), 1, code.toByteArray());
+        }
+        
+        private void writeSetter(final Property property) throws IOException {
+            
+            final int size = slotSize(property.type);
+            
+            final ByteArrayOutputStream code = new ByteArrayOutputStream();
+            final DataOutputStream c = new DataOutputStream(code);
+            c.writeByte(ALOAD_0);
+            c.writeByte(loadOpcode(property.type));
+            c.writeByte(PUTFIELD);
+            c.writeShort(writer.fieldRef(className, property.getFieldName(), descriptor(property.type)));
+            c.writeByte(RETURN);
+            
+            writer.addMethod(ACC_PUBLIC, "set" + property.name, methodDescriptor(void.class, property.type),
+                    1 + size, 1 + size, code.toByteArray());
+        }
+        
+        /**
+         * 1番目の引数を読み込む命令。
+         */
+        private static int loadOpcode(final Class<?> type) {
+            if(type == long.class) {
+                return 0x1f; // lload_1
+            } else if(type == float.class) {
+                return 0x23; // fload_1
+            } else if(type == double.class) {
+                return 0x27; // dload_1
+            } else if(type.isPrimitive()) {
+                return 0x1b; // iload_1
+            }
+            return 0x2b; // aload_1
+        }
+        
+        private static int returnOpcode(final Class<?> type) {
+            if(type == long.class) {
+                return 0xad; // lreturn
+            } else if(type == float.class) {
+                return 0xae; // freturn
+            } else if(type == double.class) {
+                return 0xaf; // dreturn
+            } else if(type.isPrimitive()) {
+                return 0xac; // ireturn
+            }
+            return 0xb0; // areturn
+        }
+        
+    }
+    
+}
@@ -3,18 +3,24 @@ package com.github.mygreen.supercsv.io;
 import org.supercsv.cellprocessor.ift.CellProcessor;
 
 import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.CompiledBeanMapping;
 
 
 /**
  * Beanのマッピング情報のキャッシュ。
  * <p>レコードの実行ごとに、</p>
  *
- * @version 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
 public class BeanMappingCache<T> {
     
+    /**
+     * {@link CompiledBeanMapping}に保持する、Beanへのアクセス処理のキー。
+     */
+    private static final Object ACCESSORS_KEY = new Object();
+    
     private final BeanMapping<T> beanMapping;
     
     private String[] header;
@@ -25,6 +31,14 @@ public class BeanMappingCache<T> {
     
     private CellProcessor[] cellProcessorsForWriting;
     
+    private BeanPropertyBinder<T> propertyBinder;
+    
+    private BeanInstantiator<T> instantiator;
+    
+    private boolean[] columnProjection;
+    
+    private TrustedWritePlan<T> trustedWritePlan;
+    
     private BeanMappingCache(final BeanMapping<T> beanMapping) {
         this.beanMapping = beanMapping;
     }
@@ -33,14 +47,41 @@ public class BeanMappingCache<T> {
         
         final BeanMappingCache<T> cache = new BeanMappingCache<>(beanMapping);
         
-        cache.header = beanMapping.getHeader();
-        cache.nameMapping = beanMapping.getNameMapping();
-        cache.cellProcessorsForReading = beanMapping.getCellProcessorsForReading();
-        cache.cellProcessorsForWriting = beanMapping.getCellProcessorsForWriting();
+        // 同じマッピング情報から作成する場合は、組み立てた配列を共有する
+        final CompiledBeanMapping<T> compiled = beanMapping.compile();
+        cache.header = compiled.getHeader();
+        cache.nameMapping = compiled.getNameMapping();
+        cache.cellProcessorsForReading = compiled.getCellProcessorsForReading();
+        cache.cellProcessorsForWriting = compiled.getCellProcessorsForWriting();
+        
+        // 呼び出し処理の生成はクラスの定義を伴うため、同じマッピング情報から作成するReader/Writerで共有する
+        final Accessors<T> accessors = compiled.getAttachment(ACCESSORS_KEY, c -> new Accessors<>(
+                BeanPropertyBinder.create(beanMapping, c.getNameMapping()),
+                BeanInstantiator.create(beanMapping, c.getNameMapping())));
+        cache.propertyBinder = accessors.propertyBinder;
+        cache.instantiator = accessors.instantiator;
+        cache.columnProjection = createColumnProjection(cache.nameMapping);
+        cache.trustedWritePlan = TrustedWritePlan.create(beanMapping, cache.propertyBinder, cache.cellProcessorsForWriting);
         
         return cache;
     }
     
+    /**
+     * フィールドにマッピングするカラムを元に、読み込むカラムを決定します。
+     * @return 全てのカラムをマッピングする場合は、nullを返します。
+     */
+    private static boolean[] createColumnProjection(final String[] nameMapping) {
+        
+        final boolean[] projection = new boolean[nameMapping.length];
+        boolean partial = false;
+        for(int i=0; i < nameMapping.length; i++) {
+            projection[i] = (nameMapping[i] != null);
+            partial |= !projection[i];
+        }
+        
+        return partial ? projection : null;
+    }
+    
     /**
      * キャッシュ元のデータを取得する。
      * @return キャッシュ元となったマッピング情報。
@@ -66,4 +107,58 @@ public class BeanMappingCache<T> {
         return cellProcessorsForWriting;
     }
     
+    /**
+     * Beanのプロパティに対して、カラムの値の設定と取得を行うクラスを取得する。
+     * @since 2.2
+     * @return {@link #getNameMapping()}のカラムの位置順に組み立てられています。
+     */
+    public BeanPropertyBinder<T> getPropertyBinder() {
+        return propertyBinder;
+    }
+    
+    /**
+     * Beanのインスタンスを作成するクラスを取得する。
+     * @since 2.2
+     * @return インスタンスの作成方法を事前に決定したクラス。
+     */
+    public BeanInstantiator<T> getInstantiator() {
+        return instantiator;
+    }
+    
+    /**
+     * 字句解析時に読み込むカラムを取得する。
+     * @since 2.2
+     * @return カラムのインデックスに対応する、フィールドにマッピングするかどうかの値。
+     *         全てのカラムをマッピングする場合は、nullを返します。
+     * @see ProjectableTokenizer#setColumnProjection(boolean[])
+     */
+    public boolean[] getColumnProjection() {
+        return columnProjection;
+    }
+    
+    /**
+     * 入力値検証を行わずに書き込む場合の、レコードの変換処理を取得する。
+     * @since 2.2
+     * @return 入力値検証を行う場合など、適用できない場合は、nullを返します。
+     */
+    public TrustedWritePlan<T> getTrustedWritePlan() {
+        return trustedWritePlan;
+    }
+    
+    /**
+     * 同じマッピング情報で共有する、Beanへのアクセス処理。
+     */
+    private static class Accessors<T> {
+        
+        private final BeanPropertyBinder<T> propertyBinder;
+        
+        private final BeanInstantiator<T> instantiator;
+        
+        Accessors(final BeanPropertyBinder<T> propertyBinder, final BeanInstantiator<T> instantiator) {
+            this.propertyBinder = propertyBinder;
+            this.instantiator = instantiator;
+        }
+        
+    }
+    
 }
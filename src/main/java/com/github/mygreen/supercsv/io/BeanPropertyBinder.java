@@ -0,0 +1,446 @@
+package com.github.mygreen.supercsv.io;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.supercsv.exception.SuperCsvReflectionException;
+import org.supercsv.util.MethodCache;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.ColumnMapping;
+import com.github.mygreen.supercsv.builder.GeneratedBeanMetadata;
+import com.github.mygreen.supercsv.util.Utils;
+
+/**
+ * Beanのプロパティに対して、カラムの値の設定と取得を行うクラス。
+ * <p>{@link BeanMapping}のカラムごとに、setter/getterメソッドを呼び出す処理を事前に組み立てておき、
+ *   レコードを処理するたびに発生する、メソッドの検索やリフレクションによる呼び出しを省きます。
+ * </p>
+ * <p>呼び出し処理は、可能な場合は{@link LambdaMetafactory}により生成し、
+ *   クラスやメソッドが公開されていないなどの理由で生成できない場合は、{@link MethodHandle}を利用します。
+ *   <br>プリミティブ型のプロパティの場合、ボクシング/アンボクシングは呼び出し処理の中で行います。
+ * </p>
+ * <p>生成した呼び出し処理は、Beanのクラスタイプとメソッドごとに保持し、同じメソッドに対してクラスを繰り返し生成しないようにします。
+ *   <br>また、インスタンスは{@link BeanMappingCache}により、同じマッピング情報を利用するReader/Writerで共有されます。
+ * </p>
+ * <p>アノテーションプロセッサにより生成された{@link GeneratedBeanMetadata}がある場合は、
+ *   生成された呼び出し処理を優先して利用します。
+ * </p>
+ * <p>フィールドのタイプと一致するsetter/getterメソッドが存在しない場合は、
+ *   従来通り{@link MethodCache}を利用して、値のクラスタイプを元にメソッドを検索します。
+ * </p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class BeanPropertyBinder<T> {
+    
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    /**
+     * Beanのクラスタイプごとの、メソッドに対する呼び出し処理。
+     * <p>呼び出し処理ごとにクラスが生成されるため、同じメソッドに対しては生成した処理を再利用します。</p>
+     */
+    private static final ClassValue<ConcurrentHashMap<Method, Object>> ACCESSORS = new ClassValue<ConcurrentHashMap<Method, Object>>() {
+        
+        @Override
+        protected ConcurrentHashMap<Method, Object> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    
+    private final Class<T> beanType;
+    
+    private final String[] nameMapping;
+    
+    /**
+     * カラムごとのsetterメソッドの呼び出し処理。組み立てられない場合はnull。
+     */
+    private final BiConsumer<Object, Object>[] setters;
+    
+    /**
+     * カラムごとのsetterメソッドの引数のタイプ。プリミティブ型の場合はラッパークラス。
+     */
+    private final Class<?>[] setterTypes;
+    
+    /**
+     * カラムごとのsetterメソッドの名称。
+     */
+    private final String[] setterNames;
+    
+    /**
+     * カラムごとのgetterメソッドの呼び出し処理。組み立てられない場合はnull。
+     */
+    private final Function<Object, Object>[] getters;
+    
+    /**
+     * 呼び出し処理が組み立てられない場合のメソッドのキャッシュ。
+     */
+    private final MethodCache methodCache = new MethodCache();
+    
+    private BeanPropertyBinder(final Class<T> beanType, final String[] nameMapping) {
+        this.beanType = beanType;
+        this.nameMapping = nameMapping;
+        
+        final int size = nameMapping.length;
+        @SuppressWarnings("unchecked")
+        final BiConsumer<Object, Object>[] setters = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[size];
+        @SuppressWarnings("unchecked")
+        final Function<Object, Object>[] getters = (Function<Object, Object>[]) new Function<?, ?>[size];
+        
+        this.setters = setters;
+        this.setterTypes = new Class<?>[size];
+        this.setterNames = new String[size];
+        this.getters = getters;
+    }
+    
+    /**
+     * Beanのマッピング情報を元にインスタンスを作成します。
+     *
+     * @param <T> マッピング対象のBeanのクラスタイプ
+     * @param beanMapping Beanのマッピング情報
+     * @param nameMapping カラムの位置順のフィールドの一覧。
+     * @return 組み立てたインスタンス。
+     * @throws NullPointerException {@literal beanMapping or nameMapping is null.}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanPropertyBinder<T> create(final BeanMapping<T> beanMapping, final String[] nameMapping) {
+        Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
+        Objects.requireNonNull(nameMapping, "nameMapping should not be null.");
+        
+        final Class<T> beanType = beanMapping.getType();
+        final BeanPropertyBinder<T> binder = new BeanPropertyBinder<>(beanType, nameMapping);
+        final Optional<GeneratedBeanMetadata<T>> metadata = beanMapping.getGeneratedMetadata();
+        
+        final List<ColumnMapping> columns = beanMapping.getColumns();
+        for(int i=0; i < nameMapping.length && i < columns.size(); i++) {
+            
+            final ColumnMapping column = columns.get(i);
+            if(nameMapping[i] == null || column.getField() == null || !nameMapping[i].equals(column.getName())) {
+                continue;
+            }
+            
+            final String propertyName = nameMapping[i];
+            final Class<?> propertyType = column.getField().getType();
+            
+            // コンパイル時に生成された呼び出し処理を優先する
+            final BiConsumer<T, Object> generatedSetter = metadata.flatMap(m -> m.getSetter(propertyName)).orElse(null);
+            if(generatedSetter != null) {
+                binder.setters[i] = (BiConsumer<Object, Object>) generatedSetter;
+                binder.setterTypes[i] = Utils.getWrapperClass(propertyType);
+                binder.setterNames[i] = "set" + Utils.capitalize(propertyName);
+                
+            } else {
+                final Method setter = findSetter(beanType, propertyName, propertyType);
+                if(setter != null) {
+                    binder.setters[i] = getSetter(beanType, setter);
+                    binder.setterTypes[i] = Utils.getWrapperClass(propertyType);
+                    binder.setterNames[i] = setter.getName();
+                }
+            }
+            
+            final Function<T, Object> generatedGetter = metadata.flatMap(m -> m.getGetter(propertyName)).orElse(null);
+            if(generatedGetter != null) {
+                binder.getters[i] = (Function<Object, Object>) generatedGetter;
+                
+            } else {
+                final Method getter = findGetter(beanType, propertyName, propertyType);
+                if(getter != null) {
+                    binder.getters[i] = getGetter(beanType, getter);
+                }
+            }
+            
+        }
+        
+        return binder;
+    }
+    
+    /**
+     * カラムの位置順のフィールドの一覧を取得します。
+     * @return 組み立て時に指定したフィールドの一覧。
+     */
+    public String[] getNameMapping() {
+        return nameMapping;
+    }
+    
+    /**
+     * 指定したカラムに対応するBeanのプロパティに値を設定します。
+     *
+     * @param bean 設定対象のBeanのインスタンス。
+     * @param columnIndex カラムのインデックス。0から始まります。
+     * @param value 設定する値。
+     * @throws SuperCsvReflectionException setterメソッドの呼び出しに失敗した場合。
+     */
+    public void setValue(final Object bean, final int columnIndex, final Object value) {
+        
+        final BiConsumer<Object, Object> setter = setters[columnIndex];
+        if(setter == null || !setterTypes[columnIndex].isInstance(value) || !beanType.isInstance(bean)) {
+            setValueByMethodCache(bean, nameMapping[columnIndex], value);
+            return;
+        }
+        
+        try {
+            setter.accept(bean, value);
+            
+        } catch(final RuntimeException e) {
+            throw new SuperCsvReflectionException(String.format("error invoking method %s()", setterNames[columnIndex]), e);
+        }
+        
+    }
+    
+    /**
+     * 指定したカラムに対応するBeanのプロパティの値を取得します。
+     *
+     * @param bean 取得対象のBeanのインスタンス。
+     * @param columnIndex カラムのインデックス。0から始まります。
+     * @return プロパティの値。
+     * @throws SuperCsvReflectionException getterメソッドの呼び出しに失敗した場合。
+     */
+    public Object getValue(final Object bean, final int columnIndex) {
+        
+        final Function<Object, Object> getter = getters[columnIndex];
+        if(getter == null || !beanType.isInstance(bean)) {
+            return getValueByMethodCache(bean, nameMapping[columnIndex]);
+        }
+        
+        try {
+            return getter.apply(bean);
+            
+        } catch(final RuntimeException e) {
+            throw new SuperCsvReflectionException(String.format("error extracting bean value for field %s",
+                    nameMapping[columnIndex]), e);
+        }
+        
+    }
+    
+    private void setValueByMethodCache(final Object bean, final String fieldName, final Object value) {
+        
+        // MethodCacheはスレッドセーフではないため、並列に読み込む場合に備えて排他制御する。
+        final Method setMethod;
+        synchronized(methodCache) {
+            setMethod = methodCache.getSetMethod(bean, fieldName, value.getClass());
+        }
+        
+        try {
+            setMethod.invoke(bean, value);
+            
+        } catch(final Exception e) {
+            throw new SuperCsvReflectionException(String.format("error invoking method %s()", setMethod.getName()), e);
+        }
+        
+    }
+    
+    private Object getValueByMethodCache(final Object bean, final String fieldName) {
+        
+        final Method getMethod;
+        synchronized(methodCache) {
+            getMethod = methodCache.getGetMethod(bean, fieldName);
+        }
+        
+        try {
+            return getMethod.invoke(bean);
+            
+        } catch(final Exception e) {
+            throw new SuperCsvReflectionException(String.format("error extracting bean value for field %s",
+                    fieldName), e);
+        }
+        
+    }
+    
+    /**
+     * フィールドのタイプを引数に持つsetterメソッドを検索します。
+     * @return 見つからない場合はnullを返します。
+     */
+    private static Method findSetter(final Class<?> beanType, final String propertyName, final Class<?> propertyType) {
+        
+        try {
+            return beanType.getMethod("set" + Utils.capitalize(propertyName), propertyType);
+        } catch(NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+        
+    }
+    
+    /**
+     * フィールドのタイプを戻り値に持つgetterメソッドを検索します。
+     * @return 見つからない場合はnullを返します。
+     */
+    private static Method findGetter(final Class<?> beanType, final String propertyName, final Class<?> propertyType) {
+        
+        final String capitalizedName = Utils.capitalize(propertyName);
+        for(String prefix : new String[]{"get", "is"}) {
+            try {
+                final Method method = beanType.getMethod(prefix + capitalizedName);
+                if(method.getReturnType().equals(propertyType)
+                        && (prefix.equals("get") || propertyType == boolean.class || propertyType == Boolean.class)) {
+                    return method;
+                }
+            } catch(NoSuchMethodException | SecurityException e) {
+                // 次の候補を検索する
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * setterメソッドの呼び出し処理を取得します。
+     * <p>組み立て済みの場合は、保持している処理を返します。</p>
+     * @return 組み立てられない場合はnullを返します。
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> getSetter(final Class<?> beanType, final Method method) {
+        
+        // 組み立てられない場合は保持しない
+        return (BiConsumer<Object, Object>) ACCESSORS.get(beanType).computeIfAbsent(method, m -> createSetter(beanType, m));
+    }
+    
+    /**
+     * getterメソッドの呼び出し処理を取得します。
+     * <p>組み立て済みの場合は、保持している処理を返します。</p>
+     * @return 組み立てられない場合はnullを返します。
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getGetter(final Class<?> beanType, final Method method) {
+        
+        // 組み立てられない場合は保持しない
+        return (Function<Object, Object>) ACCESSORS.get(beanType).computeIfAbsent(method, m -> createGetter(beanType, m));
+    }
+    
+    /**
+     * setterメソッドの呼び出し処理を組み立てます。
+     * @return 組み立てられない場合はnullを返します。
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(final Class<?> beanType, final Method method) {
+        
+        final Class<?> paramType = Utils.getWrapperClass(method.getParameterTypes()[0]);
+        
+        if(isLambdaAccessible(beanType, method) && isVisible(paramType)) {
+            try {
+                final MethodHandle target = LOOKUP.unreflect(method);
+                final CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        target,
+                        MethodType.methodType(void.class, beanType, paramType));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+                
+            } catch(Throwable e) {
+                // MethodHandleによる呼び出しで代替する。
+            }
+        }
+        
+        try {
+            method.setAccessible(true);
+            final MethodHandle target = LOOKUP.unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    
+            return (bean, value) -> {
+                try {
+                    target.invokeExact(bean, value);
+                } catch(RuntimeException | Error e) {
+                    throw e;
+                } catch(Throwable e) {
+                    throw new SuperCsvReflectionException(String.format("error invoking method %s()", method.getName()), e);
+                }
+            };
+            
+        } catch(IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        
+    }
+    
+    /**
+     * getterメソッドの呼び出し処理を組み立てます。
+     * @return 組み立てられない場合はnullを返します。
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(final Class<?> beanType, final Method method) {
+        
+        final Class<?> returnType = Utils.getWrapperClass(method.getReturnType());
+        
+        if(isLambdaAccessible(beanType, method) && isVisible(returnType)) {
+            try {
+                final MethodHandle target = LOOKUP.unreflect(method);
+                final CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        target,
+                        MethodType.methodType(returnType, beanType));
+                return (Function<Object, Object>) site.getTarget().invoke();
+                
+            } catch(Throwable e) {
+                // MethodHandleによる呼び出しで代替する。
+            }
+        }
+        
+        try {
+            method.setAccessible(true);
+            final MethodHandle target = LOOKUP.unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+                    
+            return bean -> {
+                try {
+                    return target.invokeExact(bean);
+                } catch(RuntimeException | Error e) {
+                    throw e;
+                } catch(Throwable e) {
+                    throw new SuperCsvReflectionException(String.format("error invoking method %s()", method.getName()), e);
+                }
+            };
+            
+        } catch(IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        
+    }
+    
+    /**
+     * {@link LambdaMetafactory}で生成したクラスから、メソッドを直接呼び出せるかどうか判定します。
+     */
+    private static boolean isLambdaAccessible(final Class<?> beanType, final Method method) {
+        
+        return Modifier.isPublic(beanType.getModifiers())
+                && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && Modifier.isPublic(method.getModifiers())
+                && isVisible(beanType)
+                && isVisible(method.getDeclaringClass());
+    }
+    
+    /**
+     * このライブラリのクラスローダーから、指定したクラスが参照できるかどうか判定します。
+     * <p>生成したクラスは、このライブラリのクラスローダーで解決されるため、
+     *    子のクラスローダーで読み込まれたBeanには利用できません。</p>
+     */
+    static boolean isVisible(final Class<?> type) {
+        
+        if(type.isPrimitive()) {
+            return true;
+        }
+        
+        try {
+            return Class.forName(type.getName(), false, BeanPropertyBinder.class.getClassLoader()) == type;
+        } catch(ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+        
+    }
+    
+}
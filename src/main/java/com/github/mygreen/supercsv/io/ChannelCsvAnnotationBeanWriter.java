@@ -0,0 +1,214 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.supercsv.encoder.CsvEncoder;
+import org.supercsv.prefs.CsvPreference;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+
+/**
+ * アノテーションを元にCSVファイルを、{@link WritableByteChannel}または{@link OutputStream}に書き出すためのクラス。
+ * <p>{@link ChannelWriter}のバッファに、レコードの値を直接追加するため、
+ *    {@link CsvAnnotationBeanWriter}と比べて、1行ごとの文字列の作成と、{@link java.io.BufferedWriter}によるコピーを抑えることができます。
+ *    <br>バッファは、一杯になった時点、またはフラッシュした時点で、まとめてバイトに変換して書き込みます。
+ * </p>
+ * <p>バッファのサイズを変更する場合は、{@link ChannelWriter}を作成して、コンストラクタに渡します。</p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ChannelCsvAnnotationBeanWriter<T> extends CsvAnnotationBeanWriter<T> {
+    
+    /**
+     * 書き込み先。
+     */
+    private final ChannelWriter writer;
+    
+    /**
+     * CSVの設定。
+     */
+    private final CsvPreference preference;
+    
+    /**
+     * 値に含まれる改行により、増えた行数。
+     */
+    private int extraLineCount = 0;
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param writer 書き込み先。
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or writer or preferences are null.}
+     */
+    public ChannelCsvAnnotationBeanWriter(final Class<T> beanType, final ChannelWriter writer, final CsvPreference preference,
+            final Class<?>... groups) {
+        super(beanType, writer, preference, false, groups);
+        this.writer = writer;
+        this.preference = preference;
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、チャネルに書き込む{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param channel 書き込み先のチャネル。
+     * @param charset 文字コード。
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or channel or charset or preferences are null.}
+     */
+    public ChannelCsvAnnotationBeanWriter(final Class<T> beanType, final WritableByteChannel channel, final Charset charset,
+            final CsvPreference preference, final Class<?>... groups) {
+        this(beanType, new ChannelWriter(channel, charset), preference, groups);
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、ストリームに書き込む{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param out 書き込み先のストリーム。
+     * @param charset 文字コード。
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or out or charset or preferences are null.}
+     */
+    public ChannelCsvAnnotationBeanWriter(final Class<T> beanType, final OutputStream out, final Charset charset,
+            final CsvPreference preference, final Class<?>... groups) {
+        this(beanType, new ChannelWriter(out, charset), preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param writer 書き込み先。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or writer or preferences are null.}
+     */
+    public ChannelCsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final ChannelWriter writer, final CsvPreference preference) {
+        super(beanMapping, writer, preference, false);
+        this.writer = writer;
+        this.preference = preference;
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、チャネルに書き込む{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param channel 書き込み先のチャネル。
+     * @param charset 文字コード。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or channel or charset or preferences are null.}
+     */
+    public ChannelCsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final WritableByteChannel channel, final Charset charset,
+            final CsvPreference preference) {
+        this(beanMapping, new ChannelWriter(channel, charset), preference);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、ストリームに書き込む{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param out 書き込み先のストリーム。
+     * @param charset 文字コード。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or out or charset or preferences are null.}
+     */
+    public ChannelCsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final OutputStream out, final Charset charset,
+            final CsvPreference preference) {
+        this(beanMapping, new ChannelWriter(out, charset), preference);
+    }
+    
+    /**
+     * Beanのマッピング情報のキャッシュを指定して、{@link ChannelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>複数の書き込み先で、同じマッピング情報を共有する場合に利用します。</p>
+     *
+     * @param beanMappingCache Beanのマッピング情報のキャッシュ。
+     * @param writer 書き込み先。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMappingCache or writer or preferences are null.}
+     */
+    ChannelCsvAnnotationBeanWriter(final BeanMappingCache<T> beanMappingCache, final ChannelWriter writer, final CsvPreference preference) {
+        super(beanMappingCache, writer, preference, false);
+        this.writer = writer;
+        this.preference = preference;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>値に含まれる改行により増えた行数を含めた値を返します。</p>
+     */
+    @Override
+    public int getLineNumber() {
+        return super.getLineNumber() + extraLineCount;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>1行分の文字列を作成せずに、値を{@link ChannelWriter}のバッファに直接追加します。</p>
+     */
+    @Override
+    protected void writeRow(final String... columns) throws IOException {
+        
+        if(columns == null) {
+            throw new NullPointerException(String.format("columns to write should not be null on line %d", getLineNumber()));
+        }
+        
+        writeRow(Arrays.asList(columns));
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>1行分の文字列を作成せずに、値を{@link ChannelWriter}のバッファに直接追加します。</p>
+     */
+    @Override
+    protected void writeRow(final List<?> columns) throws IOException {
+        
+        Objects.requireNonNull(columns, () -> String.format("columns to write should not be null on line %d", getLineNumber()));
+        if(columns.isEmpty()) {
+            throw new IllegalArgumentException(String.format("columns to write should not be empty on line %d", getLineNumber()));
+        }
+        
+        final CsvEncoder encoder = preference.getEncoder();
+        final int lineNumber = getLineNumber();
+        final CsvContext context = new CsvContext(lineNumber, getRowNumber(), 1);
+        
+        final int size = columns.size();
+        for(int i=0; i < size; i++) {
+            
+            if(i > 0) {
+                writer.write(preference.getDelimiterChar());
+            }
+            
+            final Object column = columns.get(i);
+            if(column != null) {
+                context.setColumnNumber(i + 1);
+                writer.write(encoder.encode(column.toString(), context, preference));
+            }
+        }
+        
+        writer.write(preference.getEndOfLineSymbols());
+        
+        extraLineCount += context.getLineNumber() - lineNumber;
+        
+    }
+    
+}
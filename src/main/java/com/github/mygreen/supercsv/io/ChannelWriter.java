@@ -0,0 +1,447 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.github.mygreen.supercsv.util.ArgUtils;
+
+/**
+ * 文字を{@link WritableByteChannel}に書き込む{@link Writer}。
+ * <p>書き込んだ文字は、再利用する{@link CharBuffer}に溜めておき、一杯になった時点、
+ *   またはフラッシュした時点で、まとめてバイトに変換して{@link ByteBuffer}からチャネルに書き込みます。
+ *   <br>そのため、{@link java.io.BufferedWriter}でラップする必要はありません。
+ * </p>
+ * <p>ASCIIの文字が、同じ値の1バイトに変換される文字コード（例えば、UTF-8やShift_JIS）の場合、
+ *   ASCIIの文字は{@link CharsetEncoder}を使用せずに、そのままバイトにコピーします。
+ * </p>
+ * <p>変換できない文字は、{@link java.io.OutputStreamWriter}と同様に、文字コードの代替バイトに置換します。</p>
+ * <p>スレッドセーフではありません。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ChannelWriter extends Writer {
+    
+    /**
+     * 文字のバッファのサイズの初期値。
+     */
+    public static final int DEFAULT_CHAR_BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * バイトのバッファのサイズの初期値。
+     */
+    public static final int DEFAULT_BYTE_BUFFER_SIZE = 1 << 17;
+    
+    /**
+     * バイトのバッファのサイズの最小値。
+     */
+    private static final int MIN_BYTE_BUFFER_SIZE = 16;
+    
+    /**
+     * ASCIIの文字を同じ値の1バイトに変換し、状態を持たない文字コード。
+     */
+    private static final List<String> ASCII_COMPATIBLE_CHARSETS = Arrays.asList(
+            "UTF-8", "US-ASCII", "ISO-8859-1", "windows-1252",
+            "EUC-JP", "x-euc-jp-linux", "x-eucJP-Open",
+            "Shift_JIS", "windows-31j", "x-SJIS_0213", "x-MS932_0213");
+            
+    private final WritableByteChannel channel;
+    
+    /**
+     * チャネルの書き込み先。フラッシュを伝える必要がない場合は、null。
+     */
+    private final Flushable destination;
+    
+    private final CharsetEncoder encoder;
+    
+    /**
+     * ASCIIの文字を、そのままバイトにコピーするかどうか
+     */
+    private final boolean asciiFastPath;
+    
+    private final CharBuffer charBuffer;
+    
+    private final ByteBuffer byteBuffer;
+    
+    /**
+     * チャネルに書き込んだバイト数
+     */
+    private long writtenByteCount = 0L;
+    
+    private boolean closed = false;
+    
+    /**
+     * バッファのサイズを初期値として、チャネルに書き込む{@link ChannelWriter}を作成するコンストラクタ。
+     *
+     * @param channel 書き込み先のチャネル。
+     * @param charset 文字コード。
+     * @throws NullPointerException {@literal if channel or charset is null.}
+     */
+    public ChannelWriter(final WritableByteChannel channel, final Charset charset) {
+        this(channel, charset, DEFAULT_CHAR_BUFFER_SIZE, DEFAULT_BYTE_BUFFER_SIZE);
+    }
+    
+    /**
+     * バッファのサイズを指定して、チャネルに書き込む{@link ChannelWriter}を作成するコンストラクタ。
+     *
+     * @param channel 書き込み先のチャネル。
+     * @param charset 文字コード。
+     * @param charBufferSize 文字のバッファのサイズ。2以上の値を指定します。
+     * @param byteBufferSize バイトのバッファのサイズ。16以上の値を指定します。
+     * @throws NullPointerException {@literal if channel or charset is null.}
+     * @throws IllegalArgumentException {@literal charBufferSize < 2 or byteBufferSize < 16.}
+     */
+    public ChannelWriter(final WritableByteChannel channel, final Charset charset,
+            final int charBufferSize, final int byteBufferSize) {
+        this(channel, null, charset, charBufferSize, byteBufferSize);
+    }
+    
+    /**
+     * バッファのサイズを初期値として、ストリームに書き込む{@link ChannelWriter}を作成するコンストラクタ。
+     *
+     * @param out 書き込み先のストリーム。
+     * @param charset 文字コード。
+     * @throws NullPointerException {@literal if out or charset is null.}
+     */
+    public ChannelWriter(final OutputStream out, final Charset charset) {
+        this(out, charset, DEFAULT_CHAR_BUFFER_SIZE, DEFAULT_BYTE_BUFFER_SIZE);
+    }
+    
+    /**
+     * バッファのサイズを指定して、ストリームに書き込む{@link ChannelWriter}を作成するコンストラクタ。
+     *
+     * @param out 書き込み先のストリーム。
+     * @param charset 文字コード。
+     * @param charBufferSize 文字のバッファのサイズ。2以上の値を指定します。
+     * @param byteBufferSize バイトのバッファのサイズ。16以上の値を指定します。
+     * @throws NullPointerException {@literal if out or charset is null.}
+     * @throws IllegalArgumentException {@literal charBufferSize < 2 or byteBufferSize < 16.}
+     */
+    public ChannelWriter(final OutputStream out, final Charset charset,
+            final int charBufferSize, final int byteBufferSize) {
+        this(Channels.newChannel(Objects.requireNonNull(out, "out should not be null.")), out,
+                charset, charBufferSize, byteBufferSize);
+    }
+    
+    private ChannelWriter(final WritableByteChannel channel, final Flushable destination, final Charset charset,
+            final int charBufferSize, final int byteBufferSize) {
+                
+        Objects.requireNonNull(channel, "channel should not be null.");
+        Objects.requireNonNull(charset, "charset should not be null.");
+        
+        // サロゲートペアの上位を持ち越しても、次の文字を格納できるサイズ
+        ArgUtils.notMin(charBufferSize, 2, "charBufferSize");
+        ArgUtils.notMin(byteBufferSize, MIN_BYTE_BUFFER_SIZE, "byteBufferSize");
+        
+        this.channel = channel;
+        this.destination = destination;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiFastPath = isAsciiCompatible(charset);
+        this.charBuffer = CharBuffer.allocate(charBufferSize);
+        this.byteBuffer = ByteBuffer.allocate(byteBufferSize);
+        
+    }
+    
+    /**
+     * ASCIIの文字を、そのままバイトにコピーできる文字コードかどうか判定します。
+     *
+     * @param charset 判定対象の文字コード。
+     * @return trueの場合、そのままコピーできる。
+     * @throws NullPointerException {@literal charset is null.}
+     */
+    public static boolean isAsciiCompatible(final Charset charset) {
+        
+        Objects.requireNonNull(charset, "charset should not be null.");
+        
+        if(!ASCII_COMPATIBLE_CHARSETS.contains(charset.name())) {
+            return false;
+        }
+        
+        final char[] chars = new char[0x80];
+        final byte[] expected = new byte[0x80];
+        for(int i=0; i < chars.length; i++) {
+            chars[i] = (char)i;
+            expected[i] = (byte)i;
+        }
+        
+        return Arrays.equals(new String(chars).getBytes(charset), expected);
+        
+    }
+    
+    @Override
+    public void write(final int c) throws IOException {
+        ensureOpen();
+        
+        if(!charBuffer.hasRemaining()) {
+            encodeChars(false);
+        }
+        charBuffer.put((char)c);
+    }
+    
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        ensureOpen();
+        
+        if(off < 0 || len < 0 || off + len > cbuf.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        int offset = off;
+        final int end = off + len;
+        while(offset < end) {
+            if(!charBuffer.hasRemaining()) {
+                encodeChars(false);
+            }
+            
+            final int size = Math.min(end - offset, charBuffer.remaining());
+            charBuffer.put(cbuf, offset, size);
+            offset += size;
+        }
+    }
+    
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        ensureOpen();
+        
+        if(off < 0 || len < 0 || off + len > str.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        int offset = off;
+        final int end = off + len;
+        while(offset < end) {
+            if(!charBuffer.hasRemaining()) {
+                encodeChars(false);
+            }
+            
+            final int size = Math.min(end - offset, charBuffer.remaining());
+            charBuffer.put(str, offset, offset + size);
+            offset += size;
+        }
+    }
+    
+    /**
+     * これまでに書き込んだ文字を、バイトに変換した後のサイズを取得します。
+     * <p>溜めている文字はバイトに変換しますが、チャネルには書き込みません。
+     *    ただし、持ち越しているサロゲートペアの上位の文字は含みません。
+     * </p>
+     * 
+     * @return チャネルに書き込んだバイト数と、書き込んでいないバイト数の合計。
+     * @throws IOException バイトの書き込みに失敗した場合。
+     */
+    public long getByteCount() throws IOException {
+        ensureOpen();
+        
+        encodeChars(false);
+        return writtenByteCount + byteBuffer.position();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>溜めている文字を全てバイトに変換して、チャネルに書き込みます。</p>
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        
+        encodeChars(false);
+        writeBytes();
+        
+        if(destination != null) {
+            destination.flush();
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>溜めている文字を全てチャネルに書き込んだ後、チャネルをクローズします。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        
+        try {
+            encodeChars(true);
+            
+            // ASCIIの文字のみをコピーした場合も、エンコーダを入力の終わりの状態にする
+            encoder.encode(CharBuffer.allocate(0), byteBuffer, true);
+            while(encoder.flush(byteBuffer).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+            
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+    
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+    
+    /**
+     * 溜めている文字をバイトに変換します。
+     * <p>サロゲートペアの上位のみが残っている場合は、入力の終わりでなければ、次の変換に持ち越します。</p>
+     *
+     * @param endOfInput 入力の終わりかどうか。
+     * @throws IOException チャネルへの書き込みに失敗した場合。
+     */
+    private void encodeChars(final boolean endOfInput) throws IOException {
+        
+        // Java 9以降でコンパイルしてもJava 8で動作するよう、戻り値の型が変わったメソッドはBufferとして呼び出す。
+        ((Buffer) charBuffer).flip();
+        
+        if(asciiFastPath) {
+            encodeWithAsciiFastPath(endOfInput);
+        } else {
+            encodeRange(charBuffer.limit(), endOfInput);
+        }
+        
+        charBuffer.compact();
+        
+    }
+    
+    /**
+     * ASCIIの文字はそのままコピーし、それ以外の文字が続く範囲はエンコーダで変換します。
+     *
+     * @param endOfInput 入力の終わりかどうか。
+     * @throws IOException チャネルへの書き込みに失敗した場合。
+     */
+    private void encodeWithAsciiFastPath(final boolean endOfInput) throws IOException {
+        
+        final char[] chars = charBuffer.array();
+        final byte[] bytes = byteBuffer.array();
+        final int limit = charBuffer.limit();
+        
+        int pos = charBuffer.position();
+        while(pos < limit) {
+            
+            int bytePos = byteBuffer.position();
+            final int byteLimit = byteBuffer.limit();
+            while(pos < limit && bytePos < byteLimit) {
+                final char c = chars[pos];
+                if(c >= 0x80) {
+                    break;
+                }
+                bytes[bytePos++] = (byte)c;
+                pos++;
+            }
+            ((Buffer) byteBuffer).position(bytePos);
+            ((Buffer) charBuffer).position(pos);
+            
+            if(pos == limit) {
+                break;
+            }
+            
+            if(!byteBuffer.hasRemaining()) {
+                writeBytes();
+                continue;
+            }
+            
+            // ASCII以外の文字が続く範囲
+            int end = pos;
+            while(end < limit && chars[end] >= 0x80) {
+                end++;
+            }
+            
+            encodeRange(end, endOfInput && end == limit);
+            if(charBuffer.position() < end) {
+                if(end == limit) {
+                    // 持ち越すサロゲートペアの上位
+                    break;
+                }
+                
+                // ASCIIの文字が続く、不正なサロゲートペアの上位
+                putReplacement();
+                ((Buffer) charBuffer).position(end);
+            }
+            pos = end;
+        }
+        
+    }
+    
+    /**
+     * 文字のバッファの現在の位置から、指定した位置までをエンコーダで変換します。
+     *
+     * @param end 変換する範囲の終わりの位置。
+     * @param endOfInput 入力の終わりかどうか。
+     * @throws IOException チャネルへの書き込みに失敗した場合。
+     */
+    private void encodeRange(final int end, final boolean endOfInput) throws IOException {
+        
+        final int limit = charBuffer.limit();
+        ((Buffer) charBuffer).limit(end);
+        try {
+            while(true) {
+                final CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+                if(result.isOverflow()) {
+                    writeBytes();
+                    
+                } else if(result.isUnderflow()) {
+                    break;
+                    
+                } else {
+                    result.throwException();
+                }
+            }
+            
+        } finally {
+            ((Buffer) charBuffer).limit(limit);
+        }
+        
+    }
+    
+    /**
+     * 変換できない文字の代わりに、文字コードの代替バイトを追加します。
+     *
+     * @throws IOException チャネルへの書き込みに失敗した場合。
+     */
+    private void putReplacement() throws IOException {
+        
+        final byte[] replacement = encoder.replacement();
+        if(byteBuffer.remaining() < replacement.length) {
+            writeBytes();
+        }
+        byteBuffer.put(replacement);
+        
+    }
+    
+    /**
+     * 溜めているバイトをチャネルに書き込みます。
+     *
+     * @throws IOException チャネルへの書き込みに失敗した場合。
+     */
+    private void writeBytes() throws IOException {
+        
+        ((Buffer) byteBuffer).flip();
+        writtenByteCount += byteBuffer.remaining();
+        while(byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+        ((Buffer) byteBuffer).clear();
+        
+    }
+    
+}
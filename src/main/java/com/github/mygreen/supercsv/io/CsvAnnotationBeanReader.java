@@ -3,9 +3,13 @@ package com.github.mygreen.supercsv.io;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.supercsv.exception.SuperCsvException;
 import org.supercsv.io.ITokenizer;
@@ -21,7 +25,7 @@ import com.github.mygreen.supercsv.exception.SuperCsvNoMatchHeaderException;
  * アノテーションを元にCSVファイルを読み込むためのクラス。
  * 
  * @param <T> マッピング対象のBeanのクラスタイプ
- * @version 2.１
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -107,6 +111,45 @@ public class CsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanReader<
         this.validators.addAll(beanMapping.getValidators());
     }
     
+    /**
+     * Beanのクラスタイプを指定して、CSVファイルのパスから{@link CsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     *
+     * @since 2.2
+     * @param beanType Beanのクラスタイプ。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanType or path or charset or preferences are null.}
+     */
+    public CsvAnnotationBeanReader(final Class<T> beanType, final Path path, final Charset charset, final CsvPreference preference,
+            final Class<?>... groups) throws IOException {
+        this(beanType, MappedFileTokenizer.create(path, charset, preference), preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、CSVファイルのパスから{@link CsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     *
+     * @since 2.2
+     * @param beanMapping Beanのマッピング情報。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanMapping or path or charset or preferences are null.}
+     */
+    public CsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final Path path, final Charset charset, final CsvPreference preference)
+            throws IOException {
+        this(beanMapping, MappedFileTokenizer.create(path, charset, preference), preference);
+    }
+    
     /**
      * {@inheritDoc}
      * 
@@ -128,7 +171,7 @@ public class CsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanReader<
                 
             } catch(SuperCsvNoMatchColumnSizeException | SuperCsvNoMatchHeaderException e) {
                 // convert exception and format to message.
-                errorMessages.addAll(exceptionConverter.convertAndFormat(e, beanMappingCache.getOriginal()));
+                addErrorMessages(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
                 throw e;
             }
         }
@@ -161,6 +204,8 @@ public class CsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanReader<
      *        例外{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvBindingException}
      *        が発生しても続行するかどう指定します。
      *        trueの場合、例外が発生しても、次の処理を行います。
+     *        <br>このとき、各レコードは{@link #readNext()}で読み込むため、
+     *        サブクラスで{@link #read()}をオーバーライドしても呼び出されません。
      * @return 読み込んだレコード情報。
      * 
      * @throws IOException レコードの読み込みに失敗した場合。
@@ -170,34 +215,105 @@ public class CsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanReader<
      */
     public List<T> readAll(final boolean continueOnError) throws IOException {
         
-        if(beanMappingCache.getOriginal().isHeader()) {
-            try {
-                getHeader(true);
-            } catch(SuperCsvNoMatchColumnSizeException | SuperCsvNoMatchHeaderException e) {
-                if(!continueOnError) {
-                    throw e;
+        readHeaderIfNeeded(continueOnError);
+        
+        final List<T> list = new ArrayList<>();
+        
+        if(continueOnError) {
+            // エラーのあるレコードは、例外を作成せずに読み飛ばす。
+            ReadResult<T> result;
+            while((result = readNext()) != null) {
+                if(!result.hasErrors()) {
+                    list.add(result.getBean());
                 }
             }
+            
+            return list;
         }
         
-        final List<T> list = new ArrayList<>();
+        T record;
+        while((record = read()) != null) {
+            list.add(record);
+        }
+        
+        return list;
+    }
+    
+    /**
+     * レコードを順に読み込む{@link Stream}を取得します。
+     * <p>ヘッダー行も自動的に処理されます。</p>
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     * <p>レコードは、終端操作によって必要になった時点で読み込まれるため、
+     *    {@link #readAll()}と異なり、全てのレコードをメモリ上に保持しません。
+     *    <br>並列ストリームの場合、字句解析済みの行を一定の行数ごとに分割して、他のスレッドで処理します。
+     * </p>
+     * <p>ストリームを閉じると、このReaderも閉じられます。</p>
+     * <p>各レコードは{@link #read()}を経由せずに処理するため、
+     *    サブクラスで{@link #read()}をオーバーライドしても呼び出されません。
+     * </p>
+     * 
+     * @since 2.2
+     * @return Beanのストリーム。
+     * 
+     * @throws IOException ヘッダーの読み込みに失敗した場合。
+     * @throws SuperCsvNoMatchColumnSizeException レコードのカラムサイズに問題がある場合
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * @throws UncheckedIOException ストリームの処理中に、レコードの読み込みに失敗した場合。
+     */
+    public Stream<T> stream() throws IOException {
+        return stream(false);
+    }
+    
+    /**
+     * レコードを順に読み込む{@link Stream}を取得します。
+     * <p>ヘッダー行も自動的に処理されます。</p>
+     * <p>レコードは、終端操作によって必要になった時点で読み込まれるため、
+     *    {@link #readAll(boolean)}と異なり、全てのレコードをメモリ上に保持しません。
+     *    <br>並列ストリームの場合、字句解析済みの行を一定の行数ごとに分割して、他のスレッドで処理します。
+     * </p>
+     * <p>ストリームを閉じると、このReaderも閉じられます。</p>
+     * <p>各レコードは{@link #read()}を経由せずに処理するため、
+     *    サブクラスで{@link #read()}をオーバーライドしても呼び出されません。
+     * </p>
+     * 
+     * @since 2.2
+     * @param continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvBindingException}
+     *        が発生しても続行するかどう指定します。
+     *        trueの場合、例外が発生したレコードを除いて、次の処理を行います。
+     * @return Beanのストリーム。
+     * 
+     * @throws IOException ヘッダーの読み込みに失敗した場合。
+     * @throws SuperCsvNoMatchColumnSizeException レコードのカラムサイズに問題がある場合
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * @throws UncheckedIOException ストリームの処理中に、レコードの読み込みに失敗した場合。
+     */
+    public Stream<T> stream(final boolean continueOnError) throws IOException {
+        
+        readHeaderIfNeeded(continueOnError);
         
-        while(true) {
+        return createStream(continueOnError);
+    }
+    
+    /**
+     * ヘッダー行がある場合、ヘッダー行を読み込みます。
+     * @param continueOnError ヘッダーの検証で例外が発生しても続行するかどうか。
+     * @throws IOException ヘッダーの読み込みに失敗した場合。
+     */
+    private void readHeaderIfNeeded(final boolean continueOnError) throws IOException {
+        
+        if(beanMappingCache.getOriginal().isHeader()) {
             try {
-                final T record = read();
-                if(record == null) {
-                    break;
-                }
-                list.add(record);
-                
-            } catch(SuperCsvNoMatchColumnSizeException | SuperCsvBindingException e) {
+                getHeader(true);
+            } catch(SuperCsvNoMatchColumnSizeException | SuperCsvNoMatchHeaderException e) {
                 if(!continueOnError) {
                     throw e;
                 }
             }
         }
         
-        return list;
     }
     
 }
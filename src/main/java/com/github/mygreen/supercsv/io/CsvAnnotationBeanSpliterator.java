@@ -0,0 +1,198 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.github.mygreen.supercsv.io.AbstractCsvAnnotationBeanReader.RowResult;
+import com.github.mygreen.supercsv.io.AbstractCsvAnnotationBeanReader.TokenizedRow;
+
+/**
+ * {@link AbstractCsvAnnotationBeanReader}のレコードを順に読み込む{@link Spliterator}。
+ * <p>{@link #trySplit()}では、字句解析済みの行を一定の行数ごとのまとまり（バッチ）に分割して返します。
+ *   <br>バッチ内の行のCellProcessorの実行、Beanへのマッピングは、バッチを受け取ったスレッドで行われます。
+ *   <br>状態を持つカラム（例えば、{@literal @CsvUnique}）は、分割する時点で出現順に処理されます。
+ * </p>
+ * <p>分割時のバッチの行数は、{@link java.util.Spliterators}のイテレータを元にした実装と同様に、分割する度に増やしていきます。</p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+class CsvAnnotationBeanSpliterator<T> implements Spliterator<T> {
+    
+    /**
+     * バッチの行数の増分
+     */
+    static final int BATCH_UNIT = 1 << 10;
+    
+    /**
+     * バッチの最大行数
+     */
+    static final int MAX_BATCH = 1 << 25;
+    
+    private final AbstractCsvAnnotationBeanReader<T> reader;
+    
+    private final boolean continueOnError;
+    
+    /**
+     * 次に分割するときのバッチの行数
+     */
+    private int batchSize = BATCH_UNIT;
+    
+    /**
+     * ファイルの終端まで読み込んだかどうか
+     */
+    private boolean eof = false;
+    
+    CsvAnnotationBeanSpliterator(final AbstractCsvAnnotationBeanReader<T> reader, final boolean continueOnError) {
+        this.reader = Objects.requireNonNull(reader, "reader should not be null.");
+        this.continueOnError = continueOnError;
+    }
+    
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        Objects.requireNonNull(action, "action should not be null.");
+        
+        TokenizedRow row;
+        while((row = readTokenizedRow()) != null) {
+            final T bean = complete(reader.processRow(row));
+            if(bean != null) {
+                action.accept(bean);
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    @Override
+    public Spliterator<T> trySplit() {
+        
+        final TokenizedRow[] rows = new TokenizedRow[batchSize];
+        int size = 0;
+        TokenizedRow row;
+        while(size < rows.length && (row = readTokenizedRow()) != null) {
+            rows[size++] = row;
+        }
+        
+        if(size == 0) {
+            return null;
+        }
+        
+        batchSize = Math.min(batchSize + BATCH_UNIT, MAX_BATCH);
+        
+        return new BatchSpliterator(rows, 0, size);
+    }
+    
+    @Override
+    public long estimateSize() {
+        return eof ? 0L : Long.MAX_VALUE;
+    }
+    
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+    
+    /**
+     * 次の行を読み込みます。
+     * @return ファイルの終端に達した場合、nullを返します。
+     * @throws UncheckedIOException レコードの読み込みに失敗した場合。
+     */
+    private TokenizedRow readTokenizedRow() {
+        
+        if(eof) {
+            return null;
+        }
+        
+        try {
+            final TokenizedRow row = reader.readTokenizedRow();
+            eof = (row == null);
+            return row;
+            
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 行の処理結果からBeanを取得します。
+     * @param result 行の処理結果。
+     * @return エラーがあり処理を続行する場合、nullを返します。
+     */
+    private T complete(final RowResult<T> result) {
+        
+        if(!continueOnError) {
+            return reader.completeRow(result);
+        }
+        
+        // エラーのあるレコードは、例外を作成せずに読み飛ばす。
+        final ReadResult<T> readResult = reader.completeRowResult(result);
+        return readResult.hasErrors() ? null : readResult.getBean();
+    }
+    
+    /**
+     * 分割された字句解析済みの行を処理する{@link Spliterator}。
+     */
+    private class BatchSpliterator implements Spliterator<T> {
+        
+        private final TokenizedRow[] rows;
+        
+        private int index;
+        
+        private final int fence;
+        
+        BatchSpliterator(final TokenizedRow[] rows, final int origin, final int fence) {
+            this.rows = rows;
+            this.index = origin;
+            this.fence = fence;
+        }
+        
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            Objects.requireNonNull(action, "action should not be null.");
+            
+            while(index < fence) {
+                final TokenizedRow row = rows[index];
+                rows[index++] = null;
+                
+                final T bean = complete(reader.processRow(row));
+                if(bean != null) {
+                    action.accept(bean);
+                    return true;
+                }
+            }
+            
+            return false;
+        }
+        
+        @Override
+        public Spliterator<T> trySplit() {
+            
+            final int mid = (index + fence) >>> 1;
+            if(mid <= index) {
+                return null;
+            }
+            
+            final Spliterator<T> prefix = new BatchSpliterator(rows, index, mid);
+            this.index = mid;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+        
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+        
+    }
+    
+}
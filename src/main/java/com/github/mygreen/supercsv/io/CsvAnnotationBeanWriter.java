@@ -2,9 +2,16 @@ package com.github.mygreen.supercsv.io;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.supercsv.exception.SuperCsvException;
 import org.supercsv.prefs.CsvPreference;
@@ -17,7 +24,7 @@ import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
  * アノテーションを元にCSVファイルを出力するためのクラス。
  *
  * @param <T> マッピング対象のBeanのクラスタイプ
- * @version 2.1
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -35,7 +42,23 @@ public class CsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWriter<
      */
     public CsvAnnotationBeanWriter(final Class<T> beanType, final Writer writer, final CsvPreference preference,
             final Class<?>... groups) {
-        super(writer, preference);
+        this(beanType, writer, preference, true, groups);
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link BufferedWriter}にラップするかどうかを指定するコンストラクタ。
+     * 
+     * @since 2.2
+     * @param beanType Beanのクラスタイプ。
+     * @param writer the writer
+     * @param preference CSV preferences.
+     * @param bufferizeWriter trueの場合、{@link BufferedWriter}にラップします。
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or writer or preferences are null.}
+     */
+    protected CsvAnnotationBeanWriter(final Class<T> beanType, final Writer writer, final CsvPreference preference,
+            final boolean bufferizeWriter, final Class<?>... groups) {
+        super(writer, preference, bufferizeWriter);
         
         Objects.requireNonNull(beanType, "beanType should not be null.");
         
@@ -56,7 +79,22 @@ public class CsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWriter<
      * @throws NullPointerException {@literal if beanMapping or writer or preferences are null.}
      */
     public CsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final Writer writer, final CsvPreference preference) {
-        super(writer, preference);
+        this(beanMapping, writer, preference, true);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link BufferedWriter}にラップするかどうかを指定するコンストラクタ。
+     * 
+     * @since 2.2
+     * @param beanMapping Beanのマッピング情報。
+     * @param writer the writer
+     * @param preference the CSV preferences.
+     * @param bufferizeWriter trueの場合、{@link BufferedWriter}にラップします。
+     * @throws NullPointerException {@literal if beanMapping or writer or preferences are null.}
+     */
+    protected CsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final Writer writer, final CsvPreference preference,
+            final boolean bufferizeWriter) {
+        super(writer, preference, bufferizeWriter);
         
         Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
         
@@ -64,6 +102,95 @@ public class CsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWriter<
         this.validators.addAll(beanMapping.getValidators());
     }
     
+    /**
+     * Beanのクラスタイプを指定して、CSVファイルのパスに書き込む{@link CsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>{@link ChannelWriter}を利用して書き込みます。
+     *    ファイルの拡張子が{@literal .gz}の場合は、{@link ParallelGzipOutputStream}で並列に圧縮して書き込みます。
+     * </p>
+     *
+     * @since 2.2
+     * @param beanType Beanのクラスタイプ。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanType or path or charset or preferences are null.}
+     */
+    public CsvAnnotationBeanWriter(final Class<T> beanType, final Path path, final Charset charset, final CsvPreference preference,
+            final Class<?>... groups) throws IOException {
+        this(beanType, newWriter(path, charset, ChannelWriter.DEFAULT_CHAR_BUFFER_SIZE, false), preference, false, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、CSVファイルのパスに書き込む{@link CsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>{@link ChannelWriter}を利用して書き込みます。
+     *    ファイルの拡張子が{@literal .gz}の場合は、{@link ParallelGzipOutputStream}で並列に圧縮して書き込みます。
+     * </p>
+     *
+     * @since 2.2
+     * @param beanMapping Beanのマッピング情報。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanMapping or path or charset or preferences are null.}
+     */
+    public CsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final Path path, final Charset charset, final CsvPreference preference)
+            throws IOException {
+        this(beanMapping, newWriter(path, charset, ChannelWriter.DEFAULT_CHAR_BUFFER_SIZE, false), preference, false);
+    }
+    
+    /**
+     * Beanのマッピング情報のキャッシュを指定して、{@link CsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>複数の書き込み先で、同じマッピング情報を共有する場合に利用します。</p>
+     * 
+     * @since 2.2
+     * @param beanMappingCache Beanのマッピング情報のキャッシュ。
+     * @param writer the writer
+     * @param preference the CSV preferences.
+     * @param bufferizeWriter trueの場合、{@link BufferedWriter}にラップします。
+     * @throws NullPointerException {@literal if beanMappingCache or writer or preferences are null.}
+     */
+    CsvAnnotationBeanWriter(final BeanMappingCache<T> beanMappingCache, final Writer writer, final CsvPreference preference,
+            final boolean bufferizeWriter) {
+        super(writer, preference, bufferizeWriter);
+        
+        Objects.requireNonNull(beanMappingCache, "beanMappingCache should not be null.");
+        
+        this.beanMappingCache = beanMappingCache;
+        this.validators.addAll(beanMappingCache.getOriginal().getValidators());
+    }
+    
+    /**
+     * CSVファイルのパスに書き込む{@link ChannelWriter}を作成します。
+     * 
+     * @since 2.2
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param charBufferSize 文字のバッファのサイズ。バイトのバッファは、この2倍のサイズとなります。
+     * @param append trueの場合、ファイルの末尾に追記します。
+     * @return ファイルの拡張子が{@literal .gz}の場合は、gzip形式で圧縮して書き込みます。
+     *         追記する場合も、新たなメンバーとして追加するため、gzip形式として読み込めます。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     */
+    static ChannelWriter newWriter(final Path path, final Charset charset, final int charBufferSize, final boolean append)
+            throws IOException {
+        
+        Objects.requireNonNull(path, "path should not be null.");
+        Objects.requireNonNull(charset, "charset should not be null.");
+        
+        final OutputStream out = append
+                ? Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newOutputStream(path);
+        
+        if(ParallelGzipOutputStream.isGzipFileName(path)) {
+            return new ChannelWriter(new ParallelGzipOutputStream(out), charset, charBufferSize, charBufferSize * 2);
+        }
+        
+        return new ChannelWriter(out, charset, charBufferSize, charBufferSize * 2);
+    }
+    
     /**
      * ヘッダー情報を書き込みます。
      * <p>ただし、列番号を省略され、定義がされていないカラムは、{@literal column[カラム番号]}の形式となります。</p>
@@ -107,21 +234,96 @@ public class CsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWriter<
         
         Objects.requireNonNull(sources, "sources should not be null.");
         
+        writeAll(sources.iterator(), continueOnError);
+        
+    }
+    
+    /**
+     * レコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Iterator<T> sources) throws IOException {
+        writeAll(sources, false);
+    }
+    
+    /**
+     * レコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>レコードは書き込む直前に取り出すため、全てのレコードをメモリ上に保持する必要はありません。
+     *    {@link #setFlushInterval(int)}で設定した件数ごとに、フラッシュして進捗を通知します。
+     * </p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Iterator<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
         if(beanMappingCache.getOriginal().isHeader() && getLineNumber() == 0) {
             writeHeader();
         }
         
-        for(T record : sources) {
-            try {
-                write(record);
-            } catch(SuperCsvBindingException e) {
-                if(!continueOnError) {
-                    throw e;
-                }
-            }
-        }
+        writeRecords(sources, continueOnError);
+        
+    }
+    
+    /**
+     * ストリームのレコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     * <p>ストリームはクローズしないため、呼び出し元でクローズする必要があります。</p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Stream<T> sources) throws IOException {
+        writeAll(sources, false);
+    }
+    
+    /**
+     * ストリームのレコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>ストリームはクローズしないため、呼び出し元でクローズする必要があります。</p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Stream<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
         
-        super.flush();
+        writeAll(sources.iterator(), continueOnError);
         
     }
     
@@ -0,0 +1,25 @@
+package com.github.mygreen.supercsv.io;
+
+/**
+ * {@literal writeAll}メソッドで、レコードを書き込む際の進捗を受け取るインタフェース。
+ * <p>{@link AbstractCsvAnnotationBeanWriter#setFlushInterval(int)}で設定した件数、
+ *    または{@link AbstractCsvAnnotationBeanWriter#setFlushBytes(long)}で設定したバイト数ごとに、フラッシュした後に呼び出されます。
+ *    また、全てのレコードを書き込み終えた時点でも呼び出されます。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+@FunctionalInterface
+public interface CsvWriteProgressListener {
+    
+    /**
+     * 進捗を受け取ります。
+     * <p>{@literal writeAll}メソッドを呼び出したスレッドから呼び出されます。</p>
+     *
+     * @param count {@literal writeAll}メソッドで処理したレコードの件数。エラーとなったレコードも含みます。
+     */
+    void onProgress(long count);
+    
+}
@@ -3,21 +3,21 @@ package com.github.mygreen.supercsv.io;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.supercsv.exception.SuperCsvException;
 import org.supercsv.io.ITokenizer;
 import org.supercsv.prefs.CsvPreference;
 
-import com.github.mygreen.supercsv.annotation.CsvPartial;
 import com.github.mygreen.supercsv.builder.BeanMapping;
-import com.github.mygreen.supercsv.builder.BeanMappingFactoryHelper;
-import com.github.mygreen.supercsv.builder.ColumnMapping;
 import com.github.mygreen.supercsv.builder.LazyBeanMappingFactory;
+import com.github.mygreen.supercsv.builder.LazyColumnPlan;
 import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
 import com.github.mygreen.supercsv.exception.SuperCsvNoMatchColumnSizeException;
 import com.github.mygreen.supercsv.exception.SuperCsvNoMatchHeaderException;
@@ -31,6 +31,7 @@ import com.github.mygreen.supercsv.localization.MessageBuilder;
  * 
  * @param <T> マッピング対象のBeanのクラスタイプ
  * 
+ * @version 2.2
  * @since 2.1
  * @author T.TSUCHIE
  *
@@ -75,7 +76,7 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
      * <p>{@link BufferedReader}にラップして実行されるため、ラップする必要はありません。</p>
      * <p>Beanのマッピング情報を独自にカスタマイズして、{@link LazyBeanMappingFactory}から作成する場合に利用します。</p>
      * 
-     * @param beanMapping Beanのマッピング情報。
+     * @param beanMapping Beanのマッピング情報。変更不可の場合は、複製して利用します。
      * @param reader the Reader。
      * @param preference the CSV preferences.
      * @throws NullPointerException {@literal if beanMapping or reader or preferences are null.}
@@ -87,7 +88,8 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
         
         Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
         
-        this.beanMapping = beanMapping;
+        // 初期化時にカラム情報を変更するため、共有されている変更不可のマッピング情報は複製する
+        this.beanMapping = beanMapping.isFrozen() ? beanMapping.copy() : beanMapping;
         this.validators.addAll(beanMapping.getValidators());
     }
     
@@ -118,7 +120,7 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
      * <p>{@link BufferedReader}にラップして実行されるため、ラップする必要はありません。</p>
      * <p>Beanのマッピング情報を独自にカスタマイズして、{@link LazyBeanMappingFactory}から作成する場合に利用します。</p>
      * 
-     * @param beanMapping Beanのマッピング情報。
+     * @param beanMapping Beanのマッピング情報。変更不可の場合は、複製して利用します。
      * @param tokenizer the tokenizer.
      * @param preference the CSV preferences.
      * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
@@ -131,10 +133,53 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
         
         Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
         
-        this.beanMapping = beanMapping;
+        // 初期化時にカラム情報を変更するため、共有されている変更不可のマッピング情報は複製する
+        this.beanMapping = beanMapping.isFrozen() ? beanMapping.copy() : beanMapping;
         this.validators.addAll(beanMapping.getValidators());
     }
     
+    /**
+     * Beanのクラスタイプを指定して、CSVファイルのパスから{@link LazyCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     * <p>{@link MappedFileTokenizer}を利用する場合、Beanにマッピングしないカラムは字句解析時に読み飛ばします。</p>
+     *
+     * @since 2.2
+     * @param beanType Beanのクラスタイプ。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanType or path or charset or preferences are null.}
+     */
+    public LazyCsvAnnotationBeanReader(final Class<T> beanType, final Path path, final Charset charset, final CsvPreference preference,
+            final Class<?>... groups) throws IOException {
+        this(beanType, MappedFileTokenizer.create(path, charset, preference), preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、CSVファイルのパスから{@link LazyCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     * <p>{@link MappedFileTokenizer}を利用する場合、Beanにマッピングしないカラムは字句解析時に読み飛ばします。</p>
+     *
+     * @since 2.2
+     * @param beanMapping Beanのマッピング情報。変更不可の場合は、複製して利用します。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanMapping or path or charset or preferences are null.}
+     */
+    public LazyCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final Path path, final Charset charset,
+            final CsvPreference preference, final Class<?>... groups) throws IOException {
+        this(beanMapping, MappedFileTokenizer.create(path, charset, preference), preference, groups);
+    }
+    
     /**
      * １行目のレコードをヘッダー情報として読み込んで、カラム情報を初期化を行います。
      * 
@@ -172,7 +217,7 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
                 
             } catch(SuperCsvNoMatchColumnSizeException | SuperCsvNoMatchHeaderException e) {
                 // convert exception and format to message.
-                errorMessages.addAll(exceptionConverter.convertAndFormat(e, beanMappingCache.getOriginal()));
+                addErrorMessages(exceptionConverter.convert(e, beanMappingCache.getOriginal()));
                 throw e;
             }
         }
@@ -214,6 +259,8 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
      *        例外{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvBindingException}
      *        が発生しても続行するかどう指定します。
      *        trueの場合、例外が発生しても、次の処理を行います。
+     *        <br>このとき、各レコードは{@link #readNext()}で読み込むため、
+     *        サブクラスで{@link #read()}をオーバーライドしても呼び出されません。
      * @return 読み込んだレコード情報。
      * 
      * @throws IOException レコードの読み込みに失敗した場合。
@@ -225,6 +272,104 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
      */
     public List<T> readAll(final boolean continueOnError) throws IOException {
         
+        initIfNeeded(continueOnError);
+        
+        final List<T> list = new ArrayList<>();
+        
+        if(continueOnError) {
+            // エラーのあるレコードは、例外を作成せずに読み飛ばす。
+            ReadResult<T> result;
+            while((result = readNext()) != null) {
+                if(!result.hasErrors()) {
+                    list.add(result.getBean());
+                }
+            }
+            
+            return list;
+        }
+        
+        T record;
+        while((record = read()) != null) {
+            list.add(record);
+        }
+        
+        return list;
+        
+        
+    }
+    
+    /**
+     * レコードを順に読み込む{@link Stream}を取得します。
+     * <p>ヘッダー行も自動的に処理されます。</p>
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     * <p>レコードは、終端操作によって必要になった時点で読み込まれるため、
+     *    {@link #readAll()}と異なり、全てのレコードをメモリ上に保持しません。
+     *    <br>並列ストリームの場合、字句解析済みの行を一定の行数ごとに分割して、他のスレッドで処理します。
+     * </p>
+     * <p>ストリームを閉じると、このReaderも閉じられます。</p>
+     * <p>各レコードは{@link #read()}を経由せずに処理するため、
+     *    サブクラスで{@link #read()}をオーバーライドしても呼び出されません。
+     * </p>
+     * 
+     * @since 2.2
+     * @return Beanのストリーム。
+     * 
+     * @throws IOException ヘッダーの読み込みに失敗した場合。
+     * @throws SuperCsvNoMatchColumnSizeException レコードのカラムサイズに問題がある場合
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * @throws UncheckedIOException ストリームの処理中に、レコードの読み込みに失敗した場合。
+     * @throws IllegalStateException ヘッダー行を持たないときに、{@link #init(String...)}で初期化が済んでいない場合。
+     */
+    public Stream<T> stream() throws IOException {
+        return stream(false);
+    }
+    
+    /**
+     * レコードを順に読み込む{@link Stream}を取得します。
+     * <p>ヘッダー行も自動的に処理されます。</p>
+     * <p>レコードは、終端操作によって必要になった時点で読み込まれるため、
+     *    {@link #readAll(boolean)}と異なり、全てのレコードをメモリ上に保持しません。
+     *    <br>並列ストリームの場合、字句解析済みの行を一定の行数ごとに分割して、他のスレッドで処理します。
+     * </p>
+     * <p>ストリームを閉じると、このReaderも閉じられます。</p>
+     * <p>各レコードは{@link #read()}を経由せずに処理するため、
+     *    サブクラスで{@link #read()}をオーバーライドしても呼び出されません。
+     * </p>
+     * 
+     * @since 2.2
+     * @param continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvNoMatchColumnSizeException}、{@link SuperCsvBindingException}
+     *        が発生しても続行するかどう指定します。
+     *        trueの場合、例外が発生したレコードを除いて、次の処理を行います。
+     * @return Beanのストリーム。
+     * 
+     * @throws IOException ヘッダーの読み込みに失敗した場合。
+     * @throws SuperCsvNoMatchColumnSizeException レコードのカラムサイズに問題がある場合
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * @throws UncheckedIOException ストリームの処理中に、レコードの読み込みに失敗した場合。
+     * @throws IllegalStateException ヘッダー行を持たないときに、{@link #init(String...)}で初期化が済んでいない場合。
+     */
+    public Stream<T> stream(final boolean continueOnError) throws IOException {
+        
+        initIfNeeded(continueOnError);
+        
+        if(!initialized) {
+            throw newNotInitialzedException();
+        }
+        
+        return createStream(continueOnError);
+    }
+    
+    /**
+     * 初期化が済んでいない場合、ヘッダー行を読み込んで初期化を行います。
+     * @param continueOnError ヘッダーの検証で例外が発生しても続行するかどうか。
+     * @throws IOException ヘッダーの読み込みに失敗した場合。
+     * @throws IllegalStateException ヘッダー行を持たないときに、{@link #init(String...)}で初期化が済んでいない場合。
+     */
+    private void initIfNeeded(final boolean continueOnError) throws IOException {
+        
         if(!initialized) {
             if(beanMapping.isHeader()) {
                 // ヘッダーがファイルに存在する場合、１行目を読み込んで初期化を行う。
@@ -242,26 +387,6 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
             }
         }
         
-        final List<T> list = new ArrayList<>();
-        
-        while(true) {
-            try {
-                final T record = read();
-                if(record == null) {
-                    break;
-                }
-                list.add(record);
-                
-            } catch(SuperCsvNoMatchColumnSizeException | SuperCsvBindingException e) {
-                if(!continueOnError) {
-                    throw e;
-                }
-            }
-        }
-        
-        return list;
-        
-        
     }
     
     /**
@@ -291,39 +416,7 @@ public class LazyCsvAnnotationBeanReader<T> extends AbstractCsvAnnotationBeanRea
      */
     private void setupMappingColumns(final String[] headers) {
         
-        final List<ColumnMapping> columnMappingList = beanMapping.getColumns();
-        
-        // 一致するラベルがあれば、カラムの番号を補完する
-        final int headerSize = headers.length;
-        for(int i=0; i < headerSize;i ++) {
-            
-            final String header = headers[i];
-            
-            /*
-             * 番号が決まっておらず、ラベルが一致するカラム情報を抽出する。
-             * ※既に番号が決まっているが、ラベルが一致しないのものは、後からチェックする。
-             */
-            List<ColumnMapping> undeterminedColumnList = columnMappingList.stream()
-                .filter(col -> col.getNumber() <= 0)
-                .filter(col -> col.getLabel().equals(header))
-                .collect(Collectors.toList());
-            
-            final int columnNumber = i+1;
-            undeterminedColumnList.forEach(col -> col.setNumber(columnNumber));
-            
-        }
-        
-        // カラムの番号順に並び変える
-        columnMappingList.sort(null);
-        
-        // 重複しているカラム番号のチェック
-        BeanMappingFactoryHelper.validateDuplicatedColumnNumber(beanMapping.getType(), columnMappingList);
-        
-        // 不足しているカラム番号の補完
-        final Optional<CsvPartial> partialAnno = Optional.ofNullable(beanMapping.getType().getAnnotation(CsvPartial.class));
-        BeanMappingFactoryHelper.supplyLackedNumberMappingColumn(beanMapping.getType(), columnMappingList, partialAnno, headers);
-        
-        beanMapping.setColumns(columnMappingList);
+        LazyColumnPlan.applyForReading(beanMapping, headers);
         
     }
     
@@ -3,22 +3,17 @@ package com.github.mygreen.supercsv.io;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.supercsv.exception.SuperCsvException;
 import org.supercsv.prefs.CsvPreference;
 
-import com.github.mygreen.supercsv.annotation.CsvPartial;
 import com.github.mygreen.supercsv.builder.BeanMapping;
-import com.github.mygreen.supercsv.builder.ColumnMapping;
-import com.github.mygreen.supercsv.builder.BeanMappingFactoryHelper;
 import com.github.mygreen.supercsv.builder.LazyBeanMappingFactory;
+import com.github.mygreen.supercsv.builder.LazyColumnPlan;
 import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
 import com.github.mygreen.supercsv.localization.MessageBuilder;
 
@@ -28,6 +23,7 @@ import com.github.mygreen.supercsv.localization.MessageBuilder;
  * 
  * @param <T> マッピング対象のBeanのクラスタイプ
  * 
+ * @version 2.2
  * @since 2.1
  * @author T.TSUCHIE
  *
@@ -72,7 +68,7 @@ public class LazyCsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWri
      * <p>{@link BufferedWriter}にラップして実行されるため、ラップする必要はありません。</p>
      * <p>Beanのマッピング情報を独自にカスタマイズして、{@link LazyBeanMappingFactory}から作成する場合に利用します。</p>
      * 
-     * @param beanMapping Beanのマッピング情報。
+     * @param beanMapping Beanのマッピング情報。変更不可の場合は、複製して利用します。
      * @param writer the writer
      * @param preference the CSV preferences.
      * @throws NullPointerException {@literal if beanMapping or writer or preferences are null.}
@@ -83,7 +79,8 @@ public class LazyCsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWri
         
         Objects.requireNonNull(beanMapping, "beanMapping should not be null.");
         
-        this.beanMapping = beanMapping;
+        // 初期化時にカラム情報を変更するため、共有されている変更不可のマッピング情報は複製する
+        this.beanMapping = beanMapping.isFrozen() ? beanMapping.copy() : beanMapping;
         this.validators.addAll(beanMapping.getValidators());
         
     }
@@ -127,74 +124,7 @@ public class LazyCsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWri
      */
     private void setupMappingColumns(final String[] headers) {
         
-        final List<ColumnMapping> columnMappingList = beanMapping.getColumns();
-        
-        // 一致するラベルがあれば、カラムの番号を補完する
-        final int headerSize = headers.length;
-        for(int i=0; i < headerSize;i ++) {
-            
-            final String header = headers[i];
-            
-            /*
-             * 番号が決まっておらず、ラベルが一致するカラム情報を抽出する。
-             * ※既に番号が決まっているが、ラベルが一致しないのものは、後からチェックする。
-             */
-            List<ColumnMapping> undeterminedColumnList = columnMappingList.stream()
-                .filter(col -> !col.isDeterminedNumber())
-                .filter(col -> col.getLabel().equals(header))
-                .collect(Collectors.toList());
-            
-            final int columnNumber = i+1;
-            undeterminedColumnList.forEach(col -> col.setNumber(columnNumber));
-            
-        }
-        
-        // カラムの番号順に並び変える
-        columnMappingList.sort(null);
-        
-        /* 
-         * ヘッダーでは指定されていない番号が未決定のカラムについて、空いている番号に振る
-         * ・@CsvPartialで指定した場合とかぶらないようにすべき？
-         */
-        final Optional<CsvPartial> partialAnno = Optional.ofNullable(beanMapping.getType().getAnnotation(CsvPartial.class));
-        final List<ColumnMapping> undeterminedColumnList = columnMappingList.stream()
-                .filter(col -> !col.isDeterminedNumber())
-                .collect(Collectors.toList());
-        
-        if(!undeterminedColumnList.isEmpty()) {
-            final Set<Integer> determinedNumbers = columnMappingList.stream()
-                    .filter(col -> col.isDeterminedNumber())
-                    .map(col -> col.getNumber())
-                    .collect(Collectors.toSet());
-            
-            // @CsvParitalで定義されているカラムは、決定されている番号として処理する。
-            partialAnno.ifPresent(anno -> Arrays.stream(anno.headers()).forEach(header -> determinedNumbers.add(header.number())));
-            
-            int counter = 1;
-            for(ColumnMapping col : undeterminedColumnList) {
-                while(true) {
-                    if(!determinedNumbers.contains(counter)) {
-                        break;
-                    }
-                    counter++;
-                }
-                
-                col.setNumber(counter);
-                determinedNumbers.add(counter);
-            }
-            
-            // 第度カラムの番号順に並び変える
-            columnMappingList.sort(null);
-        
-        }
-        
-        // 重複しているカラム番号のチェック
-        BeanMappingFactoryHelper.validateDuplicatedColumnNumber(beanMapping.getType(), columnMappingList);
-        
-        // 不足しているカラム番号の補完
-        BeanMappingFactoryHelper.supplyLackedNumberMappingColumn(beanMapping.getType(), columnMappingList, partialAnno, headers);
-        
-        beanMapping.setColumns(columnMappingList);
+        LazyColumnPlan.applyForWriting(beanMapping, headers);
         
     }
     
@@ -246,6 +176,49 @@ public class LazyCsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWri
         
         Objects.requireNonNull(sources, "sources should not be null.");
         
+        writeAll(sources.iterator(), continueOnError);
+        
+    }
+    
+    /**
+     * レコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Iterator<T> sources) throws IOException {
+        writeAll(sources, false);
+    }
+    
+    /**
+     * レコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>レコードは書き込む直前に取り出すため、全てのレコードをメモリ上に保持する必要はありません。
+     *    {@link #setFlushInterval(int)}で設定した件数ごとに、フラッシュして進捗を通知します。
+     * </p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Iterator<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
         if(!initialized) {
             init();
         }
@@ -254,17 +227,49 @@ public class LazyCsvAnnotationBeanWriter<T> extends AbstractCsvAnnotationBeanWri
             writeHeader();
         }
         
-        for(T record : sources) {
-            try {
-                write(record);
-            } catch(SuperCsvBindingException e) {
-                if(!continueOnError) {
-                    throw e;
-                }
-            }
-        }
+        writeRecords(sources, continueOnError);
+        
+    }
+    
+    /**
+     * ストリームのレコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     * <p>ストリームはクローズしないため、呼び出し元でクローズする必要があります。</p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Stream<T> sources) throws IOException {
+        writeAll(sources, false);
+    }
+    
+    /**
+     * ストリームのレコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     * <p>ヘッダー行も自動的に処理されます。2回目以降に呼び出した場合、ヘッダー情報は書き込まれません。</p>
+     * <p>ストリームはクローズしないため、呼び出し元でクローズする必要があります。</p>
+     * 
+     * @since 2.2
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     * 
+     */
+    public void writeAll(final Stream<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
         
-        super.flush();
+        writeAll(sources.iterator(), continueOnError);
         
     }
     
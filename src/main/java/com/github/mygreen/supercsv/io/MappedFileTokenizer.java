@@ -0,0 +1,605 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.supercsv.comment.CommentMatcher;
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.io.ITokenizer;
+import org.supercsv.io.Tokenizer;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.util.ArgUtils;
+
+/**
+ * ファイルをメモリにマッピングして、CSVの字句解析を行うクラス。
+ * <p>ファイルを一定のサイズごとの領域（ウィンドウ）に分けて{@link MappedByteBuffer}にマッピングし、
+ *   区切り文字、囲み文字、改行をバイトのまま判定します。
+ *   <br>文字列への変換は、セルの値のバイトのみに対して行うため、
+ *   {@link java.io.Reader}を元にした{@link Tokenizer}と比べて、文字の変換とコピーを抑えることができます。
+ * </p>
+ * <p>区切り文字などの判定結果は{@link Tokenizer}と同じで、{@link CsvPreference}の次の設定に従います。</p>
+ * <ul>
+ *   <li>囲み文字、区切り文字</li>
+ *   <li>前後の空白を囲み文字で囲む必要があるかどうか</li>
+ *   <li>空行を無視するかどうか、コメント行の判定</li>
+ *   <li>1レコードあたりの最大行数</li>
+ * </ul>
+ * <p>{@link #setColumnProjection(boolean[])}で読み込むカラムを限定した場合、
+ *   それ以外のカラムのバイトは、コピーや文字列への変換をせずに読み飛ばします。
+ * </p>
+ * <p>バイトのまま判定するため、対応する文字コードは{@link #isSupported(Charset, CsvPreference)}で判定できます。
+ *   対応していない場合は、{@link #create(Path, Charset, CsvPreference)}で{@link Tokenizer}を作成します。
+ * </p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class MappedFileTokenizer implements ProjectableTokenizer {
+    
+    /**
+     * マッピングするウィンドウのサイズの初期値。
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+    
+    private static final int NEWLINE = '\n';
+    
+    private static final int CARRIAGE_RETURN = '\r';
+    
+    private static final int SPACE = ' ';
+    
+    /**
+     * ASCIIのバイトが、複数バイトの文字の一部として現れない文字コード。
+     */
+    private static final List<String> ASCII_TRANSPARENT_CHARSETS = Arrays.asList(
+            "UTF-8", "US-ASCII", "EUC-JP", "x-euc-jp-linux", "x-eucJP-Open");
+            
+    /**
+     * 2バイト目に、0x40以上のASCIIのバイトが現れる文字コード。
+     */
+    private static final List<String> SHIFT_JIS_CHARSETS = Arrays.asList(
+            "Shift_JIS", "windows-31j", "x-SJIS_0213", "x-MS932_0213");
+            
+    private final FileChannel channel;
+    
+    private final long size;
+    
+    private final Charset charset;
+    
+    private final int windowSize;
+    
+    private final int quoteChar;
+    
+    private final int delimiterChar;
+    
+    private final boolean surroundingSpacesNeedQuotes;
+    
+    private final boolean ignoreEmptyLines;
+    
+    private final CommentMatcher commentMatcher;
+    
+    private final int maxLinesPerRow;
+    
+    /**
+     * マッピング中のウィンドウ
+     */
+    private MappedByteBuffer window;
+    
+    /**
+     * マッピング中のウィンドウの、ファイル上の開始位置
+     */
+    private long windowStart;
+    
+    /**
+     * マッピング中のウィンドウのサイズ
+     */
+    private int windowLimit;
+    
+    /**
+     * 次に読み込むバイトの、ファイル上の位置
+     */
+    private long position;
+    
+    private int lineNumber;
+    
+    /**
+     * 処理中のセルの値のバイト
+     */
+    private byte[] cellBytes = new byte[256];
+    
+    private int cellLength;
+    
+    /**
+     * 直前に読み込んだレコードの、ファイル上の開始位置
+     */
+    private long rowStart;
+    
+    /**
+     * 直前に読み込んだレコードの、ファイル上の終了位置（改行を含まない）
+     */
+    private long rowEnd;
+    
+    /**
+     * 直前に読み込んだレコードの文字列。必要になった時点で変換する。
+     */
+    private String untokenizedRow;
+    
+    /**
+     * 読み込むカラム。nullの場合は全てのカラム。
+     */
+    private boolean[] projection;
+    
+    /**
+     * 処理中のセルを読み飛ばすかどうか
+     */
+    private boolean skipCell;
+    
+    /**
+     * ファイルのパスを指定して、インスタンスを作成します。
+     *
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference CSVの設定。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal path or charset or preference is null.}
+     * @throws IllegalArgumentException {@literal 文字コードや区切り文字などの設定に対応していない場合。}
+     */
+    public MappedFileTokenizer(final Path path, final Charset charset, final CsvPreference preference) throws IOException {
+        this(FileChannel.open(Objects.requireNonNull(path, "path should not be null."), StandardOpenOption.READ),
+                charset, preference, DEFAULT_WINDOW_SIZE);
+    }
+    
+    /**
+     * ファイルチャネルを指定して、インスタンスを作成します。
+     * <p>字句解析は、チャネルの現在の位置からではなく、先頭から行います。
+     *    チャネルは、{@link #close()}を呼び出したときに閉じられます。
+     * </p>
+     *
+     * @param channel CSVファイルのチャネル。
+     * @param charset ファイルの文字コード。
+     * @param preference CSVの設定。
+     * @param windowSize マッピングするウィンドウのサイズ。
+     * @throws IOException ファイルのサイズの取得に失敗した場合。
+     * @throws NullPointerException {@literal channel or charset or preference is null.}
+     * @throws IllegalArgumentException {@literal windowSize < 1.}
+     * @throws IllegalArgumentException {@literal 文字コードや区切り文字などの設定に対応していない場合。}
+     */
+    public MappedFileTokenizer(final FileChannel channel, final Charset charset, final CsvPreference preference,
+            final int windowSize) throws IOException {
+            
+        Objects.requireNonNull(channel, "channel should not be null.");
+        Objects.requireNonNull(charset, "charset should not be null.");
+        Objects.requireNonNull(preference, "preference should not be null.");
+        ArgUtils.notMin(windowSize, 1, "windowSize");
+        
+        if(!isSupported(charset, preference)) {
+            channel.close();
+            throw new IllegalArgumentException(String.format("not supported charset '%s' or preference.", charset.name()));
+        }
+        
+        this.channel = channel;
+        this.size = channel.size();
+        this.charset = charset;
+        this.windowSize = windowSize;
+        
+        this.quoteChar = preference.getQuoteChar();
+        this.delimiterChar = preference.getDelimiterChar();
+        this.surroundingSpacesNeedQuotes = preference.isSurroundingSpacesNeedQuotes();
+        this.ignoreEmptyLines = preference.isIgnoreEmptyLines();
+        this.commentMatcher = preference.getCommentMatcher();
+        this.maxLinesPerRow = preference.getMaxLinesPerRow();
+    }
+    
+    /**
+     * ファイルのパスを指定して、字句解析を行うインスタンスを作成します。
+     * <p>文字コードや設定に対応している場合は{@link MappedFileTokenizer}を、
+     *    対応していない場合は{@link Tokenizer}を作成します。
+     * </p>
+     * <p>ファイルがgzip形式の場合は、{@link ParallelGzipInputStream}で展開して読み込む{@link Tokenizer}を作成します。</p>
+     *
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference CSVの設定。
+     * @return 字句解析を行うインスタンス。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal path or charset or preference is null.}
+     */
+    public static ITokenizer create(final Path path, final Charset charset, final CsvPreference preference) throws IOException {
+        
+        Objects.requireNonNull(path, "path should not be null.");
+        Objects.requireNonNull(charset, "charset should not be null.");
+        Objects.requireNonNull(preference, "preference should not be null.");
+        
+        if(ParallelGzipInputStream.isGzip(path)) {
+            return new Tokenizer(new InputStreamReader(new ParallelGzipInputStream(Files.newInputStream(path)), charset), preference);
+        }
+        
+        if(isSupported(charset, preference)) {
+            return new MappedFileTokenizer(path, charset, preference);
+        }
+        
+        return new Tokenizer(Files.newBufferedReader(path, charset), preference);
+    }
+    
+    /**
+     * 文字コードとCSVの設定に対応しているかどうか判定します。
+     * <p>区切り文字、囲み文字、空白、改行のバイトが、複数バイトの文字の一部として現れない文字コードのみ対応しています。</p>
+     *
+     * @param charset ファイルの文字コード。
+     * @param preference CSVの設定。
+     * @return trueの場合、対応しています。
+     * @throws NullPointerException {@literal charset or preference is null.}
+     */
+    public static boolean isSupported(final Charset charset, final CsvPreference preference) {
+        
+        Objects.requireNonNull(charset, "charset should not be null.");
+        Objects.requireNonNull(preference, "preference should not be null.");
+        
+        final int quoteChar = preference.getQuoteChar();
+        final int delimiterChar = preference.getDelimiterChar();
+        if(quoteChar >= 0x80 || delimiterChar >= 0x80) {
+            return false;
+        }
+        
+        final String name = charset.name();
+        if(ASCII_TRANSPARENT_CHARSETS.contains(name) || name.startsWith("ISO-8859-")) {
+            return true;
+        }
+        
+        if(SHIFT_JIS_CHARSETS.contains(name)) {
+            return quoteChar < 0x40 && delimiterChar < 0x40;
+        }
+        
+        return false;
+    }
+    
+    @Override
+    public boolean readColumns(final List<String> columns) throws IOException {
+        
+        if(columns == null) {
+            throw new NullPointerException("columns should not be null");
+        }
+        
+        columns.clear();
+        cellLength = 0;
+        untokenizedRow = null;
+        
+        // 空行、コメント行を読み飛ばす
+        while(true) {
+            if(position >= size) {
+                return false;
+            }
+            
+            if(ignoreEmptyLines && isLineTerminator(peek())) {
+                skipLineTerminator(read());
+                lineNumber++;
+                continue;
+            }
+            
+            if(commentMatcher != null) {
+                final long lineStart = position;
+                if(commentMatcher.isComment(readLine())) {
+                    if(position < size) {
+                        skipLineTerminator(read());
+                    }
+                    lineNumber++;
+                    continue;
+                }
+                position = lineStart;
+            }
+            
+            break;
+        }
+        
+        lineNumber++;
+        rowStart = position;
+        skipCell = !isProjected(0);
+        
+        boolean quoteMode = false;
+        int quoteScopeStartingLine = -1;
+        int potentialSpaces = 0;
+        
+        while(true) {
+            
+            final long bytePosition = position;
+            final int c = read();
+            
+            if(c < 0 || isLineTerminator(c)) {
+                
+                if(!quoteMode) {
+                    if(c >= 0) {
+                        skipLineTerminator(c);
+                    }
+                    
+                    rowEnd = bytePosition;
+                    if(!surroundingSpacesNeedQuotes) {
+                        appendSpaces(potentialSpaces);
+                    }
+                    columns.add(takeCell());
+                    return true;
+                }
+                
+                // 囲み文字の中の改行
+                appendByte(NEWLINE);
+                if(c >= 0) {
+                    skipLineTerminator(c);
+                }
+                
+                if(maxLinesPerRow > 0 && lineNumber - quoteScopeStartingLine + 1 >= maxLinesPerRow) {
+                    rowEnd = bytePosition;
+                    final String message = maxLinesPerRow == 1 ?
+                            String.format("unexpected end of line while reading quoted column on line %d", lineNumber) :
+                            String.format("max number of lines to read exceeded while reading quoted column"
+                                    + " beginning on line %d and ending on line %d", quoteScopeStartingLine, lineNumber);
+                    throw new SuperCsvException(message);
+                }
+                
+                if(c < 0 || position >= size) {
+                    rowEnd = bytePosition;
+                    throw new SuperCsvException(String.format("unexpected end of file while reading quoted column"
+                            + " beginning on line %d and ending on line %d", quoteScopeStartingLine, lineNumber));
+                }
+                
+                lineNumber++;
+                continue;
+            }
+            
+            if(!quoteMode) {
+                if(c == delimiterChar) {
+                    if(!surroundingSpacesNeedQuotes) {
+                        appendSpaces(potentialSpaces);
+                    }
+                    columns.add(takeCell());
+                    skipCell = !isProjected(columns.size());
+                    potentialSpaces = 0;
+                    
+                } else if(c == SPACE) {
+                    potentialSpaces++;
+                    
+                } else if(c == quoteChar) {
+                    quoteMode = true;
+                    quoteScopeStartingLine = lineNumber;
+                    if(!surroundingSpacesNeedQuotes || cellLength > 0) {
+                        appendSpaces(potentialSpaces);
+                    }
+                    potentialSpaces = 0;
+                    
+                } else {
+                    if(!surroundingSpacesNeedQuotes || cellLength > 0) {
+                        appendSpaces(potentialSpaces);
+                    }
+                    potentialSpaces = 0;
+                    appendByte(c);
+                }
+                
+            } else {
+                if(c == quoteChar) {
+                    if(peek() == quoteChar) {
+                        // エスケープされた囲み文字
+                        appendByte(c);
+                        position++;
+                    } else {
+                        quoteMode = false;
+                        quoteScopeStartingLine = -1;
+                    }
+                    
+                } else {
+                    appendByte(c);
+                }
+            }
+            
+        }
+        
+    }
+    
+    /**
+     * 次のバイトを読み込みます。
+     * @return ファイルの終端に達した場合は、-1を返します。
+     */
+    private int read() throws IOException {
+        
+        final int c = peek();
+        if(c >= 0) {
+            position++;
+        }
+        
+        return c;
+    }
+    
+    /**
+     * 次のバイトを、位置を進めずに取得します。
+     * @return ファイルの終端に達した場合は、-1を返します。
+     */
+    private int peek() throws IOException {
+        
+        if(position >= size) {
+            return -1;
+        }
+        
+        long offset = position - windowStart;
+        if(window == null || offset < 0 || offset >= windowLimit) {
+            mapWindow(position);
+            offset = 0;
+        }
+        
+        return window.get((int)offset) & 0xFF;
+    }
+    
+    /**
+     * 指定した位置からウィンドウをマッピングします。
+     */
+    private void mapWindow(final long start) throws IOException {
+        
+        this.windowLimit = (int)Math.min(windowSize, size - start);
+        this.window = channel.map(FileChannel.MapMode.READ_ONLY, start, windowLimit);
+        this.windowStart = start;
+    }
+    
+    private static boolean isLineTerminator(final int c) {
+        return c == NEWLINE || c == CARRIAGE_RETURN;
+    }
+    
+    /**
+     * 改行を読み込んだ後、CRLFの場合はLFを読み飛ばします。
+     */
+    private void skipLineTerminator(final int c) throws IOException {
+        if(c == CARRIAGE_RETURN && peek() == NEWLINE) {
+            position++;
+        }
+    }
+    
+    /**
+     * 現在の位置から行の終端（改行を含まない）までのバイトを、マッピング中のウィンドウから読み込み文字列に変換します。
+     * <p>位置は行の終端まで進みます。バイトの一時領域には、セルの値と同じ配列を使用します。</p>
+     */
+    private String readLine() throws IOException {
+        
+        int c;
+        while((c = peek()) >= 0 && !isLineTerminator(c)) {
+            if(cellLength == cellBytes.length) {
+                cellBytes = Arrays.copyOf(cellBytes, cellLength * 2);
+            }
+            cellBytes[cellLength++] = (byte)c;
+            position++;
+        }
+        
+        final String line = cellLength > 0 ? new String(cellBytes, 0, cellLength, charset) : "";
+        cellLength = 0;
+        return line;
+    }
+    
+    private void appendByte(final int c) {
+        
+        if(skipCell) {
+            return;
+        }
+        
+        if(cellLength == cellBytes.length) {
+            cellBytes = Arrays.copyOf(cellBytes, cellLength * 2);
+        }
+        cellBytes[cellLength++] = (byte)c;
+    }
+    
+    private void appendSpaces(final int count) {
+        for(int i=0; i < count; i++) {
+            appendByte(SPACE);
+        }
+    }
+    
+    /**
+     * 処理中のセルの値を文字列に変換して、初期化します。
+     * @return 空の場合、または読み飛ばすセルの場合はnullを返します。
+     */
+    private String takeCell() {
+        
+        final String value = cellLength > 0 ? new String(cellBytes, 0, cellLength, charset) : null;
+        cellLength = 0;
+        return value;
+    }
+    
+    /**
+     * ファイルの指定した範囲のバイトを文字列に変換します。
+     */
+    private String decode(final long start, final long end) throws IOException {
+        
+        final ByteBuffer buffer = ByteBuffer.allocate((int)(end - start));
+        long readPosition = start;
+        while(buffer.hasRemaining()) {
+            final int count = channel.read(buffer, readPosition);
+            if(count < 0) {
+                break;
+            }
+            readPosition += count;
+        }
+        
+        return new String(buffer.array(), 0, buffer.position(), charset);
+    }
+    
+    /**
+     * 指定したインデックスのカラムを読み込むかどうか判定します。
+     */
+    private boolean isProjected(final int columnIndex) {
+        return projection == null || columnIndex >= projection.length || projection[columnIndex];
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>読み込まないカラムのバイトは、コピーや文字列への変換をせずに読み飛ばします。</p>
+     */
+    @Override
+    public void setColumnProjection(final boolean[] projection) {
+        this.projection = projection != null ? projection.clone() : null;
+    }
+    
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードの文字列は、呼び出された時点でファイルから読み込んで変換します。
+     *    複数行にわたる場合の改行は、{@link Tokenizer}と同じく{@literal \n}に統一されます。
+     * </p>
+     */
+    @Override
+    public String getUntokenizedRow() {
+        
+        if(untokenizedRow == null) {
+            if(rowEnd <= rowStart) {
+                untokenizedRow = "";
+                
+            } else {
+                try {
+                    untokenizedRow = decode(rowStart, rowEnd)
+                            .replace("\r\n", "\n")
+                            .replace('\r', '\n');
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        
+        return untokenizedRow;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>ファイルのチャネルを閉じます。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        channel.close();
+    }
+    
+    /**
+     * マッピングするウィンドウのサイズを取得します。
+     * @return コンストラクタで指定した値。
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+    
+    /**
+     * ファイルの文字コードを取得します。
+     * @return コンストラクタで指定した値。
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+    
+    
+}
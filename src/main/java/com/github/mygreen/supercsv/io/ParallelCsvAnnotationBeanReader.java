@@ -0,0 +1,369 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.io.ITokenizer;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.cellprocessor.StatefulCellProcessor;
+import com.github.mygreen.supercsv.util.ArgUtils;
+import com.github.mygreen.supercsv.validation.CsvValidator;
+
+/**
+ * アノテーションを元にCSVファイルを、複数のスレッドで並列に読み込むためのクラス。
+ * <p>CSVの字句解析は、{@link #read()}を呼び出したスレッドで行い、一定の行数ごとのまとまり（チャンク）に分割します。
+ *   <br>各チャンクの、CellProcessorの実行、Beanへのマッピング、入力値検証、コールバックメソッドの実行は、
+ *   {@link ExecutorService}のスレッドで並列に処理されます。
+ *   <br>処理結果は、CSVファイルの出現順に返されます。
+ * </p>
+ * <p>{@link StatefulCellProcessor}を実装している{@link CellProcessor}を含むカラム（例えば、{@literal @CsvUnique}）は、
+ *   処理結果がレコードの処理順序に依存するため、字句解析を行うスレッドで出現順に処理されます。
+ * </p>
+ * <p>{@link CsvValidator}やリスナークラスのインスタンスは、複数のスレッドから同時に呼ばれるため、スレッドセーフである必要があります。</p>
+ * <p>{@link #stream()}で取得したストリームは、このクラスのスレッドプールを利用せずに、ストリーム自身の並列処理の仕組みを利用します。
+ *   <br>先読みしたチャンクは利用しないため、{@link #read()}と併用しないでください。
+ * </p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelCsvAnnotationBeanReader<T> extends CsvAnnotationBeanReader<T> {
+    
+    /**
+     * 1チャンクあたりの行数の初期値。
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+    
+    /**
+     * 並列処理を行うスレッドプール。
+     */
+    private ExecutorService executorService = ForkJoinPool.commonPool();
+    
+    /**
+     * 1チャンクあたりの行数。
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    
+    /**
+     * 同時に処理するチャンクの最大数。
+     */
+    private int maxPendingChunks = Runtime.getRuntime().availableProcessors() * 2;
+    
+    /**
+     * 処理中のチャンクの結果。CSVファイルの出現順に並んでいる。
+     */
+    private final LinkedList<CompletableFuture<List<RowResult<T>>>> pendingChunks = new LinkedList<>();
+    
+    /**
+     * 処理が完了して、取り出し中のチャンクの結果。
+     */
+    private Iterator<RowResult<T>> currentChunk = Collections.emptyIterator();
+    
+    /**
+     * ファイルの終端まで字句解析が完了したかどうか。
+     */
+    private boolean eof = false;
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link ParallelCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>{@link BufferedReader}にラップして実行されるため、ラップする必要はありません。</p>
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param reader the Reader。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or reader or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanReader(final Class<T> beanType, final Reader reader, final CsvPreference preference,
+            final Class<?>... groups) {
+        super(beanType, reader, preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link ParallelCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>{@link BufferedReader}にラップして実行されるため、ラップする必要はありません。</p>
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param reader the Reader。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or reader or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final Reader reader, final CsvPreference preference) {
+        super(beanMapping, reader, preference);
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link ParallelCsvAnnotationBeanReader}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param tokenizer the tokenizer.
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or tokenizer or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanReader(final Class<T> beanType, final ITokenizer tokenizer, final CsvPreference preference,
+            final Class<?>... groups) {
+        super(beanType, tokenizer, preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link ParallelCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param tokenizer the tokenizer.
+     * @param preferences the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or tokenizer or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final ITokenizer tokenizer, final CsvPreference preferences) {
+        super(beanMapping, tokenizer, preferences);
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、CSVファイルのパスから{@link ParallelCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     *
+     * @since 2.2
+     * @param beanType Beanのクラスタイプ。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanType or path or charset or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanReader(final Class<T> beanType, final Path path, final Charset charset, final CsvPreference preference,
+            final Class<?>... groups) throws IOException {
+        this(beanType, MappedFileTokenizer.create(path, charset, preference), preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、CSVファイルのパスから{@link ParallelCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     *
+     * @since 2.2
+     * @param beanMapping Beanのマッピング情報。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanMapping or path or charset or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final Path path, final Charset charset, final CsvPreference preference)
+            throws IOException {
+        this(beanMapping, MappedFileTokenizer.create(path, charset, preference), preference);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードは、並列に処理された結果をCSVファイルの出現順に返します。</p>
+     */
+    @Override
+    public T read() throws IOException {
+        
+        final RowResult<T> result = nextRowResult();
+        if(result == null) {
+            return null; // EOF
+        }
+        
+        return completeRow(result);
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードは、並列に処理された結果をCSVファイルの出現順に返します。</p>
+     * <p>再利用する設定の場合も、行ごとのオブジェクトは並列に処理するために新たに作成されます。</p>
+     */
+    @Override
+    public ReadResult<T> readNext() throws IOException {
+        
+        final RowResult<T> result = nextRowResult();
+        if(result == null) {
+            return null; // EOF
+        }
+        
+        return completeRowResult(result);
+        
+    }
+    
+    /**
+     * 出現順に次の行の処理結果を取得します。
+     * @return 読み込む行がない場合は、nullを返します。
+     * @throws IOException レコードの読み込みに失敗した場合。
+     */
+    private RowResult<T> nextRowResult() throws IOException {
+        
+        while(!currentChunk.hasNext()) {
+            fillChunks();
+            
+            if(pendingChunks.isEmpty()) {
+                return null; // EOF
+            }
+            
+            currentChunk = awaitChunk(pendingChunks.removeFirst()).iterator();
+        }
+        
+        // 取り出した分だけ、先読みして処理を依頼しておく。
+        final RowResult<T> result = currentChunk.next();
+        fillChunks();
+        
+        return result;
+    }
+    
+    /**
+     * 処理中のチャンク数が上限に達するまで、字句解析を行い処理を依頼する。
+     * @throws IOException レコードの読み込みに失敗した場合。
+     */
+    private void fillChunks() throws IOException {
+        
+        while(!eof && pendingChunks.size() < maxPendingChunks) {
+            
+            final List<TokenizedRow> rows = new ArrayList<>(chunkSize);
+            while(rows.size() < chunkSize) {
+                final TokenizedRow row = readTokenizedRow();
+                if(row == null) {
+                    eof = true;
+                    break;
+                }
+                
+                rows.add(row);
+            }
+            
+            if(rows.isEmpty()) {
+                break;
+            }
+            
+            pendingChunks.addLast(CompletableFuture.supplyAsync(() -> processChunk(rows), executorService));
+        }
+        
+    }
+    
+    private List<RowResult<T>> awaitChunk(final CompletableFuture<List<RowResult<T>>> future) {
+        
+        try {
+            return future.join();
+            
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+        
+    }
+    
+    /**
+     * チャンク内の各行を処理する。並列処理を行うスレッドで実行される。
+     * @param rows チャンク内の行
+     * @return 処理結果
+     */
+    private List<RowResult<T>> processChunk(final List<TokenizedRow> rows) {
+        
+        final List<RowResult<T>> results = new ArrayList<>(rows.size());
+        for(TokenizedRow row : rows) {
+            results.add(processRow(row));
+        }
+        
+        return results;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>処理中のチャンクの結果は破棄されます。
+     *    ただし、外部から設定した{@link ExecutorService}は終了しないため、呼び出し元で終了する必要があります。
+     * </p>
+     */
+    @Override
+    public void close() throws IOException {
+        
+        for(CompletableFuture<List<RowResult<T>>> future : pendingChunks) {
+            future.cancel(false);
+        }
+        pendingChunks.clear();
+        currentChunk = Collections.emptyIterator();
+        
+        super.close();
+    }
+    
+    /**
+     * 並列処理を行うスレッドプールを取得します。
+     * @return 初期値は、{@link ForkJoinPool#commonPool()}です。
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+    
+    /**
+     * 並列処理を行うスレッドプールを設定します。
+     * <p>設定したスレッドプールは、{@link #close()}を呼び出しても終了しません。</p>
+     * @param executorService 並列処理を行うスレッドプール。
+     * @throws NullPointerException {@literal executorService is null.}
+     */
+    public void setExecutorService(final ExecutorService executorService) {
+        ArgUtils.notNull(executorService, "executorService");
+        this.executorService = executorService;
+    }
+    
+    /**
+     * 1チャンクあたりの行数を取得します。
+     * @return 初期値は、{@value #DEFAULT_CHUNK_SIZE}です。
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * 1チャンクあたりの行数を設定します。
+     * <p>1行あたりの処理が軽い場合は、大きな値を設定するとスレッドの切り替えのコストを抑えることができます。</p>
+     * @param chunkSize 1以上の値を設定します。
+     * @throws IllegalArgumentException {@literal chunkSize < 1.}
+     */
+    public void setChunkSize(final int chunkSize) {
+        ArgUtils.notMin(chunkSize, 1, "chunkSize");
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * 同時に処理するチャンクの最大数を取得します。
+     * @return 初期値は、利用可能なプロセッサ数の2倍です。
+     */
+    public int getMaxPendingChunks() {
+        return maxPendingChunks;
+    }
+    
+    /**
+     * 同時に処理するチャンクの最大数を設定します。
+     * <p>先読みする行数の上限は、{@literal チャンクサイズ × 最大数}となり、メモリの使用量を制限することができます。</p>
+     * @param maxPendingChunks 1以上の値を設定します。
+     * @throws IllegalArgumentException {@literal maxPendingChunks < 1.}
+     */
+    public void setMaxPendingChunks(final int maxPendingChunks) {
+        ArgUtils.notMin(maxPendingChunks, 1, "maxPendingChunks");
+        this.maxPendingChunks = maxPendingChunks;
+    }
+    
+}
@@ -0,0 +1,483 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.encoder.CsvEncoder;
+import org.supercsv.encoder.DefaultCsvEncoder;
+import org.supercsv.encoder.SelectiveCsvEncoder;
+import org.supercsv.prefs.CsvPreference;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.builder.CallbackMethod;
+import com.github.mygreen.supercsv.cellprocessor.StatefulCellProcessor;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.util.ArgUtils;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+import com.github.mygreen.supercsv.validation.CsvValidator;
+
+/**
+ * アノテーションを元にCSVファイルを、複数のスレッドで並列に書き出すためのクラス。
+ * <p>{@literal writeAll}メソッドで書き込む場合、レコードを一定の件数ごとのまとまり（チャンク）に分割し、
+ *   各チャンクの、コールバックメソッド（書き込み前）の実行、CellProcessorの実行、入力値検証、CSVの1行分の文字列への変換は、
+ *   {@link ExecutorService}のスレッドで並列に処理されます。
+ *   <br>変換した文字列は、{@literal writeAll}メソッドを呼び出したスレッドで、レコードの順番どおりに書き込まれます。
+ *   <br>コールバックメソッド（書き込み後）の実行と、エラーメッセージの変換も、呼び出したスレッドで順番どおりに行われます。
+ * </p>
+ * <p>{@link StatefulCellProcessor}を実装している{@link CellProcessor}を含むカラム（例えば、{@literal @CsvUnique}）がある場合は、
+ *   処理結果がレコードの処理順序に依存するため、並列に処理せずに{@link CsvAnnotationBeanWriter}と同様に書き込みます。
+ * </p>
+ * <p>{@link CsvValidator}やリスナークラスのインスタンスは、複数のスレッドから同時に呼ばれるため、スレッドセーフである必要があります。</p>
+ * <p>CSVの設定の{@link CsvEncoder}が、{@link DefaultCsvEncoder}または{@link SelectiveCsvEncoder}以外の場合は、
+ *   スレッドセーフであるか判断できないため、文字列への変換は書き込むスレッドで行います。
+ * </p>
+ * <p>チャンク単位でまとめて書き込むため、{@link BufferedWriter}にラップしません。
+ *   <br>{@link #write(Object)}で1件ずつ書き込む場合は、必要に応じて{@link BufferedWriter}にラップしてください。
+ * </p>
+ * <p>改行を含む値を書き込む場合、エラーメッセージ中の行番号は、チャンクの処理を依頼した時点の値から、
+ *   1レコードを1行として算出した値となります。
+ * </p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelCsvAnnotationBeanWriter<T> extends CsvAnnotationBeanWriter<T> {
+    
+    /**
+     * 1チャンクあたりの件数の初期値。
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+    
+    /**
+     * 並列処理を行うスレッドプール。
+     */
+    private ExecutorService executorService = ForkJoinPool.commonPool();
+    
+    /**
+     * 1チャンクあたりの件数。
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    
+    /**
+     * 同時に処理するチャンクの最大数。
+     */
+    private int maxPendingChunks = Runtime.getRuntime().availableProcessors() * 2;
+    
+    /**
+     * 書き込み先。
+     */
+    private final Writer writer;
+    
+    /**
+     * CSVの設定。
+     */
+    private final CsvPreference preference;
+    
+    /**
+     * 改行を含む値を書き込んだことにより、増えた行数。
+     */
+    private int extraLineCount = 0;
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link ParallelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param writer the writer
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or writer or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanWriter(final Class<T> beanType, final Writer writer, final CsvPreference preference,
+            final Class<?>... groups) {
+        super(beanType, writer, preference, false, groups);
+        this.writer = writer;
+        this.preference = preference;
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link ParallelCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param writer the writer
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or writer or preferences are null.}
+     */
+    public ParallelCsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final Writer writer, final CsvPreference preference) {
+        super(beanMapping, writer, preference, false);
+        this.writer = writer;
+        this.preference = preference;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>改行を含む値を並列に書き込んだことにより増えた行数を含めた値を返します。</p>
+     */
+    @Override
+    public int getLineNumber() {
+        return super.getLineNumber() + extraLineCount;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードは、並列に処理された結果を、レコードの順番どおりに書き込みます。</p>
+     * <p>処理を中断した場合、処理中のチャンクの結果は破棄されます。</p>
+     * <p>フラッシュと進捗の通知は、チャンクを書き込んだ時点で、フラッシュする間隔の件数またはバイト数を超えた場合に行います。</p>
+     */
+    @Override
+    public void writeAll(final Iterator<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
+        if(hasStatefulColumn()) {
+            super.writeAll(sources, continueOnError);
+            return;
+        }
+        
+        if(beanMappingCache.getOriginal().isHeader() && getLineNumber() == 0) {
+            writeHeader();
+        }
+        
+        final CsvEncoder encoder = isThreadSafe(preference.getEncoder()) ? preference.getEncoder() : null;
+        
+        final LinkedList<CompletableFuture<List<FormattedRow<T>>>> pendingChunks = new LinkedList<>();
+        
+        // 処理を依頼した時点の行番号
+        int lineNumber = getLineNumber();
+        int rowNumber = getRowNumber();
+        
+        // 書き込んだ件数と、進捗を通知した件数
+        long count = 0;
+        long notifiedCount = -1;
+        
+        // 前回フラッシュした時点で、書き込んだバイト数
+        final boolean checkBytes = isFlushByBytes();
+        long flushedBytes = getWrittenByteCount();
+        
+        try {
+            while(true) {
+                while(sources.hasNext() && pendingChunks.size() < maxPendingChunks) {
+                    
+                    final List<T> records = new ArrayList<>(chunkSize);
+                    while(sources.hasNext() && records.size() < chunkSize) {
+                        records.add(sources.next());
+                    }
+                    
+                    final int startLineNumber = lineNumber;
+                    final int startRowNumber = rowNumber;
+                    pendingChunks.addLast(CompletableFuture.supplyAsync(
+                            () -> processChunk(records, startLineNumber, startRowNumber, encoder), executorService));
+                    
+                    lineNumber += records.size();
+                    rowNumber += records.size();
+                }
+                
+                if(pendingChunks.isEmpty()) {
+                    break;
+                }
+                
+                final List<FormattedRow<T>> rows = awaitChunk(pendingChunks.removeFirst());
+                writeChunk(rows, continueOnError);
+                
+                // フラッシュする間隔の件数、またはバイト数を超えた場合
+                final long prevCount = count;
+                count += rows.size();
+                if((getFlushInterval() > 0 && prevCount / getFlushInterval() < count / getFlushInterval())
+                        || (checkBytes && getWrittenByteCount() - flushedBytes >= getFlushBytes())) {
+                    super.flush();
+                    notifyProgress(count);
+                    notifiedCount = count;
+                    flushedBytes = getWrittenByteCount();
+                }
+            }
+            
+        } finally {
+            for(CompletableFuture<List<FormattedRow<T>>> future : pendingChunks) {
+                future.cancel(false);
+            }
+        }
+        
+        super.flush();
+        
+        if(notifiedCount != count) {
+            notifyProgress(count);
+        }
+        
+    }
+    
+    /**
+     * チャンク内の各レコードを処理する。並列処理を行うスレッドで実行される。
+     * @param records チャンク内のレコード
+     * @param startLineNumber チャンクの先頭のレコードの行番号の前の値
+     * @param startRowNumber チャンクの先頭のレコードの番号の前の値
+     * @param encoder 文字列へ変換する処理。nullの場合、書き込むスレッドで変換する。
+     * @return 処理結果
+     */
+    private List<FormattedRow<T>> processChunk(final List<T> records, final int startLineNumber, final int startRowNumber,
+            final CsvEncoder encoder) {
+        
+        final List<FormattedRow<T>> rows = new ArrayList<>(records.size());
+        for(int i=0; i < records.size(); i++) {
+            final FormattedRow<T> row = new FormattedRow<>(processRow(records.get(i), startLineNumber + i + 1, startRowNumber + i + 1));
+            if(encoder != null && row.isWritable()) {
+                encodeRow(row, encoder);
+            }
+            
+            rows.add(row);
+        }
+        
+        return rows;
+    }
+    
+    private List<FormattedRow<T>> awaitChunk(final CompletableFuture<List<FormattedRow<T>>> future) {
+        
+        try {
+            return future.join();
+            
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+        
+    }
+    
+    /**
+     * チャンク内の各レコードのエラーメッセージの変換を行い、レコードの順番どおりに書き込む。
+     * @param rows チャンクの処理結果
+     * @param continueOnError 例外{@link SuperCsvBindingException}が発生しても、続行するかどうか。
+     * @throws IOException レコードの出力に失敗した場合。
+     */
+    private void writeChunk(final List<FormattedRow<T>> rows, final boolean continueOnError) throws IOException {
+        
+        final StringBuilder buffer = new StringBuilder();
+        try {
+            for(FormattedRow<T> row : rows) {
+                
+                // update the current row/line numbers
+                super.incrementRowAndLineNo();
+                row.result.context.setLineNumber(getLineNumber());
+                row.result.context.setRowNumber(getRowNumber());
+                
+                try {
+                    writeRow(row, buffer);
+                    
+                } catch(SuperCsvBindingException e) {
+                    if(!continueOnError) {
+                        throw e;
+                    }
+                }
+            }
+            
+        } finally {
+            // 中断した場合も、それまでのレコードは書き込む。
+            if(buffer.length() > 0) {
+                writer.write(buffer.toString());
+            }
+        }
+        
+    }
+    
+    /**
+     * 1レコード分の処理結果を元に、エラーメッセージの変換を行い、バッファに追加します。
+     * @param row 1レコード分の処理結果
+     * @param buffer 書き込む文字列のバッファ
+     */
+    private void writeRow(final FormattedRow<T> row, final StringBuilder buffer) {
+        
+        final RowResult<T> result = row.result;
+        
+        if(result.processingException != null) {
+            // convert exception to message.
+            addErrorMessages(exceptionConverter.convert(result.processingException, beanMappingCache.getOriginal()));
+            throw result.processingException;
+        }
+        
+        if(result.exception != null) {
+            throw result.exception;
+        }
+        
+        // エラーメッセージの変換
+        processErrors(result.bindingErrors, result.context, result.rowException);
+        
+        if(row.line == null) {
+            encodeRow(row, preference.getEncoder());
+        }
+        
+        buffer.append(row.line);
+        extraLineCount += row.extraLineCount;
+        
+        // コールバックメソッドの実行（書き込み後）
+        for(CallbackMethod callback : beanMappingCache.getOriginal().getPostWriteMethods()) {
+            callback.invoke(result.source, result.context, result.bindingErrors, beanMappingCache.getOriginal());
+        }
+        
+        // エラーメッセージの変換
+        processErrors(result.bindingErrors, result.context, result.rowException);
+        
+    }
+    
+    /**
+     * CellProcessorを実行した値を、CSVの1行分の文字列に変換します。
+     * <p>{@link org.supercsv.io.AbstractCsvWriter#writeRow(String...)}と同じ形式に変換します。</p>
+     * @param row 1レコード分の処理結果
+     * @param encoder 文字列へ変換する処理
+     */
+    private void encodeRow(final FormattedRow<T> row, final CsvEncoder encoder) {
+        
+        final List<Object> columns = row.result.processedColumns;
+        if(columns.isEmpty()) {
+            throw new IllegalArgumentException(String.format("columns to write should not be empty on line %d",
+                    row.result.context.getLineNumber()));
+        }
+        
+        final int lineNumber = row.result.context.getLineNumber();
+        final CsvContext context = new CsvContext(lineNumber, row.result.context.getRowNumber(), 1);
+        
+        final StringBuilder builder = new StringBuilder();
+        for(int i=0; i < columns.size(); i++) {
+            
+            if(i > 0) {
+                builder.append((char)preference.getDelimiterChar());
+            }
+            
+            final Object column = columns.get(i);
+            if(column != null) {
+                context.setColumnNumber(i + 1);
+                builder.append(encoder.encode(column.toString(), context, preference));
+            }
+        }
+        
+        builder.append(preference.getEndOfLineSymbols());
+        
+        row.line = builder.toString();
+        row.extraLineCount = context.getLineNumber() - lineNumber;
+    }
+    
+    /**
+     * 書き込み用のCellProcessorに、状態を持つものが含まれるかどうか。
+     * @return trueの場合、含まれる。
+     */
+    private boolean hasStatefulColumn() {
+        for(CellProcessor processor : beanMappingCache.getCellProcessorsForWriting()) {
+            if(processor != null && CellProcessorUtils.isStateful(processor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 複数のスレッドから同時に呼び出すことができる{@link CsvEncoder}かどうか。
+     * <p>Super CSVの状態を持たない実装クラスのみを対象とします。</p>
+     * @param encoder 判定対象のエンコーダ
+     * @return trueの場合、スレッドセーフ。
+     */
+    private static boolean isThreadSafe(final CsvEncoder encoder) {
+        final Class<?> encoderClass = encoder.getClass();
+        return encoderClass == DefaultCsvEncoder.class || encoderClass == SelectiveCsvEncoder.class;
+    }
+    
+    /**
+     * 並列処理を行うスレッドプールを取得します。
+     * @return 初期値は、{@link ForkJoinPool#commonPool()}です。
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+    
+    /**
+     * 並列処理を行うスレッドプールを設定します。
+     * <p>設定したスレッドプールは、{@link #close()}を呼び出しても終了しません。</p>
+     * @param executorService 並列処理を行うスレッドプール。
+     * @throws NullPointerException {@literal executorService is null.}
+     */
+    public void setExecutorService(final ExecutorService executorService) {
+        ArgUtils.notNull(executorService, "executorService");
+        this.executorService = executorService;
+    }
+    
+    /**
+     * 1チャンクあたりの件数を取得します。
+     * @return 初期値は、{@value #DEFAULT_CHUNK_SIZE}です。
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * 1チャンクあたりの件数を設定します。
+     * <p>1件あたりの処理が軽い場合は、大きな値を設定するとスレッドの切り替えのコストを抑えることができます。</p>
+     * @param chunkSize 1以上の値を設定します。
+     * @throws IllegalArgumentException {@literal chunkSize < 1.}
+     */
+    public void setChunkSize(final int chunkSize) {
+        ArgUtils.notMin(chunkSize, 1, "chunkSize");
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * 同時に処理するチャンクの最大数を取得します。
+     * @return 初期値は、利用可能なプロセッサ数の2倍です。
+     */
+    public int getMaxPendingChunks() {
+        return maxPendingChunks;
+    }
+    
+    /**
+     * 同時に処理するチャンクの最大数を設定します。
+     * <p>変換した文字列を保持する件数の上限は、{@literal チャンクサイズ × 最大数}となり、メモリの使用量を制限することができます。</p>
+     * @param maxPendingChunks 1以上の値を設定します。
+     * @throws IllegalArgumentException {@literal maxPendingChunks < 1.}
+     */
+    public void setMaxPendingChunks(final int maxPendingChunks) {
+        ArgUtils.notMin(maxPendingChunks, 1, "maxPendingChunks");
+        this.maxPendingChunks = maxPendingChunks;
+    }
+    
+    /**
+     * 1レコード分の処理結果と、変換したCSVの1行分の文字列。
+     */
+    private static class FormattedRow<T> {
+        
+        final RowResult<T> result;
+        
+        /**
+         * 改行コードを含む、CSVの1行分の文字列
+         */
+        String line;
+        
+        /**
+         * 値に含まれる改行により、増えた行数
+         */
+        int extraLineCount;
+        
+        FormattedRow(final RowResult<T> result) {
+            this.result = result;
+        }
+        
+        /**
+         * エラーがなく、書き込むことができるかどうか。
+         */
+        boolean isWritable() {
+            return result.processingException == null && result.exception == null && !result.bindingErrors.hasErrors();
+        }
+    }
+    
+}
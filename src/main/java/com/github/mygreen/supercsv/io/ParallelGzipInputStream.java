@@ -0,0 +1,399 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import com.github.mygreen.supercsv.util.ArgUtils;
+
+/**
+ * gzip形式のデータを、複数のスレッドで並列に展開して読み込む入力ストリーム。
+ * <p>{@link ParallelGzipOutputStream}で書き込んだ、メンバーのサイズを拡張フィールドに持つメンバーは、
+ *   メンバーごとに切り出して{@link ExecutorService}のスレッドで展開します。
+ *   <br>それ以外の形式のメンバーが現れた場合は、以降のデータを{@link GZIPInputStream}で順に展開します。
+ * </p>
+ * <p>ヘッダーのメンバーのサイズ、またはトレーラーの展開後のサイズが、
+ *   {@link ParallelGzipOutputStream#MAX_BLOCK_SIZE}を元にした上限を超える場合は、
+ *   メモリを確保する前に、不正なデータとして{@link ZipException}をスローします。
+ * </p>
+ * <p>スレッドセーフではありません。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelGzipInputStream extends InputStream {
+    
+    private final InputStream in;
+    
+    private final ExecutorService executorService;
+    
+    private final int maxPendingMembers;
+    
+    /**
+     * 展開中のメンバー。読み込む順に並んでいる。
+     */
+    private final LinkedList<CompletableFuture<byte[]>> pendingMembers = new LinkedList<>();
+    
+    /**
+     * 読み込み中の、展開済みのデータ
+     */
+    private byte[] current = new byte[0];
+    
+    private int position = 0;
+    
+    /**
+     * 読み込んだメンバーの数
+     */
+    private int memberCount = 0;
+    
+    /**
+     * 入力の終端に達したかどうか
+     */
+    private boolean inputFinished = false;
+    
+    /**
+     * 並列に展開できないメンバー以降を読み込むストリーム
+     */
+    private InputStream fallback;
+    
+    private boolean closed = false;
+    
+    /**
+     * 初期値の設定で、{@link ParallelGzipInputStream}を作成するコンストラクタ。
+     * <p>スレッドプールは{@link ForkJoinPool#commonPool()}、
+     *    同時に展開するメンバーの最大数は利用可能なプロセッサ数の2倍となります。
+     * </p>
+     *
+     * @param in 読み込むストリーム。
+     * @throws NullPointerException {@literal in is null.}
+     */
+    public ParallelGzipInputStream(final InputStream in) {
+        this(in, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * 2);
+    }
+    
+    /**
+     * 設定を指定して、{@link ParallelGzipInputStream}を作成するコンストラクタ。
+     *
+     * @param in 読み込むストリーム。
+     * @param executorService 展開を行うスレッドプール。{@link #close()}を呼び出しても終了しません。
+     * @param maxPendingMembers 同時に展開するメンバーの最大数。1以上の値を指定します。
+     * @throws NullPointerException {@literal in or executorService is null.}
+     * @throws IllegalArgumentException {@literal maxPendingMembers < 1.}
+     */
+    public ParallelGzipInputStream(final InputStream in, final ExecutorService executorService, final int maxPendingMembers) {
+        
+        Objects.requireNonNull(in, "in should not be null.");
+        ArgUtils.notNull(executorService, "executorService");
+        ArgUtils.notMin(maxPendingMembers, 1, "maxPendingMembers");
+        
+        this.in = new BufferedInputStream(in, 1 << 16);
+        this.executorService = executorService;
+        this.maxPendingMembers = maxPendingMembers;
+        
+    }
+    
+    /**
+     * ファイルの先頭のバイトを元に、gzip形式かどうか判定します。
+     *
+     * @param path 判定対象のファイルのパス。
+     * @return gzip形式の場合、trueを返します。
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     * @throws NullPointerException {@literal path is null.}
+     */
+    public static boolean isGzip(final Path path) throws IOException {
+        Objects.requireNonNull(path, "path should not be null.");
+        
+        try(InputStream in = Files.newInputStream(path)) {
+            return in.read() == 0x1f && in.read() == 0x8b;
+        }
+    }
+    
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        
+        if(position == current.length && !fill()) {
+            return fallback != null ? fallback.read() : -1;
+        }
+        
+        return current[position++] & 0xff;
+    }
+    
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        
+        if(off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        if(len == 0) {
+            return 0;
+        }
+        
+        if(position == current.length && !fill()) {
+            return fallback != null ? fallback.read(b, off, len) : -1;
+        }
+        
+        final int size = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, size);
+        position += size;
+        return size;
+    }
+    
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        
+        if(position < current.length) {
+            return current.length - position;
+        }
+        
+        return fallback != null && pendingMembers.isEmpty() ? fallback.available() : 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>スレッドプールは終了しません。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        
+        closed = true;
+        for(CompletableFuture<byte[]> future : pendingMembers) {
+            future.cancel(false);
+        }
+        pendingMembers.clear();
+        
+        if(fallback != null) {
+            fallback.close();
+        } else {
+            in.close();
+        }
+    }
+    
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+    
+    /**
+     * 次に読み込むメンバーの展開結果を取得します。
+     *
+     * @return 展開済みのメンバーがない場合は、falseを返します。
+     * @throws IOException メンバーの読み込みや展開に失敗した場合。
+     */
+    private boolean fill() throws IOException {
+        
+        while(true) {
+            while(!inputFinished && pendingMembers.size() < maxPendingMembers) {
+                readMember();
+            }
+            
+            if(pendingMembers.isEmpty()) {
+                return false;
+            }
+            
+            current = awaitMember(pendingMembers.removeFirst());
+            position = 0;
+            
+            // 空のメンバーは読み飛ばす
+            if(current.length > 0) {
+                return true;
+            }
+        }
+        
+    }
+    
+    /**
+     * メンバーを1つ読み込み、展開を依頼します。
+     *
+     * @throws IOException メンバーの読み込みに失敗した場合。
+     */
+    private void readMember() throws IOException {
+        
+        final byte[] header = new byte[ParallelGzipOutputStream.HEADER_SIZE];
+        final int headerSize = readFully(header, 0, header.length);
+        
+        if(headerSize == 0) {
+            if(memberCount == 0) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            inputFinished = true;
+            return;
+        }
+        
+        if(memberCount > 0 && (headerSize < 2 || (header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b)) {
+            // GZIPInputStreamと同様に、メンバーの後のデータは無視する
+            inputFinished = true;
+            return;
+        }
+        
+        final int memberSize = headerSize == header.length ? getMemberSize(header) : -1;
+        if(memberSize < 0) {
+            // 並列に展開できないため、以降は順に展開する
+            fallback = new GZIPInputStream(new SequenceInputStream(
+                    new ByteArrayInputStream(header, 0, headerSize), in), 1 << 16);
+            inputFinished = true;
+            return;
+        }
+        
+        if(memberSize > ParallelGzipOutputStream.MAX_MEMBER_SIZE) {
+            throw new ZipException(String.format("GZIP member size %d exceeds the maximum %d",
+                    memberSize, ParallelGzipOutputStream.MAX_MEMBER_SIZE));
+        }
+        
+        final byte[] member = Arrays.copyOf(header, memberSize);
+        if(readFully(member, header.length, memberSize - header.length) < memberSize - header.length) {
+            throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        
+        pendingMembers.addLast(CompletableFuture.supplyAsync(() -> inflateMember(member), executorService));
+        memberCount++;
+        
+    }
+    
+    /**
+     * ヘッダーの拡張フィールドから、メンバーのサイズを取得します。
+     *
+     * @param header メンバーのヘッダー。
+     * @return {@link ParallelGzipOutputStream}で書き込んだ形式でない場合は、-1を返します。
+     */
+    private static int getMemberSize(final byte[] header) {
+        
+        if((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || header[2] != 8 || header[3] != 0x04
+                || header[10] != 8 || header[11] != 0
+                || header[12] != ParallelGzipOutputStream.SUBFIELD_ID1 || header[13] != ParallelGzipOutputStream.SUBFIELD_ID2
+                || header[14] != 4 || header[15] != 0) {
+            return -1;
+        }
+        
+        final int size = readIntLE(header, 16);
+        if(size < ParallelGzipOutputStream.HEADER_SIZE + ParallelGzipOutputStream.TRAILER_SIZE) {
+            return -1;
+        }
+        
+        return size;
+    }
+    
+    private int readFully(final byte[] b, final int off, final int len) throws IOException {
+        
+        int total = 0;
+        while(total < len) {
+            final int size = in.read(b, off + total, len - total);
+            if(size < 0) {
+                break;
+            }
+            total += size;
+        }
+        
+        return total;
+    }
+    
+    private byte[] awaitMember(final CompletableFuture<byte[]> future) throws IOException {
+        
+        try {
+            return future.join();
+            
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException)e.getCause()).getCause();
+            } else if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+        
+    }
+    
+    /**
+     * メンバーを展開します。並列処理を行うスレッドで実行されます。
+     *
+     * @param member ヘッダーとトレーラーを含むメンバー。
+     * @return 展開したデータ。
+     * @throws UncheckedIOException データが壊れている場合。
+     */
+    static byte[] inflateMember(final byte[] member) {
+        
+        final int trailer = member.length - ParallelGzipOutputStream.TRAILER_SIZE;
+        final int expectedCrc = readIntLE(member, trailer);
+        final int length = readIntLE(member, trailer + 4);
+        if(length < 0 || length > ParallelGzipOutputStream.MAX_BLOCK_SIZE) {
+            throw new UncheckedIOException(new ZipException("Corrupt GZIP trailer"));
+        }
+        
+        final byte[] data = new byte[length];
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(member, ParallelGzipOutputStream.HEADER_SIZE, trailer - ParallelGzipOutputStream.HEADER_SIZE);
+            
+            int size = 0;
+            while(!inflater.finished()) {
+                if(size == length) {
+                    // 残りは終端のブロックのみのため、データが展開された場合はサイズが一致しない
+                    if(inflater.inflate(new byte[1]) > 0) {
+                        throw new ZipException("Corrupt GZIP trailer");
+                    }
+                } else {
+                    size += inflater.inflate(data, size, length - size);
+                }
+                
+                if(!inflater.finished() && inflater.needsInput()) {
+                    throw new ZipException("Unexpected end of ZLIB input stream");
+                }
+            }
+            
+            if(size != length) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            
+        } catch(DataFormatException e) {
+            throw new UncheckedIOException(new ZipException(e.getMessage()));
+            
+        } catch(ZipException e) {
+            throw new UncheckedIOException(e);
+            
+        } finally {
+            inflater.end();
+        }
+        
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        if((int)crc.getValue() != expectedCrc) {
+            throw new UncheckedIOException(new ZipException("Corrupt GZIP trailer"));
+        }
+        
+        return data;
+    }
+    
+    private static int readIntLE(final byte[] buf, final int offset) {
+        return (buf[offset] & 0xff)
+                | (buf[offset + 1] & 0xff) << 8
+                | (buf[offset + 2] & 0xff) << 16
+                | (buf[offset + 3] & 0xff) << 24;
+    }
+    
+}
@@ -0,0 +1,363 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.github.mygreen.supercsv.util.ArgUtils;
+
+/**
+ * gzip形式で、複数のスレッドで並列に圧縮して書き込む出力ストリーム。
+ * <p>書き込んだデータを一定のサイズのブロックに分割し、ブロックごとに独立したgzipのメンバーとして、
+ *   {@link ExecutorService}のスレッドで圧縮します。
+ *   <br>圧縮したメンバーは、書き込んだ順に出力します。複数のメンバーを連結した形式は、
+ *   {@link java.util.zip.GZIPInputStream}や gzip コマンドなど、通常のgzipの展開処理で読み込むことができます。
+ * </p>
+ * <p>各メンバーのヘッダーの拡張フィールドには、メンバーのサイズを格納します。
+ *   {@link ParallelGzipInputStream}は、このサイズを元にメンバーを切り出して、並列に展開します。
+ * </p>
+ * <p>{@link #flush()}は、圧縮が完了したメンバーのみを出力し、書き込み中のブロックは圧縮しません。
+ *    {@link java.util.zip.GZIPOutputStream}と同様に、全てのデータを出力するには{@link #close()}を呼び出す必要があります。
+ * </p>
+ * <p>スレッドセーフではありません。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    
+    /**
+     * ブロックのサイズの初期値。
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    
+    /**
+     * ブロックのサイズの最大値。
+     * <p>{@link ParallelGzipInputStream}は、これを超えるサイズのメンバーを不正なデータとして扱います。</p>
+     */
+    public static final int MAX_BLOCK_SIZE = 1 << 26;
+    
+    /**
+     * メンバーのヘッダーのサイズ。拡張フィールドを含みます。
+     */
+    static final int HEADER_SIZE = 20;
+    
+    /**
+     * メンバーのトレーラーのサイズ。
+     */
+    static final int TRAILER_SIZE = 8;
+    
+    /**
+     * メンバーのサイズの最大値。
+     * <p>圧縮できないデータの場合に、ブロックのサイズより大きくなる分（zlibのcompressBoundと同じ計算）を含みます。</p>
+     */
+    static final int MAX_MEMBER_SIZE = HEADER_SIZE
+            + MAX_BLOCK_SIZE + (MAX_BLOCK_SIZE >> 12) + (MAX_BLOCK_SIZE >> 14) + (MAX_BLOCK_SIZE >> 25) + 13
+            + TRAILER_SIZE;
+    
+    /**
+     * メンバーのサイズを格納する、拡張フィールドのサブフィールドのID。
+     */
+    static final byte SUBFIELD_ID1 = 'S';
+    
+    static final byte SUBFIELD_ID2 = 'C';
+    
+    private final OutputStream out;
+    
+    private final ExecutorService executorService;
+    
+    private final int blockSize;
+    
+    private final int level;
+    
+    private final int maxPendingBlocks;
+    
+    /**
+     * 圧縮中のメンバー。書き込む順に並んでいる。
+     */
+    private final LinkedList<CompletableFuture<byte[]>> pendingMembers = new LinkedList<>();
+    
+    /**
+     * 書き込み中のブロック
+     */
+    private byte[] block;
+    
+    private int count = 0;
+    
+    /**
+     * 出力したメンバーがあるかどうか
+     */
+    private boolean memberWritten = false;
+    
+    private boolean closed = false;
+    
+    /**
+     * 初期値の設定で、{@link ParallelGzipOutputStream}を作成するコンストラクタ。
+     * <p>スレッドプールは{@link ForkJoinPool#commonPool()}、ブロックのサイズは{@value #DEFAULT_BLOCK_SIZE}、
+     *    圧縮レベルは{@link Deflater#DEFAULT_COMPRESSION}、同時に圧縮するブロックの最大数は利用可能なプロセッサ数の2倍となります。
+     * </p>
+     *
+     * @param out 書き込み先のストリーム。
+     * @throws NullPointerException {@literal out is null.}
+     */
+    public ParallelGzipOutputStream(final OutputStream out) {
+        this(out, ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION,
+                Runtime.getRuntime().availableProcessors() * 2);
+    }
+    
+    /**
+     * 設定を指定して、{@link ParallelGzipOutputStream}を作成するコンストラクタ。
+     *
+     * @param out 書き込み先のストリーム。
+     * @param executorService 圧縮を行うスレッドプール。{@link #close()}を呼び出しても終了しません。
+     * @param blockSize ブロックのサイズ。1以上、{@value #MAX_BLOCK_SIZE}以下の値を指定します。
+     * @param level 圧縮レベル。{@link Deflater}の定数を指定します。
+     * @param maxPendingBlocks 同時に圧縮するブロックの最大数。1以上の値を指定します。
+     * @throws NullPointerException {@literal out or executorService is null.}
+     * @throws IllegalArgumentException {@literal blockSize < 1 or blockSize > MAX_BLOCK_SIZE or maxPendingBlocks < 1.}
+     */
+    public ParallelGzipOutputStream(final OutputStream out, final ExecutorService executorService,
+            final int blockSize, final int level, final int maxPendingBlocks) {
+                
+        Objects.requireNonNull(out, "out should not be null.");
+        ArgUtils.notNull(executorService, "executorService");
+        ArgUtils.notMin(blockSize, 1, "blockSize");
+        ArgUtils.notMax(blockSize, MAX_BLOCK_SIZE, "blockSize");
+        ArgUtils.notMin(maxPendingBlocks, 1, "maxPendingBlocks");
+        
+        this.out = out;
+        this.executorService = executorService;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxPendingBlocks = maxPendingBlocks;
+        this.block = new byte[blockSize];
+        
+    }
+    
+    /**
+     * ファイル名を元に、gzip形式で書き込むかどうか判定します。
+     *
+     * @param path 判定対象のファイルのパス。
+     * @return 拡張子が{@literal .gz}の場合、trueを返します。
+     * @throws NullPointerException {@literal path is null.}
+     */
+    public static boolean isGzipFileName(final Path path) {
+        Objects.requireNonNull(path, "path should not be null.");
+        
+        final Path fileName = path.getFileName();
+        return fileName != null && fileName.toString().toLowerCase().endsWith(".gz");
+    }
+    
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        
+        block[count++] = (byte)b;
+        if(count == blockSize) {
+            submitBlock();
+        }
+    }
+    
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        
+        if(off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        int offset = off;
+        final int end = off + len;
+        while(offset < end) {
+            final int size = Math.min(end - offset, blockSize - count);
+            System.arraycopy(b, offset, block, count, size);
+            count += size;
+            offset += size;
+            
+            if(count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>圧縮が完了したメンバーのみを出力します。書き込み中のブロックは出力しません。</p>
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        
+        while(!pendingMembers.isEmpty() && pendingMembers.getFirst().isDone()) {
+            writeMember(awaitMember(pendingMembers.removeFirst()));
+        }
+        
+        out.flush();
+    }
+    
+    /**
+     * 書き込み中のブロックを圧縮し、全てのメンバーを出力します。
+     * <p>書き込み先のストリームはクローズしません。</p>
+     *
+     * @throws IOException 書き込みに失敗した場合。
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        
+        // データがない場合も、空のメンバーを出力する
+        if(count > 0 || (!memberWritten && pendingMembers.isEmpty())) {
+            submitBlock();
+        }
+        
+        while(!pendingMembers.isEmpty()) {
+            writeMember(awaitMember(pendingMembers.removeFirst()));
+        }
+        
+        out.flush();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>スレッドプールは終了しません。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        
+        try {
+            finish();
+            
+        } finally {
+            closed = true;
+            for(CompletableFuture<byte[]> future : pendingMembers) {
+                future.cancel(false);
+            }
+            pendingMembers.clear();
+            out.close();
+        }
+    }
+    
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+    
+    /**
+     * 書き込み中のブロックの圧縮を依頼します。
+     * <p>圧縮中のブロックが上限に達した場合は、先頭のブロックの圧縮が完了するまで待ち、出力します。</p>
+     *
+     * @throws IOException 書き込みに失敗した場合。
+     */
+    private void submitBlock() throws IOException {
+        
+        final byte[] data = block;
+        final int length = count;
+        pendingMembers.addLast(CompletableFuture.supplyAsync(() -> compressMember(data, length, level), executorService));
+        
+        block = new byte[blockSize];
+        count = 0;
+        
+        while(pendingMembers.size() > maxPendingBlocks) {
+            writeMember(awaitMember(pendingMembers.removeFirst()));
+        }
+        
+    }
+    
+    private byte[] awaitMember(final CompletableFuture<byte[]> future) {
+        
+        try {
+            return future.join();
+            
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+        
+    }
+    
+    private void writeMember(final byte[] member) throws IOException {
+        out.write(member);
+        memberWritten = true;
+    }
+    
+    /**
+     * ブロックを、独立したgzipのメンバーに圧縮します。並列処理を行うスレッドで実行されます。
+     *
+     * @param data ブロックのデータ。
+     * @param length ブロックのデータのサイズ。
+     * @param level 圧縮レベル。
+     * @return ヘッダーとトレーラーを含むメンバー。
+     */
+    static byte[] compressMember(final byte[] data, final int length, final int level) {
+        
+        byte[] member = new byte[HEADER_SIZE + length + (length >> 3) + 64];
+        int size = HEADER_SIZE;
+        
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            
+            while(!deflater.finished()) {
+                if(size == member.length) {
+                    member = Arrays.copyOf(member, member.length * 2);
+                }
+                size += deflater.deflate(member, size, member.length - size);
+            }
+            
+        } finally {
+            deflater.end();
+        }
+        
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        
+        if(size + TRAILER_SIZE > member.length) {
+            member = Arrays.copyOf(member, size + TRAILER_SIZE);
+        }
+        writeIntLE(member, size, (int)crc.getValue());
+        writeIntLE(member, size + 4, length);
+        size += TRAILER_SIZE;
+        
+        // ヘッダー
+        member[0] = (byte)0x1f;
+        member[1] = (byte)0x8b;
+        member[2] = Deflater.DEFLATED;
+        member[3] = 0x04;           // FLG.FEXTRA
+        writeIntLE(member, 4, 0);   // MTIME
+        member[8] = 0;              // XFL
+        member[9] = (byte)0xff;     // OS : unknown
+        member[10] = 8;             // XLEN
+        member[11] = 0;
+        member[12] = SUBFIELD_ID1;
+        member[13] = SUBFIELD_ID2;
+        member[14] = 4;             // LEN
+        member[15] = 0;
+        writeIntLE(member, 16, size);
+        
+        return size == member.length ? member : Arrays.copyOf(member, size);
+    }
+    
+    private static void writeIntLE(final byte[] buf, final int offset, final int value) {
+        buf[offset] = (byte)value;
+        buf[offset + 1] = (byte)(value >>> 8);
+        buf[offset + 2] = (byte)(value >>> 16);
+        buf[offset + 3] = (byte)(value >>> 24);
+    }
+    
+}
@@ -0,0 +1,664 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.StatefulCellProcessor;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.util.ArgUtils;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+import com.github.mygreen.supercsv.validation.CsvErrorSink;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+import com.github.mygreen.supercsv.validation.CsvValidator;
+
+/**
+ * アノテーションを元に、レコードの値ごとに分けたCSVファイル（パーティション）に書き出すためのクラス。
+ * <p>レコードから取得したキー（例えば、地域のカラムの値）ごとに、別のファイルに書き込みます。
+ *   各パーティションは{@link RollingCsvAnnotationBeanWriter}で書き込むため、
+ *   最大件数や最大バイト数を設定した場合は、パーティションごとにファイルを分割します。
+ *   <br>ファイルのパスは、キーと、0から始まるパーティション内のファイルの番号を元に決定します。
+ * </p>
+ * <p>Beanのマッピング情報は、全てのパーティションで共有するため、パーティションごとに組み立て直しません。</p>
+ * <p>同時に開くファイルの数は、{@link #setMaxOpenFiles(int)}で制限します。
+ *   上限を超えた場合は、最も長く書き込んでいないパーティションのファイルを一時的に閉じ、
+ *   次にそのパーティションに書き込む際に、ファイルに追記します。
+ *   <br>各パーティションは、ファイルを開いている間、それぞれの{@link ChannelWriter}のバッファに溜めてから書き込みます。
+ * </p>
+ * <p>{@link #write(Object)}は、複数のスレッドから同時に呼び出すことができ、異なるパーティションへの書き込みは並列に行われます。
+ *   ただし、{@link StatefulCellProcessor}を実装している{@link CellProcessor}を含むカラム（例えば、{@literal @CsvUnique}）がある場合は、
+ *   処理結果がレコードの処理順序に依存するため、パーティションに関わらず1件ずつ書き込みます。
+ *   <br>{@link CsvValidator}やリスナークラスのインスタンスは、複数のスレッドから同時に呼ばれるため、スレッドセーフである必要があります。
+ *   <br>設定の変更と、{@link #close()}の呼び出しは、書き込みが全て終わった後に行う必要があります。
+ * </p>
+ *
+ * <pre class="highlight"><code class="java">
+ * PartitionedCsvAnnotationBeanWriter&lt;SampleCsv, String&gt; csvWriter = new PartitionedCsvAnnotationBeanWriter&lt;&gt;(
+ *         SampleCsv.class,
+ *         SampleCsv::getRegion,
+ *         (region, index) -&gt; Paths.get(String.format("sample_%s_%03d.csv", region, index)),
+ *         Charset.forName("Windows-31j"),
+ *         CsvPreference.STANDARD_PREFERENCE);
+ *
+ * csvWriter.writeAll(list.parallelStream(), false);
+ * csvWriter.close();
+ * </code></pre>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @param <K> パーティションのキーのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class PartitionedCsvAnnotationBeanWriter<T, K> implements Closeable, Flushable {
+    
+    /**
+     * 同時に開くファイルの最大数の初期値。
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 32;
+    
+    /**
+     * パーティションごとの、文字のバッファのサイズの初期値。
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+    
+    private final BeanMappingCache<T> beanMappingCache;
+    
+    /**
+     * レコードから、パーティションのキーを取得する処理。
+     */
+    private final Function<? super T, ? extends K> partitioner;
+    
+    /**
+     * パーティションのキーとファイルの番号から、ファイルのパスを決定する処理。
+     */
+    private final BiFunction<? super K, Integer, Path> pathResolver;
+    
+    private final Charset charset;
+    
+    private final CsvPreference preference;
+    
+    /**
+     * 全てのパーティション。作成した順に並んでいる。
+     */
+    private final Map<K, Partition<T>> partitions = new LinkedHashMap<>();
+    
+    /**
+     * ファイルを開いているパーティション。書き込んだ順に並んでいる。
+     * <p>{@link #partitions}のロックで保護する。</p>
+     */
+    private final Map<K, Partition<T>> openPartitions = new LinkedHashMap<>(16, 0.75f, true);
+    
+    /**
+     * 状態を持つCellProcessorがある場合に、1件ずつ書き込むためのロック。
+     */
+    private final Object statefulLock;
+    
+    /**
+     * 全てのパーティションで共有する、CellProcessorの処理の状態。
+     */
+    private final ProcessingSession session = new ProcessingSession();
+    
+    private int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+    
+    private long maxRowsPerFile = 0L;
+    
+    private long maxBytesPerFile = 0L;
+    
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    
+    private CsvExceptionConverter exceptionConverter = new CsvExceptionConverter();
+    
+    private CsvErrorSink errorSink;
+    
+    private final List<CsvValidator<T>> validators = new ArrayList<>();
+    
+    private volatile boolean closed = false;
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link PartitionedCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param partitioner レコードから、パーティションのキーを取得する処理。
+     * @param pathResolver パーティションのキーと、0から始まるファイルの番号から、ファイルのパスを決定する処理。
+     * @param charset ファイルの文字コード。
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or partitioner or pathResolver or charset or preferences are null.}
+     */
+    public PartitionedCsvAnnotationBeanWriter(final Class<T> beanType, final Function<? super T, ? extends K> partitioner,
+            final BiFunction<? super K, Integer, Path> pathResolver, final Charset charset, final CsvPreference preference,
+            final Class<?>... groups) {
+        this(BeanMappingCache.create(new BeanMappingFactory().create(
+                Objects.requireNonNull(beanType, "beanType should not be null."), groups)),
+                partitioner, pathResolver, charset, preference);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link PartitionedCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param partitioner レコードから、パーティションのキーを取得する処理。
+     * @param pathResolver パーティションのキーと、0から始まるファイルの番号から、ファイルのパスを決定する処理。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or partitioner or pathResolver or charset or preferences are null.}
+     */
+    public PartitionedCsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final Function<? super T, ? extends K> partitioner,
+            final BiFunction<? super K, Integer, Path> pathResolver, final Charset charset, final CsvPreference preference) {
+        this(BeanMappingCache.create(Objects.requireNonNull(beanMapping, "beanMapping should not be null.")),
+                partitioner, pathResolver, charset, preference);
+    }
+    
+    private PartitionedCsvAnnotationBeanWriter(final BeanMappingCache<T> beanMappingCache, final Function<? super T, ? extends K> partitioner,
+            final BiFunction<? super K, Integer, Path> pathResolver, final Charset charset, final CsvPreference preference) {
+                
+        Objects.requireNonNull(partitioner, "partitioner should not be null.");
+        Objects.requireNonNull(pathResolver, "pathResolver should not be null.");
+        Objects.requireNonNull(charset, "charset should not be null.");
+        Objects.requireNonNull(preference, "preference should not be null.");
+        
+        this.beanMappingCache = beanMappingCache;
+        this.partitioner = partitioner;
+        this.pathResolver = pathResolver;
+        this.charset = charset;
+        this.preference = preference;
+        this.statefulLock = hasStatefulColumn() ? new Object() : null;
+        this.validators.addAll(beanMappingCache.getOriginal().getValidators());
+        
+    }
+    
+    /**
+     * 状態を持つCellProcessorを含むカラムがあるかどうか。
+     */
+    private boolean hasStatefulColumn() {
+        for(CellProcessor processor : beanMappingCache.getCellProcessorsForWriting()) {
+            if(processor != null && CellProcessorUtils.isStateful(processor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * レコードを、キーに対応するパーティションに書き込みます。
+     * <p>複数のスレッドから同時に呼び出すことができます。</p>
+     *
+     * @param source 書き込むレコード。
+     * @throws NullPointerException source is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvException レコードの値に問題がある場合
+     */
+    public void write(final T source) throws IOException {
+        
+        Objects.requireNonNull(source, "the bean to write should not be null.");
+        
+        if(statefulLock != null) {
+            synchronized(statefulLock) {
+                writePartition(source);
+            }
+        } else {
+            writePartition(source);
+        }
+        
+        closeIdlePartitions();
+        
+    }
+    
+    private void writePartition(final T source) throws IOException {
+        
+        final K key = partitioner.apply(source);
+        
+        final Partition<T> partition;
+        synchronized(partitions) {
+            ensureOpen();
+            
+            Partition<T> found = partitions.get(key);
+            if(found == null) {
+                found = new Partition<>(createWriter(key));
+                partitions.put(key, found);
+            }
+            partition = found;
+            
+            // 書き込んだ順序を更新する
+            openPartitions.get(key);
+        }
+        
+        synchronized(partition) {
+            final boolean opening = !partition.writer.isFileOpen();
+            try {
+                partition.writer.write(source);
+                
+            } finally {
+                if(opening && partition.writer.isFileOpen()) {
+                    synchronized(partitions) {
+                        openPartitions.put(key, partition);
+                    }
+                }
+            }
+        }
+        
+    }
+    
+    private RollingCsvAnnotationBeanWriter<T> createWriter(final K key) {
+        
+        final RollingCsvAnnotationBeanWriter<T> writer = new RollingCsvAnnotationBeanWriter<>(beanMappingCache,
+                index -> pathResolver.apply(key, index), charset, preference);
+        writer.setMaxRowsPerFile(maxRowsPerFile);
+        writer.setMaxBytesPerFile(maxBytesPerFile);
+        writer.setBufferSize(bufferSize);
+        writer.setExceptionConverter(exceptionConverter);
+        writer.setSession(session);
+        if(errorSink != null) {
+            // 同時に呼び出さないように、パーティション間で排他制御する
+            final CsvErrorSink sink = errorSink;
+            writer.setErrorSink(error -> {
+                synchronized(sink) {
+                    sink.accept(error);
+                }
+            });
+        }
+        writer.getValidators().clear();
+        writer.getValidators().addAll(validators);
+        
+        return writer;
+    }
+    
+    /**
+     * 同時に開くファイルの最大数を超えている場合、最も長く書き込んでいないパーティションのファイルを閉じます。
+     * <p>複数のスレッドから書き込む場合、一時的に最大数を超えることがあります。</p>
+     */
+    private void closeIdlePartitions() throws IOException {
+        
+        while(true) {
+            final Partition<T> victim;
+            synchronized(partitions) {
+                if(openPartitions.size() <= maxOpenFiles) {
+                    return;
+                }
+                
+                final Iterator<Partition<T>> itr = openPartitions.values().iterator();
+                victim = itr.next();
+                itr.remove();
+            }
+            
+            synchronized(victim) {
+                victim.writer.suspend();
+            }
+        }
+        
+    }
+    
+    /**
+     * レコードのデータを全て書き込みます。
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     *
+     * @param sources 書き込むレコードのデータ。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public void writeAll(final Collection<T> sources) throws IOException {
+        writeAll(sources, false);
+    }
+    
+    /**
+     * レコードのデータを全て書き込みます。
+     *
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public void writeAll(final Collection<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
+        writeAll(sources.stream(), continueOnError);
+        
+    }
+    
+    /**
+     * ストリームのレコードのデータを全て書き込みます。
+     * <p>並列ストリームの場合は、複数のスレッドから書き込みます。
+     *    同じパーティション内のレコードの順序は、ストリームの処理順となります。
+     * </p>
+     * <p>ストリームはクローズしないため、呼び出し元でクローズする必要があります。</p>
+     *
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public void writeAll(final Stream<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
+        try {
+            sources.forEach(source -> {
+                try {
+                    write(source);
+                } catch(SuperCsvBindingException e) {
+                    if(!continueOnError) {
+                        throw e;
+                    }
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        flush();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>ファイルを開いている全てのパーティションをフラッシュします。</p>
+     */
+    @Override
+    public void flush() throws IOException {
+        for(Partition<T> partition : snapshotPartitions()) {
+            synchronized(partition) {
+                if(partition.writer.isFileOpen()) {
+                    partition.writer.flush();
+                }
+            }
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>全てのパーティションのファイルを閉じます。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        
+        final List<Partition<T>> targets;
+        synchronized(partitions) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            targets = new ArrayList<>(partitions.values());
+            openPartitions.clear();
+        }
+        
+        IOException error = null;
+        for(Partition<T> partition : targets) {
+            synchronized(partition) {
+                try {
+                    partition.writer.close();
+                } catch(IOException e) {
+                    if(error == null) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        
+        if(error != null) {
+            throw error;
+        }
+        
+    }
+    
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Writer closed");
+        }
+    }
+    
+    private List<Partition<T>> snapshotPartitions() {
+        synchronized(partitions) {
+            return new ArrayList<>(partitions.values());
+        }
+    }
+    
+    /**
+     * パーティションのキーを取得します。
+     * @return 作成した順に並んでいます。
+     */
+    public Set<K> getPartitionKeys() {
+        synchronized(partitions) {
+            return new LinkedHashSet<>(partitions.keySet());
+        }
+    }
+    
+    /**
+     * 作成したファイルのパスを取得します。
+     * @return パーティションを作成した順、パーティション内のファイルを作成した順に並んでいます。
+     */
+    public List<Path> getPaths() {
+        
+        final List<Path> paths = new ArrayList<>();
+        for(Partition<T> partition : snapshotPartitions()) {
+            synchronized(partition) {
+                paths.addAll(partition.writer.getPaths());
+            }
+        }
+        
+        return paths;
+    }
+    
+    /**
+     * ファイルを開いているパーティションの数を取得します。
+     * @return ファイルを開いているパーティションの数。
+     */
+    public int getOpenFileCount() {
+        synchronized(partitions) {
+            return openPartitions.size();
+        }
+    }
+    
+    /**
+     * Beanのマッピング情報を取得します。
+     * @return Beanのマッピング情報
+     */
+    public BeanMapping<T> getBeanMapping() {
+        return beanMappingCache.getOriginal();
+    }
+    
+    /**
+     * エラーメッセージを取得します。
+     * @return パーティションを作成した順に、処理中に発生した例外をメッセージに変換したもの。
+     */
+    public List<String> getErrorMessages() {
+        
+        final List<String> messages = new ArrayList<>();
+        for(Partition<T> partition : snapshotPartitions()) {
+            synchronized(partition) {
+                messages.addAll(partition.writer.getErrorMessages());
+            }
+        }
+        
+        return messages;
+    }
+    
+    /**
+     * 同時に開くファイルの最大数を取得します。
+     * @return 初期値は、{@value #DEFAULT_MAX_OPEN_FILES}です。
+     */
+    public int getMaxOpenFiles() {
+        return maxOpenFiles;
+    }
+    
+    /**
+     * 同時に開くファイルの最大数を設定します。
+     * @param maxOpenFiles 1以上の値を設定します。
+     * @throws IllegalArgumentException {@literal maxOpenFiles < 1.}
+     */
+    public void setMaxOpenFiles(final int maxOpenFiles) {
+        ArgUtils.notMin(maxOpenFiles, 1, "maxOpenFiles");
+        this.maxOpenFiles = maxOpenFiles;
+    }
+    
+    /**
+     * パーティション内の、ファイルごとの最大件数を取得します。
+     * @return 初期値は、0（制限しない）です。
+     */
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+    
+    /**
+     * パーティション内の、ファイルごとの最大件数を設定します。
+     * @param maxRowsPerFile 0以上の値を設定します。0の場合は、件数で分割しません。
+     * @throws IllegalArgumentException {@literal maxRowsPerFile < 0.}
+     * @see RollingCsvAnnotationBeanWriter#setMaxRowsPerFile(long)
+     */
+    public void setMaxRowsPerFile(final long maxRowsPerFile) {
+        ArgUtils.notMin(maxRowsPerFile, 0L, "maxRowsPerFile");
+        this.maxRowsPerFile = maxRowsPerFile;
+    }
+    
+    /**
+     * パーティション内の、ファイルごとの最大バイト数を取得します。
+     * @return 初期値は、0（制限しない）です。
+     */
+    public long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+    
+    /**
+     * パーティション内の、ファイルごとの最大バイト数を設定します。
+     * @param maxBytesPerFile 0以上の値を設定します。0の場合は、バイト数で分割しません。
+     * @throws IllegalArgumentException {@literal maxBytesPerFile < 0.}
+     * @see RollingCsvAnnotationBeanWriter#setMaxBytesPerFile(long)
+     */
+    public void setMaxBytesPerFile(final long maxBytesPerFile) {
+        ArgUtils.notMin(maxBytesPerFile, 0L, "maxBytesPerFile");
+        this.maxBytesPerFile = maxBytesPerFile;
+    }
+    
+    /**
+     * パーティションごとの、文字のバッファのサイズを取得します。
+     * @return 初期値は、{@value #DEFAULT_BUFFER_SIZE}です。
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    /**
+     * パーティションごとの、文字のバッファのサイズを設定します。
+     * <p>バイトのバッファは、この2倍のサイズとなります。</p>
+     * @param bufferSize 8以上の値を設定します。
+     * @throws IllegalArgumentException {@literal bufferSize < 8.}
+     */
+    public void setBufferSize(final int bufferSize) {
+        ArgUtils.notMin(bufferSize, 8, "bufferSize");
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * 処理中に発生した例外をメッセージに変換するクラスを取得します。
+     * @return 例外をメッセージに変換するクラス。
+     */
+    public CsvExceptionConverter getExceptionConverter() {
+        return exceptionConverter;
+    }
+    
+    /**
+     * 処理中に発生した例外をメッセージに変換するクラスを設定します。
+     * @param exceptionConverter 独自にカスタマイズした値を設定します。
+     */
+    public void setExceptionConverter(final CsvExceptionConverter exceptionConverter) {
+        this.exceptionConverter = exceptionConverter;
+    }
+    
+    /**
+     * エラーを受け取る処理を取得します。
+     * @return 設定されていない場合は、nullを返します。
+     */
+    public CsvErrorSink getErrorSink() {
+        return errorSink;
+    }
+    
+    /**
+     * エラーを受け取る処理を設定します。
+     * <p>複数のスレッドから書き込む場合も、同時に呼び出されることはありません。</p>
+     * @param errorSink エラーを受け取る処理。nullの場合は、解除します。
+     */
+    public void setErrorSink(final CsvErrorSink errorSink) {
+        this.errorSink = errorSink;
+    }
+    
+    /**
+     * レコード用の値を検証するValidatorを追加します。
+     * @param validators {@link CsvValidator}の実装クラスを設定します。
+     */
+    @SuppressWarnings("unchecked")
+    public void addValidator(CsvValidator<T>... validators) {
+        this.validators.addAll(Arrays.asList(validators));
+    }
+    
+    /**
+     * レコードの値を検証するValidatorを取得します。
+     * @return {@link CsvValidator}の実装クラス。
+     */
+    public List<CsvValidator<T>> getValidators() {
+        return validators;
+    }
+    
+    /**
+     * CellProcessorの処理の状態を取得します。
+     * <p>全てのパーティションで共有するため、重複チェックは全てのファイルを通して行います。</p>
+     * @return CellProcessorの処理の状態。
+     */
+    public ProcessingSession getSession() {
+        return session;
+    }
+    
+    /**
+     * パーティションごとの書き込み先。
+     * <p>このインスタンスを、パーティションに書き込む際のロックとして利用します。</p>
+     */
+    private static final class Partition<T> {
+        
+        private final RollingCsvAnnotationBeanWriter<T> writer;
+        
+        private Partition(final RollingCsvAnnotationBeanWriter<T> writer) {
+            this.writer = writer;
+        }
+        
+    }
+    
+}
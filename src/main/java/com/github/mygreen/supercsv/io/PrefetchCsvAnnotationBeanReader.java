@@ -0,0 +1,420 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.io.ITokenizer;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.cellprocessor.StatefulCellProcessor;
+import com.github.mygreen.supercsv.util.ArgUtils;
+
+/**
+ * アノテーションを元にCSVファイルを、別スレッドで先読みしながら読み込むためのクラス。
+ * <p>ファイルの読み込みと字句解析は、バックグラウンドのスレッドで行い、字句解析済みの行を一定の行数を上限とするバッファに格納します。
+ *   <br>CellProcessorの実行、Beanへのマッピング、入力値検証、コールバックメソッドの実行は、{@link #read()}を呼び出したスレッドで行います。
+ *   <br>読み込みが遅いストレージや、圧縮されたストリームから読み込む場合に、I/Oの待ち時間とBeanの組み立て処理を重ねることができます。
+ * </p>
+ * <p>{@link StatefulCellProcessor}を実装している{@link CellProcessor}を含むカラム（例えば、{@literal @CsvUnique}）は、
+ *   処理結果がレコードの処理順序に依存するため、字句解析を行うスレッドで出現順に処理されます。
+ * </p>
+ * <p>先読みは、ヘッダー行の読み込み後、最初にレコードを読み込む時点で開始します。
+ *   <br>{@link #getLineNumber()}などの現在の位置は、先読みしているスレッドの位置を返します。
+ *   レコードの位置は、{@link ReadResult#getLineNumber()}や例外の{@link org.supercsv.util.CsvContext}から取得してください。
+ * </p>
+ * <p>{@link #close()}を呼び出すと、先読みを中断してスレッドを終了します。</p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class PrefetchCsvAnnotationBeanReader<T> extends CsvAnnotationBeanReader<T> {
+    
+    /**
+     * 先読みする行数の上限の初期値。
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    
+    /**
+     * ファイルの終端に達したことを表す値。
+     */
+    private static final Object END_OF_FILE = new Object();
+    
+    /**
+     * 先読みするスレッドを作成する処理。
+     */
+    private ThreadFactory threadFactory = runnable -> {
+        final Thread thread = new Thread(runnable, "csv-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    };
+    
+    /**
+     * 先読みする行数の上限。
+     */
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    
+    /**
+     * 字句解析済みの行({@link TokenizedRow})、ファイルの終端({@link #END_OF_FILE})、または先読み中のエラー({@link Failure})。
+     */
+    private BlockingQueue<Object> buffer;
+    
+    /**
+     * 先読みするスレッド。
+     */
+    private Thread prefetchThread;
+    
+    /**
+     * ファイルの終端、またはエラーまで取り出したかどうか。
+     */
+    private boolean finished = false;
+    
+    /**
+     * 取り出した先読み中のエラー。以降の読み込みでも同じエラーをスローします。
+     */
+    private Failure failure;
+    
+    private volatile boolean closed = false;
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link PrefetchCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>{@link BufferedReader}にラップして実行されるため、ラップする必要はありません。</p>
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param reader the Reader。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or reader or preferences are null.}
+     */
+    public PrefetchCsvAnnotationBeanReader(final Class<T> beanType, final Reader reader, final CsvPreference preference,
+            final Class<?>... groups) {
+        super(beanType, reader, preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link PrefetchCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>{@link BufferedReader}にラップして実行されるため、ラップする必要はありません。</p>
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param reader the Reader。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or reader or preferences are null.}
+     */
+    public PrefetchCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final Reader reader, final CsvPreference preference) {
+        super(beanMapping, reader, preference);
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link PrefetchCsvAnnotationBeanReader}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param tokenizer the tokenizer.
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or tokenizer or preferences are null.}
+     */
+    public PrefetchCsvAnnotationBeanReader(final Class<T> beanType, final ITokenizer tokenizer, final CsvPreference preference,
+            final Class<?>... groups) {
+        super(beanType, tokenizer, preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link PrefetchCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param tokenizer the tokenizer.
+     * @param preferences the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or tokenizer or preferences are null.}
+     */
+    public PrefetchCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final ITokenizer tokenizer, final CsvPreference preferences) {
+        super(beanMapping, tokenizer, preferences);
+    }
+    
+    /**
+     * Beanのクラスタイプを指定して、CSVファイルのパスから{@link PrefetchCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanType or path or charset or preferences are null.}
+     */
+    public PrefetchCsvAnnotationBeanReader(final Class<T> beanType, final Path path, final Charset charset, final CsvPreference preference,
+            final Class<?>... groups) throws IOException {
+        this(beanType, MappedFileTokenizer.create(path, charset, preference), preference, groups);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、CSVファイルのパスから{@link PrefetchCsvAnnotationBeanReader}を作成するコンストラクタ。
+     * <p>文字コードと設定が対応している場合は、ファイルをメモリにマッピングして読み込む{@link MappedFileTokenizer}を利用します。
+     *    対応していない場合は、{@link org.supercsv.io.Tokenizer}を利用します。
+     * </p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param path CSVファイルのパス。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @throws IOException ファイルのオープンに失敗した場合。
+     * @throws NullPointerException {@literal if beanMapping or path or charset or preferences are null.}
+     */
+    public PrefetchCsvAnnotationBeanReader(final BeanMapping<T> beanMapping, final Path path, final Charset charset,
+            final CsvPreference preference) throws IOException {
+        this(beanMapping, MappedFileTokenizer.create(path, charset, preference), preference);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードは、先読みした字句解析済みの行から取り出して処理します。</p>
+     */
+    @Override
+    public T read() throws IOException {
+        
+        final TokenizedRow row = readTokenizedRow();
+        if(row == null) {
+            return null; // EOF
+        }
+        
+        return completeRow(processRow(row));
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードは、先読みした字句解析済みの行から取り出して処理します。</p>
+     * <p>再利用する設定の場合も、行ごとのオブジェクトは新たに作成されます。</p>
+     */
+    @Override
+    public ReadResult<T> readNext() throws IOException {
+        
+        final TokenizedRow row = readTokenizedRow();
+        if(row == null) {
+            return null; // EOF
+        }
+        
+        return completeRowResult(processRow(row));
+        
+    }
+    
+    /**
+     * 先読みした字句解析済みの行を取り出します。
+     * <p>初めて呼ばれたときに、先読みするスレッドを開始します。</p>
+     * <p>先読み中にエラーが発生した場合、そのエラーを取り出した以降の呼び出しでも、同じエラーをスローします。</p>
+     *
+     * @return 読み込む行がない場合は、nullを返します。
+     * @throws IOException 先読み中に、レコードの読み込みに失敗した場合。
+     */
+    @Override
+    TokenizedRow readTokenizedRow() throws IOException {
+        
+        if(closed) {
+            throw new IOException("reader has already been closed.");
+        }
+        
+        if(failure != null) {
+            throw failure.rethrow();
+        }
+        
+        if(finished) {
+            return null;
+        }
+        
+        if(prefetchThread == null) {
+            startPrefetch();
+        }
+        
+        final Object entry;
+        try {
+            entry = buffer.take();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for prefetched rows.");
+        }
+        
+        if(entry == END_OF_FILE) {
+            finished = true;
+            return null;
+        }
+        
+        if(entry instanceof Failure) {
+            finished = true;
+            failure = (Failure) entry;
+            throw failure.rethrow();
+        }
+        
+        return (TokenizedRow) entry;
+    }
+    
+    /**
+     * 先読みするスレッドを開始します。
+     */
+    private void startPrefetch() {
+        
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.prefetchThread = threadFactory.newThread(this::prefetch);
+        prefetchThread.start();
+    }
+    
+    /**
+     * ファイルの終端、またはエラーが発生するまで、字句解析済みの行をバッファに格納します。先読みするスレッドで実行されます。
+     */
+    private void prefetch() {
+        
+        try {
+            while(!closed) {
+                final TokenizedRow row = tokenizeRow();
+                if(row == null) {
+                    buffer.put(END_OF_FILE);
+                    return;
+                }
+                
+                buffer.put(row);
+            }
+            
+        } catch(InterruptedException e) {
+            // close()による中断
+            
+        } catch(Throwable e) {
+            if(closed) {
+                // close()による中断
+                return;
+            }
+            
+            try {
+                buffer.put(new Failure(e));
+            } catch(InterruptedException e2) {
+                // close()による中断
+            }
+        }
+        
+    }
+    
+    /**
+     * 次の行を読み込み、字句解析を行います。
+     */
+    private TokenizedRow tokenizeRow() throws IOException {
+        return super.readTokenizedRow();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>先読みを中断し、スレッドの終了を待ちます。先読みした行は破棄されます。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        
+        this.closed = true;
+        if(prefetchThread == null) {
+            super.close();
+            return;
+        }
+        
+        prefetchThread.interrupt();
+        buffer.clear();
+        
+        try {
+            // 読み込み中の場合に備えて、先にファイルを閉じる。
+            super.close();
+            
+        } finally {
+            boolean interrupted = false;
+            while(prefetchThread.isAlive()) {
+                try {
+                    prefetchThread.join();
+                } catch(InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            
+            if(interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+    }
+    
+    /**
+     * 先読みする行数の上限を取得します。
+     * @return 初期値は、{@value #DEFAULT_BUFFER_SIZE}です。
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    /**
+     * 先読みする行数の上限を設定します。
+     * <p>上限に達すると、先読みするスレッドは行が取り出されるまで待機するため、メモリの使用量を制限することができます。</p>
+     * <p>先読みを開始した後に変更しても反映されません。</p>
+     * @param bufferSize 1以上の値を設定します。
+     * @throws IllegalArgumentException {@literal bufferSize < 1.}
+     */
+    public void setBufferSize(final int bufferSize) {
+        ArgUtils.notMin(bufferSize, 1, "bufferSize");
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * 先読みするスレッドを作成する処理を取得します。
+     * @return 初期値は、デーモンスレッドを作成します。
+     */
+    public ThreadFactory getThreadFactory() {
+        return threadFactory;
+    }
+    
+    /**
+     * 先読みするスレッドを作成する処理を設定します。
+     * <p>先読みを開始した後に変更しても反映されません。</p>
+     * @param threadFactory 先読みするスレッドを作成する処理。
+     * @throws NullPointerException {@literal threadFactory is null.}
+     */
+    public void setThreadFactory(final ThreadFactory threadFactory) {
+        ArgUtils.notNull(threadFactory, "threadFactory");
+        this.threadFactory = threadFactory;
+    }
+    
+    /**
+     * 先読み中に発生したエラー。
+     */
+    private static class Failure {
+        
+        private final Throwable cause;
+        
+        Failure(final Throwable cause) {
+            this.cause = cause;
+        }
+        
+        /**
+         * エラーを、呼び出し元のスレッドでスローします。
+         * @return 検査例外の場合に、呼び出し元でスローする例外。
+         */
+        IOException rethrow() {
+            if(cause instanceof IOException) {
+                return (IOException) cause;
+            } else if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return new IOException(cause);
+        }
+        
+    }
+    
+}
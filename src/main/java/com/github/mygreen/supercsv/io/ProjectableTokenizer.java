@@ -0,0 +1,32 @@
+package com.github.mygreen.supercsv.io;
+
+import org.supercsv.io.ITokenizer;
+
+/**
+ * 読み込むカラムを限定して、字句解析を行うことができるインタフェース。
+ * <p>{@link com.github.mygreen.supercsv.annotation.CsvPartial}などで、一部のカラムのみをBeanにマッピングする場合、
+ *   マッピングしないカラムの値は文字列に変換せずに読み飛ばします。
+ *   <br>カラム数の検証のために、読み飛ばしたカラムもnullとして{@link #readColumns(java.util.List)}の結果に含めます。
+ * </p>
+ * <p>アノテーションを元にCSVファイルを読み込むクラスに、このインタフェースの実装を渡した場合、
+ *   ヘッダー行の読み込み後、Beanのマッピング情報を元に、読み込むカラムを設定します。
+ * </p>
+ *
+ * @see com.github.mygreen.supercsv.annotation.CsvPartial
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public interface ProjectableTokenizer extends ITokenizer {
+    
+    /**
+     * 読み込むカラムを設定します。
+     * <p>次に読み込む行から適用されます。</p>
+     *
+     * @param projection カラムのインデックス（0から始まる）に対応する、読み込むかどうかの値。
+     *        配列のサイズを超えるカラムは読み込みます。
+     *        nullの場合は、全てのカラムを読み込みます。
+     */
+    void setColumnProjection(boolean[] projection);
+    
+}
@@ -0,0 +1,88 @@
+package com.github.mygreen.supercsv.io;
+
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.validation.CsvBindingErrors;
+
+/**
+ * 1レコード分の読み込み結果。
+ * <p>{@link AbstractCsvAnnotationBeanReader#readNext()}で、レコードにエラーがある場合も例外をスローせずに返します。</p>
+ * <p>エラーがある場合、Beanは値の設定が途中のまま、またはカラム数が不正な場合はnullとなります。
+ *    エラーの有無は{@link #hasErrors()}で判定します。
+ * </p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ReadResult<T> {
+    
+    private final T bean;
+    
+    private final CsvBindingErrors bindingErrors;
+    
+    private final CsvContext context;
+    
+    /**
+     * 読み込み結果のインスタンスを作成します。
+     *
+     * @param bean 組み立てたBeanのインスタンス。
+     * @param bindingErrors レコードのエラー情報。
+     * @param context レコードのコンテキスト。
+     */
+    public ReadResult(final T bean, final CsvBindingErrors bindingErrors, final CsvContext context) {
+        this.bean = bean;
+        this.bindingErrors = bindingErrors;
+        this.context = context;
+    }
+    
+    /**
+     * 組み立てたBeanのインスタンスを取得します。
+     * @return カラム数が不正な場合はnullを返します。
+     */
+    public T getBean() {
+        return bean;
+    }
+    
+    /**
+     * レコードのエラー情報を取得します。
+     * @return エラーがない場合も、空のインスタンスを返します。
+     */
+    public CsvBindingErrors getBindingErrors() {
+        return bindingErrors;
+    }
+    
+    /**
+     * レコードのコンテキストを取得します。
+     * @return 行番号や、カラムの元の値を保持します。
+     */
+    public CsvContext getContext() {
+        return context;
+    }
+    
+    /**
+     * レコードにエラーがあるかどうか判定します。
+     * @return trueの場合、エラーがあります。
+     */
+    public boolean hasErrors() {
+        return bindingErrors.hasErrors();
+    }
+    
+    /**
+     * レコードの行番号を取得します。
+     * @return 複数行にわたるレコードの場合は、最後の行番号。
+     */
+    public int getLineNumber() {
+        return context.getLineNumber();
+    }
+    
+    /**
+     * レコードの番号を取得します。
+     * @return ヘッダー行を含めて、1から始まるレコードの番号。
+     */
+    public int getRowNumber() {
+        return context.getRowNumber();
+    }
+    
+}
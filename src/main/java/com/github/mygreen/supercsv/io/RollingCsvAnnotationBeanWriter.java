@@ -0,0 +1,595 @@
+package com.github.mygreen.supercsv.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.util.ArgUtils;
+import com.github.mygreen.supercsv.validation.CsvError;
+import com.github.mygreen.supercsv.validation.CsvErrorMessageList;
+import com.github.mygreen.supercsv.validation.CsvErrorSink;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+import com.github.mygreen.supercsv.validation.CsvValidator;
+
+/**
+ * アノテーションを元に、CSVファイルを一定の件数またはサイズごとに分割して書き出すためのクラス。
+ * <p>ファイルごとの最大件数（{@link #setMaxRowsPerFile(long)}）または最大バイト数（{@link #setMaxBytesPerFile(long)}）
+ *   に達した時点で、次のファイルに切り替えます。ファイルのパスは、0から始まるファイルの番号を元に決定します。
+ *   <br>ヘッダー行を書き込む設定の場合、各ファイルの先頭にヘッダー行を書き込みます。
+ * </p>
+ * <p>Beanのマッピング情報は、全てのファイルで共有するため、ファイルごとに組み立て直しません。</p>
+ * <p>ファイルは{@link ChannelWriter}を利用して書き込みます。
+ *   ファイルの拡張子が{@literal .gz}の場合は、{@link ParallelGzipOutputStream}で圧縮して書き込みます。
+ * </p>
+ * <p>エラーメッセージ中の行番号は、ファイルごとの行番号となります。</p>
+ * <p>スレッドセーフではありません。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * RollingCsvAnnotationBeanWriter&lt;SampleCsv&gt; csvWriter = new RollingCsvAnnotationBeanWriter&lt;&gt;(
+ *         SampleCsv.class,
+ *         index -&gt; Paths.get(String.format("sample_%03d.csv", index)),
+ *         Charset.forName("Windows-31j"),
+ *         CsvPreference.STANDARD_PREFERENCE);
+ * csvWriter.setMaxRowsPerFile(100_000);
+ *
+ * csvWriter.writeAll(list);
+ * csvWriter.close();
+ * </code></pre>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class RollingCsvAnnotationBeanWriter<T> implements Closeable, Flushable {
+    
+    private final BeanMappingCache<T> beanMappingCache;
+    
+    /**
+     * ファイルの番号から、ファイルのパスを決定する処理。
+     */
+    private final IntFunction<Path> pathResolver;
+    
+    private final Charset charset;
+    
+    private final CsvPreference preference;
+    
+    /**
+     * ファイルごとの最大件数。0の場合は制限しない。
+     */
+    private long maxRowsPerFile = 0L;
+    
+    /**
+     * ファイルごとの最大バイト数。0の場合は制限しない。
+     */
+    private long maxBytesPerFile = 0L;
+    
+    /**
+     * ファイルごとの、文字のバッファのサイズ。
+     */
+    private int bufferSize = ChannelWriter.DEFAULT_CHAR_BUFFER_SIZE;
+    
+    private CsvExceptionConverter exceptionConverter = new CsvExceptionConverter();
+    
+    private CsvErrorSink errorSink;
+    
+    private final List<CsvValidator<T>> validators = new ArrayList<>();
+    
+    /**
+     * 分割した全てのファイルで共有する、CellProcessorの処理の状態。
+     */
+    private ProcessingSession session = new ProcessingSession();
+    
+    /**
+     * 作成したファイルのパス
+     */
+    private final List<Path> paths = new ArrayList<>();
+    
+    /**
+     * 全てのファイルで発生したエラーメッセージ。
+     * <p>各ファイルの書き込み処理では保持せず、{@link #acceptError(CsvError)}を経由して、フォーマット前のまま追加します。</p>
+     */
+    private final CsvErrorMessageList errorMessages = new CsvErrorMessageList();
+    
+    /**
+     * 書き込み中のファイルの番号。ファイルを作成していない場合は-1。
+     */
+    private int fileIndex = -1;
+    
+    /**
+     * 書き込み中のファイルに書き込んだレコードの件数。
+     */
+    private long rowsInFile = 0L;
+    
+    /**
+     * 書き込み中のファイルを、一時的に閉じるまでに書き込んだバイト数。
+     */
+    private long bytesBeforeOpen = 0L;
+    
+    private ChannelWriter channelWriter;
+    
+    private ChannelCsvAnnotationBeanWriter<T> writer;
+    
+    private boolean closed = false;
+    
+    /**
+     * Beanのクラスタイプを指定して、{@link RollingCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanType Beanのクラスタイプ。
+     * @param pathResolver 0から始まるファイルの番号から、ファイルのパスを決定する処理。
+     * @param charset ファイルの文字コード。
+     * @param preference CSV preferences.
+     * @param groups グループ情報。適用するアノテーションを切り替える際に指定します。
+     * @throws NullPointerException {@literal if beanType or pathResolver or charset or preferences are null.}
+     */
+    public RollingCsvAnnotationBeanWriter(final Class<T> beanType, final IntFunction<Path> pathResolver, final Charset charset,
+            final CsvPreference preference, final Class<?>... groups) {
+        this(BeanMappingCache.create(new BeanMappingFactory().create(
+                Objects.requireNonNull(beanType, "beanType should not be null."), groups)),
+                pathResolver, charset, preference);
+    }
+    
+    /**
+     * Beanのマッピング情報を指定して、{@link RollingCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     * <p>Beanのマッピング情報を独自にカスタマイズして、{@link BeanMappingFactory}から作成する場合に利用します。</p>
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param pathResolver 0から始まるファイルの番号から、ファイルのパスを決定する処理。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     * @throws NullPointerException {@literal if beanMapping or pathResolver or charset or preferences are null.}
+     */
+    public RollingCsvAnnotationBeanWriter(final BeanMapping<T> beanMapping, final IntFunction<Path> pathResolver, final Charset charset,
+            final CsvPreference preference) {
+        this(BeanMappingCache.create(Objects.requireNonNull(beanMapping, "beanMapping should not be null.")),
+                pathResolver, charset, preference);
+    }
+    
+    /**
+     * Beanのマッピング情報のキャッシュを指定して、{@link RollingCsvAnnotationBeanWriter}を作成するコンストラクタ。
+     *
+     * @param beanMappingCache Beanのマッピング情報のキャッシュ。
+     * @param pathResolver 0から始まるファイルの番号から、ファイルのパスを決定する処理。
+     * @param charset ファイルの文字コード。
+     * @param preference the CSV preferences.
+     */
+    RollingCsvAnnotationBeanWriter(final BeanMappingCache<T> beanMappingCache, final IntFunction<Path> pathResolver, final Charset charset,
+            final CsvPreference preference) {
+                
+        Objects.requireNonNull(pathResolver, "pathResolver should not be null.");
+        Objects.requireNonNull(charset, "charset should not be null.");
+        Objects.requireNonNull(preference, "preference should not be null.");
+        
+        this.beanMappingCache = beanMappingCache;
+        this.pathResolver = pathResolver;
+        this.charset = charset;
+        this.preference = preference;
+        this.validators.addAll(beanMappingCache.getOriginal().getValidators());
+        
+    }
+    
+    /**
+     * レコードを書き込みます。
+     * <p>書き込み中のファイルが最大件数または最大バイト数に達している場合は、次のファイルを作成して書き込みます。</p>
+     *
+     * @param source 書き込むレコード。
+     * @throws NullPointerException source is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvException レコードの値に問題がある場合
+     */
+    public void write(final T source) throws IOException {
+        
+        Objects.requireNonNull(source, "the bean to write should not be null.");
+        ensureOpen();
+        
+        if(fileIndex < 0 || isLimitReached()) {
+            rollFile();
+            
+        } else if(writer == null) {
+            // 一時的に閉じたファイルに追記する
+            openFile(paths.get(paths.size() - 1), true);
+        }
+        
+        writer.write(source);
+        rowsInFile++;
+        
+    }
+    
+    /**
+     * レコードのデータを全て書き込みます。
+     * <p>レコード処理中に例外が発生した場合、その時点で処理を終了します。</p>
+     *
+     * @param sources 書き込むレコードのデータ。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public void writeAll(final Collection<T> sources) throws IOException {
+        writeAll(sources, false);
+    }
+    
+    /**
+     * レコードのデータを全て書き込みます。
+     *
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public void writeAll(final Collection<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
+        writeAll(sources.iterator(), continueOnError);
+        
+    }
+    
+    /**
+     * レコードのデータを、1件ずつ取り出しながら全て書き込みます。
+     *
+     * @param sources 書き込むレコードのデータ。
+     * @param continueOnError continueOnError レコードの処理中に、
+     *        例外{@link SuperCsvBindingException}が発生しても、続行するかどうか指定します。
+     *        trueの場合、例外が発生しても、次の処理を行います。
+     * @throws NullPointerException sources is null.
+     * @throws IOException レコードの出力に失敗した場合。
+     * @throws SuperCsvBindingException セルの値に問題がある場合
+     * @throws SuperCsvException 設定など、その他に問題がある場合
+     */
+    public void writeAll(final Iterator<T> sources, final boolean continueOnError) throws IOException {
+        
+        Objects.requireNonNull(sources, "sources should not be null.");
+        
+        while(sources.hasNext()) {
+            try {
+                write(sources.next());
+            } catch(SuperCsvBindingException e) {
+                if(!continueOnError) {
+                    throw e;
+                }
+            }
+        }
+        
+        flush();
+        
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        
+        if(writer != null) {
+            writer.flush();
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>レコードを1件も書き込んでいない場合は、ヘッダー行のみのファイルを作成します。</p>
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        
+        try {
+            if(fileIndex < 0) {
+                rollFile();
+            }
+            closeFile();
+            
+        } finally {
+            closed = true;
+        }
+    }
+    
+    /**
+     * 書き込み中のファイルを一時的に閉じます。
+     * <p>次にレコードを書き込む際に、同じファイルに追記します。</p>
+     *
+     * @throws IOException ファイルのクローズに失敗した場合。
+     */
+    void suspend() throws IOException {
+        if(!closed) {
+            closeFile();
+        }
+    }
+    
+    /**
+     * 書き込み中のファイルを開いているかどうか。
+     * @return 開いている場合は、trueを返します。
+     */
+    boolean isFileOpen() {
+        return writer != null;
+    }
+    
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Writer closed");
+        }
+    }
+    
+    private boolean isLimitReached() throws IOException {
+        
+        if(maxRowsPerFile > 0L && rowsInFile >= maxRowsPerFile) {
+            return true;
+        }
+        
+        if(maxBytesPerFile > 0L) {
+            final long bytes = bytesBeforeOpen + (channelWriter != null ? channelWriter.getByteCount() : 0L);
+            return bytes >= maxBytesPerFile;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * 次のファイルを作成し、ヘッダー行を書き込みます。
+     */
+    private void rollFile() throws IOException {
+        
+        closeFile();
+        
+        final Path path = pathResolver.apply(fileIndex + 1);
+        Objects.requireNonNull(path, "resolved path should not be null.");
+        
+        openFile(path, false);
+        fileIndex++;
+        paths.add(path);
+        rowsInFile = 0L;
+        bytesBeforeOpen = 0L;
+        
+        if(beanMappingCache.getOriginal().isHeader()) {
+            writer.writeHeader();
+        }
+        
+    }
+    
+    private void openFile(final Path path, final boolean append) throws IOException {
+        
+        channelWriter = CsvAnnotationBeanWriter.newWriter(path, charset, bufferSize, append);
+        writer = new ChannelCsvAnnotationBeanWriter<>(beanMappingCache, channelWriter, preference);
+        writer.setExceptionConverter(exceptionConverter);
+        writer.setErrorSink(this::acceptError);
+        writer.setMaxErrorMessages(0);
+        writer.setSession(session);
+        writer.getValidators().clear();
+        writer.getValidators().addAll(validators);
+        
+    }
+    
+    private void closeFile() throws IOException {
+        
+        if(writer == null) {
+            return;
+        }
+        
+        try {
+            bytesBeforeOpen += channelWriter.getByteCount();
+            writer.close();
+            
+        } finally {
+            writer = null;
+            channelWriter = null;
+        }
+        
+    }
+    
+    /**
+     * 各ファイルの書き込み処理で発生したエラーを受け取ります。
+     * @param error 発生したエラー。
+     */
+    private void acceptError(final CsvError error) {
+        if(errorSink != null) {
+            errorSink.accept(error);
+        }
+        errorMessages.addError(error, exceptionConverter);
+    }
+    
+    /**
+     * 作成したファイルのパスを取得します。
+     * @return 作成した順に並んでいます。
+     */
+    public List<Path> getPaths() {
+        return Collections.unmodifiableList(new ArrayList<>(paths));
+    }
+    
+    /**
+     * Beanのマッピング情報を取得します。
+     * @return Beanのマッピング情報
+     */
+    public BeanMapping<T> getBeanMapping() {
+        return beanMappingCache.getOriginal();
+    }
+    
+    /**
+     * エラーメッセージを取得します。
+     * <p>メッセージは、参照する時点でフォーマットされます。</p>
+     * @return 全てのファイルで、処理中に発生した例外をメッセージに変換したもの。変更できないビューです。
+     */
+    public List<String> getErrorMessages() {
+        return Collections.unmodifiableList(errorMessages);
+    }
+    
+    /**
+     * エラーメッセージを保持する件数の上限を取得します。
+     * @return 初期値は、{@value CsvErrorMessageList#UNLIMITED}（上限なし）です。
+     */
+    public int getMaxErrorMessages() {
+        return errorMessages.getMaxSize();
+    }
+    
+    /**
+     * エラーメッセージを保持する件数の上限を設定します。
+     * <p>上限は、全てのファイルを通した件数です。
+     *    上限を超えたエラーは破棄され、その件数は{@link #getDroppedErrorCount()}で取得できます。
+     * </p>
+     * @param maxErrorMessages 0以上の値、または上限を設けない場合は{@value CsvErrorMessageList#UNLIMITED}を設定します。
+     * @throws IllegalArgumentException {@literal maxErrorMessages < -1.}
+     */
+    public void setMaxErrorMessages(final int maxErrorMessages) {
+        errorMessages.setMaxSize(maxErrorMessages);
+    }
+    
+    /**
+     * 上限を超えたために破棄したエラーの件数を取得します。
+     * @return 全てのファイルで、破棄したエラーの件数。
+     */
+    public long getDroppedErrorCount() {
+        return errorMessages.getDroppedCount();
+    }
+    
+    /**
+     * ファイルごとの最大件数を取得します。
+     * @return 初期値は、0（制限しない）です。
+     */
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+    
+    /**
+     * ファイルごとの最大件数を設定します。
+     * <p>件数には、ヘッダー行を含みません。</p>
+     * @param maxRowsPerFile 0以上の値を設定します。0の場合は、件数で分割しません。
+     * @throws IllegalArgumentException {@literal maxRowsPerFile < 0.}
+     */
+    public void setMaxRowsPerFile(final long maxRowsPerFile) {
+        ArgUtils.notMin(maxRowsPerFile, 0L, "maxRowsPerFile");
+        this.maxRowsPerFile = maxRowsPerFile;
+    }
+    
+    /**
+     * ファイルごとの最大バイト数を取得します。
+     * @return 初期値は、0（制限しない）です。
+     */
+    public long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+    
+    /**
+     * ファイルごとの最大バイト数を設定します。
+     * <p>レコードを書き込む前に、文字コードで変換した後（圧縮する場合は、圧縮前）のバイト数を判定するため、
+     *    ファイルのサイズは、最大で1レコード分だけ設定値を超えます。
+     * </p>
+     * @param maxBytesPerFile 0以上の値を設定します。0の場合は、バイト数で分割しません。
+     * @throws IllegalArgumentException {@literal maxBytesPerFile < 0.}
+     */
+    public void setMaxBytesPerFile(final long maxBytesPerFile) {
+        ArgUtils.notMin(maxBytesPerFile, 0L, "maxBytesPerFile");
+        this.maxBytesPerFile = maxBytesPerFile;
+    }
+    
+    /**
+     * ファイルごとの、文字のバッファのサイズを取得します。
+     * @return 初期値は、{@value ChannelWriter#DEFAULT_CHAR_BUFFER_SIZE}です。
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    /**
+     * ファイルごとの、文字のバッファのサイズを設定します。
+     * <p>次に開くファイルから適用されます。バイトのバッファは、この2倍のサイズとなります。</p>
+     * @param bufferSize 8以上の値を設定します。
+     * @throws IllegalArgumentException {@literal bufferSize < 8.}
+     */
+    public void setBufferSize(final int bufferSize) {
+        ArgUtils.notMin(bufferSize, 8, "bufferSize");
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * 処理中に発生した例外をメッセージに変換するクラスを取得します。
+     * @return 例外をメッセージに変換するクラス。
+     */
+    public CsvExceptionConverter getExceptionConverter() {
+        return exceptionConverter;
+    }
+    
+    /**
+     * 処理中に発生した例外をメッセージに変換するクラスを設定します。
+     * <p>次に開くファイルから適用されます。</p>
+     * @param exceptionConverter 独自にカスタマイズした値を設定します。
+     */
+    public void setExceptionConverter(final CsvExceptionConverter exceptionConverter) {
+        this.exceptionConverter = exceptionConverter;
+    }
+    
+    /**
+     * エラーを受け取る処理を取得します。
+     * @return 設定されていない場合は、nullを返します。
+     */
+    public CsvErrorSink getErrorSink() {
+        return errorSink;
+    }
+    
+    /**
+     * エラーを受け取る処理を設定します。
+     * <p>次に開くファイルから適用されます。</p>
+     * @param errorSink エラーを受け取る処理。nullの場合は、解除します。
+     */
+    public void setErrorSink(final CsvErrorSink errorSink) {
+        this.errorSink = errorSink;
+    }
+    
+    /**
+     * レコード用の値を検証するValidatorを追加します。
+     * <p>次に開くファイルから適用されます。</p>
+     * @param validators {@link CsvValidator}の実装クラスを設定します。
+     */
+    @SuppressWarnings("unchecked")
+    public void addValidator(CsvValidator<T>... validators) {
+        this.validators.addAll(Arrays.asList(validators));
+    }
+    
+    /**
+     * レコードの値を検証するValidatorを取得します。
+     * @return {@link CsvValidator}の実装クラス。
+     */
+    public List<CsvValidator<T>> getValidators() {
+        return validators;
+    }
+    
+    /**
+     * CellProcessorの処理の状態を取得します。
+     * <p>分割した全てのファイルで共有するため、重複チェックは全てのファイルを通して行います。</p>
+     * @return CellProcessorの処理の状態。
+     */
+    public ProcessingSession getSession() {
+        return session;
+    }
+    
+    /**
+     * CellProcessorの処理の状態を設定します。
+     * <p>次に開くファイルから適用されます。</p>
+     * @param session CellProcessorの処理の状態。
+     * @throws NullPointerException {@literal session is null.}
+     */
+    public void setSession(final ProcessingSession session) {
+        this.session = Objects.requireNonNull(session, "session should not be null.");
+    }
+    
+}
@@ -0,0 +1,111 @@
+package com.github.mygreen.supercsv.io;
+
+import java.util.List;
+
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+
+/**
+ * 入力値検証を行わずに書き込む場合の、レコードの変換処理。
+ * <p>{@link BeanMapping#isSkipValidationOnWrite()}が{@literal true}で、
+ *   書き込み時のコールバックメソッドがない場合に、{@link BeanMapping}ごとに事前に組み立てます。
+ *   <br>レコードごとに行う処理は、Beanの値の取得と、書き込み用のCellProcessorによるフォーマットのみとなり、
+ *   エラー情報を格納するオブジェクトは作成しません。
+ * </p>
+ * <p>フォーマットに失敗した場合は、{@link #format(Object, CsvContext, List)}の戻り値で通知するため、
+ *   呼び出し元で通常の書き込み処理をやり直して、エラー情報を作成します。
+ * </p>
+ *
+ * @param <T> マッピング対象のBeanのクラスタイプ
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class TrustedWritePlan<T> {
+    
+    private final BeanPropertyBinder<T> propertyBinder;
+    
+    /**
+     * カラムごとに、Beanの値を取得するかどうか。
+     */
+    private final boolean[] mapped;
+    
+    private final CellProcessor[] processors;
+    
+    private TrustedWritePlan(final BeanPropertyBinder<T> propertyBinder, final CellProcessor[] processors) {
+        this.propertyBinder = propertyBinder;
+        this.processors = processors;
+        
+        final String[] nameMapping = propertyBinder.getNameMapping();
+        this.mapped = new boolean[nameMapping.length];
+        for(int i=0; i < nameMapping.length; i++) {
+            mapped[i] = (nameMapping[i] != null);
+        }
+    }
+    
+    /**
+     * Beanのマッピング情報を元に、インスタンスを作成します。
+     *
+     * @param beanMapping Beanのマッピング情報。
+     * @param propertyBinder Beanの値を取得する処理。
+     * @param processors 書き込み用のCellProcessor。
+     * @return 入力値検証を行う場合や、コールバックメソッドがある場合など、適用できない場合はnullを返します。
+     */
+    public static <T> TrustedWritePlan<T> create(final BeanMapping<T> beanMapping, final BeanPropertyBinder<T> propertyBinder,
+            final CellProcessor[] processors) {
+        
+        if(!beanMapping.isSkipValidationOnWrite()) {
+            return null;
+        }
+        
+        // コールバックメソッドは、エラー情報を受け取るため対象外とする。
+        if(!beanMapping.getPreWriteMethods().isEmpty() || !beanMapping.getPostWriteMethods().isEmpty()) {
+            return null;
+        }
+        
+        for(CellProcessor processor : processors) {
+            if(processor != null && CellProcessorUtils.isStateful(processor)) {
+                return null;
+            }
+        }
+        
+        return new TrustedWritePlan<>(propertyBinder, processors);
+    }
+    
+    /**
+     * Beanの値を取得して、書き込み用のCellProcessorでフォーマットします。
+     *
+     * @param source 書き込むレコード。
+     * @param context CellProcessorに渡すコンテキスト。カラム番号は、このメソッド内で更新されます。
+     * @param destination フォーマットした値の格納先。
+     * @return フォーマットに失敗した場合は、falseを返します。
+     */
+    public boolean format(final T source, final CsvContext context, final List<Object> destination) {
+        
+        destination.clear();
+        
+        try {
+            for(int i=0; i < mapped.length; i++) {
+                final Object value = mapped[i] ? propertyBinder.getValue(source, i) : null;
+                
+                final CellProcessor processor = processors[i];
+                if(processor == null) {
+                    destination.add(value);
+                } else {
+                    context.setColumnNumber(i + 1);
+                    destination.add(processor.execute(value, context));
+                }
+            }
+            
+        } catch(SuperCsvException e) {
+            return false;
+        }
+        
+        return true;
+    }
+    
+}
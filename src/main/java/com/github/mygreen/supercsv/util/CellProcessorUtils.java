@@ -0,0 +1,204 @@
+package com.github.mygreen.supercsv.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.supercsv.cellprocessor.CellProcessorAdaptor;
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.exception.SuperCsvReflectionException;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.cellprocessor.FusedCellProcessor;
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionScopedCellProcessor;
+import com.github.mygreen.supercsv.cellprocessor.StatefulCellProcessor;
+
+/**
+ * {@link CellProcessor}のChainを扱うためのユーティリティクラス。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CellProcessorUtils {
+    
+    /**
+     * Chainの終端を表す{@link CellProcessorAdaptor}の内部クラスの名称。
+     */
+    private static final String NULL_OBJECT_CLASS_NAME = CellProcessorAdaptor.class.getName() + "$NullObjectPattern";
+    
+    /**
+     * {@link CellProcessorAdaptor}のフィールド'next'。
+     * <p>外部から参照する手段が提供されていないため、リフレクションでアクセスする。</p>
+     */
+    private static final Field FIELD_NEXT;
+    static {
+        try {
+            FIELD_NEXT = CellProcessorAdaptor.class.getDeclaredField("next");
+            FIELD_NEXT.setAccessible(true);
+        } catch (NoSuchFieldException | SecurityException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    /**
+     * {@link FusibleCellProcessor}の実装クラスごとの、まとめることができるかどうかの判定結果。
+     */
+    private static final ClassValue<Boolean> FUSIBLE_TYPES = new ClassValue<Boolean>() {
+        
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            
+            if(!FusibleCellProcessor.class.isAssignableFrom(type)) {
+                return false;
+            }
+            
+            /*
+             * 処理を上書きした派生クラスの場合、まとめると上書きした処理が実行されなくなるため、
+             * execute()とexecuteStep()が同じクラスで定義されている場合のみ対象とする。
+             */
+            try {
+                final Method execute = type.getMethod("execute", Object.class, CsvContext.class);
+                final Method executeStep = type.getMethod("executeStep", Object.class, CsvContext.class);
+                return execute.getDeclaringClass().equals(executeStep.getDeclaringClass());
+                
+            } catch(NoSuchMethodException | SecurityException e) {
+                return false;
+            }
+        }
+    };
+    
+    /**
+     * Chainで次に実行される{@link CellProcessor}を取得する。
+     * @param processor 取得対象の{@link CellProcessor}。
+     * @return 次の{@link CellProcessor}が存在しない場合や、{@link CellProcessorAdaptor}を継承していない場合はnullを返す。
+     * @throws SuperCsvReflectionException フィールドの値の取得に失敗した場合。
+     */
+    public static CellProcessor getNext(final CellProcessor processor) {
+        
+        if(!(processor instanceof CellProcessorAdaptor)) {
+            return null;
+        }
+        
+        final CellProcessor next;
+        try {
+            next = (CellProcessor) FIELD_NEXT.get(processor);
+        } catch (IllegalArgumentException | IllegalAccessException e) {
+            throw new SuperCsvReflectionException("fail get field value of CellProcessorAdaptor#next.", e);
+        }
+        
+        // Chainの終端は、NullObjectPatternによるインスタンス
+        if(next == null || next.getClass().getName().equals(NULL_OBJECT_CLASS_NAME)) {
+            return null;
+        }
+        
+        return next;
+        
+    }
+    
+    /**
+     * Chainを構成する{@link CellProcessor}を、実行される順に一覧として取得する。
+     * @param processor Chainの先頭の{@link CellProcessor}。
+     * @return 引数がnullの場合は、空のリストを返す。
+     */
+    public static List<CellProcessor> toList(final CellProcessor processor) {
+        
+        final List<CellProcessor> list = new ArrayList<>();
+        
+        CellProcessor current = processor;
+        while(current != null) {
+            list.add(current);
+            current = getNext(current);
+        }
+        
+        return list;
+    }
+    
+    /**
+     * Chainの先頭から連続する{@link FusibleCellProcessor}を、1つの{@link FusedCellProcessor}にまとめる。
+     * <p>連続する処理の直後が{@link FusedCellProcessor}の場合は、その処理も含めてまとめる。
+     *   <br>まとめる処理が2つ未満の場合は、そのまま返す。
+     * </p>
+     * <p>Chainを構成する{@link CellProcessor}のインスタンスは変更せず、先頭部分のみを新たに作成する。
+     *   そのため、{@link com.github.mygreen.supercsv.builder.ProcessorBuilder}がChainを先頭に向かって組み立てる過程で、
+     *   処理を追加するたびに呼び出すことで、Chain全体をまとめることができる。
+     * </p>
+     * @param processor Chainの先頭の{@link CellProcessor}。
+     * @return まとめた結果のChainの先頭。
+     */
+    public static CellProcessor fuse(final CellProcessor processor) {
+        
+        final List<FusibleCellProcessor> fused = new ArrayList<>();
+        
+        CellProcessor current = processor;
+        while(current != null && FUSIBLE_TYPES.get(current.getClass())) {
+            fused.add((FusibleCellProcessor) current);
+            current = getNext(current);
+        }
+        
+        if(current instanceof FusedCellProcessor && !fused.isEmpty()) {
+            fused.addAll(((FusedCellProcessor) current).getProcessors());
+            current = getNext(current);
+            
+        } else if(fused.size() < 2) {
+            return processor;
+        }
+        
+        return current == null ? new FusedCellProcessor(fused) : new FusedCellProcessor(fused, current);
+        
+    }
+    
+    /**
+     * Chainの中に、条件に一致する{@link CellProcessor}が含まれるか判定する。
+     * @param processor Chainの先頭の{@link CellProcessor}。
+     * @param predicate 判定条件。
+     * @return {@literal true}の場合、条件に一致する{@link CellProcessor}が含まれる。
+     */
+    public static boolean anyMatch(final CellProcessor processor, final Predicate<CellProcessor> predicate) {
+        
+        CellProcessor current = processor;
+        while(current != null) {
+            if(predicate.test(current)) {
+                return true;
+            }
+            current = getNext(current);
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Chainの中に、状態を持つ{@link CellProcessor}が含まれるか判定する。
+     * <p>{@link StatefulCellProcessor}を実装しているか、Super CSVの重複チェック用のクラスが対象となる。</p>
+     * @param processor Chainの先頭の{@link CellProcessor}。
+     * @return {@literal true}の場合、状態を持つ{@link CellProcessor}が含まれる。
+     */
+    public static boolean isStateful(final CellProcessor processor) {
+        
+        return anyMatch(processor, p -> p instanceof StatefulCellProcessor
+                || p instanceof org.supercsv.cellprocessor.constraint.Unique
+                || p instanceof org.supercsv.cellprocessor.constraint.UniqueHashCode);
+                
+    }
+    
+    /**
+     * Chainの中に、状態を自身のインスタンスに保持する{@link CellProcessor}が含まれるか判定する。
+     * <p>状態を{@link ProcessingSession}に保持する{@link SessionScopedCellProcessor}は対象外となる。
+     *    このメソッドが{@literal false}を返すChainは、複数のReader/Writerで共有することができる。
+     * </p>
+     * @param processor Chainの先頭の{@link CellProcessor}。
+     * @return {@literal true}の場合、状態を自身のインスタンスに保持する{@link CellProcessor}が含まれる。
+     */
+    public static boolean hasInstanceState(final CellProcessor processor) {
+        
+        return anyMatch(processor, p -> (p instanceof StatefulCellProcessor && !(p instanceof SessionScopedCellProcessor))
+                || p instanceof org.supercsv.cellprocessor.constraint.Unique
+                || p instanceof org.supercsv.cellprocessor.constraint.UniqueHashCode);
+                
+    }
+    
+}
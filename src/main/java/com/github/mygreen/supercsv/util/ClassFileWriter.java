@@ -0,0 +1,325 @@
+package com.github.mygreen.supercsv.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 実行時に生成するクラスの、クラスファイル（Java 8形式）を組み立てるクラス。
+ * <p>定数プールの管理と、フィールドやメソッドの出力を行います。メソッドのバイトコードは、呼び出し元で組み立てます。
+ *   <br>分岐を含まないメソッドのみを対象とするため、StackMapTable属性は出力しません。
+ * </p>
+ * <p>ライブラリ内部で利用するクラスです。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public final class ClassFileWriter {
+    
+    /**
+     * 出力するクラスファイルのバージョン（Java 8）。
+     */
+    public static final int CLASS_VERSION = 52;
+    
+    public static final int ACC_PUBLIC = 0x0001;
+    
+    public static final int ACC_PRIVATE = 0x0002;
+    
+    public static final int ACC_FINAL = 0x0010;
+    
+    public static final int ACC_SUPER = 0x0020;
+    
+    public static final int ACC_SYNTHETIC = 0x1000;
+    
+    private static final int CONSTANT_UTF8 = 1;
+    
+    private static final int CONSTANT_CLASS = 7;
+    
+    private static final int CONSTANT_FIELDREF = 9;
+    
+    private static final int CONSTANT_METHODREF = 10;
+    
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    
+    private final Map<String, Integer> poolIndexes = new HashMap<>();
+    
+    private int poolCount = 1;
+    
+    private final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+    
+    private final DataOutputStream fields = new DataOutputStream(fieldBytes);
+    
+    private int fieldCount = 0;
+    
+    private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+    
+    private final DataOutputStream methods = new DataOutputStream(methodBytes);
+    
+    private int methodCount = 0;
+    
+    /**
+     * 定数プールのUTF8情報を追加します。
+     * @param value 文字列。
+     * @return 定数プールのインデックス。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public int utf8(final String value) throws IOException {
+        
+        final String key = "U:" + value;
+        final Integer index = poolIndexes.get(key);
+        if(index != null) {
+            return index;
+        }
+        
+        pool.writeByte(CONSTANT_UTF8);
+        pool.writeUTF(value);
+        return register(key);
+    }
+    
+    /**
+     * 定数プールのクラス情報を追加します。
+     * @param internalName クラスの内部形式の名称。
+     * @return 定数プールのインデックス。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public int classInfo(final String internalName) throws IOException {
+        return reference("C:" + internalName, CONSTANT_CLASS, utf8(internalName));
+    }
+    
+    /**
+     * 定数プールのフィールドの参照情報を追加します。
+     * @param owner フィールドを定義するクラスの内部形式の名称。
+     * @param name フィールド名。
+     * @param descriptor フィールドの記述子。
+     * @return 定数プールのインデックス。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public int fieldRef(final String owner, final String name, final String descriptor) throws IOException {
+        return reference("F:" + owner + "." + name + ":" + descriptor, CONSTANT_FIELDREF,
+                classInfo(owner), nameAndType(name, descriptor));
+    }
+    
+    /**
+     * 定数プールのクラスのメソッドの参照情報を追加します。
+     * @param owner メソッドを定義するクラスの内部形式の名称。
+     * @param name メソッド名。
+     * @param descriptor メソッドの記述子。
+     * @return 定数プールのインデックス。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public int methodRef(final String owner, final String name, final String descriptor) throws IOException {
+        return reference("M:" + owner + "." + name + descriptor, CONSTANT_METHODREF,
+                classInfo(owner), nameAndType(name, descriptor));
+    }
+    
+    /**
+     * 定数プールのインタフェースのメソッドの参照情報を追加します。
+     * @param owner メソッドを定義するインタフェースの内部形式の名称。
+     * @param name メソッド名。
+     * @param descriptor メソッドの記述子。
+     * @return 定数プールのインデックス。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public int interfaceMethodRef(final String owner, final String name, final String descriptor) throws IOException {
+        return reference("I:" + owner + "." + name + descriptor, CONSTANT_INTERFACE_METHODREF,
+                classInfo(owner), nameAndType(name, descriptor));
+    }
+    
+    private int nameAndType(final String name, final String descriptor) throws IOException {
+        return reference("N:" + name + ":" + descriptor, CONSTANT_NAME_AND_TYPE, utf8(name), utf8(descriptor));
+    }
+    
+    private int reference(final String key, final int tag, final int... values) throws IOException {
+        
+        final Integer index = poolIndexes.get(key);
+        if(index != null) {
+            return index;
+        }
+        
+        pool.writeByte(tag);
+        for(int value : values) {
+            pool.writeShort(value);
+        }
+        return register(key);
+    }
+    
+    private int register(final String key) {
+        final int index = poolCount++;
+        poolIndexes.put(key, index);
+        return index;
+    }
+    
+    /**
+     * フィールドを追加します。
+     * @param access アクセス修飾子のフラグ。
+     * @param name フィールド名。
+     * @param descriptor フィールドの記述子。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public void addField(final int access, final String name, final String descriptor) throws IOException {
+        
+        fields.writeShort(access);
+        fields.writeShort(utf8(name));
+        fields.writeShort(utf8(descriptor));
+        fields.writeShort(0); // attributes
+        fieldCount++;
+    }
+    
+    /**
+     * メソッドを追加します。
+     * @param access アクセス修飾子のフラグ。
+     * @param name メソッド名。
+     * @param descriptor メソッドの記述子。
+     * @param maxStack オペランドスタックの最大の深さ。
+     * @param maxLocals ローカル変数のスロット数。
+     * @param code メソッドのバイトコード。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public void addMethod(final int access, final String name, final String descriptor, final int maxStack, final int maxLocals,
+            final byte[] code) throws IOException {
+        
+        methods.writeShort(access);
+        methods.writeShort(utf8(name));
+        methods.writeShort(utf8(descriptor));
+        
+        // Code属性
+        methods.writeShort(1);
+        methods.writeShort(utf8("Code"));
+        methods.writeInt(2 + 2 + 4 + code.length + 2 + 2);
+        methods.writeShort(maxStack);
+        methods.writeShort(maxLocals);
+        methods.writeInt(code.length);
+        methods.write(code);
+        methods.writeShort(0); // exception_table
+        methods.writeShort(0); // attributes
+        methodCount++;
+    }
+    
+    /**
+     * クラスファイルを組み立てます。
+     * @param access クラスのアクセス修飾子のフラグ。
+     * @param className 生成するクラスの内部形式の名称。
+     * @param superName 親クラスの内部形式の名称。
+     * @param interfaceNames 実装するインタフェースの内部形式の名称。
+     * @return クラスファイルのバイト列。
+     * @throws IOException 出力に失敗した場合。
+     */
+    public byte[] toByteArray(final int access, final String className, final String superName,
+            final String... interfaceNames) throws IOException {
+        
+        final int thisClass = classInfo(className);
+        final int superClass = classInfo(superName);
+        final int[] interfaces = new int[interfaceNames.length];
+        for(int i=0; i < interfaces.length; i++) {
+            interfaces[i] = classInfo(interfaceNames[i]);
+        }
+        
+        pool.flush();
+        fields.flush();
+        methods.flush();
+        
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(result);
+        
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_VERSION);
+        
+        out.writeShort(poolCount);
+        poolBytes.writeTo(out);
+        
+        out.writeShort(access);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(interfaces.length);
+        for(int index : interfaces) {
+            out.writeShort(index);
+        }
+        
+        out.writeShort(fieldCount);
+        fieldBytes.writeTo(out);
+        
+        out.writeShort(methodCount);
+        methodBytes.writeTo(out);
+        
+        out.writeShort(0); // attributes
+        out.flush();
+        
+        return result.toByteArray();
+    }
+    
+    /**
+     * クラスの内部形式の名称を取得します。
+     * @param className クラスの名称。
+     * @return パッケージの区切りを{@literal /}にした名称。
+     */
+    public static String internalName(final String className) {
+        return className.replace('.', '/');
+    }
+    
+    /**
+     * クラスの内部形式の名称を取得します。
+     * @param type クラスタイプ。
+     * @return パッケージの区切りを{@literal /}にした名称。
+     */
+    public static String internalName(final Class<?> type) {
+        return internalName(type.getName());
+    }
+    
+    /**
+     * フィールドの記述子を取得します。
+     * @param type フィールドのクラスタイプ。
+     * @return 記述子。
+     */
+    public static String descriptor(final Class<?> type) {
+        
+        if(type == void.class) {
+            return "V";
+        } else if(type == int.class) {
+            return "I";
+        } else if(type == long.class) {
+            return "J";
+        } else if(type == boolean.class) {
+            return "Z";
+        } else if(type == byte.class) {
+            return "B";
+        } else if(type == char.class) {
+            return "C";
+        } else if(type == short.class) {
+            return "S";
+        } else if(type == float.class) {
+            return "F";
+        } else if(type == double.class) {
+            return "D";
+        } else if(type.isArray()) {
+            return internalName(type);
+        }
+        
+        return "L" + internalName(type) + ";";
+    }
+    
+    /**
+     * メソッドの記述子を取得します。
+     * @param returnType 戻り値のクラスタイプ。
+     * @param paramTypes 引数のクラスタイプ。
+     * @return 記述子。
+     */
+    public static String methodDescriptor(final Class<?> returnType, final Class<?>... paramTypes) {
+        
+        final StringBuilder descriptor = new StringBuilder("(");
+        for(Class<?> paramType : paramTypes) {
+            descriptor.append(descriptor(paramType));
+        }
+        return descriptor.append(')').append(descriptor(returnType)).toString();
+    }
+    
+}
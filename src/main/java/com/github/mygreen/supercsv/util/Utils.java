@@ -17,7 +17,7 @@ import com.github.mygreen.supercsv.builder.BuildCase;
 /**
  * ユーティリティクラス。
  * 
- * @version 2.0
+ * @version 2.2
  * @author T.TSUCHIE
  *
  */
@@ -256,6 +256,52 @@ public class Utils {
         
     }
     
+    /**
+     * プリミティブ型の場合、対応するラッパークラスを取得する。
+     * @since 2.2
+     * @param type クラスタイプ。
+     * @return 非プリミティブ型の場合は、引数の値をそのまま返す。
+     * @throws NullPointerException type is null.
+     */
+    public static Class<?> getWrapperClass(final Class<?> type) {
+        
+        Objects.requireNonNull(type, "type should not be null.");
+        
+        if(!type.isPrimitive()) {
+            return type;
+            
+        } else if(boolean.class.equals(type)) {
+            return Boolean.class;
+            
+        } else if(char.class.equals(type)) {
+            return Character.class;
+            
+        } else if(byte.class.equals(type)) {
+            return Byte.class;
+            
+        } else if(short.class.equals(type)) {
+            return Short.class;
+            
+        } else if(int.class.equals(type)) {
+            return Integer.class;
+            
+        } else if(long.class.equals(type)) {
+            return Long.class;
+            
+        } else if(float.class.equals(type)) {
+            return Float.class;
+            
+        } else if(double.class.equals(type)) {
+            return Double.class;
+            
+        } else if(void.class.equals(type)) {
+            return Void.class;
+        }
+        
+        return type;
+        
+    }
+    
     /**
      * 文字列配列の結合
      * @param array1
@@ -310,6 +356,24 @@ public class Utils {
         
     }
     
+    /**
+     * 先頭の文字を大文字にする。
+     * @since 2.2
+     * @param str
+     * @return 引数がnull、空文字の場合、そのまま返す。
+     */
+    public static String capitalize(final String str) {
+        final int strLen;
+        if(str == null || (strLen = str.length()) == 0) {
+            return str;
+        }
+        
+        return new StringBuilder(strLen)
+            .append(String.valueOf(str.charAt(0)).toUpperCase())
+            .append(str.substring(1))
+            .toString();
+    }
+    
     /**
      * 先頭の文字を小文字にする。
      * @param str
@@ -15,6 +15,7 @@ import com.github.mygreen.supercsv.util.ArgUtils;
  * <p>SpringFrameworkのBindingResultを参考。</p>
  * <p>現状、ネストしたフィールドはサポートしていないため、パスの機能を省略して実装する。</p>
  *
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
@@ -233,7 +234,7 @@ public class CsvBindingErrors implements Serializable {
      * @return true:エラーがある場合。
      */
     public boolean hasFieldErrors(final String path) {
-        return !getFieldErrors(path).isEmpty();
+        return getFirstFieldError(path) != null;
     }
     
     /**
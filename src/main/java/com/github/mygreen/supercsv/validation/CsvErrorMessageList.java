@@ -0,0 +1,196 @@
+package com.github.mygreen.supercsv.validation;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.github.mygreen.supercsv.util.ArgUtils;
+
+/**
+ * レコードの読み書き時に発生したエラーメッセージの一覧。
+ * <p>エラーは、{@link #get(int)}などでメッセージが必要になった時点でフォーマットされます。
+ *    大量のエラーが発生しても、参照されないメッセージのフォーマットのコストはかかりません。
+ * </p>
+ * <p>保持する件数の上限を設定すると、上限を超えたエラーは破棄され、その件数のみを保持します。</p>
+ * <p>このクラスはスレッドセーフではありません。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CsvErrorMessageList extends AbstractList<String> {
+    
+    /**
+     * 保持する件数に上限を設けない場合の値。
+     */
+    public static final int UNLIMITED = -1;
+    
+    /**
+     * フォーマット済みのメッセージ({@link String})、またはフォーマット前のエラー({@link DeferredMessage})。
+     */
+    private final List<Object> entries = new ArrayList<>();
+    
+    private int maxSize = UNLIMITED;
+    
+    private long droppedCount;
+    
+    /**
+     * フォーマット前のエラーを追加します。
+     * <p>上限に達している場合は、破棄した件数のみを加算します。</p>
+     *
+     * @param error 追加するエラー。
+     * @param exceptionConverter メッセージにフォーマットする際に利用する、メッセージの解決処理などを保持するクラス。
+     * @return 追加した場合は、trueを返します。
+     * @throws NullPointerException {@literal error or exceptionConverter is null.}
+     */
+    public boolean addError(final CsvError error, final CsvExceptionConverter exceptionConverter) {
+        
+        Objects.requireNonNull(error, "error should not be null.");
+        Objects.requireNonNull(exceptionConverter, "exceptionConverter should not be null.");
+        
+        if(isFull()) {
+            droppedCount++;
+            return false;
+        }
+        
+        entries.add(new DeferredMessage(error, exceptionConverter));
+        modCount++;
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>上限に達している場合は、破棄した件数のみを加算し、falseを返します。</p>
+     */
+    @Override
+    public boolean add(final String message) {
+        
+        if(isFull()) {
+            droppedCount++;
+            return false;
+        }
+        
+        add(entries.size(), message);
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>上限に達している場合は、破棄した件数のみを加算します。</p>
+     */
+    @Override
+    public void add(final int index, final String message) {
+        
+        if(isFull()) {
+            droppedCount++;
+            return;
+        }
+        
+        entries.add(index, message);
+        modCount++;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>フォーマット前のエラーの場合は、この時点でフォーマットし、結果を保持します。</p>
+     */
+    @Override
+    public String get(final int index) {
+        
+        final Object entry = entries.get(index);
+        if(entry instanceof DeferredMessage) {
+            return ((DeferredMessage) entry).getMessage();
+        }
+        
+        return (String) entry;
+    }
+    
+    @Override
+    public String set(final int index, final String message) {
+        final String old = get(index);
+        entries.set(index, message);
+        return old;
+    }
+    
+    @Override
+    public String remove(final int index) {
+        final String old = get(index);
+        entries.remove(index);
+        modCount++;
+        return old;
+    }
+    
+    @Override
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>破棄した件数も初期化します。</p>
+     */
+    @Override
+    public void clear() {
+        entries.clear();
+        droppedCount = 0L;
+        modCount++;
+    }
+    
+    private boolean isFull() {
+        return maxSize != UNLIMITED && entries.size() >= maxSize;
+    }
+    
+    /**
+     * 保持する件数の上限を取得します。
+     * @return 初期値は、{@value #UNLIMITED}（上限なし）です。
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    /**
+     * 保持する件数の上限を設定します。
+     * <p>既に保持しているメッセージは破棄しません。</p>
+     * @param maxSize 0以上の値、または上限を設けない場合は{@value #UNLIMITED}を設定します。
+     * @throws IllegalArgumentException {@literal maxSize < -1.}
+     */
+    public void setMaxSize(final int maxSize) {
+        ArgUtils.notMin(maxSize, UNLIMITED, "maxSize");
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * 上限を超えたために破棄した件数を取得します。
+     * @return 破棄した件数。
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+    
+    /**
+     * フォーマット前のエラー。
+     */
+    private static class DeferredMessage {
+        
+        private final CsvError error;
+        
+        private final CsvExceptionConverter exceptionConverter;
+        
+        private String message;
+        
+        DeferredMessage(final CsvError error, final CsvExceptionConverter exceptionConverter) {
+            this.error = error;
+            this.exceptionConverter = exceptionConverter;
+        }
+        
+        String getMessage() {
+            if(message == null) {
+                message = error.format(exceptionConverter.getMessageResolver(), exceptionConverter.getMessageInterpolator());
+            }
+            return message;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,25 @@
+package com.github.mygreen.supercsv.validation;
+
+/**
+ * レコードの読み書き時に発生したエラーを受け取るインタフェース。
+ * <p>エラーは、メッセージにフォーマットされる前に渡されます。
+ *    エラーをログやファイルに出力する場合など、エラーメッセージの一覧とは別に処理する場合に利用します。
+ * </p>
+ * <p>エラーメッセージの一覧の保持件数の上限を超えて、破棄されるエラーも渡されます。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+@FunctionalInterface
+public interface CsvErrorSink {
+    
+    /**
+     * エラーを受け取ります。
+     * <p>並列に読み込む場合も、同時に呼び出されることはありません。ただし、呼び出し元のスレッドは一定ではありません。</p>
+     *
+     * @param error 発生したエラー。
+     */
+    void accept(CsvError error);
+    
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.validation.ConstraintViolation;
@@ -112,7 +113,8 @@ public class CsvBeanValidator implements CsvValidator<Object> {
             final String errorCode = cd.getAnnotation().annotationType().getSimpleName();
             final Map<String, Object> errorVars = createVariableForConstraint(cd);
             
-            if(isCsvField(field, validationContext)) {
+            final Optional<ColumnMapping> csvColumn = validationContext.getBeanMapping().getColumnMapping(field);
+            if(csvColumn.isPresent()) {
                 // フィールドエラーの場合
                 
                 final CsvFieldError fieldError = bindingErrors.getFirstFieldError(field);
@@ -121,7 +123,7 @@ public class CsvBeanValidator implements CsvValidator<Object> {
                     continue;
                 }
                 
-                final ColumnMapping columnMapping = validationContext.getBeanMapping().getColumnMapping(field).get();
+                final ColumnMapping columnMapping = csvColumn.get();
                 
                 errorVars.put("lineNumber", validationContext.getCsvContext().getLineNumber());
                 errorVars.put("rowNumber", validationContext.getCsvContext().getRowNumber());
@@ -148,10 +150,6 @@ public class CsvBeanValidator implements CsvValidator<Object> {
         
     }
     
-    private boolean isCsvField(final String field, final ValidationContext<Object> validationContext) {
-        return validationContext.getBeanMapping().getColumnMapping(field).isPresent();
-    }
-    
     /**
      * BeanValidationのアノテーションの値を元に、メッセージ変数を作成する。
      * @param descriptor
@@ -0,0 +1,209 @@
+package com.github.mygreen.supercsv.apt;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.builder.GeneratedBeanMetadata;
+import com.github.mygreen.supercsv.io.CsvAnnotationBeanReader;
+import com.github.mygreen.supercsv.io.CsvAnnotationBeanWriter;
+
+/**
+ * {@link CsvBeanMetadataProcessor}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CsvBeanMetadataProcessorTest {
+    
+    private static final String SOURCE = String.join("\n",
+            "package sample.apt;",
+            "",
+            "import com.github.mygreen.supercsv.annotation.*;",
+            "",
+            "@CsvBean(header=true)",
+            "public class AptBean {",
+            "    @CsvColumn(number=1) private int id;",
+            "    @CsvColumn(number=2) private String name;",
+            "    @CsvColumn(number=3) private boolean enabled;",
+            "    private int postReadCount;",
+            "    public int getId() { return id; }",
+            "    public void setId(int id) { this.id = id; }",
+            "    public String getName() { return name; }",
+            "    public void setName(String name) { this.name = name; }",
+            "    public boolean isEnabled() { return enabled; }",
+            "    public void setEnabled(boolean enabled) { this.enabled = enabled; }",
+            "    public int getPostReadCount() { return postReadCount; }",
+            "    @CsvPostRead public void postRead() { postReadCount++; }",
+            "    @CsvBean",
+            "    public static class Nested {",
+            "        @CsvColumn(number=1) private String value;",
+            "        public String getValue() { return value; }",
+            "    }",
+            "    @CsvBean",
+            "    private static class Hidden {",
+            "        @CsvColumn(number=1) private String value;",
+            "    }",
+            "}",
+            "");
+            
+    private static Path outputDir;
+    
+    private static URLClassLoader classLoader;
+    
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        
+        outputDir = Files.createTempDirectory("csv-apt");
+        final Path sourceFile = outputDir.resolve("sample/apt/AptBean.java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, SOURCE.getBytes(StandardCharsets.UTF_8));
+        
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(sourceFile.toFile());
+            final List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", outputDir.toString(),
+                    "-s", outputDir.toString());
+                    
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(Collections.singletonList(new CsvBeanMetadataProcessor()));
+            assertThat(task.call()).isTrue();
+        }
+        
+        classLoader = new URLClassLoader(new URL[]{outputDir.toUri().toURL()}, CsvBeanMetadataProcessorTest.class.getClassLoader());
+        
+    }
+    
+    @AfterClass
+    public static void tearDownAfterClass() throws Exception {
+        
+        if(classLoader != null) {
+            classLoader.close();
+        }
+        
+        if(outputDir != null) {
+            Files.walk(outputDir)
+                .sorted(Collections.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+        
+    }
+    
+    /**
+     * 生成対象のクラス
+     */
+    @Test
+    public void testGenerate() throws Exception {
+        
+        final Class<?> beanType = classLoader.loadClass("sample.apt.AptBean");
+        
+        assertThat(Files.exists(outputDir.resolve("sample/apt/AptBean$$CsvMetadata.java"))).isTrue();
+        assertThat(classLoader.loadClass("sample.apt.AptBean$$CsvMetadata").getSuperclass()).isEqualTo(GeneratedBeanMetadata.class);
+        
+        final GeneratedBeanMetadata<?> metadata = GeneratedBeanMetadata.find(beanType).get();
+        assertThat(metadata.getBeanType()).isEqualTo(beanType);
+        assertThat(metadata.getColumnNames()).containsExactly("id", "name", "enabled");
+        assertThat(metadata.getInstantiator()).isPresent();
+        assertThat(metadata.getSetter("id")).isPresent();
+        assertThat(metadata.getGetter("enabled")).isPresent();
+        assertThat(metadata.getSetter("unknown")).isEmpty();
+        assertThat(metadata.getColumnFields().get()).hasSize(3);
+        assertThat(metadata.getCallbackMethods().get()).extracting("name").containsExactly("postRead");
+        
+        // 内部クラスの場合、setterがない場合
+        final Class<?> nestedType = classLoader.loadClass("sample.apt.AptBean$Nested");
+        final GeneratedBeanMetadata<?> nestedMetadata = GeneratedBeanMetadata.find(nestedType).get();
+        assertThat(nestedMetadata.getColumnNames()).containsExactly("value");
+        assertThat(nestedMetadata.getSetter("value")).isEmpty();
+        assertThat(nestedMetadata.getGetter("value")).isPresent();
+        
+    }
+    
+    /**
+     * 生成したクラスから参照できないクラスは対象外
+     */
+    @Test
+    public void testGenerate_private() throws Exception {
+        
+        final Class<?> hiddenType = classLoader.loadClass("sample.apt.AptBean$Hidden");
+        
+        assertThat(Files.exists(outputDir.resolve("sample/apt/AptBean$Hidden$$CsvMetadata.java"))).isFalse();
+        assertThat(GeneratedBeanMetadata.find(hiddenType)).isEmpty();
+        
+        // マッピング情報は、従来通り作成できる
+        BeanMapping<?> beanMapping = new BeanMappingFactory().create(hiddenType);
+        assertThat(beanMapping.getGeneratedMetadata()).isEmpty();
+        assertThat(beanMapping.getColumns()).hasSize(1);
+        
+        // 生成していないクラス
+        assertThat(GeneratedBeanMetadata.find(String.class)).isEmpty();
+        
+    }
+    
+    /**
+     * 生成したクラスを利用した読み書き
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testReadWrite() throws Exception {
+        
+        final Class<Object> beanType = (Class<Object>) classLoader.loadClass("sample.apt.AptBean");
+        
+        final BeanMapping<Object> beanMapping = new BeanMappingFactory().create(beanType);
+        final Optional<GeneratedBeanMetadata<Object>> metadata = beanMapping.getGeneratedMetadata();
+        assertThat(metadata).isPresent();
+        assertThat(beanMapping.getColumns()).extracting("name").containsExactly("id", "name", "enabled");
+        assertThat(beanMapping.getPostReadMethods()).hasSize(1);
+        
+        final String input = "id,name,enabled\r\n1,abc,true\r\n2,def,false\r\n";
+        
+        final List<Object> beans;
+        try(CsvAnnotationBeanReader<Object> reader = new CsvAnnotationBeanReader<>(beanType, new StringReader(input),
+                CsvPreference.STANDARD_PREFERENCE)) {
+            beans = reader.readAll();
+        }
+        
+        assertThat(beans).hasSize(2);
+        assertThat(metadata.get().getGetter("id").get().apply(beans.get(0))).isEqualTo(1);
+        assertThat(metadata.get().getGetter("name").get().apply(beans.get(1))).isEqualTo("def");
+        assertThat(metadata.get().getGetter("enabled").get().apply(beans.get(0))).isEqualTo(true);
+        assertThat(beanType.getMethod("getPostReadCount").invoke(beans.get(0))).isEqualTo(1);
+        
+        final StringWriter output = new StringWriter();
+        try(CsvAnnotationBeanWriter<Object> writer = new CsvAnnotationBeanWriter<>(beanType, output,
+                CsvPreference.STANDARD_PREFERENCE)) {
+            writer.writeAll(beans);
+        }
+        
+        assertThat(output.toString()).isEqualTo(input);
+        
+    }
+    
+}
@@ -151,6 +151,59 @@ public class AnnotationExpanderTest {
         
     }
     
+    /**
+     * {@link AnnotationExpander#expand(Field)} のテスタ
+     * <p>フィールドごとの展開結果をキャッシュする</p>
+     */
+    @Test
+    public void testExpand_field() {
+        
+        Field field = getSampleField("composeOverrideDefault1");
+        
+        List<ExpandedAnnotation> actual = expander.expand(field);
+        
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getOriginal()).isInstanceOf(ComposeOverrideDefault1.class);
+        assertThat(actual.get(0).getChilds()).hasSameSizeAs(expander.expand(field.getAnnotations()).get(0).getChilds());
+        
+        // 同じ並び順の場合は、キャッシュした結果を返す
+        assertThat(expander.expand(field)).isSameAs(actual);
+        assertThat(new AnnotationExpander(new AnnotationComparator()).expand(getSampleField("composeOverrideDefault1"))).isSameAs(actual);
+        
+        // 並び順が異なる場合は、別に展開する
+        AnnotationExpander otherExpander = new AnnotationExpander((o1, o2) -> o1.annotationType().getName().compareTo(o2.annotationType().getName()));
+        assertThat(otherExpander.expand(field)).isNotSameAs(actual);
+        
+        // 変更できない
+        assertThatThrownBy(() -> actual.clear()).isInstanceOf(UnsupportedOperationException.class);
+        
+    }
+    
+    /**
+     * 合成のアノテーションの展開 - グループの属性値の保持
+     */
+    @Test
+    public void testExpand_groups() {
+        
+        Field field = getSampleField("composeOverrideDefault1");
+        
+        List<ExpandedAnnotation> actual = expander.expand(field.getAnnotation(ComposeOverrideDefault1.class));
+        
+        ExpandedAnnotation composedAnno = actual.get(0);
+        assertThat(composedAnno.getGroups().get()).containsExactly(DefaultGroup.class, Group2.class);
+        
+        for(ExpandedAnnotation childAnno : composedAnno.getChilds()) {
+            if(childAnno.getGroups().isPresent()) {
+                // 合成のアノテーションの属性で上書きされている
+                assertThat(childAnno.getGroups().get()).containsExactly(DefaultGroup.class, Group2.class);
+            }
+        }
+        
+        // groups属性を持たない場合
+        assertThat(expander.expand(getSampleField("normal").getAnnotation(CsvColumn.class)).get(0).getGroups()).isEmpty();
+        
+    }
+    
     /**
      * 繰り返しのアノテーションが1つの場合の展開
      */
@@ -0,0 +1,130 @@
+package com.github.mygreen.supercsv.builder;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.CsvComposition;
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.annotation.constraint.CsvLengthMax;
+import com.github.mygreen.supercsv.annotation.constraint.CsvRequire;
+import com.github.mygreen.supercsv.annotation.conversion.CsvTrim;
+import com.github.mygreen.supercsv.annotation.format.CsvNumberFormat;
+
+/**
+ * {@link AnnotationTypeMetadata}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class AnnotationTypeMetadataTest {
+    
+    /**
+     * クラスタイプごとに、同じインスタンスを返す
+     */
+    @Test
+    public void testOf() {
+        
+        assertThat(AnnotationTypeMetadata.of(CsvColumn.class)).isSameAs(AnnotationTypeMetadata.of(CsvColumn.class));
+        assertThat(AnnotationTypeMetadata.of(CsvColumn.class)).isNotSameAs(AnnotationTypeMetadata.of(CsvRequire.class));
+        
+    }
+    
+    /**
+     * 合成、繰り返し、上書き可能の判定
+     */
+    @Test
+    public void testTypeInfo() {
+        
+        assertThat(AnnotationTypeMetadata.of(SampleComposition.class).isComposed()).isTrue();
+        assertThat(AnnotationTypeMetadata.of(CsvColumn.class).isComposed()).isFalse();
+        
+        assertThat(AnnotationTypeMetadata.of(CsvLengthMax.List.class).isRepeatedContainer()).isTrue();
+        assertThat(AnnotationTypeMetadata.of(CsvLengthMax.class).isRepeatedContainer()).isFalse();
+        
+        assertThat(AnnotationTypeMetadata.of(CsvRequire.class).isOverridable()).isTrue();
+        assertThat(AnnotationTypeMetadata.of(CsvTrim.class).isOverridable()).isTrue();
+        assertThat(AnnotationTypeMetadata.of(CsvNumberFormat.class).isOverridable()).isTrue();
+        assertThat(AnnotationTypeMetadata.of(CsvColumn.class).isOverridable()).isFalse();
+        
+    }
+    
+    /**
+     * 繰り返しのアノテーションの要素の取得
+     */
+    @Test
+    public void testGetRepeatedValues() throws Exception {
+        
+        Annotation anno = getSampleField("repeat").getAnnotation(CsvLengthMax.List.class);
+        
+        Annotation[] values = AnnotationTypeMetadata.of(CsvLengthMax.List.class).getRepeatedValues(anno);
+        assertThat(values).hasSize(2);
+        assertThat(((CsvLengthMax)values[1]).value()).isEqualTo(20);
+        
+        Annotation columnAnno = getSampleField("groups").getAnnotation(CsvColumn.class);
+        assertThatThrownBy(() -> AnnotationTypeMetadata.of(CsvColumn.class).getRepeatedValues(columnAnno))
+            .isInstanceOf(IllegalStateException.class);
+            
+    }
+    
+    /**
+     * 属性groupsの取得
+     */
+    @Test
+    public void testGetGroups() {
+        
+        Field field = getSampleField("groups");
+        
+        assertThat(AnnotationTypeMetadata.of(CsvRequire.class).getGroups(field.getAnnotation(CsvRequire.class)).get())
+            .containsExactly(DefaultGroup.class, Group1.class);
+            
+        assertThat(AnnotationTypeMetadata.of(CsvTrim.class).getGroups(field.getAnnotation(CsvTrim.class)).get())
+            .isEmpty();
+            
+        // groups属性を持たない場合
+        assertThat(AnnotationTypeMetadata.of(CsvColumn.class).getGroups(field.getAnnotation(CsvColumn.class)))
+            .isEmpty();
+            
+    }
+    
+    private static Field getSampleField(final String fieldName) {
+        
+        try {
+            return SampleCsv.class.getDeclaredField(fieldName);
+        } catch(Exception e) {
+            throw new RuntimeException(String.format("fail get field : '%s'.", fieldName), e);
+        }
+        
+    }
+    
+    private interface Group1 { }
+    
+    @CsvComposition
+    @CsvRequire
+    @Retention(RetentionPolicy.RUNTIME)
+    private static @interface SampleComposition {
+        
+    }
+    
+    private static class SampleCsv {
+        
+        @CsvColumn(number=1)
+        @CsvRequire(groups={DefaultGroup.class, Group1.class})
+        @CsvTrim
+        private String groups;
+        
+        @CsvColumn(number=2)
+        @CsvLengthMax(10)
+        @CsvLengthMax(20)
+        private String repeat;
+        
+    }
+    
+}
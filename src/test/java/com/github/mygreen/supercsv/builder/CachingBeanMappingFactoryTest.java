@@ -0,0 +1,395 @@
+package com.github.mygreen.supercsv.builder;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.constraint.CsvUnique;
+import com.github.mygreen.supercsv.io.CsvAnnotationBeanReader;
+import com.github.mygreen.supercsv.io.LazyCsvAnnotationBeanReader;
+
+/**
+ * {@link CachingBeanMappingFactory}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CachingBeanMappingFactoryTest {
+    
+    private CachingBeanMappingFactory factory;
+    
+    @Before
+    public void setUp() throws Exception {
+        factory = new CachingBeanMappingFactory();
+    }
+    
+    /**
+     * 同じ条件の場合は、キャッシュしたインスタンスを返す
+     */
+    @Test
+    public void testCreate_hit() {
+        
+        BeanMapping<SampleBean> beanMapping1 = factory.create(SampleBean.class);
+        BeanMapping<SampleBean> beanMapping2 = factory.create(SampleBean.class);
+        
+        assertThat(beanMapping2).isSameAs(beanMapping1);
+        assertThat(factory.getMissCount()).isEqualTo(1L);
+        assertThat(factory.getHitCount()).isEqualTo(1L);
+        assertThat(factory.size()).isEqualTo(1);
+        
+    }
+    
+    /**
+     * グループやシステム情報が異なる場合は、別のインスタンスを返す
+     */
+    @Test
+    public void testCreate_key() {
+        
+        BeanMapping<SampleBean> beanMapping = factory.create(SampleBean.class);
+        
+        assertThat(factory.create(SampleBean.class, Group1.class)).isNotSameAs(beanMapping);
+        assertThat(factory.create(SampleBean.class, Group1.class)).isSameAs(factory.create(SampleBean.class, Group1.class));
+        
+        factory.setConfiguration(new Configuration());
+        BeanMapping<SampleBean> other = factory.create(SampleBean.class);
+        assertThat(other).isNotSameAs(beanMapping);
+        assertThat(other.getConfiguration()).isSameAs(factory.getConfiguration());
+        
+        assertThat(factory.size()).isEqualTo(3);
+        
+    }
+    
+    /**
+     * 状態をセッションに保持するCellProcessorを含む場合は、キャッシュする
+     */
+    @Test
+    public void testCreate_sessionScoped() {
+        
+        BeanMapping<UniqueBean> beanMapping1 = factory.create(UniqueBean.class);
+        BeanMapping<UniqueBean> beanMapping2 = factory.create(UniqueBean.class);
+        
+        assertThat(beanMapping2).isSameAs(beanMapping1);
+        assertThat(factory.getMissCount()).isEqualTo(1L);
+        assertThat(factory.getHitCount()).isEqualTo(1L);
+        assertThat(factory.size()).isEqualTo(1);
+        
+    }
+    
+    /**
+     * 最大数を超えた場合に、古いものから破棄する
+     */
+    @Test
+    public void testEviction() {
+        
+        factory.setMaxSize(1);
+        
+        BeanMapping<SampleBean> beanMapping = factory.create(SampleBean.class);
+        factory.create(SampleBean.class, Group1.class);
+        
+        assertThat(factory.size()).isEqualTo(1);
+        assertThat(factory.getEvictionCount()).isEqualTo(1L);
+        
+        assertThat(factory.create(SampleBean.class)).isNotSameAs(beanMapping);
+        
+        factory.clear();
+        assertThat(factory.size()).isEqualTo(0);
+        
+    }
+    
+    /**
+     * 最大数を超えた場合に、最後に参照した時点が古いものから破棄する
+     */
+    @Test
+    public void testEviction_leastRecentlyUsed() {
+        
+        factory.setMaxSize(2);
+        
+        BeanMapping<SampleBean> beanMapping1 = factory.create(SampleBean.class);
+        BeanMapping<SampleBean> beanMapping2 = factory.create(SampleBean.class, Group1.class);
+        
+        // 最初に作成したものを参照し直す
+        assertThat(factory.create(SampleBean.class)).isSameAs(beanMapping1);
+        
+        factory.create(PublicBean.class);
+        
+        assertThat(factory.size()).isEqualTo(2);
+        assertThat(factory.getEvictionCount()).isEqualTo(1L);
+        
+        assertThat(factory.create(SampleBean.class)).isSameAs(beanMapping1);
+        assertThat(factory.create(SampleBean.class, Group1.class)).isNotSameAs(beanMapping2);
+        
+    }
+    
+    /**
+     * キャッシュしても、Beanのクラスのアンロードを妨げない
+     */
+    @Test
+    public void testCreate_classUnloading() throws Exception {
+        
+        final WeakReference<ClassLoader> loaderRef = createInIsolatedLoader(factory);
+        assertThat(factory.size()).isEqualTo(1);
+        
+        for(int i=0; i < 50 && loaderRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        
+        assertThat(loaderRef.get()).isNull();
+        assertThat(factory.size()).isEqualTo(0);
+        
+    }
+    
+    /**
+     * {@link PublicBean}を別のクラスローダで読み込み、マッピング情報を作成します。
+     * @return 作成に利用したクラスローダの弱参照。
+     */
+    private static WeakReference<ClassLoader> createInIsolatedLoader(final CachingBeanMappingFactory factory) throws Exception {
+        
+        final ClassLoader loader = new IsolatedClassLoader(PublicBean.class.getName(), CachingBeanMappingFactoryTest.class.getClassLoader());
+        final Class<?> beanType = loader.loadClass(PublicBean.class.getName());
+        assertThat(beanType).isNotSameAs(PublicBean.class);
+        
+        factory.create(beanType);
+        
+        return new WeakReference<>(loader);
+    }
+    
+    /**
+     * 指定したクラスのみを自身で定義し、それ以外は親に委譲するクラスローダ。
+     */
+    private static class IsolatedClassLoader extends ClassLoader {
+        
+        private final String isolatedName;
+        
+        IsolatedClassLoader(final String isolatedName, final ClassLoader parent) {
+            super(parent);
+            this.isolatedName = isolatedName;
+        }
+        
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            
+            if(!name.equals(isolatedName)) {
+                return super.loadClass(name, resolve);
+            }
+            
+            synchronized(getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if(loaded == null) {
+                    final String resource = name.replace('.', '/') + ".class";
+                    try(InputStream in = getParent().getResourceAsStream(resource)) {
+                        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        final byte[] buf = new byte[4096];
+                        int len;
+                        while((len = in.read(buf)) != -1) {
+                            out.write(buf, 0, len);
+                        }
+                        final byte[] bytes = out.toByteArray();
+                        loaded = defineClass(name, bytes, 0, bytes.length);
+                        
+                    } catch(IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return loaded;
+            }
+        }
+        
+    }
+    
+    @Test
+    public void testSetMaxSize_invalid() {
+        
+        assertThatThrownBy(() -> factory.setMaxSize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+            
+    }
+    
+    /**
+     * 複数のスレッドから同時に作成した場合
+     */
+    @Test
+    public void testCreate_concurrent() throws Exception {
+        
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<BeanMapping<SampleBean>>> futures = new ArrayList<>();
+            for(int i=0; i < 20; i++) {
+                futures.add(executor.submit(() -> factory.create(SampleBean.class)));
+            }
+            
+            BeanMapping<SampleBean> expected = factory.create(SampleBean.class);
+            for(Future<BeanMapping<SampleBean>> future : futures) {
+                assertThat(future.get()).isSameAs(expected);
+            }
+            
+            assertThat(factory.getHitCount() + factory.getMissCount()).isEqualTo(21L);
+            assertThat(factory.size()).isEqualTo(1);
+            
+        } finally {
+            executor.shutdown();
+        }
+        
+    }
+    
+    /**
+     * キャッシュしたマッピング情報は変更できない
+     */
+    @Test
+    public void testCreate_frozen() {
+        
+        BeanMapping<PublicBean> beanMapping = factory.create(PublicBean.class);
+        assertThat(beanMapping.isFrozen()).isTrue();
+        
+        assertThatThrownBy(() -> beanMapping.setHeader(true))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> beanMapping.getColumns().clear())
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> beanMapping.getColumns().get(0).setNumber(5))
+            .isInstanceOf(IllegalStateException.class);
+            
+        // 複製した場合は変更できる
+        BeanMapping<PublicBean> copied = beanMapping.copy();
+        assertThat(copied.isFrozen()).isFalse();
+        copied.getColumns().get(0).setNumber(5);
+        copied.setHeader(true);
+        
+        assertThat(beanMapping.getColumns().get(0).getNumber()).isEqualTo(1);
+        assertThat(beanMapping.isHeader()).isFalse();
+        
+    }
+    
+    /**
+     * キャッシュしたマッピング情報を、初期化時にカラム情報を変更するReaderで利用する場合
+     */
+    @Test
+    public void testCreate_lazyReader() throws Exception {
+        
+        BeanMapping<PublicBean> beanMapping = factory.create(PublicBean.class);
+        List<ColumnMapping> columns = beanMapping.getColumns();
+        
+        try(LazyCsvAnnotationBeanReader<PublicBean> reader = new LazyCsvAnnotationBeanReader<>(beanMapping,
+                new StringReader("12,abc\n"), CsvPreference.STANDARD_PREFERENCE)) {
+            reader.init("id", "name");
+            
+            assertThat(reader.getBeanMapping()).isNotSameAs(beanMapping);
+            
+            PublicBean bean = reader.read();
+            assertThat(bean.getId()).isEqualTo(12);
+            assertThat(bean.getName()).isEqualTo("abc");
+        }
+        
+        // 共有しているマッピング情報は変更されない
+        assertThat(beanMapping.getColumns()).isSameAs(columns);
+        assertThat(columns).extracting("number").containsExactly(1, 2);
+        assertThat(columns).extracting("label").containsExactly("id", "name");
+        
+    }
+    
+    /**
+     * キャッシュしたマッピング情報からReaderを作成する場合、Readerごとにクラスを生成しない
+     */
+    @Test
+    public void testCreate_noClassGenerationPerReader() throws Exception {
+        
+        final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        
+        // 初回の読み込み
+        readPublicBean(factory.create(PublicBean.class), 0);
+        
+        final long loadedCount = classLoading.getTotalLoadedClassCount();
+        for(int i=0; i < 500; i++) {
+            readPublicBean(factory.create(PublicBean.class), i);
+        }
+        
+        assertThat(classLoading.getTotalLoadedClassCount() - loadedCount).isLessThan(20L);
+        
+    }
+    
+    private static void readPublicBean(final BeanMapping<PublicBean> beanMapping, final int id) throws Exception {
+        
+        try(CsvAnnotationBeanReader<PublicBean> reader = new CsvAnnotationBeanReader<>(beanMapping,
+                new StringReader(id + ",abc\n"), CsvPreference.STANDARD_PREFERENCE)) {
+            
+            PublicBean bean = reader.read();
+            assertThat(bean.getId()).isEqualTo(id);
+            assertThat(bean.getName()).isEqualTo("abc");
+        }
+        
+    }
+    
+    @Test
+    public void testGetShared() {
+        
+        assertThat(CachingBeanMappingFactory.getShared()).isSameAs(CachingBeanMappingFactory.getShared());
+        
+    }
+    
+    private interface Group1 {}
+    
+    @CsvBean
+    private static class SampleBean {
+        
+        @CsvColumn(number=1)
+        private int id;
+        
+        @CsvColumn(number=2)
+        private String name;
+        
+    }
+    
+    @CsvBean
+    public static class PublicBean {
+        
+        @CsvColumn(number=1, label="id")
+        private int id;
+        
+        @CsvColumn(number=2, label="name")
+        private String name;
+        
+        public int getId() {
+            return id;
+        }
+        
+        public void setId(int id) {
+            this.id = id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+    }
+    
+    @CsvBean
+    private static class UniqueBean {
+        
+        @CsvColumn(number=1)
+        @CsvUnique
+        private int id;
+        
+    }
+    
+}
@@ -0,0 +1,120 @@
+package com.github.mygreen.supercsv.builder;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+
+/**
+ * {@link CompiledBeanMapping}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CompiledBeanMappingTest {
+    
+    private BeanMappingFactory factory;
+    
+    private final Class<?>[] groupEmpty = new Class[]{};
+    
+    @Before
+    public void setUp() throws Exception {
+        factory = new BeanMappingFactory();
+    }
+    
+    /**
+     * 列番号とフィールド名による検索
+     */
+    @Test
+    public void testGetColumnMapping() {
+        
+        BeanMapping<SampleBean> beanMapping = factory.create(SampleBean.class, groupEmpty);
+        CompiledBeanMapping<SampleBean> compiled = beanMapping.compile();
+        
+        assertThat(compiled.getColumnMapping(1).get().getName()).isEqualTo("id");
+        assertThat(compiled.getColumnMapping(2).get().getName()).isEqualTo("name");
+        assertThat(compiled.getColumnMapping(3).get().getName()).isEqualTo("value");
+        assertThat(compiled.getColumnMapping(0)).isEmpty();
+        assertThat(compiled.getColumnMapping(4)).isEmpty();
+        assertThat(compiled.getColumnMapping(-1)).isEmpty();
+        
+        assertThat(compiled.getColumnMapping("name").get().getNumber()).isEqualTo(2);
+        assertThat(compiled.getColumnMapping("unknown")).isEmpty();
+        assertThat(compiled.getColumnMapping((String)null)).isEmpty();
+        
+        // BeanMappingからの検索も同じ結果となる
+        assertThat(beanMapping.getColumnMapping(3).get()).isSameAs(compiled.getColumnMapping(3).get());
+        assertThat(beanMapping.getColumnMapping("id").get()).isSameAs(compiled.getColumnMapping("id").get());
+        
+    }
+    
+    /**
+     * ヘッダーなどの配列
+     */
+    @Test
+    public void testArrays() {
+        
+        BeanMapping<SampleBean> beanMapping = factory.create(SampleBean.class, groupEmpty);
+        CompiledBeanMapping<SampleBean> compiled = beanMapping.compile();
+        
+        assertThat(compiled.getHeader()).containsExactly("ID", "名前", "値");
+        assertThat(compiled.getNameMapping()).containsExactly("id", "name", "value");
+        assertThat(compiled.getCellProcessorsForReading()).hasSize(3);
+        assertThat(compiled.getCellProcessorsForWriting()).hasSize(3);
+        assertThat(compiled.getColumns()).hasSize(3);
+        
+        // BeanMappingからは、複製した配列を返す
+        String[] header = beanMapping.getHeader();
+        assertThat(header).containsExactly("ID", "名前", "値");
+        assertThat(header).isNotSameAs(compiled.getHeader());
+        
+        header[0] = "changed";
+        assertThat(compiled.getHeader()[0]).isEqualTo("ID");
+        
+    }
+    
+    /**
+     * カラム情報を変更したときに、作り直されること
+     */
+    @Test
+    public void testCompile_reset() {
+        
+        BeanMapping<SampleBean> beanMapping = factory.create(SampleBean.class, groupEmpty);
+        CompiledBeanMapping<SampleBean> compiled = beanMapping.compile();
+        
+        assertThat(beanMapping.compile()).isSameAs(compiled);
+        
+        List<ColumnMapping> columns = new ArrayList<>(beanMapping.getColumns());
+        columns.remove(2);
+        beanMapping.setColumns(columns);
+        
+        CompiledBeanMapping<SampleBean> recompiled = beanMapping.compile();
+        assertThat(recompiled).isNotSameAs(compiled);
+        assertThat(recompiled.getHeader()).containsExactly("ID", "名前");
+        assertThat(recompiled.getColumnMapping(3)).isEmpty();
+        assertThat(beanMapping.getColumnMapping("value")).isEmpty();
+        
+    }
+    
+    @CsvBean
+    private static class SampleBean {
+        
+        @CsvColumn(number=1, label="ID")
+        private int id;
+        
+        @CsvColumn(number=2, label="名前")
+        private String name;
+        
+        @CsvColumn(number=3, label="値")
+        private Double value;
+        
+    }
+    
+}
@@ -0,0 +1,168 @@
+package com.github.mygreen.supercsv.builder;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.CsvPartial;
+import com.github.mygreen.supercsv.exception.SuperCsvInvalidAnnotationException;
+
+/**
+ * {@link LazyColumnPlan}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class LazyColumnPlanTest {
+    
+    private LazyBeanMappingFactory mappingFactory;
+    
+    @Before
+    public void setUp() {
+        this.mappingFactory = new LazyBeanMappingFactory();
+        LazyColumnPlan.clearCache();
+    }
+    
+    /**
+     * 読み込み時 - ヘッダーのラベルによる番号の決定
+     */
+    @Test
+    public void testApplyForReading() {
+        
+        final String[] headers = {"id", "備考", "名前", "メールアドレス"};
+        
+        BeanMapping<SampleCsv> beanMapping = mappingFactory.create(SampleCsv.class);
+        LazyColumnPlan.applyForReading(beanMapping, headers);
+        
+        assertThat(LazyColumnPlan.getCacheSize()).isEqualTo(1);
+        assertColumns(beanMapping.getColumns());
+        
+        // 同じヘッダーの場合は、キャッシュした結果を適用する
+        BeanMapping<SampleCsv> beanMapping2 = mappingFactory.create(SampleCsv.class);
+        LazyColumnPlan.applyForReading(beanMapping2, headers.clone());
+        
+        assertThat(LazyColumnPlan.getCacheSize()).isEqualTo(1);
+        assertColumns(beanMapping2.getColumns());
+        
+        // ヘッダーが異なる場合
+        BeanMapping<SampleCsv> beanMapping3 = mappingFactory.create(SampleCsv.class);
+        LazyColumnPlan.applyForReading(beanMapping3, new String[]{"備考", "メールアドレス", "名前", "id"});
+        
+        assertThat(LazyColumnPlan.getCacheSize()).isEqualTo(2);
+        assertThat(beanMapping3.getColumns()).extracting("number").containsExactly(1, 2, 3, 4);
+        assertThat(beanMapping3.getColumns()).extracting("label").containsExactly("備考", "メールアドレス", "名前", "id");
+        assertThat(beanMapping3.getColumns().get(0).isPartialized()).isTrue();
+        
+    }
+    
+    private void assertColumns(final List<ColumnMapping> columns) {
+        
+        assertThat(columns).hasSize(4);
+        assertThat(columns).extracting("number").containsExactly(1, 2, 3, 4);
+        assertThat(columns).extracting("label").containsExactly("id", "備考", "名前", "メールアドレス");
+        
+        assertThat(columns.get(0).getName()).isEqualTo("id");
+        assertThat(columns.get(2).getName()).isEqualTo("name");
+        assertThat(columns.get(3).getName()).isEqualTo("email");
+        
+        // ヘッダーのみ存在するカラムは部分的なカラムとして補完する
+        assertThat(columns.get(1).isPartialized()).isTrue();
+        
+    }
+    
+    /**
+     * 読み込み時 - 番号の重複がある場合は、キャッシュしない
+     */
+    @Test
+    public void testApplyForReading_duplicated() {
+        
+        final String[] headers = {"id", "名前", "メールアドレス"};
+        
+        BeanMapping<DuplicatedCsv> beanMapping = mappingFactory.create(DuplicatedCsv.class);
+        assertThatThrownBy(() -> LazyColumnPlan.applyForReading(beanMapping, headers))
+            .isInstanceOf(SuperCsvInvalidAnnotationException.class);
+            
+        assertThat(LazyColumnPlan.getCacheSize()).isEqualTo(0);
+        
+    }
+    
+    /**
+     * 書き込み時 - ヘッダーに存在しないカラムは空いている番号に割り振る
+     */
+    @Test
+    public void testApplyForWriting() {
+        
+        final String[] headers = {"メールアドレス"};
+        
+        for(int i=0; i < 2; i++) {
+            BeanMapping<PartialCsv> beanMapping = mappingFactory.create(PartialCsv.class);
+            LazyColumnPlan.applyForWriting(beanMapping, headers);
+            
+            assertThat(LazyColumnPlan.getCacheSize()).isEqualTo(1);
+            
+            final List<ColumnMapping> columns = beanMapping.getColumns();
+            assertThat(columns).extracting("number").containsExactly(1, 2, 3, 4);
+            assertThat(columns).extracting("label").containsExactly("メールアドレス", "カラム2", "id", "名前");
+            assertThat(columns.get(0).getName()).isEqualTo("email");
+            assertThat(columns.get(1).isPartialized()).isTrue();
+            assertThat(columns.get(2).getName()).isEqualTo("id");
+            assertThat(columns.get(3).getName()).isEqualTo("name");
+        }
+        
+        // 読み込み時とはキャッシュを区別する
+        BeanMapping<PartialCsv> beanMapping = mappingFactory.create(PartialCsv.class);
+        LazyColumnPlan.applyForReading(beanMapping, new String[]{"メールアドレス", "カラム2", "id", "名前"});
+        
+        assertThat(LazyColumnPlan.getCacheSize()).isEqualTo(2);
+        
+    }
+    
+    @CsvBean(header=true)
+    private static class SampleCsv {
+        
+        @CsvColumn(label="id")
+        private int id;
+        
+        @CsvColumn(label="名前")
+        private String name;
+        
+        @CsvColumn(label="メールアドレス")
+        private String email;
+        
+    }
+    
+    @CsvBean(header=true)
+    private static class DuplicatedCsv {
+        
+        @CsvColumn(label="id")
+        private int id;
+        
+        @CsvColumn(number=1, label="名前")
+        private String name;
+        
+    }
+    
+    @CsvBean(header=true)
+    @CsvPartial(columnSize=4, headers={
+            @CsvPartial.Header(number=2, label="カラム2")
+    })
+    private static class PartialCsv {
+        
+        @CsvColumn(label="id")
+        private int id;
+        
+        @CsvColumn(label="名前")
+        private String name;
+        
+        @CsvColumn(label="メールアドレス")
+        private String email;
+        
+    }
+    
+}
@@ -0,0 +1,336 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import static org.assertj.core.api.Assertions.*;
+import static com.github.mygreen.supercsv.tool.TestUtils.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.cellprocessor.CellProcessorAdaptor;
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.constraint.CsvLengthMax;
+import com.github.mygreen.supercsv.annotation.constraint.CsvRequire;
+import com.github.mygreen.supercsv.annotation.conversion.CsvTrim;
+import com.github.mygreen.supercsv.annotation.conversion.CsvUpper;
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.builder.ColumnMapping;
+import com.github.mygreen.supercsv.builder.Configuration;
+import com.github.mygreen.supercsv.builder.FieldAccessor;
+import com.github.mygreen.supercsv.builder.standard.StringProcessorBuilder;
+import com.github.mygreen.supercsv.cellprocessor.constraint.LengthMax;
+import com.github.mygreen.supercsv.cellprocessor.conversion.Trim;
+import com.github.mygreen.supercsv.cellprocessor.conversion.Upper;
+import com.github.mygreen.supercsv.exception.SuperCsvValidationException;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+
+/**
+ * {@link CellProcessorCompiler}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CellProcessorCompilerTest {
+    
+    private BeanMappingFactory beanMappingFactory;
+    
+    @Before
+    public void setUp() {
+        this.beanMappingFactory = new BeanMappingFactory();
+        beanMappingFactory.getConfiguration().setCompileProcessors(true);
+    }
+    
+    /**
+     * 生成したクラスで、まとめた処理を実行する
+     */
+    @Test
+    public void testCompile() {
+        
+        LengthMax lengthMax = new LengthMax(5);
+        FusedCellProcessor fused = new FusedCellProcessor(Arrays.asList(new Trim(), new Upper(), lengthMax),
+                new NextCellProcessor());
+                
+        CellProcessor compiled = CellProcessorCompiler.compile(fused);
+        assertThat(compiled).isNotSameAs(fused).isInstanceOf(FusedCellProcessor.class);
+        assertThat(compiled.getClass()).isNotEqualTo(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)compiled).getProcessors()).isEqualTo(fused.getProcessors());
+        
+        assertThat((Object)compiled.execute("  abc ", ANONYMOUS_CSVCONTEXT)).isEqualTo("ABC");
+        assertThat((Object)compiled.execute(null, ANONYMOUS_CSVCONTEXT)).isNull();
+        
+        // 検証エラー時は、まとめる前のCellProcessorの例外となる
+        assertThatThrownBy(() -> compiled.execute(" abcdef ", ANONYMOUS_CSVCONTEXT))
+            .isInstanceOf(SuperCsvValidationException.class)
+            .hasFieldOrPropertyWithValue("processor", lengthMax);
+            
+    }
+    
+    /**
+     * チェインの最後の場合
+     */
+    @Test
+    public void testCompile_last() {
+        
+        FusedCellProcessor fused = new FusedCellProcessor(Arrays.asList(new Trim(), new Upper()));
+        
+        CellProcessor compiled = CellProcessorCompiler.compile(fused);
+        assertThat(compiled).isNotSameAs(fused).isInstanceOf(FusedCellProcessor.class);
+        assertThat(CellProcessorUtils.getNext(compiled)).isNull();
+        
+        assertThat((Object)compiled.execute("  abc ", ANONYMOUS_CSVCONTEXT)).isEqualTo("ABC");
+        
+    }
+    
+    /**
+     * 処理の型が同じ場合は、生成したクラスを共有する
+     */
+    @Test
+    public void testCompile_shared() {
+        
+        CellProcessor compiled1 = CellProcessorCompiler.compile(
+                new FusedCellProcessor(Arrays.asList(new Trim(), new LengthMax(3)), new NextCellProcessor()));
+        CellProcessor compiled2 = CellProcessorCompiler.compile(
+                new FusedCellProcessor(Arrays.asList(new Trim(), new LengthMax(10)), new NextCellProcessor()));
+        CellProcessor compiled3 = CellProcessorCompiler.compile(
+                new FusedCellProcessor(Arrays.asList(new LengthMax(10), new Trim()), new NextCellProcessor()));
+                
+        assertThat(compiled1.getClass()).isEqualTo(compiled2.getClass());
+        assertThat(compiled1.getClass()).isNotEqualTo(compiled3.getClass());
+        
+        assertThat((Object)compiled1.execute(" ab ", ANONYMOUS_CSVCONTEXT)).isEqualTo("ab");
+        assertThat((Object)compiled2.execute(" abcdef ", ANONYMOUS_CSVCONTEXT)).isEqualTo("abcdef");
+        assertThatThrownBy(() -> compiled1.execute(" abcdef ", ANONYMOUS_CSVCONTEXT))
+            .isInstanceOf(SuperCsvValidationException.class);
+            
+    }
+    
+    /**
+     * 処理のクラスを定義したClassLoaderは、生成したクラスのインスタンスを使用しなくなると破棄できる
+     */
+    @Test
+    public void testCompile_release() throws Exception {
+        
+        ClassLoader childLoader = new ChildFirstClassLoader(Upper.class);
+        
+        CellProcessor compiled = compileWithChildLoader(childLoader);
+        assertThat(compiled.getClass()).isNotEqualTo(FusedCellProcessor.class);
+        assertThat(compiled.getClass().getClassLoader().getParent()).isSameAs(childLoader);
+        assertThat((Object)compiled.execute(" abc ", ANONYMOUS_CSVCONTEXT)).isEqualTo("ABC");
+        
+        final WeakReference<ClassLoader> loaderRef = new WeakReference<>(childLoader);
+        childLoader = null;
+        compiled = null;
+        
+        for(int i=0; i < 50 && loaderRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(loaderRef.get()).isNull();
+        
+    }
+    
+    private static CellProcessor compileWithChildLoader(final ClassLoader childLoader) throws Exception {
+        
+        final Class<?> upperType = childLoader.loadClass(Upper.class.getName());
+        assertThat(upperType).isNotEqualTo(Upper.class);
+        
+        final FusibleCellProcessor upper = (FusibleCellProcessor) upperType.newInstance();
+        return CellProcessorCompiler.compile(
+                new FusedCellProcessor(Arrays.asList(new Trim(), upper), new NextCellProcessor()));
+    }
+    
+    /**
+     * 生成できない場合は、そのまま返す
+     */
+    @Test
+    public void testCompile_notCompiled() {
+        
+        // まとめた処理でない場合
+        CellProcessor trim = new Trim(new NextCellProcessor());
+        assertThat(CellProcessorCompiler.compile(trim)).isSameAs(trim);
+        
+        // 処理のクラスがpublicでない場合
+        CellProcessor fused = new FusedCellProcessor(Arrays.asList(new PrivateTrim(), new Upper()));
+        assertThat(CellProcessorCompiler.compile(fused)).isSameAs(fused);
+        
+    }
+    
+    /**
+     * アノテーションから組み立てたChain
+     */
+    @Test
+    public void testBuild() {
+        
+        BeanMapping<TestCsv> beanMapping = beanMappingFactory.create(TestCsv.class);
+        ColumnMapping columnMapping = beanMapping.getColumnMapping("col_default").get();
+        
+        CellProcessor processor = columnMapping.getCellProcessorForReading();
+        printCellProcessorChain(processor, "testBuild");
+        
+        List<CellProcessor> chain = CellProcessorUtils.toList(processor);
+        assertThat(chain).hasSize(3);
+        assertThat(chain.get(0)).isInstanceOf(FusedCellProcessor.class);
+        assertThat(chain.get(0).getClass()).isNotEqualTo(FusedCellProcessor.class);
+        assertThat(chain.get(2)).isInstanceOf(FusedCellProcessor.class);
+        assertThat(chain.get(2).getClass()).isNotEqualTo(FusedCellProcessor.class);
+        
+        assertThat((Object)processor.execute(" abc ", testCsvContext(columnMapping, " abc "))).isEqualTo("ABC");
+        
+        String input = " abcdef ";
+        assertThatThrownBy(() -> processor.execute(input, testCsvContext(columnMapping, input)))
+            .isInstanceOf(SuperCsvValidationException.class)
+            .hasFieldOrPropertyWithValue("processor.class", LengthMax.class);
+            
+    }
+    
+    /**
+     * 組み立てる途中では、まとめた処理がChainの途中に残る場合のみ変換する
+     */
+    @Test
+    public void testBuild_compileWhenBuried() {
+        
+        final Map<String, List<Class<?>>> received = new LinkedHashMap<>();
+        final StringProcessorBuilder builder = new StringProcessorBuilder() {
+            {
+                readingFactory.clear();
+                registerForReading(lengthMaxFactory("lm1", 11, received));
+                registerForReading(lengthMaxFactory("lm2", 12, received));
+                registerForReading((next, field, formatter, config, buildCase, groups) -> {
+                    received.computeIfAbsent("marker", k -> new ArrayList<>()).add(next.get().getClass());
+                    return Optional.of(new MarkerCellProcessor(next.get()));
+                });
+                registerForReading(lengthMaxFactory("lm3", 13, received));
+                registerForReading(lengthMaxFactory("lm4", 14, received));
+                registerForReading(lengthMaxFactory("lm5", 15, received));
+            }
+        };
+        
+        final Configuration config = beanMappingFactory.getConfiguration();
+        final FieldAccessor field = getFieldAccessor(TestCsv.class, "col_default", config.getAnnoationComparator());
+        final CellProcessor processor = builder.buildForReading(String.class, field, config, new Class<?>[0]).get();
+        printCellProcessorChain(processor, "testBuild_compileWhenBuried");
+        
+        // まとめられる処理には、変換前の処理を渡す
+        assertThat(received.get("lm4")).containsExactly(LengthMax.class);
+        assertThat(received.get("lm3")).containsExactly(FusedCellProcessor.class);
+        
+        // 途中に残る場合は、変換した処理を渡して作成し直す
+        assertThat(received.get("marker")).hasSize(2);
+        assertThat(received.get("marker").get(0)).isEqualTo(FusedCellProcessor.class);
+        assertThat(received.get("marker").get(1)).isNotEqualTo(FusedCellProcessor.class);
+        assertThat(FusedCellProcessor.class).isAssignableFrom(received.get("marker").get(1));
+        
+        List<CellProcessor> chain = CellProcessorUtils.toList(processor);
+        assertThat(chain).hasSize(3);
+        assertThat(chain.get(0).getClass()).isNotEqualTo(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)chain.get(0)).getProcessors()).hasSize(2);
+        assertThat(chain.get(1)).isInstanceOf(MarkerCellProcessor.class);
+        assertThat(chain.get(2).getClass()).isNotEqualTo(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)chain.get(2)).getProcessors()).hasSize(3);
+        
+        assertThat((Object)processor.execute("abc", ANONYMOUS_CSVCONTEXT)).isEqualTo("abc");
+        
+    }
+    
+    private static ProcessorFactory lengthMaxFactory(final String name, final int max, final Map<String, List<Class<?>>> received) {
+        return (next, field, formatter, config, buildCase, groups) -> {
+            received.computeIfAbsent(name, k -> new ArrayList<>()).add(next.map(Object::getClass).orElse(null));
+            return Optional.of(next.map(n -> new LengthMax(max, n)).orElseGet(() -> new LengthMax(max)));
+        };
+    }
+    
+    /**
+     * まとめる対象外の処理
+     */
+    private static class MarkerCellProcessor extends CellProcessorAdaptor {
+        
+        MarkerCellProcessor(final CellProcessor next) {
+            super(next);
+        }
+        
+        @Override
+        public Object execute(final Object value, final CsvContext context) {
+            return next.execute(value, context);
+        }
+        
+    }
+    
+    @CsvBean
+    private static class TestCsv {
+        
+        @CsvColumn(number=1, label="カラム1")
+        @CsvTrim
+        @CsvUpper
+        @CsvRequire
+        @CsvLengthMax(value=5)
+        private String col_default;
+        
+    }
+    
+    /**
+     * 指定したクラスのみを、親より先に自身で定義するClassLoader
+     */
+    private static class ChildFirstClassLoader extends ClassLoader {
+        
+        private final Class<?> target;
+        
+        ChildFirstClassLoader(final Class<?> target) {
+            super(target.getClassLoader());
+            this.target = target;
+        }
+        
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            
+            if(!name.equals(target.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            
+            synchronized(getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if(loaded == null) {
+                    final String resource = name.replace('.', '/') + ".class";
+                    try(InputStream in = getParent().getResourceAsStream(resource)) {
+                        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        final byte[] buffer = new byte[4096];
+                        int len;
+                        while((len = in.read(buffer)) > 0) {
+                            out.write(buffer, 0, len);
+                        }
+                        final byte[] bytes = out.toByteArray();
+                        loaded = defineClass(name, bytes, 0, bytes.length);
+                        
+                    } catch(IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                
+                return loaded;
+            }
+        }
+        
+    }
+    
+    /**
+     * publicでない処理のクラス
+     */
+    private static class PrivateTrim extends Trim {
+        
+    }
+    
+}
@@ -0,0 +1,193 @@
+package com.github.mygreen.supercsv.cellprocessor;
+
+import static org.junit.Assert.*;
+import static org.assertj.core.api.Assertions.*;
+import static com.github.mygreen.supercsv.tool.TestUtils.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.cellprocessor.ift.CellProcessor;
+import org.supercsv.util.CsvContext;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.constraint.CsvLengthMax;
+import com.github.mygreen.supercsv.annotation.constraint.CsvRequire;
+import com.github.mygreen.supercsv.annotation.conversion.CsvTrim;
+import com.github.mygreen.supercsv.annotation.conversion.CsvUpper;
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.builder.ColumnMapping;
+import com.github.mygreen.supercsv.cellprocessor.constraint.LengthMax;
+import com.github.mygreen.supercsv.cellprocessor.constraint.Require;
+import com.github.mygreen.supercsv.cellprocessor.conversion.Trim;
+import com.github.mygreen.supercsv.cellprocessor.conversion.Upper;
+import com.github.mygreen.supercsv.cellprocessor.format.ParseProcessor;
+import com.github.mygreen.supercsv.exception.SuperCsvValidationException;
+import com.github.mygreen.supercsv.util.CellProcessorUtils;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+
+/**
+ * {@link FusedCellProcessor}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class FusedCellProcessorTest {
+    
+    private BeanMappingFactory beanMappingFactory;
+    
+    private CsvExceptionConverter exceptionConverter;
+    
+    @Before
+    public void setUp() {
+        this.beanMappingFactory = new BeanMappingFactory();
+        this.exceptionConverter = new CsvExceptionConverter();
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_empty() {
+        new FusedCellProcessor(Collections.emptyList());
+        fail();
+    }
+    
+    /**
+     * まとめた処理を順に実行する
+     */
+    @Test
+    public void testExecute() {
+        
+        CellProcessor processor = new FusedCellProcessor(Arrays.asList(new Trim(), new Upper(), new LengthMax(5)));
+        CellProcessor processorChain = new FusedCellProcessor(Arrays.asList(new Trim(), new Upper(), new LengthMax(5)),
+                new NextCellProcessor());
+                
+        assertThat((Object)processor.execute("  abc ", ANONYMOUS_CSVCONTEXT)).isEqualTo("ABC");
+        assertThat((Object)processorChain.execute("  abc ", ANONYMOUS_CSVCONTEXT)).isEqualTo("ABC");
+        assertThat((Object)processor.execute(null, ANONYMOUS_CSVCONTEXT)).isNull();
+        
+    }
+    
+    /**
+     * 検証エラー時は、まとめる前のCellProcessorの例外となる
+     */
+    @Test
+    public void testExecute_violated() {
+        
+        LengthMax lengthMax = new LengthMax(5);
+        CellProcessor processor = new FusedCellProcessor(Arrays.asList(new Trim(), lengthMax), new NextCellProcessor());
+        
+        assertThatThrownBy(() -> processor.execute(" abcdef ", ANONYMOUS_CSVCONTEXT))
+            .isInstanceOf(SuperCsvValidationException.class)
+            .hasFieldOrPropertyWithValue("processor", lengthMax);
+            
+    }
+    
+    /**
+     * 先頭から連続する処理をまとめる
+     */
+    @Test
+    public void testFuse() {
+        
+        Trim trim = new Trim();
+        Upper upper = new Upper();
+        NextCellProcessor other = new NextCellProcessor();
+        
+        CellProcessor fused = CellProcessorUtils.fuse(new Trim(new Upper(other)));
+        assertThat(fused).isInstanceOf(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)fused).getProcessors()).hasSize(2);
+        assertThat(CellProcessorUtils.getNext(fused)).isSameAs(other);
+        
+        // 連続する処理の直後が、まとめた処理の場合
+        CellProcessor merged = CellProcessorUtils.fuse(new Require(false, false,
+                new FusedCellProcessor(Arrays.asList(trim, upper))));
+        assertThat(merged).isInstanceOf(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)merged).getProcessors()).hasSize(3).endsWith(trim, upper);
+        assertThat(CellProcessorUtils.getNext(merged)).isNull();
+        
+        // 1つの場合はまとめない
+        CellProcessor single = new Trim(other);
+        assertThat(CellProcessorUtils.fuse(single)).isSameAs(single);
+        
+        // 先頭がまとめることができない場合
+        CellProcessor notFusible = new NextCellProcessor();
+        assertThat(CellProcessorUtils.fuse(notFusible)).isSameAs(notFusible);
+        
+        // 処理を上書きした派生クラスの場合
+        CellProcessor overridden = new CustomTrim(new Upper());
+        assertThat(CellProcessorUtils.fuse(overridden)).isSameAs(overridden);
+        
+    }
+    
+    /**
+     * アノテーションから組み立てたChain
+     */
+    @Test
+    public void testBuild() {
+        
+        BeanMapping<TestCsv> beanMapping = beanMappingFactory.create(TestCsv.class);
+        ColumnMapping columnMapping = beanMapping.getColumnMapping("col_default").get();
+        
+        CellProcessor processor = columnMapping.getCellProcessorForReading();
+        printCellProcessorChain(processor, "testBuild");
+        
+        List<CellProcessor> chain = CellProcessorUtils.toList(processor);
+        assertThat(chain).hasSize(3);
+        assertThat(chain.get(0)).isInstanceOf(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)chain.get(0)).getProcessors()).extracting(p -> (Object)p.getClass())
+            .containsExactly(Trim.class, Upper.class);
+        assertThat(chain.get(1)).isInstanceOf(ParseProcessor.class);
+        assertThat(chain.get(2)).isInstanceOf(FusedCellProcessor.class);
+        assertThat(((FusedCellProcessor)chain.get(2)).getProcessors()).extracting(p -> (Object)p.getClass())
+            .containsExactly(Require.class, LengthMax.class);
+        
+        assertThat((Object)processor.execute(" abc ", testCsvContext(columnMapping, " abc "))).isEqualTo("ABC");
+        
+        // エラーメッセージは、まとめる前と同じ
+        String input = " abcdef ";
+        try {
+            processor.execute(input, testCsvContext(columnMapping, input));
+            fail();
+            
+        } catch(SuperCsvValidationException e) {
+            assertThat(e.getProcessor()).isInstanceOf(LengthMax.class);
+            
+            List<String> messages = exceptionConverter.convertAndFormat(e, beanMapping);
+            assertThat(messages).hasSize(1).contains("[2行, 1列] : 項目「カラム1」の文字列長（6）は、5文字以内でなければなりません。");
+        }
+        
+    }
+    
+    @CsvBean
+    private static class TestCsv {
+        
+        @CsvColumn(number=1, label="カラム1")
+        @CsvTrim
+        @CsvUpper
+        @CsvRequire
+        @CsvLengthMax(value=5)
+        private String col_default;
+        
+    }
+    
+    /**
+     * 処理を上書きした派生クラス
+     */
+    private static class CustomTrim extends Trim {
+        
+        CustomTrim(final Upper next) {
+            super(next);
+        }
+        
+        @Override
+        public Object execute(final Object value, final CsvContext context) {
+            return super.execute(value, context);
+        }
+        
+    }
+    
+}
@@ -12,6 +12,8 @@ import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.exception.SuperCsvCellProcessorException;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionRowSource;
 import com.github.mygreen.supercsv.cellprocessor.format.NumberFormatWrapper;
 import com.github.mygreen.supercsv.exception.SuperCsvValidationException;
 
@@ -107,5 +109,77 @@ public class UniqueHashCodeTest {
         
     }
     
+    /**
+     * Integer以外の値が重複した場合
+     * <p>2.1までは、重複した値を記録したマップを値自身で引いていたため、Integer以外の値では前回の値が見つからず、
+     *    {@link NullPointerException}となり、重複として報告されなかった。
+     *    2.2からは、ハッシュコードで引くため、最初に出現した行を重複元として報告する。
+     * </p>
+     */
+    @Test
+    public void testExecute_inputInvalid_notInteger() {
+        
+        final UniqueHashCode<Object> processor = new UniqueHashCode<>(Object::toString);
+        
+        Long input = 1000L;
+        assertThat((Object)processor.execute(input, ANONYMOUS_CSVCONTEXT)).isEqualTo(input);
+        
+        assertThatThrownBy(() -> processor.execute(input, ANONYMOUS_CSVCONTEXT2))
+            .isInstanceOf(SuperCsvValidationException.class)
+            .satisfies(e -> assertThat(((SuperCsvValidationException)e).getMessageVariables())
+                    .containsEntry("hashCode", input.hashCode())
+                    .containsEntry("duplicatedLineNumber", 1)
+                    .containsEntry("duplicatedRowNumber", 2));
+        
+        // ハッシュコードが同じ、異なる値も重複とする
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat((Object)processor.execute("Aa", new CsvContext(4, 5, 1))).isEqualTo("Aa");
+        
+        assertThatThrownBy(() -> processor.execute("BB", new CsvContext(6, 7, 1)))
+            .isInstanceOf(SuperCsvValidationException.class)
+            .satisfies(e -> assertThat(((SuperCsvValidationException)e).getMessageVariables())
+                    .containsEntry("hashCode", "BB".hashCode())
+                    .containsEntry("duplicatedLineNumber", 4)
+                    .containsEntry("duplicatedRowNumber", 5));
+        
+    }
+    
+    /**
+     * セッションを持つコンテキストの場合、セッションごとにチェックする
+     */
+    @Test
+    public void testExecute_session() {
+        
+        ProcessingSession session1 = new ProcessingSession();
+        ProcessingSession session2 = new ProcessingSession();
+        
+        Integer input = 1000;
+        assertThat((Object)processor.execute(input, sessionContext(1, 2, session1))).isEqualTo(input);
+        
+        // 別のセッションでは重複しない
+        assertThat((Object)processor.execute(input, sessionContext(1, 2, session2))).isEqualTo(input);
+        
+        assertThatThrownBy(() -> processor.execute(input, sessionContext(2, 3, session1)))
+            .isInstanceOf(SuperCsvValidationException.class);
+        
+        // 状態を破棄した場合
+        session1.clear();
+        assertThat((Object)processor.execute(input, sessionContext(2, 3, session1))).isEqualTo(input);
+        
+        // 数値以外の値の場合
+        processor.execute("abc", sessionContext(3, 4, session2));
+        assertThatThrownBy(() -> processor.execute("abc", sessionContext(4, 5, session2)))
+            .isInstanceOf(SuperCsvValidationException.class)
+            .satisfies(e -> assertThat(((SuperCsvValidationException)e).getMessageVariables())
+                    .containsEntry("duplicatedLineNumber", 3)
+                    .containsEntry("duplicatedRowNumber", 4));
+        
+    }
+    
+    private static CsvContext sessionContext(final int lineNumber, final int rowNumber, final ProcessingSession session) {
+        CsvContext context = new CsvContext(lineNumber, rowNumber, 1);
+        context.setRowSource(new SessionRowSource(session));
+        return context;
+    }
     
 }
@@ -12,6 +12,8 @@ import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.exception.SuperCsvCellProcessorException;
 import org.supercsv.util.CsvContext;
 
+import com.github.mygreen.supercsv.cellprocessor.ProcessingSession;
+import com.github.mygreen.supercsv.cellprocessor.SessionRowSource;
 import com.github.mygreen.supercsv.cellprocessor.format.NumberFormatWrapper;
 import com.github.mygreen.supercsv.exception.SuperCsvValidationException;
 
@@ -106,5 +108,34 @@ public class UniqueTest {
         
     }
     
+    /**
+     * セッションを持つコンテキストの場合、セッションごとにチェックする
+     */
+    @Test
+    public void testExecute_session() {
+        
+        ProcessingSession session1 = new ProcessingSession();
+        ProcessingSession session2 = new ProcessingSession();
+        
+        int input = 1000;
+        assertThat((Object)processor.execute(input, sessionContext(1, 2, session1))).isEqualTo(input);
+        
+        // 別のセッションでは重複しない
+        assertThat((Object)processor.execute(input, sessionContext(1, 2, session2))).isEqualTo(input);
+        
+        assertThatThrownBy(() -> processor.execute(input, sessionContext(2, 3, session1)))
+            .isInstanceOf(SuperCsvValidationException.class);
+        
+        // 状態を破棄した場合
+        session1.clear();
+        assertThat((Object)processor.execute(input, sessionContext(2, 3, session1))).isEqualTo(input);
+        
+    }
+    
+    private static CsvContext sessionContext(final int lineNumber, final int rowNumber, final ProcessingSession session) {
+        CsvContext context = new CsvContext(lineNumber, rowNumber, 1);
+        context.setRowSource(new SessionRowSource(session));
+        return context;
+    }
     
 }
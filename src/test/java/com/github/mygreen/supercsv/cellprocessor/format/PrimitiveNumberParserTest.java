@@ -0,0 +1,106 @@
+package com.github.mygreen.supercsv.cellprocessor.format;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@link PrimitiveNumberParser}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class PrimitiveNumberParserTest {
+    
+    @Test
+    public void testParseLong() {
+        
+        assertThat(PrimitiveNumberParser.parseLong("0")).isEqualTo(0L);
+        assertThat(PrimitiveNumberParser.parseLong("123")).isEqualTo(123L);
+        assertThat(PrimitiveNumberParser.parseLong("+123")).isEqualTo(123L);
+        assertThat(PrimitiveNumberParser.parseLong("-123")).isEqualTo(-123L);
+        assertThat(PrimitiveNumberParser.parseLong("000123")).isEqualTo(123L);
+        assertThat(PrimitiveNumberParser.parseLong("999999999999999999")).isEqualTo(999999999999999999L);
+        assertThat(PrimitiveNumberParser.parseLong("-999999999999999999")).isEqualTo(-999999999999999999L);
+        
+        // 対象外の形式
+        assertThat(PrimitiveNumberParser.parseLong(null)).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong("")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong("-")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong("1.0")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong("1e3")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong(" 1")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong("１２")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        assertThat(PrimitiveNumberParser.parseLong("1000000000000000000")).isEqualTo(PrimitiveNumberParser.NOT_PARSED);
+        
+    }
+    
+    @Test
+    public void testParseDouble() {
+        
+        assertThat(PrimitiveNumberParser.parseDouble("0")).isEqualTo(0.0d);
+        assertThat(PrimitiveNumberParser.parseDouble("-0.0")).isEqualTo(0.0d).isEqualTo(new BigDecimal("-0.0").doubleValue());
+        assertThat(PrimitiveNumberParser.parseDouble("123.456")).isEqualTo(123.456d);
+        assertThat(PrimitiveNumberParser.parseDouble("-0.1")).isEqualTo(-0.1d);
+        assertThat(PrimitiveNumberParser.parseDouble("+.5")).isEqualTo(0.5d);
+        assertThat(PrimitiveNumberParser.parseDouble("1.")).isEqualTo(1.0d);
+        assertThat(PrimitiveNumberParser.parseDouble("999999999999999")).isEqualTo(999999999999999.0d);
+        
+        // 対象外の形式
+        assertThat(PrimitiveNumberParser.parseDouble(null)).isNaN();
+        assertThat(PrimitiveNumberParser.parseDouble("")).isNaN();
+        assertThat(PrimitiveNumberParser.parseDouble(".")).isNaN();
+        assertThat(PrimitiveNumberParser.parseDouble("1.2.3")).isNaN();
+        assertThat(PrimitiveNumberParser.parseDouble("1e3")).isNaN();
+        assertThat(PrimitiveNumberParser.parseDouble("NaN")).isNaN();
+        assertThat(PrimitiveNumberParser.parseDouble("0.1234567890123456")).isNaN();
+        
+    }
+    
+    /**
+     * {@link BigDecimal}で変換した場合と結果が一致すること
+     */
+    @Test
+    public void testSameAsBigDecimal() {
+        
+        final Random random = new Random(12345L);
+        for(int i=0; i < 100000; i++) {
+            
+            final StringBuilder text = new StringBuilder();
+            if(random.nextBoolean()) {
+                text.append(random.nextBoolean() ? '-' : '+');
+            }
+            
+            final int intDigits = random.nextInt(19);
+            for(int d=0; d < intDigits; d++) {
+                text.append((char)('0' + random.nextInt(10)));
+            }
+            
+            final long longValue = PrimitiveNumberParser.parseLong(text.toString());
+            if(longValue != PrimitiveNumberParser.NOT_PARSED) {
+                assertThat(longValue).as(text.toString()).isEqualTo(new BigDecimal(text.toString()).longValueExact());
+            }
+            
+            if(random.nextBoolean()) {
+                text.append('.');
+                final int fractionDigits = random.nextInt(16);
+                for(int d=0; d < fractionDigits; d++) {
+                    text.append((char)('0' + random.nextInt(10)));
+                }
+            }
+            
+            final double doubleValue = PrimitiveNumberParser.parseDouble(text.toString());
+            if(!Double.isNaN(doubleValue)) {
+                assertThat(Double.doubleToLongBits(doubleValue)).as(text.toString())
+                    .isEqualTo(Double.doubleToLongBits(new BigDecimal(text.toString()).doubleValue()));
+            }
+            
+        }
+        
+    }
+    
+}
@@ -1291,4 +1291,74 @@ public class SimpleNumberFormatterTest {
         
     }
     
+    /**
+     * BigDecimalを経由せずに変換する場合
+     * @since 2.2
+     */
+    public static class PrimitiveFastPathTest {
+        
+        /**
+         * 範囲外の値は、BigDecimalを経由した場合と同じ例外となる
+         */
+        @Test
+        public void testParse_overflow() {
+            
+            assertThatThrownBy(() -> new SimpleNumberFormatter<>(byte.class, false).parse("128"))
+                .isInstanceOf(TextParseException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+            assertThatThrownBy(() -> new SimpleNumberFormatter<>(Short.class, false).parse("-32769"))
+                .isInstanceOf(TextParseException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+            assertThatThrownBy(() -> new SimpleNumberFormatter<>(int.class, false).parse("2147483648"))
+                .isInstanceOf(TextParseException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+            assertThatThrownBy(() -> new SimpleNumberFormatter<>(Long.class, false).parse("9223372036854775808"))
+                .isInstanceOf(TextParseException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+            
+            assertThat(new SimpleNumberFormatter<>(byte.class, false).parse("-128")).isEqualTo((byte)-128);
+            assertThat(new SimpleNumberFormatter<>(int.class, false).parse("-2147483648")).isEqualTo(Integer.MIN_VALUE);
+            assertThat(new SimpleNumberFormatter<>(long.class, false).parse("-9223372036854775808")).isEqualTo(Long.MIN_VALUE);
+            
+        }
+        
+        /**
+         * 曖昧にパースする場合は、範囲外の値は切り捨てる
+         */
+        @Test
+        public void testParse_overflowLenient() {
+            
+            assertThat(new SimpleNumberFormatter<>(byte.class, true).parse("300"))
+                .isEqualTo(new BigDecimal("300").byteValue());
+            assertThat(new SimpleNumberFormatter<>(Short.class, true).parse("-40000"))
+                .isEqualTo(new BigDecimal("-40000").shortValue());
+            assertThat(new SimpleNumberFormatter<>(int.class, true).parse("12345678901"))
+                .isEqualTo(new BigDecimal("12345678901").intValue());
+            
+        }
+        
+        /**
+         * 小数や指数表記は、BigDecimalを経由して変換する
+         */
+        @Test
+        public void testParse_notSimple() {
+            
+            assertThat(new SimpleNumberFormatter<>(int.class, false).parse("1.00")).isEqualTo(1);
+            assertThat(new SimpleNumberFormatter<>(int.class, false).parse("1e3")).isEqualTo(1000);
+            assertThat(new SimpleNumberFormatter<>(int.class, true).parse("1.5")).isEqualTo(1);
+            assertThatThrownBy(() -> new SimpleNumberFormatter<>(int.class, false).parse("1.5"))
+                .isInstanceOf(TextParseException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+            
+            assertThat(new SimpleNumberFormatter<>(double.class, false).parse("-12.25")).isEqualTo(-12.25d);
+            assertThat(new SimpleNumberFormatter<>(Double.class, false).parse("1.5e-3")).isEqualTo(0.0015d);
+            assertThat(new SimpleNumberFormatter<>(Double.class, false).parse("-0")).isEqualTo(0.0d);
+            assertThatThrownBy(() -> new SimpleNumberFormatter<>(double.class, false).parse("1.2.3"))
+                .isInstanceOf(TextParseException.class)
+                .hasCauseInstanceOf(NumberFormatException.class);
+            
+        }
+        
+    }
+    
 }
@@ -0,0 +1,431 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.beans.ConstructorProperties;
+import java.io.StringReader;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.cellprocessor.Optional;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+
+/**
+ * {@link BeanInstantiator}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class BeanInstantiatorTest {
+    
+    private BeanMappingFactory beanMappingFactory;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.beanMappingFactory = new BeanMappingFactory();
+    }
+    
+    /**
+     * 引数なしのコンストラクタを持つBeanの場合
+     */
+    @Test
+    public void testNoArgsConstructor() {
+        
+        BeanMapping<BeanPropertyBinderTest.PublicBean> beanMapping = beanMappingFactory.create(BeanPropertyBinderTest.PublicBean.class);
+        BeanInstantiator<BeanPropertyBinderTest.PublicBean> instantiator = BeanInstantiator.create(beanMapping, beanMapping.getNameMapping());
+        
+        assertThat(instantiator.isArgumentsConstructor()).isFalse();
+        assertThat(instantiator.newInstance()).isInstanceOf(BeanPropertyBinderTest.PublicBean.class)
+            .isNotSameAs(instantiator.newInstance());
+            
+        // 公開されていないBeanの場合
+        BeanMapping<PrivateConstructorBean> beanMapping2 = beanMappingFactory.create(PrivateConstructorBean.class);
+        BeanInstantiator<PrivateConstructorBean> instantiator2 = BeanInstantiator.create(beanMapping2, beanMapping2.getNameMapping());
+        
+        assertThat(instantiator2.isArgumentsConstructor()).isFalse();
+        assertThat(instantiator2.newInstance()).isInstanceOf(PrivateConstructorBean.class);
+        
+    }
+    
+    /**
+     * 異なるマッピング情報から作成しても、コンストラクタの呼び出し処理のクラスを生成し直さないこと
+     */
+    @Test
+    public void testNoClassGeneration() {
+        
+        final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        
+        // 初回の生成
+        BeanMapping<BeanPropertyBinderTest.PublicBean> first = beanMappingFactory.create(BeanPropertyBinderTest.PublicBean.class);
+        BeanInstantiator.create(first, first.getNameMapping()).newInstance();
+        
+        final long loadedCount = classLoading.getTotalLoadedClassCount();
+        for(int i=0; i < 200; i++) {
+            BeanMapping<BeanPropertyBinderTest.PublicBean> beanMapping = beanMappingFactory.create(BeanPropertyBinderTest.PublicBean.class);
+            BeanInstantiator<BeanPropertyBinderTest.PublicBean> instantiator = BeanInstantiator.create(beanMapping, beanMapping.getNameMapping());
+            assertThat(instantiator.newInstance()).isInstanceOf(BeanPropertyBinderTest.PublicBean.class);
+        }
+        
+        assertThat(classLoading.getTotalLoadedClassCount() - loadedCount).isLessThan(20L);
+        
+    }
+    
+    /**
+     * 全てのカラムを引数に取るコンストラクタを持つ、不変なBeanの場合
+     */
+    @Test
+    public void testArgumentsConstructor() throws Exception {
+        
+        // ConstructorPropertiesで引数名を指定している場合
+        assertReadImmutableBean(NamedImmutableBean.class);
+        
+        // 引数名をコンパイル時に保持している（-parametersオプション）場合のみ、利用すること
+        BeanMapping<PositionalImmutableBean> beanMapping = beanMappingFactory.create(PositionalImmutableBean.class);
+        if(isParameterNamePresent(PositionalImmutableBean.class)) {
+            assertReadImmutableBean(PositionalImmutableBean.class);
+        } else {
+            assertThat(BeanInstantiator.create(beanMapping, beanMapping.getNameMapping()).isArgumentsConstructor()).isFalse();
+        }
+        
+    }
+    
+    /**
+     * 同じタイプの引数が、フィールドと異なる順に定義されている場合 - 値を取り違えないこと
+     */
+    @Test
+    public void testArgumentsConstructor_sameTypes() throws Exception {
+        
+        BeanMapping<SameTypeBean> beanMapping = beanMappingFactory.create(SameTypeBean.class);
+        final boolean argumentsConstructor = BeanInstantiator.create(beanMapping, beanMapping.getNameMapping()).isArgumentsConstructor();
+        
+        if(!isParameterNamePresent(SameTypeBean.class)) {
+            // 引数名が分からない場合は、カラムの順に対応付けずに利用しない
+            assertThat(argumentsConstructor).isFalse();
+            return;
+        }
+        
+        assertThat(argumentsConstructor).isTrue();
+        
+        try(CsvAnnotationBeanReader<SameTypeBean> csvReader = new CsvAnnotationBeanReader<>(
+                beanMapping, new StringReader("firstName,lastName\nTaro,Yamada\n"), CsvPreference.STANDARD_PREFERENCE)) {
+                
+            final List<SameTypeBean> list = csvReader.readAll();
+            assertThat(list).hasSize(1);
+            assertThat(list.get(0).getFirstName()).isEqualTo("Taro");
+            assertThat(list.get(0).getLastName()).isEqualTo("Yamada");
+        }
+        
+    }
+    
+    /**
+     * 処理済みの値のタイプが引数のタイプと一致しない場合 - フィールドエラーとすること
+     */
+    @Test
+    public void testArgumentsConstructor_typeMismatch() throws Exception {
+        
+        BeanMapping<NamedImmutableBean> beanMapping = beanMappingFactory.create(NamedImmutableBean.class);
+        
+        // 文字列のまま値を返す処理に置き換える
+        beanMapping.getColumns().get(0).setCellProcessorForReading(new Optional());
+        
+        try(CsvAnnotationBeanReader<NamedImmutableBean> csvReader = new CsvAnnotationBeanReader<>(
+                beanMapping, new StringReader("id,name,enabled\n1,abc,true\n"), CsvPreference.STANDARD_PREFERENCE)) {
+                
+            csvReader.getHeader(true);
+            
+            ReadResult<NamedImmutableBean> result = csvReader.readNext();
+            assertThat(result.hasErrors()).isTrue();
+            assertThat(result.getBindingErrors().getFieldErrorCount("id")).isEqualTo(1);
+            assertThat(result.getBean().getId()).isEqualTo(0);
+            assertThat(result.getBean().getName()).isEqualTo("abc");
+            
+            assertThat(csvReader.getErrorMessages()).containsExactly(
+                    "[2行, 1列] : 項目「id」の値（1）のタイプが、コンストラクタの引数のタイプ（java.lang.Integer）と一致しません。");
+        }
+        
+    }
+    
+    private static boolean isParameterNamePresent(final Class<?> beanType) {
+        return beanType.getDeclaredConstructors()[0].getParameters()[0].isNamePresent();
+    }
+    
+    private <T extends ImmutableBean> void assertReadImmutableBean(final Class<T> beanType) throws Exception {
+        
+        final String csv = "id,name,enabled\n"
+                + "1,abc,true\n"
+                + "x,,true\n";
+                
+        BeanMapping<T> beanMapping = beanMappingFactory.create(beanType);
+        assertThat(BeanInstantiator.create(beanMapping, beanMapping.getNameMapping()).isArgumentsConstructor()).isTrue();
+        
+        try(CsvAnnotationBeanReader<T> csvReader = new CsvAnnotationBeanReader<>(
+                beanMapping, new StringReader(csv), CsvPreference.STANDARD_PREFERENCE)) {
+                
+            csvReader.getHeader(true);
+            
+            ReadResult<T> result1 = csvReader.readNext();
+            assertThat(result1.hasErrors()).isFalse();
+            assertThat(result1.getBean()).isInstanceOf(beanType);
+            assertThat(result1.getBean().getId()).isEqualTo(1);
+            assertThat(result1.getBean().getName()).isEqualTo("abc");
+            assertThat(result1.getBean().isEnabled()).isTrue();
+            
+            // エラーのあるカラムは初期値となる
+            ReadResult<T> result2 = csvReader.readNext();
+            assertThat(result2.hasErrors()).isTrue();
+            assertThat(result2.getBean().getId()).isEqualTo(0);
+            assertThat(result2.getBean().getName()).isNull();
+            assertThat(result2.getBean().isEnabled()).isTrue();
+            
+            assertThat(csvReader.readNext()).isNull();
+        }
+        
+    }
+    
+    /**
+     * 引数のタイプがカラムと一致するコンストラクタが複数ある場合 - 利用しないこと
+     */
+    @Test
+    public void testAmbiguousConstructor() {
+        
+        BeanMapping<AmbiguousBean> beanMapping = beanMappingFactory.create(AmbiguousBean.class);
+        BeanInstantiator<AmbiguousBean> instantiator = BeanInstantiator.create(beanMapping, beanMapping.getNameMapping());
+        
+        assertThat(instantiator.isArgumentsConstructor()).isFalse();
+        
+    }
+    
+    /**
+     * インタフェースの場合 - 生成した実装クラスのインスタンスを作成すること
+     */
+    @Test
+    public void testInterface() {
+        
+        BeanInstantiator<SampleInterface> instantiator = BeanInstantiator.create(new BeanMapping<>(SampleInterface.class), new String[0]);
+        
+        SampleInterface bean = instantiator.newInstance();
+        assertThat(bean.getClass()).isEqualTo(BeanInterfaceGenerator.getImplementation(SampleInterface.class).get());
+        
+        bean.setId(10);
+        bean.setName("abc");
+        bean.setEnabled(true);
+        bean.setTags(null);
+        
+        assertThat(bean.getId()).isEqualTo(10);
+        assertThat(bean.getName()).isEqualTo("abc");
+        assertThat(bean.isEnabled()).isTrue();
+        assertThat(bean.getTags()).isNull();
+        
+    }
+    
+    /**
+     * プロパティ以外の抽象メソッドを持つインタフェースの場合 - 実装クラスを生成しないこと
+     */
+    @Test
+    public void testInterface_notPropertyMethod() {
+        
+        assertThat(BeanInterfaceGenerator.getImplementation(DescribableInterface.class)).isEmpty();
+        
+        BeanInstantiator<DescribableInterface> instantiator = BeanInstantiator.create(new BeanMapping<>(DescribableInterface.class), new String[0]);
+        
+        DescribableInterface bean = instantiator.newInstance();
+        assertThat(Proxy.isProxyClass(bean.getClass())).isTrue();
+        
+        bean.setId(10);
+        assertThat(bean.getId()).isEqualTo(10);
+        
+    }
+    
+    public interface SampleInterface {
+        
+        int getId();
+        
+        void setId(int id);
+        
+        String getName();
+        
+        void setName(String name);
+        
+        boolean isEnabled();
+        
+        void setEnabled(boolean enabled);
+        
+        List<String> getTags();
+        
+        void setTags(List<String> tags);
+        
+    }
+    
+    public interface DescribableInterface {
+        
+        int getId();
+        
+        void setId(int id);
+        
+        String describe();
+        
+    }
+    
+    public interface ImmutableBean {
+        
+        int getId();
+        
+        String getName();
+        
+        boolean isEnabled();
+        
+    }
+    
+    @CsvBean(header=true)
+    public static class PositionalImmutableBean implements ImmutableBean {
+        
+        @CsvColumn(number=1)
+        private final int id;
+        
+        @CsvColumn(number=2)
+        private final String name;
+        
+        @CsvColumn(number=3)
+        private final boolean enabled;
+        
+        public PositionalImmutableBean(int id, String name, boolean enabled) {
+            this.id = id;
+            this.name = name;
+            this.enabled = enabled;
+        }
+        
+        @Override
+        public int getId() {
+            return id;
+        }
+        
+        @Override
+        public String getName() {
+            return name;
+        }
+        
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+    }
+    
+    @CsvBean(header=true)
+    public static class NamedImmutableBean implements ImmutableBean {
+        
+        @CsvColumn(number=1)
+        private final int id;
+        
+        @CsvColumn(number=2)
+        private final String name;
+        
+        @CsvColumn(number=3)
+        private final boolean enabled;
+        
+        @ConstructorProperties({"enabled", "name", "id"})
+        public NamedImmutableBean(boolean enabled, String name, int id) {
+            this.id = id;
+            this.name = name;
+            this.enabled = enabled;
+        }
+        
+        @Override
+        public int getId() {
+            return id;
+        }
+        
+        @Override
+        public String getName() {
+            return name;
+        }
+        
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+    }
+    
+    @CsvBean(header=true)
+    public static class SameTypeBean {
+        
+        @CsvColumn(number=1)
+        private final String firstName;
+        
+        @CsvColumn(number=2)
+        private final String lastName;
+        
+        public SameTypeBean(String lastName, String firstName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+        
+        public String getFirstName() {
+            return firstName;
+        }
+        
+        public String getLastName() {
+            return lastName;
+        }
+        
+    }
+    
+    @CsvBean
+    public static class AmbiguousBean {
+        
+        @CsvColumn(number=1)
+        private final String value1;
+        
+        @CsvColumn(number=2)
+        private final String value2;
+        
+        public AmbiguousBean(String value1, String value2) {
+            this.value1 = value1;
+            this.value2 = value2;
+        }
+        
+        public AmbiguousBean(Object value1, Object value2) {
+            this(String.valueOf(value1), String.valueOf(value2));
+        }
+        
+        public String getValue1() {
+            return value1;
+        }
+        
+        public String getValue2() {
+            return value2;
+        }
+        
+    }
+    
+    @CsvBean
+    public static class PrivateConstructorBean {
+        
+        @CsvColumn(number=1)
+        private String value;
+        
+        private PrivateConstructorBean() {
+        }
+        
+        public String getValue() {
+            return value;
+        }
+        
+        public void setValue(String value) {
+            this.value = value;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,247 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.exception.SuperCsvReflectionException;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+
+/**
+ * {@link BeanPropertyBinder}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class BeanPropertyBinderTest {
+    
+    private BeanMappingFactory beanMappingFactory;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.beanMappingFactory = new BeanMappingFactory();
+    }
+    
+    /**
+     * 公開されているBeanの場合 - プリミティブ型のプロパティも設定・取得できること
+     */
+    @Test
+    public void testPublicBean() {
+        
+        BeanMapping<PublicBean> beanMapping = beanMappingFactory.create(PublicBean.class);
+        BeanPropertyBinder<PublicBean> binder = BeanPropertyBinder.create(beanMapping, beanMapping.getNameMapping());
+        
+        PublicBean bean = new PublicBean();
+        binder.setValue(bean, 0, 12);
+        binder.setValue(bean, 1, "abc");
+        binder.setValue(bean, 2, true);
+        
+        assertThat(bean.getId()).isEqualTo(12);
+        assertThat(bean.getName()).isEqualTo("abc");
+        assertThat(bean.isEnabled()).isTrue();
+        
+        assertThat(binder.getValue(bean, 0)).isEqualTo(12);
+        assertThat(binder.getValue(bean, 1)).isEqualTo("abc");
+        assertThat(binder.getValue(bean, 2)).isEqualTo(true);
+        
+    }
+    
+    /**
+     * 公開されていないBeanの場合 - MethodHandleで代替して設定・取得できること
+     */
+    @Test
+    public void testPackagePrivateBean() {
+        
+        BeanMapping<PackagePrivateBean> beanMapping = beanMappingFactory.create(PackagePrivateBean.class);
+        BeanPropertyBinder<PackagePrivateBean> binder = BeanPropertyBinder.create(beanMapping, beanMapping.getNameMapping());
+        
+        PackagePrivateBean bean = new PackagePrivateBean();
+        binder.setValue(bean, 0, 34L);
+        binder.setValue(bean, 1, "def");
+        
+        assertThat(bean.getId()).isEqualTo(34L);
+        assertThat(bean.getName()).isEqualTo("def");
+        
+        assertThat(binder.getValue(bean, 0)).isEqualTo(34L);
+        assertThat(binder.getValue(bean, 1)).isEqualTo("def");
+        
+    }
+    
+    /**
+     * setterの引数のタイプがフィールドと異なる場合 - 値のタイプを元にメソッドを検索すること
+     */
+    @Test
+    public void testDifferentSetterType() {
+        
+        BeanMapping<DifferentTypeBean> beanMapping = beanMappingFactory.create(DifferentTypeBean.class);
+        BeanPropertyBinder<DifferentTypeBean> binder = BeanPropertyBinder.create(beanMapping, beanMapping.getNameMapping());
+        
+        DifferentTypeBean bean = new DifferentTypeBean();
+        binder.setValue(bean, 0, "56");
+        
+        assertThat(bean.getValue()).isEqualTo(56);
+        assertThat(binder.getValue(bean, 0)).isEqualTo(56);
+        
+    }
+    
+    /**
+     * setterで例外が発生した場合
+     */
+    @Test
+    public void testSetterException() {
+        
+        BeanMapping<PublicBean> beanMapping = beanMappingFactory.create(PublicBean.class);
+        BeanPropertyBinder<PublicBean> binder = BeanPropertyBinder.create(beanMapping, beanMapping.getNameMapping());
+        
+        PublicBean bean = new PublicBean();
+        assertThatThrownBy(() -> binder.setValue(bean, 0, -1))
+            .isInstanceOf(SuperCsvReflectionException.class)
+            .hasMessage("error invoking method setId()")
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+            
+    }
+    
+    /**
+     * 同じマッピング情報から作成する場合は、インスタンスを共有すること
+     */
+    @Test
+    public void testShared() {
+        
+        BeanMapping<PublicBean> beanMapping = beanMappingFactory.create(PublicBean.class);
+        BeanMappingCache<PublicBean> cache1 = BeanMappingCache.create(beanMapping);
+        BeanMappingCache<PublicBean> cache2 = BeanMappingCache.create(beanMapping);
+        
+        assertThat(cache2.getPropertyBinder()).isSameAs(cache1.getPropertyBinder());
+        assertThat(cache2.getInstantiator()).isSameAs(cache1.getInstantiator());
+        
+        // カラム情報を設定し直した場合は、組み立て直す
+        beanMapping.setColumns(new ArrayList<>(beanMapping.getColumns()));
+        BeanMappingCache<PublicBean> cache3 = BeanMappingCache.create(beanMapping);
+        assertThat(cache3.getPropertyBinder()).isNotSameAs(cache1.getPropertyBinder());
+        
+        PublicBean bean = new PublicBean();
+        cache3.getPropertyBinder().setValue(bean, 1, "abc");
+        assertThat(bean.getName()).isEqualTo("abc");
+        
+    }
+    
+    /**
+     * 異なるマッピング情報から作成しても、呼び出し処理のクラスを生成し直さないこと
+     */
+    @Test
+    public void testNoClassGeneration() {
+        
+        final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        
+        // 初回の生成
+        BeanMapping<PublicBean> first = beanMappingFactory.create(PublicBean.class);
+        BeanPropertyBinder.create(first, first.getNameMapping());
+        
+        final long loadedCount = classLoading.getTotalLoadedClassCount();
+        for(int i=0; i < 200; i++) {
+            BeanMapping<PublicBean> beanMapping = beanMappingFactory.create(PublicBean.class);
+            BeanPropertyBinder<PublicBean> binder = BeanPropertyBinder.create(beanMapping, beanMapping.getNameMapping());
+            
+            PublicBean bean = new PublicBean();
+            binder.setValue(bean, 0, i);
+            assertThat(binder.getValue(bean, 0)).isEqualTo(i);
+        }
+        
+        assertThat(classLoading.getTotalLoadedClassCount() - loadedCount).isLessThan(20L);
+        
+    }
+    
+    @CsvBean
+    public static class PublicBean {
+        
+        @CsvColumn(number=1)
+        private int id;
+        
+        @CsvColumn(number=2)
+        private String name;
+        
+        @CsvColumn(number=3)
+        private boolean enabled;
+        
+        public int getId() {
+            return id;
+        }
+        
+        public void setId(int id) {
+            if(id < 0) {
+                throw new IllegalArgumentException("id should be positive.");
+            }
+            this.id = id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+    }
+    
+    @CsvBean
+    static class PackagePrivateBean {
+        
+        @CsvColumn(number=1)
+        private long id;
+        
+        @CsvColumn(number=2)
+        private String name;
+        
+        public long getId() {
+            return id;
+        }
+        
+        public void setId(long id) {
+            this.id = id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+    }
+    
+    @CsvBean
+    public static class DifferentTypeBean {
+        
+        @CsvColumn(number=1)
+        private Integer value;
+        
+        public Integer getValue() {
+            return value;
+        }
+        
+        public void setValue(String value) {
+            this.value = Integer.valueOf(value);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,180 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static com.github.mygreen.supercsv.tool.TestUtils.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+
+/**
+ * {@link ChannelCsvAnnotationBeanWriter}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ChannelCsvAnnotationBeanWriterTest {
+    
+    private CsvExceptionConverter exceptionConverter;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.exceptionConverter = new CsvExceptionConverter();
+    }
+    
+    /**
+     * 正常系のテスト - ストリームに書き込む
+     */
+    @Test
+    public void testWriteAll_normal() throws IOException {
+        
+        final List<SampleNormalBean> list = CsvAnnotationBeanWriterTest.createNormalData();
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        ChannelCsvAnnotationBeanWriter<SampleNormalBean> csvWriter = new ChannelCsvAnnotationBeanWriter<>(
+                SampleNormalBean.class,
+                out,
+                Charset.forName("UTF-8"),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.WriteGroup.class);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        
+        csvWriter.writeAll(list);
+        
+        String expected = getTextFromFile("src/test/data/test_write_normal.csv", Charset.forName("UTF-8"));
+        assertThat(new String(out.toByteArray(), "UTF-8")).isEqualTo(expected);
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(0);
+        
+        csvWriter.close();
+        
+    }
+    
+    /**
+     * バッファのサイズを指定して、チャネルに書き込む - 逐次処理と結果が一致すること
+     */
+    @Test
+    public void testWriteAll_channel_smallBuffer() throws IOException {
+        
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        for(int i=1; i <= 500; i++) {
+            final SampleSimpleBean bean = new SampleSimpleBean();
+            bean.setId(i);
+            bean.setName(i == 300 ? "too-long-name" : "名前");
+            bean.setComment(i % 3 == 0 ? "改行\r\nを含む" : "a,b");
+            list.add(bean);
+        }
+        
+        final Charset charset = Charset.forName("Windows-31j");
+        
+        StringWriter expectedWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> sequentialWriter = new CsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, expectedWriter, CsvPreference.STANDARD_PREFERENCE);
+        sequentialWriter.writeAll(list, true);
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChannelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ChannelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                new ChannelWriter(Channels.newChannel(out), charset, 10, 16),
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        
+        csvWriter.writeAll(list, true);
+        
+        assertThat(out.toByteArray()).isEqualTo(expectedWriter.toString().getBytes(charset));
+        
+        // 改行を含む値の行数も含めること
+        assertThat(csvWriter.getLineNumber()).isEqualTo(sequentialWriter.getLineNumber());
+        assertThat(csvWriter.getRowNumber()).isEqualTo(sequentialWriter.getRowNumber());
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(1)
+            .containsExactlyElementsOf(sequentialWriter.getErrorMessages());
+        
+        csvWriter.close();
+        sequentialWriter.close();
+        
+    }
+    
+    /**
+     * エラーがある場合 - それまでのレコードを書き込み、処理を中断すること
+     */
+    /**
+     * 一定のバイト数ごとにフラッシュして進捗を通知する
+     */
+    @Test
+    public void testWriteAll_flushBytes() throws IOException {
+        
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        for(int i=1; i <= 100; i++) {
+            final SampleSimpleBean bean = new SampleSimpleBean();
+            bean.setId(i);
+            bean.setName("名前");
+            list.add(bean);
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChannelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ChannelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                out,
+                Charset.forName("UTF-8"),
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        final List<Long> progress = new ArrayList<>();
+        final List<Integer> flushedSize = new ArrayList<>();
+        csvWriter.setFlushBytes(100L);
+        csvWriter.setProgressListener(count -> {
+            progress.add(count);
+            flushedSize.add(out.size());
+        });
+        
+        csvWriter.writeAll(list);
+        
+        // 1行は、「{id},名前,」+改行で、11～13バイト（ヘッダーを含め合計1209バイト）
+        assertThat(progress).hasSize(11);
+        assertThat(progress.get(progress.size()-1)).isEqualTo(100L);
+        assertThat(flushedSize.get(flushedSize.size()-1)).isEqualTo(out.size()).isEqualTo(1209);
+        
+        // 通知される時点で、前回から100バイト以上がフラッシュされている
+        int prevSize = "id,name,comment\r\n".length();
+        for(int i=0; i < flushedSize.size() - 1; i++) {
+            assertThat(flushedSize.get(i) - prevSize).isBetween(100, 112);
+            prevSize = flushedSize.get(i);
+        }
+        
+        csvWriter.close();
+        
+    }
+    
+    @Test(expected=SuperCsvBindingException.class)
+    public void testWriteAll_error() throws IOException {
+        
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        final SampleSimpleBean bean = new SampleSimpleBean();
+        bean.setId(1);
+        bean.setName("too-long-name");
+        list.add(bean);
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(ChannelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ChannelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, out, Charset.forName("UTF-8"), CsvPreference.STANDARD_PREFERENCE)) {
+            
+            csvWriter.writeAll(list);
+        }
+        
+    }
+    
+}
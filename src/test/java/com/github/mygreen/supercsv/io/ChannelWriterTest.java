@@ -0,0 +1,178 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * {@link ChannelWriter}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ChannelWriterTest {
+    
+    private static final String TEXT = "id,name,comment\r\n"
+            + "1,abc,\"a,b\"\r\n"
+            + "2,あいうえお,😀🍣\r\n"
+            + "3,ｱｲｳ①,～～\r\n";
+    
+    /**
+     * ASCIIの文字をそのままコピーする文字コードかどうか
+     */
+    @Test
+    public void testIsAsciiCompatible() {
+        
+        assertThat(ChannelWriter.isAsciiCompatible(StandardCharsets.UTF_8)).isTrue();
+        assertThat(ChannelWriter.isAsciiCompatible(StandardCharsets.US_ASCII)).isTrue();
+        assertThat(ChannelWriter.isAsciiCompatible(Charset.forName("Windows-31j"))).isTrue();
+        assertThat(ChannelWriter.isAsciiCompatible(Charset.forName("EUC-JP"))).isTrue();
+        
+        // ASCIIが1バイトにならない、または状態を持つ
+        assertThat(ChannelWriter.isAsciiCompatible(StandardCharsets.UTF_16)).isFalse();
+        assertThat(ChannelWriter.isAsciiCompatible(Charset.forName("ISO-2022-JP"))).isFalse();
+        
+    }
+    
+    /**
+     * 文字コードの変換結果が、{@link OutputStreamWriter}と一致すること
+     */
+    @Test
+    public void testWrite_charsets() throws IOException {
+        
+        for(String charsetName : new String[]{"UTF-8", "Windows-31j", "EUC-JP", "ISO-2022-JP", "UTF-16"}) {
+            final Charset charset = Charset.forName(charsetName);
+            
+            assertThat(writeWithChannel(TEXT, charset, ChannelWriter.DEFAULT_CHAR_BUFFER_SIZE, ChannelWriter.DEFAULT_BYTE_BUFFER_SIZE))
+                .as(charsetName)
+                .isEqualTo(writeWithStream(TEXT, charset));
+        }
+        
+    }
+    
+    /**
+     * バッファが小さい場合 - サロゲートペアがバッファの境界で分かれても変換できること
+     */
+    @Test
+    public void testWrite_smallBuffer() throws IOException {
+        
+        final StringBuilder text = new StringBuilder();
+        for(int i=0; i < 100; i++) {
+            text.append(TEXT);
+        }
+        
+        for(String charsetName : new String[]{"UTF-8", "Windows-31j", "ISO-2022-JP"}) {
+            final Charset charset = Charset.forName(charsetName);
+            final byte[] expected = writeWithStream(text.toString(), charset);
+            
+            for(int charBufferSize = 2; charBufferSize <= 7; charBufferSize++) {
+                assertThat(writeWithChannel(text.toString(), charset, charBufferSize, 16))
+                    .as("%s - %d", charsetName, charBufferSize)
+                    .isEqualTo(expected);
+            }
+        }
+        
+    }
+    
+    /**
+     * 不正なサロゲートペアは、代替バイトに置換されること
+     */
+    @Test
+    public void testWrite_malformed() throws IOException {
+        
+        final String text = "a\uD83Db\uDE00c\uD83D";
+        
+        assertThat(writeWithChannel(text, StandardCharsets.UTF_8, 4, 16))
+            .isEqualTo(writeWithStream(text, StandardCharsets.UTF_8));
+        
+    }
+    
+    /**
+     * フラッシュした時点で、チャネルに書き込まれること
+     */
+    @Test
+    public void testFlush() throws IOException {
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ChannelWriter writer = new ChannelWriter(out, StandardCharsets.UTF_8);
+        
+        writer.write("abc,あ");
+        assertThat(out.size()).isEqualTo(0);
+        
+        writer.flush();
+        assertThat(out.toByteArray()).isEqualTo("abc,あ".getBytes(StandardCharsets.UTF_8));
+        
+        writer.close();
+        
+        try {
+            writer.write("d");
+            fail();
+            
+        } catch(IOException e) {
+            // クローズ後は書き込めない
+        }
+        
+    }
+    
+    /**
+     * 引数のチェック
+     */
+    @Test
+    public void testConstructor_invalidBufferSize() {
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        assertThatThrownBy(() -> new ChannelWriter(out, StandardCharsets.UTF_8, 1, 16))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> new ChannelWriter(out, StandardCharsets.UTF_8, 16, 15))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+    }
+    
+    private byte[] writeWithChannel(final String text, final Charset charset, final int charBufferSize, final int byteBufferSize)
+            throws IOException {
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(Writer writer = new ChannelWriter(Channels.newChannel(out), charset, charBufferSize, byteBufferSize)) {
+            // 1文字、部分文字列、文字配列を混在させて書き込む
+            int i = 0;
+            while(i < text.length()) {
+                final int size = Math.min(i % 5, text.length() - i);
+                if(size == 0) {
+                    writer.write(text.charAt(i));
+                    i++;
+                } else if(size % 2 == 0) {
+                    writer.write(text, i, size);
+                    i += size;
+                } else {
+                    writer.write(text.toCharArray(), i, size);
+                    i += size;
+                }
+            }
+        }
+        
+        return out.toByteArray();
+    }
+    
+    private byte[] writeWithStream(final String text, final Charset charset) throws IOException {
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(Writer writer = new OutputStreamWriter(out, charset)) {
+            writer.write(text);
+        }
+        
+        return out.toByteArray();
+    }
+    
+}
@@ -1,6 +1,7 @@
 package com.github.mygreen.supercsv.io;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.*;
 import static org.assertj.core.api.Assertions.*;
 import static com.github.mygreen.supercsv.tool.TestUtils.*;
 
@@ -8,15 +9,22 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.nio.charset.Charset;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.exception.SuperCsvException;
 import org.supercsv.prefs.CsvPreference;
+import org.supercsv.util.CsvContext;
 
 import com.github.mygreen.supercsv.annotation.DefaultGroup;
 import com.github.mygreen.supercsv.builder.BeanMapping;
@@ -24,7 +32,12 @@ import com.github.mygreen.supercsv.builder.BeanMappingFactory;
 import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
 import com.github.mygreen.supercsv.exception.SuperCsvNoMatchColumnSizeException;
 import com.github.mygreen.supercsv.exception.SuperCsvNoMatchHeaderException;
+import com.github.mygreen.supercsv.exception.SuperCsvRowException;
+import com.github.mygreen.supercsv.exception.SuperCsvValidationException;
+import com.github.mygreen.supercsv.validation.CsvBindingErrors;
+import com.github.mygreen.supercsv.validation.CsvError;
 import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+import com.github.mygreen.supercsv.validation.ValidationContext;
 
 
 /**
@@ -415,6 +428,557 @@ public class CsvAnnotationBeanReaderTest {
         
     }
     
+    /**
+     * 全件読み込み - エラーメッセージの保持件数の上限と、エラーを受け取る処理
+     * @since 2.2
+     */
+    @Test
+    public void testReadAll_error_maxErrorMessages() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_wrong_pattern.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setMaxErrorMessages(0);
+        
+        final List<CsvError> errors = new ArrayList<>();
+        csvReader.setErrorSink(errors::add);
+        
+        List<SampleNormalBean> list = csvReader.readAll(true);
+        assertThat(list).hasSize(1);
+        
+        // メッセージは保持しない
+        assertThat(csvReader.getErrorMessages()).isEmpty();
+        assertThat(csvReader.getDroppedErrorCount()).isEqualTo(1L);
+        
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).format(exceptionConverter.getMessageResolver(), exceptionConverter.getMessageInterpolator()))
+            .isEqualTo("[2行, 6列] : 項目「date1」の値（2000/01/01 00:01:02）の書式は不正です。");
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 読み込み結果の取得、ストリーム - その他の例外のエラーも、エラーを受け取る処理に渡されること
+     * @since 2.2
+     */
+    @Test
+    public void testReadNext_error_otherException_errorSink() throws IOException {
+        
+        File file = new File("src/test/data/test_read_normal.csv");
+        
+        BeanMapping<SampleNormalBean> beanMapping = new BeanMappingFactory().create(SampleNormalBean.class,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        beanMapping.getColumns().get(0).setCellProcessorForReading(new CellProcessor() {
+            
+            @Override
+            public <T> T execute(final Object value, final CsvContext context) {
+                throw new SuperCsvException("unexpected error", context);
+            }
+        });
+        
+        // readNext()
+        {
+            CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                    beanMapping,
+                    new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                    CsvPreference.STANDARD_PREFERENCE);
+            csvReader.setExceptionConverter(exceptionConverter);
+            
+            final List<CsvError> errors = new ArrayList<>();
+            csvReader.setErrorSink(errors::add);
+            
+            csvReader.getHeader(true);
+            assertThatThrownBy(() -> csvReader.readNext())
+                .isInstanceOf(SuperCsvException.class)
+                .hasMessage("unexpected error");
+            
+            assertThat(errors).hasSize(1);
+            assertThat(csvReader.getErrorMessages()).hasSize(1);
+            
+            csvReader.close();
+        }
+        
+        // stream(true)
+        {
+            CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                    beanMapping,
+                    new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                    CsvPreference.STANDARD_PREFERENCE);
+            csvReader.setExceptionConverter(exceptionConverter);
+            
+            final List<CsvError> errors = new ArrayList<>();
+            csvReader.setErrorSink(errors::add);
+            
+            assertThatThrownBy(() -> csvReader.stream(true).count())
+                .isInstanceOf(SuperCsvException.class)
+                .hasMessage("unexpected error");
+            
+            assertThat(errors).hasSize(1);
+            assertThat(csvReader.getErrorMessages()).hasSize(1);
+            
+            csvReader.close();
+        }
+        
+    }
+    
+    /**
+     * 読み込み結果の取得 - エラーがある場合も例外をスローしないこと
+     * @since 2.2
+     */
+    @Test
+    public void testReadNext_error() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_wrong_pattern.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        csvReader.getHeader(true);
+        
+        // 1レコード目（エラー）
+        ReadResult<SampleNormalBean> result1 = csvReader.readNext();
+        assertThat(result1.hasErrors()).isTrue();
+        assertThat(result1.getRowNumber()).isEqualTo(2);
+        assertThat(result1.getBean()).isNotNull();
+        assertThat(result1.getBindingErrors().hasFieldErrors("date1")).isTrue();
+        
+        // 2レコード目（正常）
+        ReadResult<SampleNormalBean> result2 = csvReader.readNext();
+        assertThat(result2.hasErrors()).isFalse();
+        assertBean(result2.getBean());
+        
+        assertThat(csvReader.readNext()).isNull();
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(1)
+            .contains("[2行, 6列] : 項目「date1」の値（2000/01/01 00:01:02）の書式は不正です。");
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 読み込み結果の取得 - 内部で作成する検証エラーの例外は、readNext()の場合のみスタックトレースを作成しないこと
+     * @since 2.2
+     */
+    @Test
+    public void testReadNext_stackless() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_wrong_pattern.csv");
+        
+        // 変換対象の例外を記録する
+        final List<SuperCsvRowException> rowExceptions = new ArrayList<>();
+        final CsvExceptionConverter recordingConverter = new CsvExceptionConverter() {
+            @Override
+            public List<CsvError> convert(final SuperCsvException exception, final BeanMapping<?> beanMapping) {
+                if(exception instanceof SuperCsvRowException) {
+                    rowExceptions.add((SuperCsvRowException) exception);
+                }
+                return super.convert(exception, beanMapping);
+            }
+        };
+        
+        for(int i=0; i < 2; i++) {
+            final boolean readNext = (i == 1);
+            rowExceptions.clear();
+            
+            CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                    SampleNormalBean.class,
+                    new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                    CsvPreference.STANDARD_PREFERENCE,
+                    DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+            csvReader.setExceptionConverter(recordingConverter);
+            
+            csvReader.getHeader(true);
+            
+            if(readNext) {
+                assertThat(csvReader.readNext().hasErrors()).isTrue();
+            } else {
+                assertThatThrownBy(() -> csvReader.read()).isInstanceOf(SuperCsvBindingException.class);
+            }
+            
+            assertThat(rowExceptions).hasSize(1);
+            final SuperCsvRowException rowException = rowExceptions.get(0);
+            final SuperCsvValidationException columnError = (SuperCsvValidationException) rowException.getColumnErrors().get(0);
+            
+            assertThat(columnError.isStackless()).isEqualTo(readNext);
+            if(readNext) {
+                assertThat(rowException.getStackTrace()).isEmpty();
+                assertThat(columnError.getStackTrace()).isEmpty();
+            } else {
+                assertThat(rowException.getStackTrace()).isNotEmpty();
+                assertThat(columnError.getStackTrace()).isNotEmpty();
+            }
+            
+            csvReader.close();
+        }
+        
+    }
+    
+    /**
+     * 読み込み結果の取得 - 列数が不正な場合もエラー情報として返すこと
+     * @since 2.2
+     */
+    @Test
+    public void testReadNext_error_column_size() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_column_size.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        csvReader.getHeader(true);
+        
+        final List<ReadResult<SampleNormalBean>> results = new ArrayList<>();
+        ReadResult<SampleNormalBean> result;
+        while((result = csvReader.readNext()) != null) {
+            results.add(result);
+        }
+        
+        assertThat(results).extracting("rowNumber").containsExactly(2, 3);
+        assertThat(results.get(0).hasErrors()).isFalse();
+        assertThat(results.get(1).hasErrors()).isTrue();
+        assertThat(results.get(1).getBean()).isNull();
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(1)
+            .contains("[3行] : 列数が不正です。 11列で設定すべきですが、実際には13列になっています。");
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * ストリームによる読み込み（正常系のテスト）
+     * @since 2.2
+     */
+    @Test
+    public void testStream_normal() throws IOException {
+        
+        File file = new File("src/test/data/test_read_normal.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        try(Stream<SampleNormalBean> stream = csvReader.stream()) {
+            List<SampleNormalBean> list = stream.collect(Collectors.toList());
+            assertThat(list).hasSize(2);
+            
+            for(SampleNormalBean bean : list) {
+                assertBean(bean);
+            }
+        }
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(0);
+        
+        // ストリームを閉じると、Readerも閉じられる
+        try {
+            csvReader.read();
+            fail();
+        } catch(IOException e) {
+            
+        }
+        
+    }
+    
+    /**
+     * ストリームによる読み込み - カラムにエラーがある
+     * @since 2.2
+     */
+    @Test
+    public void testStream_error_column() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_wrong_pattern.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        try(Stream<SampleNormalBean> stream = csvReader.stream()) {
+            stream.count();
+            fail();
+            
+        } catch(SuperCsvBindingException e) {
+            
+        }
+        
+        // convert error messages.
+        List<String> messages = csvReader.getErrorMessages();
+        assertThat(messages).hasSize(1)
+            .contains("[2行, 6列] : 項目「date1」の値（2000/01/01 00:01:02）の書式は不正です。");
+        
+    }
+    
+    /**
+     * ストリームによる読み込み - カラムにエラーがある場合も処理を続ける
+     * @since 2.2
+     */
+    @Test
+    public void testStream_error_continueOnError() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_wrong_pattern.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        try(Stream<SampleNormalBean> stream = csvReader.stream(true)) {
+            List<SampleNormalBean> list = stream.collect(Collectors.toList());
+            assertThat(list).hasSize(1);
+            
+            for(SampleNormalBean bean : list) {
+                assertBean(bean);
+            }
+        }
+        
+        // convert error messages.
+        List<String> messages = csvReader.getErrorMessages();
+        assertThat(messages).hasSize(1)
+            .contains("[2行, 6列] : 項目「date1」の値（2000/01/01 00:01:02）の書式は不正です。");
+        
+    }
+    
+    /**
+     * ストリームによる読み込み - 並列ストリームの場合も出現順が保たれる
+     * @since 2.2
+     */
+    @Test
+    public void testStream_parallel() throws IOException {
+        
+        final int size = 10000;
+        final String csv = createNormalCsv(size, 100);
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new StringReader(csv),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        try(Stream<SampleNormalBean> stream = csvReader.stream(true)) {
+            List<Integer> ids = stream.parallel()
+                    .map(SampleNormalBean::getId)
+                    .collect(Collectors.toList());
+            
+            assertThat(ids).hasSize(size - size/100);
+            for(int i=1; i < ids.size(); i++) {
+                assertThat(ids.get(i)).isGreaterThan(ids.get(i-1));
+            }
+        }
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(size/100);
+        
+    }
+    
+    /**
+     * 行ごとのオブジェクトを再利用する場合 - 結果が同じであること
+     * @since 2.2
+     */
+    @Test
+    public void testRead_reuseRowObjects() throws IOException {
+        
+        final String csv = createNormalCsv(1000, 100);
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader1 = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new StringReader(csv),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader1.setExceptionConverter(exceptionConverter);
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader2 = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new StringReader(csv),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader2.setExceptionConverter(exceptionConverter);
+        csvReader2.setReuseRowObjects(true);
+        
+        List<SampleNormalBean> list1 = csvReader1.readAll(true);
+        List<SampleNormalBean> list2 = csvReader2.readAll(true);
+        
+        assertThat(list2).hasSameSizeAs(list1);
+        assertThat(list2).extracting("id").isEqualTo(list1.stream().map(SampleNormalBean::getId).collect(Collectors.toList()));
+        assertThat(csvReader2.getErrorMessages()).hasSize(10).isEqualTo(csvReader1.getErrorMessages());
+        
+        csvReader1.close();
+        csvReader2.close();
+        
+    }
+    
+    /**
+     * 行ごとのオブジェクトを再利用する場合 - 同じインスタンスを返し、行ごとに値が初期化されること
+     * @since 2.2
+     */
+    @Test
+    public void testReadNext_reuseRowObjects_identity() throws IOException {
+        
+        // 2行目のみ、書式が不正
+        final String csv = createNormalCsv(3, 2);
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new StringReader(csv),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setReuseRowObjects(true);
+        
+        final List<ValidationContext<SampleNormalBean>> validationContexts = new ArrayList<>();
+        csvReader.addValidator((record, bindingErrors, validationContext) -> validationContexts.add(validationContext));
+        
+        csvReader.getHeader(true);
+        
+        // 1行目（正常）
+        final ReadResult<SampleNormalBean> result1 = csvReader.readNext();
+        final CsvBindingErrors bindingErrors = result1.getBindingErrors();
+        final CsvContext context = result1.getContext();
+        final List<Object> rowSource = context.getRowSource();
+        
+        assertThat(bindingErrors.hasErrors()).isFalse();
+        assertThat(context.getRowNumber()).isEqualTo(2);
+        assertThat(rowSource.get(0)).isEqualTo("1");
+        assertThat(result1.getBean().getId()).isEqualTo(1);
+        
+        // 2行目（エラー） - 同じインスタンスに、この行の値が設定される
+        final ReadResult<SampleNormalBean> result2 = csvReader.readNext();
+        assertThat(result2.getBindingErrors()).isSameAs(bindingErrors);
+        assertThat(result2.getContext()).isSameAs(context);
+        assertThat(result2.getContext().getRowSource()).isSameAs(rowSource);
+        
+        assertThat(bindingErrors.hasErrors()).isTrue();
+        assertThat(bindingErrors.hasFieldErrors("date1")).isTrue();
+        assertThat(context.getRowNumber()).isEqualTo(3);
+        assertThat(rowSource.get(0)).isEqualTo("2");
+        assertThat(rowSource.get(5)).isEqualTo("2000/01/01 00:01:02");
+        
+        // 3行目（正常） - 前の行のエラーは初期化される
+        final ReadResult<SampleNormalBean> result3 = csvReader.readNext();
+        assertThat(result3.getBindingErrors()).isSameAs(bindingErrors);
+        assertThat(result3.getContext()).isSameAs(context);
+        assertThat(result3.getContext().getRowSource()).isSameAs(rowSource);
+        
+        assertThat(bindingErrors.hasErrors()).isFalse();
+        assertThat(context.getRowNumber()).isEqualTo(4);
+        assertThat(rowSource.get(0)).isEqualTo("3");
+        assertThat(rowSource.get(5)).isEqualTo("2000-01-01 00:01:02");
+        
+        // 入力値検証用のコンテキストも、同じインスタンスを再利用する
+        assertThat(validationContexts).hasSize(3);
+        assertThat(validationContexts.get(1)).isSameAs(validationContexts.get(0));
+        assertThat(validationContexts.get(2)).isSameAs(validationContexts.get(0));
+        assertThat(validationContexts.get(0).getCsvContext()).isSameAs(context);
+        
+        // Beanは呼び出し元で保持するため、行ごとに作成される
+        assertThat(result2.getBean()).isNotSameAs(result1.getBean());
+        assertThat(result3.getBean()).isNotSameAs(result2.getBean());
+        assertThat(result1.getBean().getId()).isEqualTo(1);
+        assertThat(result3.getBean().getId()).isEqualTo(3);
+        
+        assertThat(csvReader.readNext()).isNull();
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 行ごとのオブジェクトを再利用する場合 - 1行あたりのメモリの割り当てが減ること
+     * @since 2.2
+     */
+    @Test
+    public void testRead_reuseRowObjects_allocation() throws IOException {
+        
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        
+        final int size = 20000;
+        final String csv = createNormalCsv(size, 0);
+        
+        // JITコンパイルの影響を抑えるため、事前に読み込んでおく
+        for(int i=0; i < 3; i++) {
+            measureAllocatedBytesPerRow(allocationBean, csv, false);
+            measureAllocatedBytesPerRow(allocationBean, csv, true);
+        }
+        
+        final long normalBytes = measureAllocatedBytesPerRow(allocationBean, csv, false);
+        final long reuseBytes = measureAllocatedBytesPerRow(allocationBean, csv, true);
+        
+        assertThat(reuseBytes).isLessThan(normalBytes);
+        
+    }
+    
+    private long measureAllocatedBytesPerRow(final com.sun.management.ThreadMXBean allocationBean,
+            final String csv, final boolean reuseRowObjects) throws IOException {
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new StringReader(csv),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setReuseRowObjects(reuseRowObjects);
+        csvReader.getHeader(true);
+        
+        final long threadId = Thread.currentThread().getId();
+        final long start = allocationBean.getThreadAllocatedBytes(threadId);
+        
+        int count = 0;
+        while(csvReader.read() != null) {
+            count++;
+        }
+        
+        final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - start;
+        
+        csvReader.close();
+        
+        return allocated / count;
+        
+    }
+    
+    /**
+     * {@link SampleNormalBean}のCSVを作成する。
+     * @param size レコード数
+     * @param errorInterval 書式が不正な値を含める行の間隔。0以下の場合は含めない。
+     * @return CSVの文字列
+     */
+    private String createNormalCsv(final int size, final int errorInterval) {
+        
+        final StringBuilder csv = new StringBuilder();
+        csv.append("id,数字1,number2,string1,string2,date1,date2,enum1,列挙型2,boolean1,boolean2\n");
+        for(int i=1; i <= size; i++) {
+            final String date1 = (errorInterval > 0 && i % errorInterval == 0) ? "2000/01/01 00:01:02" : "2000-01-01 00:01:02";
+            csv.append(i).append(",\"999,110\",10.2,abcd,12345,").append(date1).append(",2000年02月03日,RED,赤,true,\n");
+        }
+        
+        return csv.toString();
+        
+    }
+    
     /**
      * 全件読み込み - ヘッダーにエラーがある場合
      */
@@ -636,6 +1200,38 @@ public class CsvAnnotationBeanReaderTest {
         
     }
     
+    /**
+     * 同じマッピング情報を複数のReaderで共有する場合、重複チェックはReaderごとに行う
+     */
+    @Test
+    public void testRead_sharedMapping_session() throws IOException {
+        
+        BeanMapping<SampleUniqueBean> beanMapping = new BeanMappingFactory()
+                .create(SampleUniqueBean.class);
+        
+        String csv = "id,name\r\n1,a\r\n2,b\r\n";
+        
+        CsvAnnotationBeanReader<SampleUniqueBean> csvReader1 = new CsvAnnotationBeanReader<>(
+                beanMapping, new StringReader(csv), CsvPreference.STANDARD_PREFERENCE);
+        assertThat(csvReader1.readAll()).hasSize(2);
+        csvReader1.close();
+        
+        // 前のファイルの値は重複と判定されない
+        CsvAnnotationBeanReader<SampleUniqueBean> csvReader2 = new CsvAnnotationBeanReader<>(
+                beanMapping, new StringReader(csv), CsvPreference.STANDARD_PREFERENCE);
+        assertThat(csvReader2.readAll()).hasSize(2);
+        csvReader2.close();
+        
+        // セッションを共有する場合は、重複と判定される
+        CsvAnnotationBeanReader<SampleUniqueBean> csvReader3 = new CsvAnnotationBeanReader<>(
+                beanMapping, new StringReader(csv), CsvPreference.STANDARD_PREFERENCE);
+        csvReader3.setSession(csvReader1.getSession());
+        assertThat(csvReader3.readAll(true)).isEmpty();
+        assertThat(csvReader3.getErrorMessages()).hasSize(2);
+        csvReader3.close();
+        
+    }
+    
     private void assertBean(final SampleFixedColumnBean bean) {
         
         if(bean.getNo() == 1) {
@@ -4,16 +4,23 @@ import static org.junit.Assert.*;
 import static org.assertj.core.api.Assertions.*;
 import static com.github.mygreen.supercsv.tool.TestUtils.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.supercsv.exception.SuperCsvException;
+import org.supercsv.exception.SuperCsvReflectionException;
 import org.supercsv.prefs.CsvPreference;
 import org.supercsv.quote.AlwaysQuoteMode;
 
@@ -26,7 +33,7 @@ import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
 /**
  * {@link CsvAnnotationBeanReader}のテスタ
  *
- * @version 2.1
+ * @version 2.2
  * @since 1.2
  * @author T.TSUCHIE
  *
@@ -120,6 +127,84 @@ public class CsvAnnotationBeanWriterTest {
         
     }
     
+    /**
+     * 書き込みのテスト - ストリームから書き込む
+     * @since 2.2
+     */
+    @Test
+    public void testWriteAll_stream() throws IOException {
+        
+        // テストデータの作成
+        final List<SampleNormalBean> list = createNormalData();
+        
+        StringWriter strWriter = new StringWriter();
+        
+        CsvAnnotationBeanWriter<SampleNormalBean> csvWriter = new CsvAnnotationBeanWriter<>(
+                SampleNormalBean.class,
+                strWriter,
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.WriteGroup.class);
+        
+        csvWriter.writeAll(list.stream());
+        
+        String expected = getTextFromFile("src/test/data/test_write_normal.csv", Charset.forName("UTF-8"));
+        assertThat(strWriter.toString()).isEqualTo(expected);
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(0);
+        
+        csvWriter.close();
+        
+    }
+    
+    /**
+     * 書き込みのテスト - イテレータから書き込む。一定の件数ごとにフラッシュして進捗を通知する。
+     * @since 2.2
+     */
+    @Test
+    public void testWriteAll_iterator_flushInterval() throws IOException {
+        
+        // テストデータの作成
+        final List<SampleNormalBean> list = createNormalData();
+        
+        StringWriter strWriter = new StringWriter();
+        
+        CsvAnnotationBeanWriter<SampleNormalBean> csvWriter = new CsvAnnotationBeanWriter<>(
+                SampleNormalBean.class,
+                strWriter,
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.WriteGroup.class);
+        
+        final List<Long> progress = new ArrayList<>();
+        final List<Integer> flushedLength = new ArrayList<>();
+        csvWriter.setFlushInterval(2);
+        csvWriter.setProgressListener(count -> {
+            progress.add(count);
+            flushedLength.add(strWriter.getBuffer().length());
+        });
+        
+        csvWriter.writeAll(list.iterator());
+        
+        String expected = getTextFromFile("src/test/data/test_write_normal.csv", Charset.forName("UTF-8"));
+        assertThat(strWriter.toString()).isEqualTo(expected);
+        
+        // 件数が割り切れない場合は、最後に通知される
+        final List<Long> expectedProgress = new ArrayList<>();
+        for(long i=2; i <= list.size(); i += 2) {
+            expectedProgress.add(i);
+        }
+        if(list.size() % 2 != 0) {
+            expectedProgress.add((long)list.size());
+        }
+        assertThat(progress).containsExactlyElementsOf(expectedProgress);
+        
+        // 通知される時点で、フラッシュされている
+        assertThat(flushedLength.get(0)).isGreaterThan(0);
+        assertThat(flushedLength.get(flushedLength.size()-1)).isEqualTo(expected.length());
+        
+        csvWriter.close();
+        
+    }
+    
     /**
      * 書き込みのテスト - 追加書き込み
      */
@@ -387,6 +472,200 @@ public class CsvAnnotationBeanWriterTest {
         
     }
     
+    /**
+     * 書き込みのテスト - 制約のチェックをスキップする場合は、事前に組み立てた変換処理で書き込む。
+     * @since 2.2
+     */
+    @Test
+    public void testWrite_trustedWritePlan() throws IOException {
+        
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        for(int i=1; i <= 3; i++) {
+            final SampleSimpleBean bean = new SampleSimpleBean();
+            bean.setId(i);
+            bean.setName(i == 2 ? "too-long-name" : "name" + i);   // 最大文字長を超える
+            bean.setComment(i == 3 ? "a\r\nb" : null);
+            list.add(bean);
+        }
+        
+        BeanMappingFactory mappingFactory = new BeanMappingFactory();
+        mappingFactory.getConfiguration().setSkipValidationOnWrite(true);
+        BeanMapping<SampleSimpleBean> beanMapping = mappingFactory.create(SampleSimpleBean.class);
+        
+        StringWriter strWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new CsvAnnotationBeanWriter<>(
+                beanMapping,
+                strWriter,
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        assertThat(csvWriter.beanMappingCache.getTrustedWritePlan()).isNotNull();
+        
+        csvWriter.writeAll(list);
+        
+        assertThat(strWriter.toString()).isEqualTo("id,name,comment\r\n"
+                + "1,name1,\r\n"
+                + "2,too-long-name,\r\n"
+                + "3,name3,\"a\r\nb\"\r\n");
+        
+        assertThat(csvWriter.getLineNumber()).isEqualTo(5);
+        assertThat(csvWriter.getRowNumber()).isEqualTo(4);
+        assertThat(csvWriter.getErrorMessages()).hasSize(0);
+        
+        csvWriter.close();
+        
+        // 制約のチェックを行う場合は、組み立てない
+        CsvAnnotationBeanWriter<SampleSimpleBean> validatingWriter = new CsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                new StringWriter(),
+                CsvPreference.STANDARD_PREFERENCE);
+        assertThat(validatingWriter.beanMappingCache.getTrustedWritePlan()).isNull();
+        validatingWriter.close();
+        
+    }
+    
+    /**
+     * 書き込みのテスト - 制約のチェックをスキップする場合に、値の取得に失敗したときは、通常の処理で例外となる。
+     * @since 2.2
+     */
+    @Test
+    public void testWrite_trustedWritePlan_error() throws IOException {
+        
+        BeanMappingFactory mappingFactory = new BeanMappingFactory();
+        mappingFactory.getConfiguration().setSkipValidationOnWrite(true);
+        BeanMapping<SampleSimpleBean> beanMapping = mappingFactory.create(SampleSimpleBean.class);
+        
+        StringWriter strWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new CsvAnnotationBeanWriter<>(
+                beanMapping,
+                strWriter,
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        final SampleSimpleBean bean = new SampleSimpleBean() {
+            @Override
+            public String getName() {
+                throw new IllegalStateException("failed to get name.");
+            }
+        };
+        bean.setId(1);
+        
+        assertThatThrownBy(() -> csvWriter.write(bean))
+            .isInstanceOf(SuperCsvReflectionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+        
+        csvWriter.flush();
+        assertThat(strWriter.toString()).isEmpty();
+        
+        csvWriter.close();
+        
+    }
+    
+    /**
+     * 書き込みのテスト - マッピング情報を共有する場合、一意制約のチェックはWriterごとに行う。
+     * @since 2.2
+     */
+    @Test
+    public void testWrite_sharedMapping_unique() throws IOException {
+        
+        BeanMapping<SampleUniqueBean> beanMapping = new BeanMappingFactory().create(SampleUniqueBean.class);
+        
+        final SampleUniqueBean bean = new SampleUniqueBean();
+        bean.setId(1);
+        bean.setName("x");
+        
+        StringWriter strWriter1 = new StringWriter();
+        CsvAnnotationBeanWriter<SampleUniqueBean> csvWriter1 = new CsvAnnotationBeanWriter<>(
+                beanMapping,
+                strWriter1,
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        StringWriter strWriter2 = new StringWriter();
+        CsvAnnotationBeanWriter<SampleUniqueBean> csvWriter2 = new CsvAnnotationBeanWriter<>(
+                beanMapping,
+                strWriter2,
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        // 他のWriterで書き込んだ値は重複とならない
+        csvWriter1.write(bean);
+        csvWriter2.write(bean);
+        
+        csvWriter1.flush();
+        csvWriter2.flush();
+        assertThat(strWriter1.toString()).isEqualTo("1,x\r\n");
+        assertThat(strWriter2.toString()).isEqualTo("1,x\r\n");
+        
+        // 同じWriterで書き込んだ値は重複となる
+        assertThatThrownBy(() -> csvWriter1.write(bean))
+            .isInstanceOf(SuperCsvBindingException.class);
+        
+        csvWriter1.close();
+        csvWriter2.close();
+        
+    }
+    
+    /**
+     * 書き込みのテスト - パスを指定して、拡張子が{@literal .gz}の場合はgzip形式で書き込む。
+     * @since 2.2
+     */
+    @Test
+    public void testWrite_path_gzip() throws IOException {
+        
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        for(int i=1; i <= 1000; i++) {
+            final SampleSimpleBean bean = new SampleSimpleBean();
+            bean.setId(i);
+            bean.setName("名前" + (i % 100));
+            bean.setComment(i % 10 == 0 ? "a,\"b\"" : null);
+            list.add(bean);
+        }
+        
+        final Path path = Files.createTempFile("test_writer", ".csv.gz");
+        try {
+            final CsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new CsvAnnotationBeanWriter<>(
+                    SampleSimpleBean.class,
+                    path,
+                    StandardCharsets.UTF_8,
+                    CsvPreference.STANDARD_PREFERENCE);
+            csvWriter.writeAll(list);
+            csvWriter.close();
+            
+            assertThat(ParallelGzipInputStream.isGzip(path)).isTrue();
+            
+            // 標準のgzipの展開処理で読み込める
+            final StringWriter expected = new StringWriter();
+            try(CsvAnnotationBeanWriter<SampleSimpleBean> expectedWriter = new CsvAnnotationBeanWriter<>(
+                    SampleSimpleBean.class, expected, CsvPreference.STANDARD_PREFERENCE)) {
+                expectedWriter.writeAll(list);
+            }
+            
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            try(InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+                final byte[] buf = new byte[1024];
+                int size;
+                while((size = in.read(buf)) >= 0) {
+                    actual.write(buf, 0, size);
+                }
+            }
+            assertThat(new String(actual.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+            
+            // パスを指定して読み込む場合は、gzip形式を判定して展開する
+            try(CsvAnnotationBeanReader<SampleSimpleBean> csvReader = new CsvAnnotationBeanReader<>(
+                    SampleSimpleBean.class, path, StandardCharsets.UTF_8, CsvPreference.STANDARD_PREFERENCE)) {
+                
+                final List<SampleSimpleBean> read = csvReader.readAll();
+                assertThat(read).hasSize(list.size());
+                for(int i=0; i < list.size(); i++) {
+                    assertThat(read.get(i).getId()).isEqualTo(list.get(i).getId());
+                    assertThat(read.get(i).getName()).isEqualTo(list.get(i).getName());
+                    assertThat(read.get(i).getComment()).isEqualTo(list.get(i).getComment());
+                }
+            }
+            
+        } finally {
+            Files.deleteIfExists(path);
+        }
+        
+    }
+    
     /**
      * 書き込みのテスト - 部分的に書き込む。
      */
@@ -484,7 +763,7 @@ public class CsvAnnotationBeanWriterTest {
      * 書き込み用のデータを作成する
      * @return
      */
-    private List<SampleNormalBean> createNormalData() {
+    static List<SampleNormalBean> createNormalData() {
         
         // テストデータの作成
         final List<SampleNormalBean> list = new ArrayList<>();
@@ -9,9 +9,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -130,6 +133,74 @@ public class LazyCsvAnnotationBeanReaderTest {
         
     }
     
+    /**
+     * ストリームによる読み込み - 初期化は自動的に行う。
+     * @since 2.2
+     */
+    @Test
+    public void testStream() throws Exception {
+        
+        File file = new File("src/test/data/test_read_lazy.csv");
+        
+        LazyCsvAnnotationBeanReader<SampleLazyBean> csvReader = new LazyCsvAnnotationBeanReader<>(
+                SampleLazyBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        try(Stream<SampleLazyBean> stream = csvReader.stream()) {
+            List<SampleLazyBean> list = stream.collect(Collectors.toList());
+            assertThat(list).hasSize(2);
+            
+            for(SampleLazyBean bean : list) {
+                assertBean(bean);
+            }
+        }
+        
+        final String[] expectedHeaders = new String[]{
+                "no",
+                "name",
+                "生年月日",
+                "備考"
+            };
+        
+        // read header
+        final String[] definitionHeaders = csvReader.getDefinedHeader();
+        assertThat(definitionHeaders).containsExactly(expectedHeaders);
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(0);
+        
+    }
+    
+    /**
+     * ストリームによる読み込み - CSVファイルにヘッダーがなく、初期化していない場合
+     * @since 2.2
+     */
+    @Test
+    public void testStream_noHeader_noInit() throws Exception {
+        
+        File file = new File("src/test/data/test_read_lazy_noHeader.csv");
+        
+        LazyBeanMappingFactory factory = new LazyBeanMappingFactory();
+        BeanMapping<SampleLazyBean> beanMapping = factory.create(SampleLazyBean.class);
+        
+        // ヘッダーを持たないと設定する
+        beanMapping.setHeader(false);
+        
+        LazyCsvAnnotationBeanReader<SampleLazyBean> csvReader = new LazyCsvAnnotationBeanReader<>(
+                beanMapping,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        assertThatThrownBy(() -> csvReader.stream())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage(MESSAGE_NOT_INIT);
+        
+        csvReader.close();
+        
+    }
+    
     /**
      * 全て読み込み - CSVファイルにヘッダーがない場合
      */
@@ -394,6 +465,46 @@ public class LazyCsvAnnotationBeanReaderTest {
         
     }
     
+    /**
+     * 部分的にカラムを読み込む - ファイルのパスを指定し、マッピングしないカラムを読み飛ばす場合
+     * @since 2.2
+     */
+    @Test
+    public void testRead_parital_path() throws Exception {
+        
+        File file = new File("src/test/data/test_read_lazy_partial.csv");
+        
+        LazyCsvAnnotationBeanReader<SampleLazyPartialBean> csvReader = new LazyCsvAnnotationBeanReader<>(
+                SampleLazyPartialBean.class,
+                file.toPath(), StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        // ヘッダーは全てのカラムを読み込む
+        final String[] csvHeaders = csvReader.init();
+        assertThat(csvHeaders).containsExactly("id", "名前", "誕生日", "電話番号", "住所", "有効期限", "削除フラグ", "備考");
+        
+        List<SampleLazyPartialBean> list = new ArrayList<>();
+        ReadResult<SampleLazyPartialBean> result;
+        while((result = csvReader.readNext()) != null) {
+            assertThat(result.hasErrors()).isFalse();
+            list.add(result.getBean());
+            
+            assertBean(result.getBean());
+            
+            // マッピングしないカラムは読み飛ばす
+            assertThat(result.getContext().getRowSource()).hasSize(8);
+            assertThat(result.getContext().getRowSource().get(2)).isNull();
+            assertThat(result.getContext().getRowSource().get(6)).isNull();
+        }
+        
+        assertThat(list).hasSize(3);
+        assertThat(csvReader.getErrorMessages()).hasSize(0);
+        
+        csvReader.close();
+        
+    }
+    
     private void assertBean(final SampleLazyBean bean) {
         
         if(bean.getNo() == 1) {
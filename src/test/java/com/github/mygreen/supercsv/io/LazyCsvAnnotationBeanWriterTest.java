@@ -184,6 +184,40 @@ public class LazyCsvAnnotationBeanWriterTest {
         
     }
     
+    /**
+     * 全て書き出す - ストリームから書き出す。初期化は自動的に行う。
+     * @since 2.2
+     */
+    @Test
+    public void testWriteAll_stream() throws Exception {
+        
+        // テストデータの作成
+        final List<SampleLazyBean> list = createNormalData();
+        
+        StringWriter strWriter = new StringWriter();
+        
+        LazyCsvAnnotationBeanWriter<SampleLazyBean> csvWriter = new LazyCsvAnnotationBeanWriter<>(
+                SampleLazyBean.class,
+                strWriter,
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        final List<Long> progress = new ArrayList<>();
+        csvWriter.setProgressListener(progress::add);
+        
+        csvWriter.writeAll(list.stream());
+        
+        String expected = getTextFromFile("src/test/data/test_write_lazy_noSetHeader.csv", Charset.forName("UTF-8"));
+        assertThat(strWriter.toString()).isEqualTo(expected);
+        
+        // フラッシュする間隔が未設定の場合は、最後のみ通知される
+        assertThat(progress).containsExactly((long)list.size());
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(0);
+        
+        csvWriter.close();
+        
+    }
+    
     /**
      * 全て書き出す - 追加に書き出す
      */
@@ -0,0 +1,264 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.comment.CommentStartsWith;
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.io.ITokenizer;
+import org.supercsv.io.Tokenizer;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+
+/**
+ * {@link MappedFileTokenizer}のテスタ。
+ * <p>{@link Tokenizer}と同じ結果となることを確認します。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class MappedFileTokenizerTest {
+    
+    private Path tempFile;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.tempFile = Files.createTempFile("test_mapped", ".csv");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(tempFile);
+    }
+    
+    /**
+     * 囲み文字、空白、改行を含む場合
+     */
+    @Test
+    public void testReadColumns_compare() throws IOException {
+        
+        final String[] contents = {
+                "a,b,c\n1,2,3\n",
+                "a,b,c\r\n1,2,3\r\n",
+                "a,b,c\r1,2,3",
+                "\"a\",\"b\"\"c\",\"\"\n,,\n",
+                "\"multi\nline\",\"x\r\ny\"\nnext,row",
+                "  a  , b ,\" c \" ,  \" d\"\n",
+                "a,b\n\n\nc,d\n\n",
+                "あいうえお,\"かき,くけこ\",さ\"し\"す\n漢字,全角　空白\n",
+        };
+        
+        final CsvPreference[] preferences = {
+                CsvPreference.STANDARD_PREFERENCE,
+                CsvPreference.TAB_PREFERENCE,
+                new CsvPreference.Builder(CsvPreference.STANDARD_PREFERENCE)
+                    .surroundingSpacesNeedQuotes(true)
+                    .ignoreEmptyLines(false)
+                    .build(),
+                new CsvPreference.Builder(CsvPreference.STANDARD_PREFERENCE)
+                    .skipComments(new CommentStartsWith("#"))
+                    .build(),
+        };
+        
+        for(String content : contents) {
+            for(CsvPreference preference : preferences) {
+                // ウィンドウの境界をまたぐように、小さいサイズも指定する
+                for(int windowSize : new int[]{1, 3, 7, MappedFileTokenizer.DEFAULT_WINDOW_SIZE}) {
+                    assertSameTokens(content, preference, windowSize);
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * コメント行を読み飛ばす場合
+     */
+    @Test
+    public void testReadColumns_comment() throws IOException {
+        
+        final CsvPreference preference = new CsvPreference.Builder(CsvPreference.STANDARD_PREFERENCE)
+                .skipComments(new CommentStartsWith("#"))
+                .build();
+                
+        assertSameTokens("#comment\na,b\n#comment2\r\nc,d", preference, 4);
+        
+        // マルチバイト文字のコメント行、空行がウィンドウの境界をまたぐ場合
+        final CsvPreference preferenceWithEmptyLines = new CsvPreference.Builder(preference)
+                .ignoreEmptyLines(false)
+                .build();
+        for(int windowSize : new int[]{1, 3, 7}) {
+            assertSameTokens("#コメント\nあ,い\n\n#コメント2\r\nう,え\n#", preference, windowSize);
+            assertSameTokens("#コメント\nあ,い\n\n#コメント2\r\nう,え\n#", preferenceWithEmptyLines, windowSize);
+        }
+        
+    }
+    
+    /**
+     * 囲み文字が閉じられていない場合 - 同じ例外がスローされること
+     */
+    @Test
+    public void testReadColumns_error_unclosedQuote() throws IOException {
+        
+        final String content = "a,b\n\"c,d\ne,f\n";
+        Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+        
+        try(MappedFileTokenizer tokenizer = new MappedFileTokenizer(
+                FileChannel.open(tempFile, StandardOpenOption.READ), StandardCharsets.UTF_8, CsvPreference.STANDARD_PREFERENCE, 5)) {
+                
+            final List<String> columns = new ArrayList<>();
+            assertThat(tokenizer.readColumns(columns)).isTrue();
+            
+            assertThatThrownBy(() -> tokenizer.readColumns(columns))
+                .isInstanceOf(SuperCsvException.class)
+                .hasMessage("unexpected end of file while reading quoted column beginning on line 2 and ending on line 3");
+        }
+        
+        // 1レコードあたりの最大行数を超える場合
+        final CsvPreference preference = new CsvPreference.Builder(CsvPreference.STANDARD_PREFERENCE)
+                .maxLinesPerRow(2)
+                .build();
+                
+        try(MappedFileTokenizer tokenizer = new MappedFileTokenizer(tempFile, StandardCharsets.UTF_8, preference)) {
+            
+            final List<String> columns = new ArrayList<>();
+            assertThat(tokenizer.readColumns(columns)).isTrue();
+            
+            assertThatThrownBy(() -> tokenizer.readColumns(columns))
+                .isInstanceOf(SuperCsvException.class)
+                .hasMessage("max number of lines to read exceeded while reading quoted column beginning on line 2 and ending on line 3");
+        }
+        
+    }
+    
+    /**
+     * 読み込むカラムを限定する場合 - 読み込まないカラムはnullとなること
+     */
+    @Test
+    public void testReadColumns_projection() throws IOException {
+        
+        final String content = "a,b,c,d\n1,\"x\r\ny\",3, 4 \n5,6\n";
+        Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+        
+        try(MappedFileTokenizer tokenizer = new MappedFileTokenizer(
+                FileChannel.open(tempFile, StandardOpenOption.READ), StandardCharsets.UTF_8, CsvPreference.STANDARD_PREFERENCE, 3)) {
+                
+            final List<String> columns = new ArrayList<>();
+            assertThat(tokenizer.readColumns(columns)).isTrue();
+            assertThat(columns).containsExactly("a", "b", "c", "d");
+            
+            // 配列のサイズを超えるカラムは読み込む
+            tokenizer.setColumnProjection(new boolean[]{true, false, true});
+            
+            assertThat(tokenizer.readColumns(columns)).isTrue();
+            assertThat(columns).containsExactly("1", null, "3", " 4 ");
+            assertThat(tokenizer.getLineNumber()).isEqualTo(3);
+            assertThat(tokenizer.getUntokenizedRow()).isEqualTo("1,\"x\ny\",3, 4 ");
+            
+            assertThat(tokenizer.readColumns(columns)).isTrue();
+            assertThat(columns).containsExactly("5", null);
+            
+            assertThat(tokenizer.readColumns(columns)).isFalse();
+        }
+        
+    }
+    
+    /**
+     * 対応している文字コードの判定
+     */
+    @Test
+    public void testIsSupported() throws IOException {
+        
+        assertThat(MappedFileTokenizer.isSupported(StandardCharsets.UTF_8, CsvPreference.STANDARD_PREFERENCE)).isTrue();
+        assertThat(MappedFileTokenizer.isSupported(Charset.forName("Windows-31j"), CsvPreference.STANDARD_PREFERENCE)).isTrue();
+        assertThat(MappedFileTokenizer.isSupported(StandardCharsets.UTF_16, CsvPreference.STANDARD_PREFERENCE)).isFalse();
+        
+        // 2バイト目に現れる可能性がある区切り文字
+        final CsvPreference preference = new CsvPreference.Builder('"', '|', "\n").build();
+        assertThat(MappedFileTokenizer.isSupported(StandardCharsets.UTF_8, preference)).isTrue();
+        assertThat(MappedFileTokenizer.isSupported(Charset.forName("Windows-31j"), preference)).isFalse();
+        
+        // 対応していない場合は、Tokenizerを作成する
+        Files.write(tempFile, "a,b\n".getBytes(StandardCharsets.UTF_16));
+        try(ITokenizer tokenizer = MappedFileTokenizer.create(tempFile, StandardCharsets.UTF_16, CsvPreference.STANDARD_PREFERENCE)) {
+            assertThat(tokenizer).isInstanceOf(Tokenizer.class);
+        }
+        
+    }
+    
+    /**
+     * ファイルのパスを指定してBeanを読み込む
+     */
+    @Test
+    public void testReadAll_path() throws IOException {
+        
+        File file = new File("src/test/data/test_read_normal.csv");
+        
+        CsvAnnotationBeanReader<SampleNormalBean> csvReader = new CsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                file.toPath(), StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(new CsvExceptionConverter());
+        
+        List<SampleNormalBean> list = csvReader.readAll();
+        assertThat(list).hasSize(2);
+        assertThat(list).extracting("id").containsExactly(1, 2);
+        assertThat(list).extracting("string1").containsExactly("abcd", "あいうえお");
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(0);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * {@link Tokenizer}と同じ結果となることを検証する。
+     */
+    private void assertSameTokens(final String content, final CsvPreference preference, final int windowSize) throws IOException {
+        
+        Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+        
+        try(Tokenizer expected = new Tokenizer(new StringReader(content), preference);
+                MappedFileTokenizer actual = new MappedFileTokenizer(
+                        FileChannel.open(tempFile, StandardOpenOption.READ), StandardCharsets.UTF_8, preference, windowSize)) {
+                        
+            final List<String> expectedColumns = new ArrayList<>();
+            final List<String> actualColumns = new ArrayList<>();
+            
+            while(true) {
+                final boolean expectedResult = expected.readColumns(expectedColumns);
+                final boolean actualResult = actual.readColumns(actualColumns);
+                
+                final String description = String.format("content=%s, windowSize=%d, line=%d", content, windowSize, expected.getLineNumber());
+                assertThat(actualResult).as(description).isEqualTo(expectedResult);
+                if(!expectedResult) {
+                    break;
+                }
+                
+                assertThat(actualColumns).as(description).isEqualTo(expectedColumns);
+                assertThat(actual.getLineNumber()).as(description).isEqualTo(expected.getLineNumber());
+                assertThat(actual.getUntokenizedRow()).as(description).isEqualTo(expected.getUntokenizedRow());
+            }
+        }
+        
+    }
+    
+}
@@ -0,0 +1,194 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.exception.SuperCsvNoMatchColumnSizeException;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+
+/**
+ * {@link ParallelCsvAnnotationBeanReader}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelCsvAnnotationBeanReaderTest {
+    
+    private CsvExceptionConverter exceptionConverter;
+    
+    private ExecutorService executorService;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.exceptionConverter = new CsvExceptionConverter();
+        this.executorService = Executors.newFixedThreadPool(4);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        this.executorService.shutdownNow();
+    }
+    
+    /**
+     * 正常系のテスト - 逐次処理と結果が一致すること
+     */
+    @Test
+    public void testReadAll_normal() throws IOException {
+        
+        File file = new File("src/test/data/test_read_normal.csv");
+        
+        ParallelCsvAnnotationBeanReader<SampleNormalBean> csvReader = new ParallelCsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setExecutorService(executorService);
+        csvReader.setChunkSize(1);
+        
+        List<SampleNormalBean> list = csvReader.readAll();
+        assertThat(list).hasSize(2);
+        assertThat(list).extracting("id").containsExactly(1, 2);
+        assertThat(list).extracting("string1").containsExactly("abcd", "あいうえお");
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(0);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 大量のレコードを並列に処理しても、出現順に返されること。
+     * 重複チェックは、後に出現したレコードがエラーとなること。
+     */
+    @Test
+    public void testRead_order_and_unique() throws IOException {
+        
+        final int size = 2000;
+        final StringBuilder csv = new StringBuilder("id,name\n");
+        for(int i=1; i <= size; i++) {
+            if(i == 1500) {
+                // 10行目と重複
+                csv.append(10).append(",name").append("\n");
+            } else if(i == 700) {
+                // 文字長エラー
+                csv.append(i).append(",too-long-name").append("\n");
+            } else {
+                csv.append(i).append(",name").append("\n");
+            }
+        }
+        
+        ParallelCsvAnnotationBeanReader<SampleUniqueBean> csvReader = new ParallelCsvAnnotationBeanReader<>(
+                SampleUniqueBean.class, new StringReader(csv.toString()), CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setExecutorService(executorService);
+        csvReader.setChunkSize(7);
+        csvReader.setMaxPendingChunks(8);
+        
+        csvReader.getHeader(true);
+        
+        final List<Integer> ids = new ArrayList<>();
+        final List<Integer> errorRows = new ArrayList<>();
+        while(true) {
+            try {
+                SampleUniqueBean bean = csvReader.read();
+                if(bean == null) {
+                    break;
+                }
+                ids.add(bean.getId());
+                
+            } catch(SuperCsvBindingException e) {
+                errorRows.add(e.getCsvContext().getRowNumber());
+            }
+        }
+        
+        assertThat(ids).hasSize(size - 2);
+        for(int i=1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i-1));
+        }
+        
+        // ヘッダーを含めた行番号
+        assertThat(errorRows).containsExactly(701, 1501);
+        assertThat(csvReader.getErrorMessages()).hasSize(2);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 列数が不正な場合
+     */
+    @Test
+    public void testRead_error_column_size() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_column_size.csv");
+        
+        ParallelCsvAnnotationBeanReader<SampleNormalBean> csvReader = new ParallelCsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setExecutorService(executorService);
+        
+        try {
+            csvReader.readAll();
+            fail();
+            
+        } catch(SuperCsvNoMatchColumnSizeException e) {
+        
+        }
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(1)
+            .contains("[3行] : 列数が不正です。 11列で設定すべきですが、実際には13列になっています。");
+            
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 全件読み込み - カラムにエラーがある場合も処理を続ける
+     */
+    @Test
+    public void testReadAll_error_continueOnError() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_wrong_pattern.csv");
+        
+        ParallelCsvAnnotationBeanReader<SampleNormalBean> csvReader = new ParallelCsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setExecutorService(executorService);
+        
+        List<SampleNormalBean> list = csvReader.readAll(true);
+        assertThat(list).hasSize(1);
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(1)
+            .contains("[2行, 6列] : 項目「date1」の値（2000/01/01 00:01:02）の書式は不正です。");
+            
+        csvReader.close();
+        
+    }
+    
+}
@@ -0,0 +1,339 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.*;
+import static com.github.mygreen.supercsv.tool.TestUtils.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.builder.BeanMapping;
+import com.github.mygreen.supercsv.builder.BeanMappingFactory;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+
+/**
+ * {@link ParallelCsvAnnotationBeanWriter}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelCsvAnnotationBeanWriterTest {
+    
+    private CsvExceptionConverter exceptionConverter;
+    
+    private ExecutorService executorService;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.exceptionConverter = new CsvExceptionConverter();
+        this.executorService = Executors.newFixedThreadPool(4);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+    }
+    
+    /**
+     * 正常系のテスト - 逐次処理と結果が一致すること
+     */
+    @Test
+    public void testWriteAll_normal() throws IOException {
+        
+        final List<SampleNormalBean> list = CsvAnnotationBeanWriterTest.createNormalData();
+        
+        StringWriter strWriter = new StringWriter();
+        
+        ParallelCsvAnnotationBeanWriter<SampleNormalBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                SampleNormalBean.class,
+                strWriter,
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.WriteGroup.class);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        csvWriter.setExecutorService(executorService);
+        csvWriter.setChunkSize(1);
+        
+        csvWriter.writeAll(list);
+        
+        String expected = getTextFromFile("src/test/data/test_write_normal.csv", Charset.forName("UTF-8"));
+        assertThat(strWriter.toString()).isEqualTo(expected);
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(0);
+        
+        csvWriter.close();
+        
+    }
+    
+    /**
+     * 大量のレコードを並列に処理しても、順番どおりに書き込まれること。
+     * エラーがある場合も処理を続ける。
+     */
+    @Test
+    public void testWriteAll_order_continueOnError() throws IOException {
+        
+        final List<SampleSimpleBean> list = createSimpleData(2000);
+        
+        StringWriter expectedWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> sequentialWriter = new CsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, expectedWriter, CsvPreference.STANDARD_PREFERENCE);
+        sequentialWriter.writeAll(list, true);
+        
+        StringWriter strWriter = new StringWriter();
+        ParallelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, strWriter, CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        csvWriter.setExecutorService(executorService);
+        csvWriter.setChunkSize(7);
+        csvWriter.setMaxPendingChunks(3);
+        
+        csvWriter.writeAll(list, true);
+        
+        assertThat(strWriter.toString()).isEqualTo(expectedWriter.toString());
+        
+        // 改行を含む値の行数も含めること
+        assertThat(csvWriter.getLineNumber()).isEqualTo(sequentialWriter.getLineNumber());
+        assertThat(csvWriter.getRowNumber()).isEqualTo(sequentialWriter.getRowNumber());
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(2)
+            .containsExactlyElementsOf(sequentialWriter.getErrorMessages());
+            
+        csvWriter.close();
+        sequentialWriter.close();
+        
+    }
+    
+    /**
+     * ストリームから書き込む場合 - チャンクの書き込み時に、フラッシュする間隔を超えたら進捗を通知すること
+     */
+    @Test
+    public void testWriteAll_stream_flushInterval() throws IOException {
+        
+        final List<SampleSimpleBean> list = createSimpleData(1000);
+        
+        StringWriter expectedWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> sequentialWriter = new CsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, expectedWriter, CsvPreference.STANDARD_PREFERENCE);
+        sequentialWriter.writeAll(list, true);
+        
+        StringWriter strWriter = new StringWriter();
+        ParallelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, strWriter, CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        csvWriter.setExecutorService(executorService);
+        csvWriter.setChunkSize(30);
+        csvWriter.setFlushInterval(100);
+        
+        final List<Long> progress = new ArrayList<>();
+        csvWriter.setProgressListener(progress::add);
+        
+        csvWriter.writeAll(list.stream(), true);
+        
+        assertThat(strWriter.toString()).isEqualTo(expectedWriter.toString());
+        
+        // 30件ずつ書き込み、100件を超えるごとに通知する
+        assertThat(progress).containsExactly(120L, 210L, 300L, 420L, 510L, 600L, 720L, 810L, 900L, 1000L);
+        
+        csvWriter.close();
+        sequentialWriter.close();
+        
+    }
+    
+    /**
+     * {@link ChannelWriter}に書き込む場合 - チャンクの書き込み時に、フラッシュする間隔のバイト数を超えたら進捗を通知すること
+     */
+    @Test
+    public void testWriteAll_flushBytes() throws IOException {
+        
+        final List<SampleSimpleBean> list = createSimpleData(1000);
+        
+        StringWriter expectedWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> sequentialWriter = new CsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, expectedWriter, CsvPreference.STANDARD_PREFERENCE);
+        sequentialWriter.writeAll(list, true);
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParallelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, new ChannelWriter(out, StandardCharsets.UTF_8), CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        csvWriter.setExecutorService(executorService);
+        csvWriter.setChunkSize(30);
+        csvWriter.setFlushBytes(1024L);
+        
+        final List<Integer> flushedSize = new ArrayList<>();
+        csvWriter.setProgressListener(count -> flushedSize.add(out.size()));
+        
+        csvWriter.writeAll(list.stream(), true);
+        
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expectedWriter.toString());
+        
+        // 通知される時点で、前回から1024バイト以上がフラッシュされている
+        assertThat(flushedSize.size()).isGreaterThan(1);
+        int prevSize = 0;
+        for(int i=0; i < flushedSize.size() - 1; i++) {
+            assertThat(flushedSize.get(i) - prevSize).isGreaterThanOrEqualTo(1024);
+            prevSize = flushedSize.get(i);
+        }
+        assertThat(flushedSize.get(flushedSize.size()-1)).isEqualTo(out.size());
+        
+        csvWriter.close();
+        sequentialWriter.close();
+        
+    }
+    
+    /**
+     * エラーがある場合 - それまでのレコードを書き込み、処理を中断すること
+     */
+    @Test
+    public void testWriteAll_error() throws IOException {
+        
+        final List<SampleSimpleBean> list = createSimpleData(2000);
+        
+        StringWriter expectedWriter = new StringWriter();
+        CsvAnnotationBeanWriter<SampleSimpleBean> sequentialWriter = new CsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, expectedWriter, CsvPreference.STANDARD_PREFERENCE);
+        try {
+            sequentialWriter.writeAll(list);
+            fail();
+            
+        } catch(SuperCsvBindingException e) {
+            sequentialWriter.flush();
+        }
+        
+        StringWriter strWriter = new StringWriter();
+        ParallelCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class, strWriter, CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        csvWriter.setExecutorService(executorService);
+        csvWriter.setChunkSize(10);
+        
+        try {
+            csvWriter.writeAll(list);
+            fail();
+            
+        } catch(SuperCsvBindingException e) {
+            // ヘッダーを含めた行番号
+            assertThat(e.getCsvContext().getRowNumber()).isEqualTo(701);
+        }
+        
+        assertThat(strWriter.toString()).isEqualTo(expectedWriter.toString());
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(1)
+            .contains("[701行, 2列] : 項目「name」の文字列長（13）は、5文字以内でなければなりません。");
+            
+        csvWriter.close();
+        sequentialWriter.close();
+        
+    }
+    
+    /**
+     * 状態を持つカラムがある場合 - 逐次処理と結果が一致すること
+     */
+    @Test
+    public void testWriteAll_stateful() throws IOException {
+        
+        final List<SampleUniqueBean> list = new ArrayList<>();
+        for(int i=1; i <= 100; i++) {
+            final SampleUniqueBean bean = new SampleUniqueBean();
+            bean.setId(i == 50 ? 10 : i);
+            bean.setName("name");
+            list.add(bean);
+        }
+        
+        StringWriter strWriter = new StringWriter();
+        ParallelCsvAnnotationBeanWriter<SampleUniqueBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                SampleUniqueBean.class, strWriter, CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setExceptionConverter(exceptionConverter);
+        csvWriter.setExecutorService(executorService);
+        csvWriter.setChunkSize(3);
+        
+        csvWriter.writeAll(list, true);
+        
+        // 重複したレコードは書き込まれない（ヘッダーを含む）
+        assertThat(strWriter.toString().split("\r\n")).hasSize(100);
+        assertThat(csvWriter.getErrorMessages()).hasSize(1);
+        
+        csvWriter.close();
+        
+    }
+    
+    /**
+     * 状態を持つカラムがある場合 - マッピング情報を共有しても、Writerごとにチェックすること
+     */
+    @Test
+    public void testWriteAll_stateful_sharedMapping() throws IOException {
+        
+        BeanMapping<SampleUniqueBean> beanMapping = new BeanMappingFactory().create(SampleUniqueBean.class);
+        
+        final List<SampleUniqueBean> list = new ArrayList<>();
+        for(int i=1; i <= 100; i++) {
+            final SampleUniqueBean bean = new SampleUniqueBean();
+            bean.setId(i);
+            bean.setName("x");
+            list.add(bean);
+        }
+        
+        for(int i=0; i < 2; i++) {
+            StringWriter strWriter = new StringWriter();
+            ParallelCsvAnnotationBeanWriter<SampleUniqueBean> csvWriter = new ParallelCsvAnnotationBeanWriter<>(
+                    beanMapping, strWriter, CsvPreference.STANDARD_PREFERENCE);
+            csvWriter.setExecutorService(executorService);
+            csvWriter.setChunkSize(3);
+            
+            csvWriter.writeAll(list);
+            
+            // ヘッダーを含む
+            assertThat(strWriter.toString().split("\r\n")).hasSize(101);
+            assertThat(csvWriter.getErrorMessages()).isEmpty();
+            
+            csvWriter.close();
+        }
+        
+    }
+    
+    /**
+     * テスト用のデータを作成する。
+     * <p>700件目と1500件目は、文字長のエラーとなる。1800件目以降は、改行を含む値となる。</p>
+     * @param size 件数
+     * @return テスト用のデータ
+     */
+    private List<SampleSimpleBean> createSimpleData(final int size) {
+        
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        for(int i=1; i <= size; i++) {
+            final SampleSimpleBean bean = new SampleSimpleBean();
+            bean.setId(i);
+            
+            if(i == 700 || i == 1500) {
+                bean.setName("too-long-name");
+            } else {
+                bean.setName("name");
+            }
+            
+            if(i >= 1800) {
+                bean.setComment("comment\r\n\"" + i + "\"");
+            } else if(i % 2 == 0) {
+                bean.setComment("a,b");
+            }
+            
+            list.add(bean);
+        }
+        
+        return list;
+    }
+    
+}
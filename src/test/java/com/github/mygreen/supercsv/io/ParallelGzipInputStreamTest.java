@@ -0,0 +1,206 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static com.github.mygreen.supercsv.io.ParallelGzipOutputStreamTest.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link ParallelGzipInputStream}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelGzipInputStreamTest {
+    
+    private ExecutorService executorService;
+    
+    private Path tempFile;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.executorService = Executors.newFixedThreadPool(4);
+        this.tempFile = Files.createTempFile("test_gzip", ".gz");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        Files.deleteIfExists(tempFile);
+    }
+    
+    private byte[] compressParallel(final byte[] data, final int blockSize) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executorService, blockSize,
+                Deflater.DEFAULT_COMPRESSION, 4)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+    
+    private byte[] compressStandard(final byte[] data) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+    
+    private byte[] concat(final byte[]... arrays) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for(byte[] array : arrays) {
+            out.write(array, 0, array.length);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * 並列に圧縮したデータを、並列に展開する
+     */
+    @Test
+    public void testRead_parallel() throws IOException {
+        
+        final byte[] data = createData(200_000);
+        final byte[] compressed = compressParallel(data, 1000);
+        
+        try(ParallelGzipInputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), executorService, 3)) {
+            assertThat(readAll(in)).isEqualTo(data);
+        }
+        
+        // 1バイトずつ読み込む
+        try(ParallelGzipInputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int b;
+            while((b = in.read()) >= 0) {
+                out.write(b);
+            }
+            assertThat(out.toByteArray()).isEqualTo(data);
+        }
+        
+    }
+    
+    /**
+     * 標準のgzip形式のデータは、順に展開する
+     */
+    @Test
+    public void testRead_standard() throws IOException {
+        
+        final byte[] data = createData(50_000);
+        
+        try(ParallelGzipInputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressStandard(data)))) {
+            assertThat(readAll(in)).isEqualTo(data);
+        }
+        
+        // 並列に圧縮したメンバーの後に、標準の形式のメンバーが続く場合
+        final byte[] data2 = createData(30_000);
+        final byte[] compressed = concat(compressParallel(data, 4096), compressStandard(data2), compressParallel(data, 4096));
+        
+        try(ParallelGzipInputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), executorService, 2)) {
+            assertThat(readAll(in)).isEqualTo(concat(data, data2, data));
+        }
+        
+    }
+    
+    /**
+     * 空のデータ
+     */
+    @Test
+    public void testRead_empty() throws IOException {
+        
+        try(ParallelGzipInputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressParallel(new byte[0], 100)))) {
+            assertThat(in.read()).isEqualTo(-1);
+        }
+        
+    }
+    
+    /**
+     * データが壊れている場合
+     */
+    @Test
+    public void testRead_corrupt() throws IOException {
+        
+        final byte[] compressed = compressParallel(createData(10_000), 1000);
+        
+        // CRCを書き換える
+        final byte[] crcError = Arrays.copyOf(compressed, compressed.length);
+        crcError[crcError.length - 8] ^= 0xff;
+        
+        assertThatThrownBy(() -> readAll(new ParallelGzipInputStream(new ByteArrayInputStream(crcError), executorService, 2)))
+            .isInstanceOf(ZipException.class);
+            
+        // 途中で終わっている
+        final byte[] truncated = Arrays.copyOf(compressed, compressed.length - 5);
+        
+        assertThatThrownBy(() -> readAll(new ParallelGzipInputStream(new ByteArrayInputStream(truncated), executorService, 2)))
+            .isInstanceOf(IOException.class);
+            
+    }
+    
+    /**
+     * ヘッダーやトレーラーのサイズが上限を超える場合 - メモリを確保せずに例外をスローすること
+     */
+    @Test
+    public void testRead_sizeLimit() throws IOException {
+        
+        final byte[] compressed = compressParallel(createData(1000), 1000);
+        
+        // ヘッダーのメンバーのサイズ
+        final byte[] largeMember = Arrays.copyOf(compressed, compressed.length);
+        writeIntLE(largeMember, 16, ParallelGzipOutputStream.MAX_MEMBER_SIZE + 1);
+        
+        assertThatThrownBy(() -> readAll(new ParallelGzipInputStream(new ByteArrayInputStream(largeMember), executorService, 2)))
+            .isInstanceOf(ZipException.class)
+            .hasMessageContaining("exceeds the maximum");
+            
+        // トレーラーの展開後のサイズ
+        final byte[] largeLength = Arrays.copyOf(compressed, compressed.length);
+        writeIntLE(largeLength, largeLength.length - 4, ParallelGzipOutputStream.MAX_BLOCK_SIZE + 1);
+        
+        assertThatThrownBy(() -> readAll(new ParallelGzipInputStream(new ByteArrayInputStream(largeLength), executorService, 2)))
+            .isInstanceOf(ZipException.class)
+            .hasMessage("Corrupt GZIP trailer");
+            
+        // 書き込み時のブロックのサイズ
+        assertThatThrownBy(() -> new ParallelGzipOutputStream(new ByteArrayOutputStream(), executorService,
+                    ParallelGzipOutputStream.MAX_BLOCK_SIZE + 1, Deflater.DEFAULT_COMPRESSION, 4))
+            .isInstanceOf(IllegalArgumentException.class);
+            
+    }
+    
+    private static void writeIntLE(final byte[] buf, final int offset, final int value) {
+        buf[offset] = (byte)value;
+        buf[offset + 1] = (byte)(value >>> 8);
+        buf[offset + 2] = (byte)(value >>> 16);
+        buf[offset + 3] = (byte)(value >>> 24);
+    }
+    
+    @Test
+    public void testIsGzip() throws IOException {
+        
+        Files.write(tempFile, compressParallel(createData(100), 100));
+        assertThat(ParallelGzipInputStream.isGzip(tempFile)).isTrue();
+        
+        Files.write(tempFile, "a,b,c\n".getBytes("UTF-8"));
+        assertThat(ParallelGzipInputStream.isGzip(tempFile)).isFalse();
+        
+        Files.write(tempFile, new byte[0]);
+        assertThat(ParallelGzipInputStream.isGzip(tempFile)).isFalse();
+        
+    }
+    
+}
@@ -0,0 +1,136 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link ParallelGzipOutputStream}のテスタ。
+ * <p>標準の{@link GZIPInputStream}で展開できることを確認します。</p>
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class ParallelGzipOutputStreamTest {
+    
+    private ExecutorService executorService;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.executorService = Executors.newFixedThreadPool(4);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+    }
+    
+    static byte[] createData(final int size) {
+        final byte[] data = new byte[size];
+        final Random random = new Random(size);
+        for(int i=0; i < size; i++) {
+            // 圧縮できるように、値の範囲を限定する
+            data[i] = (byte)('a' + random.nextInt(8));
+        }
+        return data;
+    }
+    
+    static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[777];
+        int size;
+        while((size = in.read(buf)) >= 0) {
+            out.write(buf, 0, size);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * 複数のブロックに分割して圧縮する
+     */
+    @Test
+    public void testWrite_multiBlock() throws IOException {
+        
+        final byte[] data = createData(100_000);
+        
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executorService, 4096,
+                Deflater.DEFAULT_COMPRESSION, 3)) {
+                    
+            // 1バイトずつと、ブロックをまたぐ書き込みを混在させる
+            out.write(data, 0, 10);
+            for(int i=10; i < 20; i++) {
+                out.write(data[i]);
+            }
+            out.write(data, 20, data.length - 20);
+        }
+        
+        assertThat(compressed.size()).isLessThan(data.length);
+        
+        final byte[] actual = readAll(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())));
+        assertThat(actual).isEqualTo(data);
+        
+    }
+    
+    /**
+     * データがない場合は、空のメンバーを出力する
+     */
+    @Test
+    public void testWrite_empty() throws IOException {
+        
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed).close();
+        
+        assertThat(compressed.size()).isEqualTo(ParallelGzipOutputStream.HEADER_SIZE + 2 + ParallelGzipOutputStream.TRAILER_SIZE);
+        
+        final byte[] actual = readAll(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())));
+        assertThat(actual).isEmpty();
+        
+    }
+    
+    /**
+     * フラッシュ時は、書き込み中のブロックを出力しない
+     */
+    @Test
+    public void testFlush() throws IOException {
+        
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executorService, 1024,
+                Deflater.BEST_SPEED, 2);
+                
+        out.write(createData(100));
+        out.flush();
+        assertThat(compressed.size()).isEqualTo(0);
+        
+        out.close();
+        assertThat(compressed.size()).isGreaterThan(0);
+        
+        assertThatThrownBy(() -> out.write(1))
+            .isInstanceOf(IOException.class);
+            
+    }
+    
+    @Test
+    public void testIsGzipFileName() {
+        
+        assertThat(ParallelGzipOutputStream.isGzipFileName(Paths.get("dir", "sample.csv.gz"))).isTrue();
+        assertThat(ParallelGzipOutputStream.isGzipFileName(Paths.get("dir", "SAMPLE.GZ"))).isTrue();
+        assertThat(ParallelGzipOutputStream.isGzipFileName(Paths.get("dir.gz", "sample.csv"))).isFalse();
+        
+    }
+    
+}
@@ -0,0 +1,135 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static com.github.mygreen.supercsv.io.RollingCsvAnnotationBeanWriterTest.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+
+/**
+ * {@link PartitionedCsvAnnotationBeanWriter}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class PartitionedCsvAnnotationBeanWriterTest {
+    
+    private Path tempDir;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.tempDir = Files.createTempDirectory("test_partitioned");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        try(Stream<Path> stream = Files.walk(tempDir)) {
+            for(Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    private String expectedRows(final List<SampleSimpleBean> list, final int partition) {
+        final StringBuilder expected = new StringBuilder("id,name,comment\r\n");
+        for(SampleSimpleBean bean : list) {
+            if(bean.getId() % 3 == partition) {
+                expected.append(bean.getId()).append(",").append(bean.getName()).append(",")
+                    .append(bean.getComment() == null ? "" : bean.getComment()).append("\r\n");
+            }
+        }
+        return expected.toString();
+    }
+    
+    /**
+     * 同時に開くファイルの最大数を超える場合は、閉じたファイルに追記する
+     */
+    @Test
+    public void testWriteAll_maxOpenFiles() throws IOException {
+        
+        final PartitionedCsvAnnotationBeanWriter<SampleSimpleBean, Integer> csvWriter = new PartitionedCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                bean -> bean.getId() % 3,
+                (key, index) -> tempDir.resolve(String.format("sample_%d_%03d.csv", key, index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setMaxOpenFiles(2);
+        
+        final List<SampleSimpleBean> list = createBeans(30);
+        csvWriter.writeAll(list);
+        
+        assertThat(csvWriter.getOpenFileCount()).isEqualTo(2);
+        assertThat(csvWriter.getPartitionKeys()).containsExactly(1, 2, 0);
+        
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).containsExactly(
+                tempDir.resolve("sample_1_000.csv"),
+                tempDir.resolve("sample_2_000.csv"),
+                tempDir.resolve("sample_0_000.csv"));
+        
+        for(int key : Arrays.asList(0, 1, 2)) {
+            assertThat(readString(tempDir.resolve(String.format("sample_%d_000.csv", key))))
+                .isEqualTo(expectedRows(list, key));
+        }
+        
+    }
+    
+    /**
+     * 並列に書き込む場合も、パーティションごとのファイルに分割し、件数ごとにも分割する
+     */
+    @Test
+    public void testWriteAll_parallel() throws IOException {
+        
+        final PartitionedCsvAnnotationBeanWriter<SampleSimpleBean, Integer> csvWriter = new PartitionedCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                bean -> bean.getId() % 3,
+                (key, index) -> tempDir.resolve(String.format("sample_%d_%03d.csv.gz", key, index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setMaxOpenFiles(2);
+        csvWriter.setMaxRowsPerFile(100);
+        
+        final List<SampleSimpleBean> list = createBeans(3000);
+        csvWriter.writeAll(list.parallelStream(), false);
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).hasSize(30);
+        
+        for(int key : Arrays.asList(0, 1, 2)) {
+            final List<String> expected = Arrays.asList(expectedRows(list, key).split("\r\n"));
+            
+            final List<String> actual = csvWriter.getPaths().stream()
+                    .filter(path -> path.getFileName().toString().startsWith("sample_" + key + "_"))
+                    .flatMap(path -> {
+                        try {
+                            final List<String> lines = Arrays.asList(readString(path).split("\r\n"));
+                            assertThat(lines).hasSize(101);
+                            assertThat(lines.get(0)).isEqualTo("id,name,comment");
+                            return lines.subList(1, lines.size()).stream();
+                        } catch(IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+            
+            assertThat(actual).containsOnlyElementsOf(expected.subList(1, expected.size())).hasSize(expected.size() - 1);
+        }
+        
+    }
+    
+}
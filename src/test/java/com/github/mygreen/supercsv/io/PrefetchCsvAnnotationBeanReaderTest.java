@@ -0,0 +1,255 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.exception.SuperCsvException;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.annotation.DefaultGroup;
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.exception.SuperCsvNoMatchColumnSizeException;
+import com.github.mygreen.supercsv.validation.CsvExceptionConverter;
+
+/**
+ * {@link PrefetchCsvAnnotationBeanReader}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class PrefetchCsvAnnotationBeanReaderTest {
+    
+    private CsvExceptionConverter exceptionConverter;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.exceptionConverter = new CsvExceptionConverter();
+    }
+    
+    /**
+     * 正常系のテスト - 逐次処理と結果が一致すること
+     */
+    @Test
+    public void testReadAll_normal() throws IOException {
+        
+        File file = new File("src/test/data/test_read_normal.csv");
+        
+        PrefetchCsvAnnotationBeanReader<SampleNormalBean> csvReader = new PrefetchCsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setBufferSize(1);
+        
+        List<SampleNormalBean> list = csvReader.readAll();
+        assertThat(list).hasSize(2);
+        assertThat(list).extracting("id").containsExactly(1, 2);
+        assertThat(list).extracting("string1").containsExactly("abcd", "あいうえお");
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(0);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 大量のレコードを先読みしても、出現順に返されること。
+     * 重複チェックは、後に出現したレコードがエラーとなること。
+     */
+    @Test
+    public void testRead_order_and_unique() throws IOException {
+        
+        final int size = 2000;
+        final StringBuilder csv = new StringBuilder("id,name\n");
+        for(int i=1; i <= size; i++) {
+            if(i == 1500) {
+                // 10行目と重複
+                csv.append(10).append(",name").append("\n");
+            } else if(i == 700) {
+                // 文字長エラー
+                csv.append(i).append(",too-long-name").append("\n");
+            } else {
+                csv.append(i).append(",name").append("\n");
+            }
+        }
+        
+        PrefetchCsvAnnotationBeanReader<SampleUniqueBean> csvReader = new PrefetchCsvAnnotationBeanReader<>(
+                SampleUniqueBean.class, new StringReader(csv.toString()), CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setBufferSize(3);
+        
+        csvReader.getHeader(true);
+        
+        final List<Integer> ids = new ArrayList<>();
+        final List<Integer> errorRows = new ArrayList<>();
+        while(true) {
+            try {
+                SampleUniqueBean bean = csvReader.read();
+                if(bean == null) {
+                    break;
+                }
+                ids.add(bean.getId());
+                
+            } catch(SuperCsvBindingException e) {
+                errorRows.add(e.getCsvContext().getRowNumber());
+            }
+        }
+        
+        assertThat(ids).hasSize(size - 2);
+        for(int i=1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i-1));
+        }
+        
+        // ヘッダーを含めた行番号
+        assertThat(errorRows).containsExactly(701, 1501);
+        assertThat(csvReader.getErrorMessages()).hasSize(2);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 列数が不正な場合
+     */
+    @Test
+    public void testRead_error_column_size() throws IOException {
+        
+        File file = new File("src/test/data/test_read_error_column_size.csv");
+        
+        PrefetchCsvAnnotationBeanReader<SampleNormalBean> csvReader = new PrefetchCsvAnnotationBeanReader<>(
+                SampleNormalBean.class,
+                new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")),
+                CsvPreference.STANDARD_PREFERENCE,
+                DefaultGroup.class, SampleNormalBean.ReadGroup.class);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        try {
+            csvReader.readAll();
+            fail();
+            
+        } catch(SuperCsvNoMatchColumnSizeException e) {
+        
+        }
+        
+        assertThat(csvReader.getErrorMessages()).hasSize(1)
+            .contains("[3行] : 列数が不正です。 11列で設定すべきですが、実際には13列になっています。");
+            
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 字句解析でエラーとなる場合 - 読み込んだスレッドでスローされ、以降の読み込みでも同じエラーがスローされること
+     */
+    @Test
+    public void testRead_error_tokenize() throws IOException {
+        
+        final String csv = "id,name\n1,name\n\"2,name\n";
+        
+        PrefetchCsvAnnotationBeanReader<SampleUniqueBean> csvReader = new PrefetchCsvAnnotationBeanReader<>(
+                SampleUniqueBean.class, new StringReader(csv), CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        csvReader.getHeader(true);
+        assertThat(csvReader.read().getId()).isEqualTo(1);
+        
+        final Throwable error = catchThrowable(() -> csvReader.read());
+        assertThat(error).isInstanceOf(SuperCsvException.class)
+            .hasMessageStartingWith("unexpected end of file while reading quoted column");
+            
+        assertThatThrownBy(() -> csvReader.read()).isSameAs(error);
+        assertThatThrownBy(() -> csvReader.readNext()).isSameAs(error);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 先読み中に入出力エラーとなる場合 - 以降の読み込みでも同じエラーがスローされること
+     */
+    @Test
+    public void testRead_error_io() throws IOException {
+        
+        final IOException failure = new IOException("read failure");
+        final Reader reader = new FilterReader(new StringReader("id,name\n1,name\n")) {
+            
+            @Override
+            public int read(final char[] cbuf, final int off, final int len) throws IOException {
+                final int count = super.read(cbuf, off, len);
+                if(count < 0) {
+                    throw failure;
+                }
+                return count;
+            }
+        };
+        
+        PrefetchCsvAnnotationBeanReader<SampleUniqueBean> csvReader = new PrefetchCsvAnnotationBeanReader<>(
+                SampleUniqueBean.class, reader, CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        
+        csvReader.getHeader(true);
+        assertThat(csvReader.read().getId()).isEqualTo(1);
+        
+        assertThatThrownBy(() -> csvReader.read()).isSameAs(failure);
+        assertThatThrownBy(() -> csvReader.read()).isSameAs(failure);
+        assertThatThrownBy(() -> csvReader.readNext()).isSameAs(failure);
+        
+        csvReader.close();
+        
+    }
+    
+    /**
+     * 読み込み途中で閉じる場合 - 先読みするスレッドが終了すること
+     */
+    @Test
+    public void testClose() throws Exception {
+        
+        final StringBuilder csv = new StringBuilder("id,name\n");
+        for(int i=1; i <= 1000; i++) {
+            csv.append(i).append(",name").append("\n");
+        }
+        
+        final AtomicReference<Thread> prefetchThread = new AtomicReference<>();
+        
+        PrefetchCsvAnnotationBeanReader<SampleUniqueBean> csvReader = new PrefetchCsvAnnotationBeanReader<>(
+                SampleUniqueBean.class, new StringReader(csv.toString()), CsvPreference.STANDARD_PREFERENCE);
+        csvReader.setExceptionConverter(exceptionConverter);
+        csvReader.setBufferSize(2);
+        csvReader.setThreadFactory(runnable -> {
+            final Thread thread = new Thread(runnable);
+            prefetchThread.set(thread);
+            return thread;
+        });
+        
+        csvReader.getHeader(true);
+        assertThat(csvReader.read().getId()).isEqualTo(1);
+        
+        // バッファの上限で待機している
+        Thread.sleep(50L);
+        assertThat(prefetchThread.get().isAlive()).isTrue();
+        
+        csvReader.close();
+        assertThat(prefetchThread.get().isAlive()).isFalse();
+        
+        assertThatThrownBy(() -> csvReader.read())
+            .isInstanceOf(IOException.class);
+            
+    }
+    
+}
@@ -0,0 +1,268 @@
+package com.github.mygreen.supercsv.io;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.supercsv.prefs.CsvPreference;
+
+import com.github.mygreen.supercsv.exception.SuperCsvBindingException;
+import com.github.mygreen.supercsv.validation.CsvError;
+
+/**
+ * {@link RollingCsvAnnotationBeanWriter}のテスタ。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class RollingCsvAnnotationBeanWriterTest {
+    
+    private Path tempDir;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.tempDir = Files.createTempDirectory("test_rolling");
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        try(Stream<Path> stream = Files.walk(tempDir)) {
+            for(Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    static List<SampleSimpleBean> createBeans(final int size) {
+        final List<SampleSimpleBean> list = new ArrayList<>();
+        for(int i=1; i <= size; i++) {
+            final SampleSimpleBean bean = new SampleSimpleBean();
+            bean.setId(i);
+            bean.setName("name" + (i % 10));
+            bean.setComment(i % 2 == 0 ? "あいう" : null);
+            list.add(bean);
+        }
+        return list;
+    }
+    
+    static String readString(final Path path) throws IOException {
+        if(ParallelGzipOutputStream.isGzipFileName(path)) {
+            try(InputStream in = new ParallelGzipInputStream(Files.newInputStream(path))) {
+                return new String(ParallelGzipOutputStreamTest.readAll(in), StandardCharsets.UTF_8);
+            }
+        }
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 件数ごとに分割する
+     */
+    @Test
+    public void testWriteAll_maxRows() throws IOException {
+        
+        final RollingCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new RollingCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                index -> tempDir.resolve(String.format("sample_%03d.csv", index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setMaxRowsPerFile(3);
+        
+        csvWriter.writeAll(createBeans(7));
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).containsExactly(
+                tempDir.resolve("sample_000.csv"),
+                tempDir.resolve("sample_001.csv"),
+                tempDir.resolve("sample_002.csv"));
+        
+        assertThat(readString(csvWriter.getPaths().get(0))).isEqualTo("id,name,comment\r\n"
+                + "1,name1,\r\n"
+                + "2,name2,あいう\r\n"
+                + "3,name3,\r\n");
+        
+        assertThat(readString(csvWriter.getPaths().get(1))).isEqualTo("id,name,comment\r\n"
+                + "4,name4,あいう\r\n"
+                + "5,name5,\r\n"
+                + "6,name6,あいう\r\n");
+        
+        assertThat(readString(csvWriter.getPaths().get(2))).isEqualTo("id,name,comment\r\n"
+                + "7,name7,\r\n");
+        
+        assertThatThrownBy(() -> csvWriter.write(new SampleSimpleBean()))
+            .isInstanceOf(IOException.class);
+        
+    }
+    
+    /**
+     * バイト数ごとに分割する。gzip形式の場合は、圧縮前のバイト数で判定する。
+     */
+    @Test
+    public void testWriteAll_maxBytes_gzip() throws IOException {
+        
+        final RollingCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new RollingCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                index -> tempDir.resolve(String.format("sample_%03d.csv.gz", index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setMaxBytesPerFile(100);
+        csvWriter.setBufferSize(16);
+        
+        final List<SampleSimpleBean> list = createBeans(50);
+        csvWriter.writeAll(list);
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths().size()).isGreaterThan(1);
+        
+        final StringBuilder rows = new StringBuilder();
+        for(Path path : csvWriter.getPaths()) {
+            final String content = readString(path);
+            assertThat(content).startsWith("id,name,comment\r\n");
+            
+            // 最大バイト数に達した後の1レコード分だけ超える
+            final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            assertThat(bytes.length).isLessThan(100 + 30);
+            
+            rows.append(content.substring("id,name,comment\r\n".length()));
+        }
+        
+        final StringBuilder expected = new StringBuilder();
+        for(SampleSimpleBean bean : list) {
+            expected.append(bean.getId()).append(",").append(bean.getName()).append(",")
+                .append(bean.getComment() == null ? "" : bean.getComment()).append("\r\n");
+        }
+        assertThat(rows.toString()).isEqualTo(expected.toString());
+        
+    }
+    
+    /**
+     * 一時的に閉じたファイルには、ヘッダーを書き込まずに追記する
+     */
+    @Test
+    public void testWrite_suspend() throws IOException {
+        
+        final RollingCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new RollingCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                index -> tempDir.resolve(String.format("sample_%03d.csv.gz", index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        
+        final List<SampleSimpleBean> list = createBeans(3);
+        csvWriter.write(list.get(0));
+        csvWriter.suspend();
+        assertThat(csvWriter.isFileOpen()).isFalse();
+        
+        csvWriter.write(list.get(1));
+        csvWriter.write(list.get(2));
+        assertThat(csvWriter.isFileOpen()).isTrue();
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).hasSize(1);
+        assertThat(readString(csvWriter.getPaths().get(0))).isEqualTo("id,name,comment\r\n"
+                + "1,name1,\r\n"
+                + "2,name2,あいう\r\n"
+                + "3,name3,\r\n");
+        
+    }
+    
+    /**
+     * レコードがない場合は、ヘッダー行のみのファイルを作成する
+     */
+    @Test
+    public void testClose_empty() throws IOException {
+        
+        final RollingCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new RollingCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                index -> tempDir.resolve(String.format("sample_%03d.csv", index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).hasSize(1);
+        assertThat(readString(csvWriter.getPaths().get(0))).isEqualTo("id,name,comment\r\n");
+        
+    }
+    
+    /**
+     * エラーがあっても続行する場合、エラーとなったレコードは件数に含まない
+     */
+    @Test
+    public void testWriteAll_continueOnError() throws IOException {
+        
+        final RollingCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new RollingCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                index -> tempDir.resolve(String.format("sample_%03d.csv", index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setMaxRowsPerFile(2);
+        
+        final List<SampleSimpleBean> list = createBeans(4);
+        list.get(1).setName("too-long-name");
+        
+        assertThatThrownBy(() -> csvWriter.writeAll(list))
+            .isInstanceOf(SuperCsvBindingException.class);
+        
+        csvWriter.writeAll(list.subList(2, 4), true);
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).hasSize(2);
+        assertThat(readString(csvWriter.getPaths().get(0))).isEqualTo("id,name,comment\r\n"
+                + "1,name1,\r\n"
+                + "3,name3,\r\n");
+        assertThat(readString(csvWriter.getPaths().get(1))).isEqualTo("id,name,comment\r\n"
+                + "4,name4,あいう\r\n");
+        
+        assertThat(csvWriter.getErrorMessages()).hasSize(1);
+        
+    }
+    
+    /**
+     * エラーメッセージの件数の上限は、全てのファイルを通して適用する
+     */
+    @Test
+    public void testWriteAll_maxErrorMessages() throws IOException {
+        
+        final RollingCsvAnnotationBeanWriter<SampleSimpleBean> csvWriter = new RollingCsvAnnotationBeanWriter<>(
+                SampleSimpleBean.class,
+                index -> tempDir.resolve(String.format("sample_%03d.csv", index)),
+                StandardCharsets.UTF_8,
+                CsvPreference.STANDARD_PREFERENCE);
+        csvWriter.setMaxRowsPerFile(1);
+        csvWriter.setMaxErrorMessages(2);
+        
+        final List<CsvError> sinkErrors = new ArrayList<>();
+        csvWriter.setErrorSink(sinkErrors::add);
+        
+        final List<String> messages = csvWriter.getErrorMessages();
+        
+        final List<SampleSimpleBean> list = createBeans(6);
+        list.get(0).setName("too-long-name");
+        list.get(2).setName("too-long-name");
+        list.get(4).setName("too-long-name");
+        
+        csvWriter.writeAll(list, true);
+        csvWriter.close();
+        
+        assertThat(csvWriter.getPaths()).hasSize(3);
+        assertThat(messages).hasSize(2);
+        assertThat(csvWriter.getDroppedErrorCount()).isEqualTo(1L);
+        assertThat(sinkErrors).hasSize(3);
+        
+        assertThatThrownBy(() -> messages.add("test"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        
+    }
+    
+}
@@ -0,0 +1,52 @@
+package com.github.mygreen.supercsv.io;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.constraint.CsvLengthMax;
+
+/**
+ * テスト用のBean。
+ * 書き込み処理のテストで共通に使用する、カラム数の少ないBean。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+@CsvBean(header=true)
+public class SampleSimpleBean {
+    
+    @CsvColumn(number=1)
+    private int id;
+    
+    @CsvColumn(number=2)
+    @CsvLengthMax(5)
+    private String name;
+    
+    @CsvColumn(number=3)
+    private String comment;
+    
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getComment() {
+        return comment;
+    }
+    
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+    
+}
@@ -0,0 +1,43 @@
+package com.github.mygreen.supercsv.io;
+
+import com.github.mygreen.supercsv.annotation.CsvBean;
+import com.github.mygreen.supercsv.annotation.CsvColumn;
+import com.github.mygreen.supercsv.annotation.constraint.CsvLengthMax;
+import com.github.mygreen.supercsv.annotation.constraint.CsvUnique;
+
+/**
+ * テスト用のBean。
+ * 重複チェックなど、ファイル単位の状態を持つカラムのBean。
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+@CsvBean(header=true)
+public class SampleUniqueBean {
+    
+    @CsvColumn(number=1)
+    @CsvUnique
+    private int id;
+    
+    @CsvColumn(number=2)
+    @CsvLengthMax(5)
+    private String name;
+    
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+}
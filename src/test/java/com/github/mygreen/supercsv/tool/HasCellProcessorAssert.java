@@ -8,10 +8,14 @@ import org.assertj.core.api.AbstractAssert;
 import org.supercsv.cellprocessor.CellProcessorAdaptor;
 import org.supercsv.cellprocessor.ift.CellProcessor;
 
+import com.github.mygreen.supercsv.cellprocessor.FusedCellProcessor;
+import com.github.mygreen.supercsv.cellprocessor.FusibleCellProcessor;
+
 
 /**
  * Assertj用の任意のCellProcessorを持っているかの判定を行う。
  * 
+ * @version 2.2
  * @since 2.0
  * @author T.TSUCHIE
  *
@@ -44,6 +48,15 @@ public class HasCellProcessorAssert extends AbstractAssert<HasCellProcessorAsser
                 return this;
             }
             
+            // まとめられた処理
+            if(cp instanceof FusedCellProcessor) {
+                for(FusibleCellProcessor fused : ((FusedCellProcessor) cp).getProcessors()) {
+                    if(fused.getClass().isAssignableFrom(clazz)) {
+                        return this;
+                    }
+                }
+            }
+            
             // next processor
             try {
                 if(cp instanceof CellProcessorAdaptor) {
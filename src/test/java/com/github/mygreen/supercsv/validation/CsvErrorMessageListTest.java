@@ -0,0 +1,94 @@
+package com.github.mygreen.supercsv.validation;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link CsvErrorMessageList}のテスタ
+ *
+ * @since 2.2
+ * @author T.TSUCHIE
+ *
+ */
+public class CsvErrorMessageListTest {
+    
+    private CsvExceptionConverter exceptionConverter;
+    
+    /**
+     * メッセージを解決した回数
+     */
+    private AtomicInteger resolvedCount;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.resolvedCount = new AtomicInteger();
+        this.exceptionConverter = new CsvExceptionConverter();
+        exceptionConverter.setMessageResolver(code -> {
+            resolvedCount.incrementAndGet();
+            return Optional.of("error value={value}");
+        });
+    }
+    
+    private CsvError createError(final int value) {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("value", value);
+        return new CsvError("test", new String[]{"test.code"}, variables, "default");
+    }
+    
+    /**
+     * メッセージは、参照した時点でフォーマットされること
+     */
+    @Test
+    public void testLazyFormat() {
+        
+        CsvErrorMessageList list = new CsvErrorMessageList();
+        list.addError(createError(1), exceptionConverter);
+        list.addError(createError(2), exceptionConverter);
+        list.add("formatted message");
+        
+        assertThat(list).hasSize(3);
+        assertThat(resolvedCount.get()).isEqualTo(0);
+        
+        assertThat(list.get(1)).isEqualTo("error value=2");
+        assertThat(resolvedCount.get()).isEqualTo(1);
+        
+        // フォーマット結果は保持される
+        assertThat(list).containsExactly("error value=1", "error value=2", "formatted message");
+        assertThat(resolvedCount.get()).isEqualTo(2);
+        
+    }
+    
+    /**
+     * 上限を超えたエラーは破棄され、件数が加算されること
+     */
+    @Test
+    public void testMaxSize() {
+        
+        CsvErrorMessageList list = new CsvErrorMessageList();
+        list.setMaxSize(2);
+        
+        assertThat(list.addError(createError(1), exceptionConverter)).isTrue();
+        assertThat(list.add("message")).isTrue();
+        assertThat(list.addError(createError(3), exceptionConverter)).isFalse();
+        assertThat(list.add("message2")).isFalse();
+        
+        assertThat(list).containsExactly("error value=1", "message");
+        assertThat(list.getDroppedCount()).isEqualTo(2L);
+        
+        list.clear();
+        assertThat(list).isEmpty();
+        assertThat(list.getDroppedCount()).isEqualTo(0L);
+        
+        assertThatThrownBy(() -> list.setMaxSize(-2))
+            .isInstanceOf(IllegalArgumentException.class);
+            
+    }
+    
+}